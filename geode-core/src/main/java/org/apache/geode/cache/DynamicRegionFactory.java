@@ -596,7 +596,7 @@ public abstract class DynamicRegionFactory {
     AttributesFactory af = new AttributesFactory(rra);
     {
       EvictionAttributes ev = rra.getEvictionAttributes();
-      if (ev != null && ev.getAlgorithm().isLRU()) {
+      if (ev != null && (ev.getAlgorithm().isLRU() || ev.getAlgorithm().isLFUEntry())) {
         EvictionAttributes rev = new EvictionAttributesImpl((EvictionAttributesImpl) ev);
         af.setEvictionAttributes(rev);
       }
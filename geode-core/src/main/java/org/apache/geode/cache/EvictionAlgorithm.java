@@ -63,12 +63,22 @@ public final class EvictionAlgorithm extends EnumSyntax {
    */
   public static final EvictionAlgorithm LIFO_MEMORY = new EvictionAlgorithm(5);
 
+  /**
+   * An algorithm that considers the number of Entries in the Region before invoking its
+   * {@link EvictionAction}, and that only lets a new Entry displace an existing one if the key of
+   * the new Entry is estimated to be used more frequently (W-TinyLFU). It keeps the frequently used
+   * Entries of a Region that is also scanned or loaded with keys that are only used once.
+   *
+   * @since Geode 1.2
+   */
+  public static final EvictionAlgorithm LFU_ENTRY = new EvictionAlgorithm(6);
+
   private EvictionAlgorithm(int val) {
     super(val);
   }
 
   private static final String[] stringTable = {"none", "lru-entry-count", "lru-heap-percentage",
-      "lru-memory-size", "lifo-entry-count", "lifo-memory-size"};
+      "lru-memory-size", "lifo-entry-count", "lifo-memory-size", "lfu-entry-count"};
 
   @Override
   final protected String[] getStringTable() {
@@ -77,7 +87,7 @@ public final class EvictionAlgorithm extends EnumSyntax {
 
   // TODO post Java 1.8.0u45 uncomment final flag, see JDK-8076152
   private static /* final */ EvictionAlgorithm[] enumValueTable =
-      {NONE, LRU_ENTRY, LRU_HEAP, LRU_MEMORY, LIFO_ENTRY, LIFO_MEMORY,};
+      {NONE, LRU_ENTRY, LRU_HEAP, LRU_MEMORY, LIFO_ENTRY, LIFO_MEMORY, LFU_ENTRY,};
 
   @Override
   final protected EnumSyntax[] getEnumValueTable() {
@@ -132,6 +142,15 @@ public final class EvictionAlgorithm extends EnumSyntax {
     return this == NONE;
   }
 
+  /**
+   * Returns true if this object uses a frequency based algorithm
+   *
+   * @since Geode 1.2
+   */
+  public final boolean isLFUEntry() {
+    return this == LFU_ENTRY;
+  }
+
   /**
    * @deprecated
    */
@@ -479,6 +479,24 @@ public abstract class EvictionAttributes implements DataSerializable {
     return buffer.toString();
   }
 
+  /**
+   * Creates and returns {@linkplain EvictionAlgorithm#LFU_ENTRY entry LFU} eviction attributes with
+   * given <code>evictionAction</code> and given <code>maximumEntries</code>. Like entry LRU, the
+   * Region keeps at most <code>maximumEntries</code> entries, but a new entry is evicted in place of
+   * the least recently used one unless its key is estimated to be used more frequently.
+   *
+   * @param maximumEntries the number of entries to keep in the Region
+   * @param evictionAction the action to perform when evicting an entry
+   * @return {@linkplain EvictionAlgorithm#LFU_ENTRY entry LFU} eviction attributes with given
+   *         <code>evictionAction</code> and given <code>maximumEntries</code>
+   * @since Geode 1.2
+   */
+  public static EvictionAttributes createLFUEntryAttributes(int maximumEntries,
+      EvictionAction evictionAction) {
+    return new EvictionAttributesImpl().setAlgorithm(EvictionAlgorithm.LFU_ENTRY)
+        .setAction(evictionAction).internalSetMaximum(maximumEntries);
+  }
+
   /**
    * @return an EvictionAttributes for the LIFOCapacityController
    * @since GemFire 5.7
@@ -238,6 +238,85 @@ public final class ClientMetadataService {
     return serverToKeysMap;
   }
 
+  /**
+   * Groups the keys of a putAll, removeAll or getAll by the server hosting the primary of their
+   * bucket. Unlike {@link #getServerToFilterMap}, a bucket whose primary is not known does not send
+   * the whole operation through a single server. The keys of that bucket are sent to a server
+   * hosting a copy of the bucket, or to a random server if no copy is known, which forwards them,
+   * and a refresh of the metadata is scheduled.
+   * All the keys of a bucket are always sent to the same server, so that the server derives the
+   * same event ids for them if the operation is retried.
+   *
+   * @return the keys to send to each server, or null if there is no metadata for the region
+   */
+  public Map<ServerLocation, HashSet> getServerToFilterMapForBulkOp(final Collection keys,
+      final Region region) {
+    final String regionFullPath = region.getFullPath();
+    ClientPartitionAdvisor prAdvisor = this.getClientPartitionAdvisor(regionFullPath);
+    if (prAdvisor == null || prAdvisor.adviseRandomServerLocation() == null) {
+      scheduleGetPRMetaData((LocalRegion) region, false);
+      return null;
+    }
+    HashMap<Integer, HashSet> bucketToKeysMap =
+        groupByBucketOnClientSide(region, prAdvisor, keys, false);
+
+    HashMap<ServerLocation, HashSet> serverToKeysMap = new HashMap<ServerLocation, HashSet>();
+    List<HashSet> unhostedBucketKeys = new ArrayList<HashSet>();
+    int unknownPrimaries = 0;
+    for (Map.Entry<Integer, HashSet> entry : bucketToKeysMap.entrySet()) {
+      int bucketId = entry.getKey();
+      ServerLocation server = prAdvisor.advisePrimaryServerLocation(bucketId);
+      if (server == null) {
+        // spread the buckets without a known primary over the servers instead of funneling all
+        // of them through one server
+        unknownPrimaries++;
+        server = prAdvisor.adviseServerLocation(bucketId);
+        if (server == null) {
+          unhostedBucketKeys.add(entry.getValue());
+          continue;
+        }
+      }
+      addKeysForServer(serverToKeysMap, server, entry.getValue());
+    }
+
+    if (!unhostedBucketKeys.isEmpty()) {
+      List<ServerLocation> servers = new ArrayList<ServerLocation>(serverToKeysMap.keySet());
+      if (servers.isEmpty()) {
+        ServerLocation server = prAdvisor.adviseRandomServerLocation();
+        if (server == null) {
+          scheduleGetPRMetaData((LocalRegion) region, false);
+          return null;
+        }
+        servers.add(server);
+      }
+      for (HashSet bucketKeys : unhostedBucketKeys) {
+        addKeysForServer(serverToKeysMap, servers.get(this.rand.nextInt(servers.size())),
+            bucketKeys);
+      }
+    }
+    if (unknownPrimaries > 0) {
+      scheduleGetPRMetaData((LocalRegion) region, false);
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug("Returning server to keys map for bulk op : {}, buckets without primary : {}",
+          serverToKeysMap, unknownPrimaries);
+    }
+
+    return serverToKeysMap;
+  }
+
+  private void addKeysForServer(HashMap<ServerLocation, HashSet> serverToKeysMap,
+      ServerLocation server, HashSet bucketKeys) {
+    // use LinkedHashSet to maintain the order of keys
+    // the keys will be iterated several times
+    HashSet keys = serverToKeysMap.get(server);
+    if (keys == null) {
+      keys = new LinkedHashSet();
+      serverToKeysMap.put(server, keys);
+    }
+    keys.addAll(bucketKeys);
+  }
+
   public HashMap<ServerLocation, HashSet<Integer>> groupByServerToAllBuckets(Region region,
       boolean primaryOnly) {
     final String regionFullPath = region.getFullPath();
@@ -367,6 +367,10 @@ public class ConnectionStats implements MessageStats {
   private final static int getAllId;
   private final static int getAllDurationId;
 
+  private final static int singleHopBulkOpsId;
+  private final static int bulkOpNetworkHopsId;
+  private final static int retriedBulkOpKeysId;
+
   private final static int connectionsId;
   private final static int connectsId;
   private final static int disconnectsId;
@@ -813,6 +817,15 @@ public class ConnectionStats implements MessageStats {
                   "Total number of getAll attempts that have timed out", "getAlls"),
               f.createLongCounter("getAllTime",
                   "Total amount of time, in nanoseconds spent doing getAlls", "nanoseconds"),
+              f.createIntCounter("singleHopBulkOps",
+                  "Total number of putAll, removeAll and getAll requests sent to a server chosen from the client's partition metadata",
+                  "ops"),
+              f.createIntCounter("bulkOpNetworkHops",
+                  "Total number of putAll and removeAll requests that the server had to forward to other servers because the client's partition metadata was missing or stale",
+                  "ops"),
+              f.createIntCounter("retriedBulkOpKeys",
+                  "Total number of putAll and removeAll keys resent after the request for them failed",
+                  "keys"),
               f.createLongCounter("receivedBytes",
                   "Total number of bytes received (as responses) from server over a client-to-server connection.",
                   "bytes"),
@@ -1614,6 +1627,10 @@ public class ConnectionStats implements MessageStats {
       getAllId = type.nameToId("getAlls");
       getAllDurationId = type.nameToId("getAllTime");
 
+      singleHopBulkOpsId = type.nameToId("singleHopBulkOps");
+      bulkOpNetworkHopsId = type.nameToId("bulkOpNetworkHops");
+      retriedBulkOpKeysId = type.nameToId("retriedBulkOpKeys");
+
       connectionsId = type.nameToId("connections");
       connectsId = type.nameToId("connects");
       disconnectsId = type.nameToId("disconnects");
@@ -3221,6 +3238,40 @@ public class ConnectionStats implements MessageStats {
     return this.stats.getInt(connectionsId);
   }
 
+  /**
+   * Records that a putAll, removeAll or getAll was sent to a server chosen from the client's
+   * partition metadata.
+   */
+  public void incSingleHopBulkOps() {
+    this.stats.incInt(singleHopBulkOpsId, 1);
+  }
+
+  public int getSingleHopBulkOps() {
+    return this.stats.getInt(singleHopBulkOpsId);
+  }
+
+  /**
+   * Records that the server forwarded some of the keys of a putAll or removeAll to other servers.
+   */
+  public void incBulkOpNetworkHops() {
+    this.stats.incInt(bulkOpNetworkHopsId, 1);
+  }
+
+  public int getBulkOpNetworkHops() {
+    return this.stats.getInt(bulkOpNetworkHopsId);
+  }
+
+  /**
+   * Records that the given number of putAll or removeAll keys were resent after a failure.
+   */
+  public void incRetriedBulkOpKeys(int keys) {
+    this.stats.incInt(retriedBulkOpKeysId, keys);
+  }
+
+  public int getRetriedBulkOpKeys() {
+    return this.stats.getInt(retriedBulkOpKeysId);
+  }
+
   public int getOps() {
     int ops = 0;
     for (int i = 0; i < opIds.length; i++) {
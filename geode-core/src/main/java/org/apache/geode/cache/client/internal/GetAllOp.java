@@ -65,7 +65,8 @@ public class GetAllOp {
     AbstractOp op = new GetAllOpImpl(region.getFullPath(), keys, callback);
     ClientMetadataService cms = ((LocalRegion) region).getCache().getClientMetadataService();
 
-    Map<ServerLocation, HashSet> serverToFilterMap = cms.getServerToFilterMap(keys, region, true);
+    Map<ServerLocation, HashSet> serverToFilterMap =
+        cms.getServerToFilterMapForBulkOp(keys, region);
 
     if (serverToFilterMap == null || serverToFilterMap.isEmpty()) {
       op.initMessagePart();
@@ -125,7 +126,8 @@ public class GetAllOp {
     }
     for (ServerLocation server : servers) {
       Set filterSet = serverToFilterMap.get(server);
-      AbstractOp getAllOp = new GetAllOpImpl(region, new ArrayList(filterSet), callback);
+      GetAllOpImpl getAllOp = new GetAllOpImpl(region, new ArrayList(filterSet), callback);
+      getAllOp.singleHop = true;
 
       SingleHopOperationCallable task =
           new SingleHopOperationCallable(new ServerLocation(server.getHostName(), server.getPort()),
@@ -140,6 +142,9 @@ public class GetAllOp {
     private List keyList;
     private final Object callback;
 
+    /** true if this op is sent to a server chosen from the client's partition metadata */
+    private boolean singleHop = false;
+
     /**
      * @throws org.apache.geode.SerializationException if serialization fails
      */
@@ -214,6 +219,9 @@ public class GetAllOp {
 
     @Override
     protected long startAttempt(ConnectionStats stats) {
+      if (this.singleHop) {
+        stats.incSingleHopBulkOps();
+      }
       return stats.startGetAll();
     }
 
@@ -16,6 +16,7 @@ package org.apache.geode.cache.client.internal;
 
 import java.util.Map;
 
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import org.apache.geode.CancelCriterion;
 import org.apache.geode.cache.client.Pool;
@@ -37,6 +38,12 @@ public interface InternalPool extends Pool, ExecutablePool {
 
   ScheduledExecutorService getBackgroundProcessor();
 
+  /**
+   * Returns the executor that reads the responses of queries executed with a cursor. It is shut
+   * down when the pool is destroyed.
+   */
+  ExecutorService getCursorReaders();
+
   CancelCriterion getCancelCriterion();
 
   boolean isDurableClient();
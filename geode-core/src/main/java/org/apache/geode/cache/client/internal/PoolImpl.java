@@ -40,6 +40,7 @@ import org.apache.geode.internal.cache.tier.sockets.ClientProxyMembershipID;
 import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.internal.logging.InternalLogWriter;
 import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThreadGroup;
 import org.apache.geode.internal.logging.log4j.LocalizedMessage;
 import org.apache.logging.log4j.Logger;
 
@@ -47,6 +48,8 @@ import java.net.InetSocketAddress;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
@@ -113,6 +116,8 @@ public class PoolImpl implements InternalPool {
   protected volatile boolean destroyed;
   private final PoolStats stats;
   private ScheduledExecutorService backgroundProcessor;
+  /** Threads that read the responses of queries executed with a cursor, created on first use */
+  private ExecutorService cursorReaders;
   private final OpExecutorImpl executor;
   private final RegisterInterestTracker riTracker = new RegisterInterestTracker();
   private final InternalDistributedSystem dsys;
@@ -557,6 +562,11 @@ public class PoolImpl implements InternalPool {
             .create(LocalizedStrings.PoolImpl_INTERRUPTED_WHILE_STOPPING_BACKGROUNDPROCESSOR), e);
       }
 
+      if (this.cursorReaders != null) {
+        // interrupts readers blocked on a cursor that is not being consumed
+        this.cursorReaders.shutdownNow();
+      }
+
       try {
         if (this.source != null) {
           this.source.stop();
@@ -829,6 +839,25 @@ public class PoolImpl implements InternalPool {
     return backgroundProcessor;
   }
 
+  public synchronized ExecutorService getCursorReaders() {
+    this.cancelCriterion.checkCancelInProgress(null);
+    if (this.cursorReaders == null) {
+      final String threadName = "Query Cursor Reader-" + getName() + "-";
+      this.cursorReaders = Executors.newCachedThreadPool(new ThreadFactory() {
+        AtomicInteger threadNum = new AtomicInteger();
+
+        public Thread newThread(final Runnable r) {
+          Thread result =
+              new Thread(LoggingThreadGroup.createThreadGroup("QueryCursorThreadGroup", logger), r,
+                  threadName + threadNum.incrementAndGet());
+          result.setDaemon(true);
+          return result;
+        }
+      });
+    }
+    return this.cursorReaders;
+  }
+
   public RegisterInterestTracker getRITracker() {
     return this.riTracker;
   }
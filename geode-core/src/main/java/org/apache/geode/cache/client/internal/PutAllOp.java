@@ -23,6 +23,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Future;
 
 import org.apache.logging.log4j.Logger;
 
@@ -91,7 +92,7 @@ public class PutAllOp {
     ClientMetadataService cms = ((LocalRegion) region).getCache().getClientMetadataService();
 
     Map<ServerLocation, HashSet> serverToFilterMap =
-        cms.getServerToFilterMap(map.keySet(), region, true);
+        cms.getServerToFilterMapForBulkOp(map.keySet(), region);
 
     if (serverToFilterMap == null || serverToFilterMap.isEmpty()) {
       AbstractOp op = new PutAllOpImpl(region, map, eventId,
@@ -166,8 +167,10 @@ public class PutAllOp {
       // send maps for the failed servers one by one instead of merging
       // them into one big map. The reason is, we have to keep the same event
       // ids for each sub map. There is a unit test in PutAllCSDUnitTest for
-      // the otherwise case.
+      // the otherwise case. The sub maps are resent in parallel.
       boolean oneSubMapRetryFailed = false;
+      List<Map> retryMaps = new ArrayList<Map>();
+      List<AbstractOp> retryOps = new ArrayList<AbstractOp>();
       Set<ServerLocation> failedServerSet = failedServers.keySet();
       for (ServerLocation failedServer : failedServerSet) {
         // Throwable failedServers.values().iterator().next();
@@ -183,10 +186,21 @@ public class PutAllOp {
         for (Object key : keySet) {
           newMap.put(key, map.get(key));
         }
+        PutAllOpImpl op = new PutAllOpImpl(region, newMap, eventId,
+            ((PoolImpl) pool).getPRSingleHopEnabled(), skipCallbacks, callbackArg);
+        op.initMessagePart();
+        op.getMessage().setIsRetry();
+        retryMaps.add(newMap);
+        retryOps.add(op);
+      }
 
+      List<Future<Object>> retries = SingleHopClientExecutor.submitBulkOpRetries(pool, retryOps);
+      for (int i = 0; i < retries.size(); i++) {
+        Map newMap = retryMaps.get(i);
+        Set keySet = newMap.keySet();
         try {
           VersionedObjectList v =
-              PutAllOp.execute(pool, region, newMap, eventId, skipCallbacks, true, callbackArg);
+              (VersionedObjectList) SingleHopClientExecutor.getBulkOpRetryResult(retries.get(i));
           if (v == null) {
             result.addKeys(keySet);
           } else {
@@ -204,7 +218,7 @@ public class PutAllOp {
           Object firstKey = newMap.keySet().iterator().next();
           result.saveFailedKey(firstKey, rte);
         }
-      } // for failedServer
+      } // for retry
 
       // If all retries succeeded, the PRE in first tries can be ignored
       if (oneSubMapRetryFailed && result.hasFailure()) {
@@ -237,8 +251,9 @@ public class PutAllOp {
       for (Object key : filterSet) {
         newKeysValuesMap.put(key, map.get(key));
       }
-      AbstractOp putAllOp =
+      PutAllOpImpl putAllOp =
           new PutAllOpImpl(region, newKeysValuesMap, eventId, true, skipCallbacks, callbackArg);
+      putAllOp.singleHop = true;
 
       SingleHopOperationCallable task =
           new SingleHopOperationCallable(new ServerLocation(server.getHostName(), server.getPort()),
@@ -252,6 +267,9 @@ public class PutAllOp {
 
     private boolean prSingleHopEnabled = false;
 
+    /** true if this op is sent to a server chosen from the client's partition metadata */
+    private boolean singleHop = false;
+
     private LocalRegion region = null;
 
     private Map map = null;
@@ -349,6 +367,8 @@ public class PutAllOp {
                 if (o == null) {
                   // no response is an okay response
                 } else if (o instanceof byte[]) {
+                  // the server only sends the metadata version if it forwarded some of the keys
+                  con.getStats().incBulkOpNetworkHops();
                   if (prSingleHopEnabled) {
                     byte[] bytesReceived = part.getSerializedForm();
                     if (bytesReceived[0] != ClientMetadataService.INITIAL_VERSION) { // nw hop
@@ -405,6 +425,12 @@ public class PutAllOp {
 
     @Override
     protected long startAttempt(ConnectionStats stats) {
+      if (this.singleHop) {
+        stats.incSingleHopBulkOps();
+      }
+      if (getMessage().isRetry()) {
+        stats.incRetriedBulkOpKeys(this.map.size());
+      }
       return stats.startPutAll();
     }
 
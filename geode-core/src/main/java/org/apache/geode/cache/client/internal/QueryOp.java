@@ -14,7 +14,11 @@
  */
 package org.apache.geode.cache.client.internal;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
 import org.apache.geode.internal.Version;
 import org.apache.geode.internal.cache.tier.MessageType;
 import org.apache.geode.internal.cache.tier.sockets.Message;
@@ -24,8 +28,10 @@ import org.apache.geode.internal.cache.tier.sockets.Part;
 import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.types.CollectionType;
 import org.apache.geode.cache.query.types.ObjectType;
+import org.apache.geode.cache.query.internal.QueryExecutionCanceledException;
 import org.apache.geode.cache.query.internal.QueryUtils;
 import org.apache.geode.cache.query.internal.StructImpl;
+import org.apache.geode.cache.query.internal.types.CollectionTypeImpl;
 import org.apache.geode.cache.query.internal.types.StructTypeImpl;
 import org.apache.geode.cache.query.internal.types.TypeUtils;
 import org.apache.geode.SerializationException;
@@ -58,6 +64,76 @@ public class QueryOp {
     return (SelectResults) pool.execute(op);
   }
 
+  /**
+   * Does a region query on a server and returns a cursor over its results instead of collecting
+   * them into a <code>SelectResults</code>. The response is read on a separate thread which hands
+   * each chunk to the cursor as soon as it arrives; it blocks once
+   * <code>maxBufferedChunks</code> chunks are waiting to be consumed, so neither side holds more
+   * than a bounded number of chunks in memory on behalf of the cursor.
+   * <p>
+   * The op is not retried on another server since part of the result may already have been
+   * consumed. The reading thread belongs to the pool and is interrupted when the pool is
+   * destroyed; a cursor that is abandoned without being closed is closed by the reading thread
+   * once it has not been read for <code>QueryResultsCursor.IDLE_TIMEOUT</code> milliseconds, after
+   * which the rest of the response is discarded and the connection returns to the pool.
+   *
+   * @param pool the pool to use to communicate with the server.
+   * @param queryPredicate A query language boolean query predicate
+   * @param queryParams the bind parameters of the query, may be null
+   * @param maxBufferedChunks the number of response chunks that may be received ahead of the
+   *        consumer
+   * @return a cursor over the values that match the <code>queryPredicate</code>.
+   */
+  public static QueryResultsCursor executeWithCursor(InternalPool pool, String queryPredicate,
+      Object[] queryParams, int maxBufferedChunks) {
+    return executeWithCursor(pool, queryPredicate, queryParams,
+        new QueryResultsCursor(maxBufferedChunks));
+  }
+
+  static QueryResultsCursor executeWithCursor(final InternalPool pool, String queryPredicate,
+      Object[] queryParams, final QueryResultsCursor cursor) {
+    final AbstractOp op;
+    if (queryParams != null && queryParams.length > 0) {
+      op = new CursorQueryOpImpl(cursor, queryPredicate, queryParams);
+    } else {
+      op = new CursorQueryOpImpl(cursor, queryPredicate);
+    }
+    final UserAttributes userAttributes = UserAttributes.userAttributes.get();
+    pool.getCursorReaders().execute(new Runnable() {
+      public void run() {
+        UserAttributes.userAttributes.set(userAttributes);
+        Throwable failure = null;
+        try {
+          pool.execute(op, 0);
+        } catch (Throwable t) {
+          failure = t;
+        } finally {
+          UserAttributes.userAttributes.set(null);
+        }
+        if (failure != null && pool.isDestroyed()) {
+          // the read was interrupted by the destruction of the pool; the consumer may not be
+          // reading anymore so don't wait for room in the cursor
+          cursor.abort(failure);
+          return;
+        }
+        try {
+          cursor.endOfResults(failure);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          if (failure == null) {
+            failure = pool.getCancelCriterion().generateCancelledException(e);
+          }
+          if (failure == null) {
+            failure = new QueryExecutionCanceledException(
+                "Interrupted while handing over the end of the query results");
+          }
+          cursor.abort(failure);
+        }
+      }
+    });
+    return cursor;
+  }
+
   private QueryOp() {
     // no instances allowed
   }
@@ -138,32 +214,7 @@ public class QueryOp {
             if (resultRef[0] == null) {
               resultRef[0] = QueryUtils.getEmptySelectResults(collectionType, null);
             }
-            SelectResults selectResults = resultRef[0];
-            ObjectType objectType = collectionType.getElementType();
-            Object[] resultArray;
-            // for select * queries, the serialized object byte arrays are
-            // returned as part of ObjectPartList
-            boolean isObjectPartList = false;
-            if (queryResult instanceof ObjectPartList) {
-              isObjectPartList = true;
-              resultArray = ((ObjectPartList) queryResult).getObjects().toArray();
-            } else {
-              // Add the results to the SelectResults
-              resultArray = (Object[]) queryResult;
-            }
-            if (objectType.isStructType()) {
-              for (int i = 0; i < resultArray.length; i++) {
-                if (isObjectPartList) {
-                  selectResults.add(new StructImpl((StructTypeImpl) objectType,
-                      ((ObjectPartList) resultArray[i]).getObjects().toArray()));
-                } else {
-                  selectResults
-                      .add(new StructImpl((StructTypeImpl) objectType, (Object[]) resultArray[i]));
-                }
-              }
-            } else {
-              selectResults.addAll(Arrays.asList(resultArray));
-            }
+            addResultChunk(resultRef[0], collectionType.getElementType(), queryResult);
           }
         }
       };
@@ -175,6 +226,37 @@ public class QueryOp {
       }
     }
 
+    /**
+     * Adds the entries of one chunk of a query response to the given collection, turning the
+     * field value arrays of a struct result back into {@link StructImpl}s.
+     */
+    protected static void addResultChunk(Collection<Object> results, ObjectType objectType,
+        Object queryResult) {
+      Object[] resultArray;
+      // for select * queries, the serialized object byte arrays are
+      // returned as part of ObjectPartList
+      boolean isObjectPartList = false;
+      if (queryResult instanceof ObjectPartList) {
+        isObjectPartList = true;
+        resultArray = ((ObjectPartList) queryResult).getObjects().toArray();
+      } else {
+        // Add the results to the SelectResults
+        resultArray = (Object[]) queryResult;
+      }
+      if (objectType.isStructType()) {
+        for (int i = 0; i < resultArray.length; i++) {
+          if (isObjectPartList) {
+            results.add(new StructImpl((StructTypeImpl) objectType,
+                ((ObjectPartList) resultArray[i]).getObjects().toArray()));
+          } else {
+            results.add(new StructImpl((StructTypeImpl) objectType, (Object[]) resultArray[i]));
+          }
+        }
+      } else {
+        results.addAll(Arrays.asList(resultArray));
+      }
+    }
+
     protected String getOpName() {
       return "query";
     }
@@ -200,4 +282,77 @@ public class QueryOp {
       stats.endQuery(start, hasTimedOut(), hasFailed());
     }
   }
+
+  /**
+   * A query op that passes each chunk of the response on to a {@link QueryResultsCursor} instead
+   * of collecting the whole result.
+   */
+  private static class CursorQueryOpImpl extends QueryOpImpl {
+    private final QueryResultsCursor cursor;
+
+    public CursorQueryOpImpl(QueryResultsCursor cursor, String queryPredicate) {
+      super(queryPredicate);
+      this.cursor = cursor;
+    }
+
+    public CursorQueryOpImpl(QueryResultsCursor cursor, String queryPredicate,
+        Object[] queryParams) {
+      super(queryPredicate, queryParams);
+      this.cursor = cursor;
+    }
+
+    @Override
+    protected Object processResponse(Message msg) throws Exception {
+      final Exception[] exceptionRef = new Exception[1];
+      ChunkHandler ch = new ChunkHandler() {
+        public void handle(ChunkedMessage cm) throws Exception {
+          // keep draining the response once the cursor has been closed or has failed so that
+          // the connection can go back to the pool
+          if (exceptionRef[0] != null || cursor.isClosed()) {
+            return;
+          }
+          Part collectionTypePart = cm.getPart(0);
+          Object o = collectionTypePart.getObject();
+          if (o instanceof Throwable) {
+            String s = "While performing a remote " + getOpName();
+            exceptionRef[0] = new ServerOperationException(s, (Throwable) o);
+            return;
+          }
+          CollectionType collectionType = (CollectionType) o;
+          Part resultPart = cm.getPart(1);
+          Object queryResult = null;
+          try {
+            queryResult = resultPart.getObject();
+          } catch (Exception e) {
+            String s = "While deserializing " + getOpName() + " result";
+            exceptionRef[0] = new SerializationException(s, e);
+            return;
+          }
+          List<Object> chunk = new ArrayList<Object>();
+          if (queryResult instanceof Throwable) {
+            String s = "While performing a remote " + getOpName();
+            exceptionRef[0] = new ServerOperationException(s, (Throwable) queryResult);
+            return;
+          } else if (queryResult instanceof Integer) {
+            if (cursor.getCollectionType() == null) {
+              cursor.setCollectionType(
+                  new CollectionTypeImpl(Collection.class, TypeUtils.OBJECT_TYPE));
+            }
+            chunk.add(queryResult);
+          } else { // typical query result
+            if (cursor.getCollectionType() == null) {
+              cursor.setCollectionType(collectionType);
+            }
+            addResultChunk(chunk, collectionType.getElementType(), queryResult);
+          }
+          cursor.addChunk(chunk);
+        }
+      };
+      processChunkedResponse((ChunkedMessage) msg, getOpName(), ch);
+      if (exceptionRef[0] != null) {
+        throw exceptionRef[0];
+      }
+      return null;
+    }
+  }
 }
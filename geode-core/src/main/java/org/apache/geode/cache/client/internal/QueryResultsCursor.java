@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.geode.cache.client.ServerOperationException;
+import org.apache.geode.cache.query.internal.QueryExecutionCanceledException;
+import org.apache.geode.cache.query.types.CollectionType;
+import org.apache.geode.distributed.internal.DistributionConfig;
+
+/**
+ * Iterates over the results of a query executed on a server one response chunk at a time.
+ * <p>
+ * The chunks are handed over by the thread reading the server's response. At most
+ * <code>maxBufferedChunks</code> chunks are held; when the consumer falls behind the reading
+ * thread blocks, stops draining the socket and the server's chunk writes are throttled by TCP
+ * flow control. Client memory is therefore bounded by the chunk size times the number of buffered
+ * chunks regardless of the size of the result.
+ * <p>
+ * A cursor must be {@link #close() closed} if it is not iterated to the end so that the reading
+ * thread can discard the rest of the response and return its connection to the pool. A cursor
+ * that is left unread for longer than its idle timeout while the reading thread is waiting for
+ * room is considered abandoned: it is closed by the reading thread and the consumer gets a
+ * {@link QueryExecutionCanceledException} if it later resumes the iteration.
+ *
+ * @see QueryOp#executeWithCursor
+ */
+public class QueryResultsCursor implements Iterator<Object>, AutoCloseable {
+
+  /** Marks the end of the response in the chunk queue */
+  private static final List<Object> END_OF_RESULTS = Collections.emptyList();
+
+  /** How long the reading thread waits for room in the queue before re-checking for close */
+  private static final long OFFER_WAIT_MILLIS = 100;
+
+  /**
+   * How long a full cursor may go without being read before the reading thread closes it and
+   * returns its connection to the pool
+   */
+  static final long IDLE_TIMEOUT_MILLIS = Long
+      .getLong(DistributionConfig.GEMFIRE_PREFIX + "QueryResultsCursor.IDLE_TIMEOUT", 5 * 60 * 1000)
+      .longValue();
+
+  private final BlockingQueue<List<Object>> chunks;
+
+  private final long idleTimeoutNanos;
+
+  private volatile boolean closed;
+
+  private volatile boolean abandoned;
+
+  /** The last time the consumer read from the cursor */
+  private volatile long lastReadNanos;
+
+  private volatile CollectionType collectionType;
+
+  private volatile Throwable failure;
+
+  private Iterator<Object> currentChunk = Collections.emptyIterator();
+
+  private boolean exhausted;
+
+  QueryResultsCursor(int maxBufferedChunks) {
+    this(maxBufferedChunks, IDLE_TIMEOUT_MILLIS);
+  }
+
+  QueryResultsCursor(int maxBufferedChunks, long idleTimeoutMillis) {
+    if (maxBufferedChunks < 1) {
+      throw new IllegalArgumentException(
+          "maxBufferedChunks must be at least 1 but was " + maxBufferedChunks);
+    }
+    this.chunks = new ArrayBlockingQueue<List<Object>>(maxBufferedChunks);
+    this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+    this.lastReadNanos = System.nanoTime();
+  }
+
+  /**
+   * Returns the collection type of the query result, or null if the first chunk has not been
+   * received yet.
+   */
+  public CollectionType getCollectionType() {
+    return this.collectionType;
+  }
+
+  void setCollectionType(CollectionType collectionType) {
+    this.collectionType = collectionType;
+  }
+
+  /**
+   * Called by the reading thread to hand over one chunk of results. Blocks while the queue is
+   * full.
+   *
+   * @return false if the cursor has been closed and the chunk was discarded
+   */
+  boolean addChunk(List<Object> chunk) throws InterruptedException {
+    return offer(chunk);
+  }
+
+  /**
+   * Called by the reading thread once the response has been fully read, or has failed with the
+   * given exception.
+   */
+  void endOfResults(Throwable failure) throws InterruptedException {
+    this.failure = failure;
+    offer(END_OF_RESULTS);
+  }
+
+  /**
+   * Called by the reading thread when it has to stop without being able to wait for room in the
+   * queue, for instance because the pool is being destroyed. Buffered chunks are discarded and the
+   * consumer gets the given exception.
+   */
+  void abort(Throwable failure) {
+    this.failure = failure;
+    this.chunks.clear();
+    // only the reading thread adds to the queue so there is room now
+    this.chunks.offer(END_OF_RESULTS);
+  }
+
+  private boolean offer(List<Object> chunk) throws InterruptedException {
+    while (!this.closed) {
+      if (this.chunks.offer(chunk, OFFER_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+        return true;
+      }
+      if (System.nanoTime() - this.lastReadNanos > this.idleTimeoutNanos) {
+        this.abandoned = true;
+        this.closed = true;
+        this.chunks.clear();
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns true if the cursor was closed by the reading thread because it was not read within
+   * its idle timeout.
+   */
+  public boolean isAbandoned() {
+    return this.abandoned;
+  }
+
+  public boolean isClosed() {
+    return this.closed;
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (!this.currentChunk.hasNext()) {
+      if (this.abandoned) {
+        throw new QueryExecutionCanceledException(
+            "Query results cursor was closed because it was not read for "
+                + TimeUnit.NANOSECONDS.toMillis(this.idleTimeoutNanos) + " ms");
+      }
+      if (this.exhausted || this.closed) {
+        return false;
+      }
+      List<Object> chunk;
+      try {
+        chunk = this.chunks.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new QueryExecutionCanceledException(
+            "Interrupted while waiting for the next chunk of query results");
+      }
+      this.lastReadNanos = System.nanoTime();
+      if (chunk == END_OF_RESULTS) {
+        this.exhausted = true;
+        Throwable t = this.failure;
+        if (t != null) {
+          if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+          }
+          throw new ServerOperationException("While performing a remote query", t);
+        }
+        return false;
+      }
+      this.currentChunk = chunk.iterator();
+    }
+    return true;
+  }
+
+  @Override
+  public Object next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    this.lastReadNanos = System.nanoTime();
+    return this.currentChunk.next();
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Stops the iteration. Chunks that are still buffered are released and the rest of the response
+   * is discarded as it arrives.
+   */
+  @Override
+  public void close() {
+    this.closed = true;
+    this.currentChunk = Collections.emptyIterator();
+    this.chunks.clear();
+  }
+}
@@ -22,6 +22,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Future;
 
 import org.apache.logging.log4j.Logger;
 
@@ -89,7 +90,8 @@ public class RemoveAllOp {
     final boolean isDebugEnabled = logger.isDebugEnabled();
     ClientMetadataService cms = ((LocalRegion) region).getCache().getClientMetadataService();
 
-    Map<ServerLocation, HashSet> serverToFilterMap = cms.getServerToFilterMap(keys, region, true);
+    Map<ServerLocation, HashSet> serverToFilterMap =
+        cms.getServerToFilterMapForBulkOp(keys, region);
 
     if (serverToFilterMap == null || serverToFilterMap.isEmpty()) {
       AbstractOp op = new RemoveAllOpImpl(region, keys, eventId,
@@ -161,8 +163,10 @@ public class RemoveAllOp {
       // send maps for the failed servers one by one instead of merging
       // them into one big map. The reason is, we have to keep the same event
       // ids for each sub map. There is a unit test in PutAllCSDUnitTest for
-      // the otherwise case.
+      // the otherwise case. The sub maps are resent in parallel.
       boolean oneSubMapRetryFailed = false;
+      List<Collection<Object>> retryKeys = new ArrayList<Collection<Object>>();
+      List<AbstractOp> retryOps = new ArrayList<AbstractOp>();
       Set<ServerLocation> failedServerSet = failedServers.keySet();
       for (ServerLocation failedServer : failedServerSet) {
         // Throwable failedServers.values().iterator().next();
@@ -174,9 +178,20 @@ public class RemoveAllOp {
           continue;
         }
         Collection<Object> newKeys = serverToFilterMap.get(failedServer);
+        RemoveAllOpImpl op = new RemoveAllOpImpl(region, newKeys, eventId,
+            ((PoolImpl) pool).getPRSingleHopEnabled(), callbackArg);
+        op.initMessagePart();
+        op.getMessage().setIsRetry();
+        retryKeys.add(newKeys);
+        retryOps.add(op);
+      }
+
+      List<Future<Object>> retries = SingleHopClientExecutor.submitBulkOpRetries(pool, retryOps);
+      for (int i = 0; i < retries.size(); i++) {
+        Collection<Object> newKeys = retryKeys.get(i);
         try {
           VersionedObjectList v =
-              RemoveAllOp.execute(pool, region, newKeys, eventId, true, callbackArg);
+              (VersionedObjectList) SingleHopClientExecutor.getBulkOpRetryResult(retries.get(i));
           if (v == null) {
             result.addKeys(newKeys);
           } else {
@@ -192,7 +207,7 @@ public class RemoveAllOp {
           Object firstKey = newKeys.iterator().next();
           result.saveFailedKey(firstKey, rte);
         }
-      } // for failedServer
+      } // for retry
 
       // If all retries succeeded, the PRE in first tries can be ignored
       if (oneSubMapRetryFailed && result.hasFailure()) {
@@ -219,8 +234,9 @@ public class RemoveAllOp {
       logger.debug("Constructing tasks for the servers{}", servers);
     }
     for (ServerLocation server : servers) {
-      AbstractOp RemoveAllOp =
+      RemoveAllOpImpl RemoveAllOp =
           new RemoveAllOpImpl(region, serverToFilterMap.get(server), eventId, true, callbackArg);
+      RemoveAllOp.singleHop = true;
 
       SingleHopOperationCallable task =
           new SingleHopOperationCallable(new ServerLocation(server.getHostName(), server.getPort()),
@@ -234,6 +250,9 @@ public class RemoveAllOp {
 
     private boolean prSingleHopEnabled = false;
 
+    /** true if this op is sent to a server chosen from the client's partition metadata */
+    private boolean singleHop = false;
+
     private LocalRegion region = null;
 
     private Collection<Object> keys = null;
@@ -305,6 +324,8 @@ public class RemoveAllOp {
                 if (o == null) {
                   // no response is an okay response
                 } else if (o instanceof byte[]) {
+                  // the server only sends the metadata version if it forwarded some of the keys
+                  con.getStats().incBulkOpNetworkHops();
                   if (prSingleHopEnabled) {
                     byte[] bytesReceived = part.getSerializedForm();
                     if (bytesReceived[0] != ClientMetadataService.INITIAL_VERSION) {
@@ -367,6 +388,12 @@ public class RemoveAllOp {
 
     @Override
     protected long startAttempt(ConnectionStats stats) {
+      if (this.singleHop) {
+        stats.incSingleHopBulkOps();
+      }
+      if (getMessage().isRetry()) {
+        stats.incRetriedBulkOpKeys(this.keys.size());
+      }
       return stats.startRemoveAll();
     }
 
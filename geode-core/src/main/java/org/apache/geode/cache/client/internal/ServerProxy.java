@@ -70,4 +70,18 @@ public class ServerProxy {
     return QueryOp.execute(this.pool, queryPredicate, queryParams);
   }
 
+  /**
+   * Does a query on a server, returning a cursor that receives the results chunk by chunk
+   * 
+   * @param queryPredicate A query language boolean query predicate
+   * @param maxBufferedChunks the number of response chunks that may be received ahead of the
+   *        consumer
+   * @return A <code>QueryResultsCursor</code> over the values that match the
+   *         <code>queryPredicate</code>.
+   */
+  public QueryResultsCursor queryWithCursor(String queryPredicate, Object[] queryParams,
+      int maxBufferedChunks) {
+    return QueryOp.executeWithCursor(this.pool, queryPredicate, queryParams, maxBufferedChunks);
+  }
+
 }
@@ -14,12 +14,14 @@
  */
 package org.apache.geode.cache.client.internal;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -311,6 +313,47 @@ public class SingleHopClientExecutor {
     return null;
   }
 
+  /**
+   * Resends the given bulk ops (putAll or removeAll sub-maps of the servers that failed) through
+   * the pool, in parallel, and returns their futures in the same order once they have all
+   * completed. The result of each future can be read with {@link #getBulkOpRetryResult}.
+   */
+  static List<Future<Object>> submitBulkOpRetries(final ExecutablePool pool,
+      List<AbstractOp> retryOps) {
+    final UserAttributes userAttributes = UserAttributes.userAttributes.get();
+    List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(retryOps.size());
+    for (final AbstractOp op : retryOps) {
+      tasks.add(new Callable<Object>() {
+        public Object call() throws Exception {
+          UserAttributes.userAttributes.set(userAttributes);
+          try {
+            return pool.execute(op);
+          } finally {
+            UserAttributes.userAttributes.set(null);
+          }
+        }
+      });
+    }
+    try {
+      return execService.invokeAll(tasks);
+    } catch (InterruptedException e) {
+      throw new InternalGemFireException(e.getMessage());
+    }
+  }
+
+  /**
+   * Returns the result of a bulk op retry, or throws the exception it failed with.
+   */
+  static Object getBulkOpRetryResult(Future<Object> retry) {
+    try {
+      return retry.get();
+    } catch (InterruptedException e) {
+      throw new InternalGemFireException(e.getMessage());
+    } catch (ExecutionException ee) {
+      throw executionThrowable(ee.getCause());
+    }
+  }
+
   static Map<ServerLocation, Object> submitGetAll(Map<ServerLocation, HashSet> serverToFilterMap,
       List callableTasks, ClientMetadataService cms, LocalRegion region) {
 
@@ -47,6 +47,11 @@ import org.apache.geode.internal.i18n.LocalizedStrings;
 public class CompiledGroupBySelect extends CompiledSelect {
 
   private final BitSet aggregateColsPos;
+  /**
+   * The projection position of each aggregate function, in the order of
+   * {@link #aggregateFunctions}
+   */
+  private final int[] aggregateColumns;
   private final CompiledAggregateFunction[] aggregateFunctions;
   private final boolean isDistinct;
   private final List<CompiledSortCriterion> originalOrderByClause;
@@ -71,6 +76,12 @@ public class CompiledGroupBySelect extends CompiledSelect {
         this.aggregateFunctions[i++] = entry.getValue();
       }
     }
+    this.aggregateColumns = new int[this.aggregateFunctions.length];
+    int bitStart = 0;
+    for (int i = 0; i < this.aggregateColumns.length; i++) {
+      this.aggregateColumns[i] = this.aggregateColsPos.nextSetBit(bitStart);
+      bitStart = this.aggregateColumns[i] + 1;
+    }
     this.originalOrderByClause = orderByAttrs;
     this.isDistinct = distinct;
     this.limit = limit;
@@ -177,19 +188,28 @@ public class CompiledGroupBySelect extends CompiledSelect {
         createResultSet(context, elementType, isStruct, createOrderedResultSet);
     Aggregator[] aggregators = new Aggregator[this.aggregateFunctions.length];
     refreshAggregators(aggregators, context);
+    // Struct rows are walked as their field value arrays. When the base results hold the arrays
+    // themselves they are read directly rather than through a Struct created for every row.
+    Iterator iter;
+    boolean rowsAreFieldValues = isStruct && baseResults instanceof StructFields;
+    if (rowsAreFieldValues) {
+      iter = ((StructFields) baseResults).fieldValuesIterator();
+    } else {
+      iter = baseResults.iterator();
+    }
+    StructTypeImpl structType = isStruct ? (StructTypeImpl) elementType : null;
     if (this.orderByAttrs != null) {
-      applyGroupBy(baseResults, context, isStruct, newResults, aggregators, !createOrderedResultSet,
-          objectChangedMarker, limitValue);
+      applyGroupBy(iter, rowsAreFieldValues, context, structType, newResults, aggregators,
+          !createOrderedResultSet, objectChangedMarker, limitValue);
     } else {
-      Iterator iter = baseResults.iterator();
       Object current = null;
       boolean unterminated = iter.hasNext();
       while (iter.hasNext()) {
-        current = iter.next();
+        current = toRow(iter.next(), isStruct, rowsAreFieldValues);
         accumulate(isStruct, aggregators, current, objectChangedMarker);
       }
       if (unterminated) {
-        this.terminateAndAddToResults(isStruct, newResults, aggregators, current, context,
+        this.terminateAndAddToResults(structType, newResults, aggregators, current, context,
             !createOrderedResultSet, limitValue);
       }
     }
@@ -264,11 +284,23 @@ public class CompiledGroupBySelect extends CompiledSelect {
     }
   }
 
-  private void applyGroupBy(SelectResults baseResults, ExecutionContext context, boolean isStruct,
-      SelectResults newResults, Aggregator[] aggregators, boolean isStructFields,
-      boolean[] objectChangedMarker, int limitValue) throws FunctionDomainException,
-      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
-    Iterator iter = baseResults.iterator();
+  /**
+   * Returns the row to aggregate for an element of the base results: the field value array for
+   * struct results, the element itself otherwise.
+   */
+  private Object toRow(Object element, boolean isStruct, boolean isFieldValues) {
+    if (isStruct && !isFieldValues) {
+      return ((Struct) element).getFieldValues();
+    }
+    return element;
+  }
+
+  private void applyGroupBy(Iterator iter, boolean rowsAreFieldValues, ExecutionContext context,
+      StructTypeImpl structType, SelectResults newResults, Aggregator[] aggregators,
+      boolean isStructFields, boolean[] objectChangedMarker, int limitValue)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    boolean isStruct = structType != null;
     Object[] orderByTupleHolderCurrent = null;
     Object[] orderByTupleHolderPrev = null;
     Object orderByCurrent = null;
@@ -284,14 +316,19 @@ public class CompiledGroupBySelect extends CompiledSelect {
     boolean unterminated = false;
     boolean keepAdding = true;
     while (iter.hasNext() && keepAdding) {
-      Object current = iter.next();
+      Object current = toRow(iter.next(), isStruct, rowsAreFieldValues);
+      // A bag returns every occurrence of a duplicate row as the same instance, which belongs to
+      // the group of the previous row without evaluating the group by expressions again.
+      if (!isFirst && current == prev) {
+        accumulate(isStruct, aggregators, current, objectChangedMarker);
+        continue;
+      }
       if (isSingleOrderBy) {
-        orderByCurrent = this.getOrderByEvaluatedTuple(context, isSingleOrderBy, null,
-            isStruct ? ((Struct) current).getFieldValues() : current, objectChangedMarker);
+        orderByCurrent = this.getOrderByEvaluatedTuple(context, isSingleOrderBy, null, current,
+            objectChangedMarker);
       } else {
         orderByTupleHolderCurrent = (Object[]) this.getOrderByEvaluatedTuple(context,
-            isSingleOrderBy, orderByTupleHolderCurrent,
-            isStruct ? ((Struct) current).getFieldValues() : current, objectChangedMarker);
+            isSingleOrderBy, orderByTupleHolderCurrent, current, objectChangedMarker);
       }
       if (isFirst || areOrderByTupleEqual(isSingleOrderBy, orderByPrev, orderByCurrent,
           orderByTupleHolderPrev, orderByTupleHolderCurrent)) {
@@ -299,7 +336,7 @@ public class CompiledGroupBySelect extends CompiledSelect {
         unterminated = true;
         isFirst = false;
       } else {
-        keepAdding = terminateAndAddToResults(isStruct, newResults, aggregators, prev, context,
+        keepAdding = terminateAndAddToResults(structType, newResults, aggregators, prev, context,
             isStructFields, limitValue);
         this.accumulate(isStruct, aggregators, current, objectChangedMarker);
         unterminated = true;
@@ -312,7 +349,7 @@ public class CompiledGroupBySelect extends CompiledSelect {
       prev = current;
     }
     if (unterminated && keepAdding) {
-      this.terminateAndAddToResults(isStruct, newResults, aggregators, prev, context,
+      this.terminateAndAddToResults(structType, newResults, aggregators, prev, context,
           isStructFields, limitValue);
     }
 
@@ -322,25 +359,22 @@ public class CompiledGroupBySelect extends CompiledSelect {
     }
   }
 
-  private boolean terminateAndAddToResults(boolean isStruct, SelectResults newResults,
+  private boolean terminateAndAddToResults(StructTypeImpl structType, SelectResults newResults,
       Aggregator[] aggregators, Object prev, ExecutionContext context, boolean isStrucFields,
       int limitValue) throws FunctionDomainException, TypeMismatchException,
       NameResolutionException, QueryInvocationTargetException {
-    Object[] newRowArray = isStruct ? copyStruct((Struct) prev) : null;
+    boolean isStruct = structType != null;
+    Object[] newRowArray = isStruct ? copyRow((Object[]) prev) : null;
     Object newObject = null;
-    int bitstart = 0;
     if (limitValue == 0) {
       return false;
     }
 
-    for (Aggregator aggregator : aggregators) {
+    for (int i = 0; i < aggregators.length; i++) {
       if (isStruct) {
-        int pos = this.aggregateColsPos.nextSetBit(bitstart);
-        bitstart = pos + 1;
-        Object scalarResult = aggregator.terminate();
-        newRowArray[pos] = scalarResult;
+        newRowArray[this.aggregateColumns[i]] = aggregators[i].terminate();
       } else {
-        newObject = aggregator.terminate();
+        newObject = aggregators[i].terminate();
       }
     }
 
@@ -348,8 +382,7 @@ public class CompiledGroupBySelect extends CompiledSelect {
       if (isStrucFields) {
         ((StructFields) newResults).addFieldValues(newRowArray);
       } else {
-        newResults
-            .add(new StructImpl((StructTypeImpl) ((Struct) prev).getStructType(), newRowArray));
+        newResults.add(new StructImpl(structType, newRowArray));
       }
     } else {
       newResults.add(newObject);
@@ -375,26 +408,27 @@ public class CompiledGroupBySelect extends CompiledSelect {
     }
   }
 
-  private Object[] copyStruct(Struct struct) {
-    Object[] prevValues = struct.getFieldValues();
+  private Object[] copyRow(Object[] prevValues) {
     Object[] newRow = new Object[prevValues.length];
     System.arraycopy(prevValues, 0, newRow, 0, prevValues.length);
     return newRow;
   }
 
+  /**
+   * Feeds a row to the aggregators. For struct results the row is the field value array, and each
+   * aggregator reads its own column of it.
+   */
   private void accumulate(boolean isStruct, Aggregator[] aggregators, Object current,
       boolean[] objectChangedMarker) {
-    int bitstart = 0;
-    for (Aggregator aggregator : aggregators) {
-      if (isStruct) {
-        int pos = this.aggregateColsPos.nextSetBit(bitstart);
-        bitstart = pos + 1;
-        Struct struct = (Struct) current;
-        Object scalar = PDXUtils.convertPDX(struct.getFieldValues()[pos], false, true, true, true,
-            objectChangedMarker, isStruct);
-
-        aggregator.accumulate(scalar);
-      } else {
+    if (isStruct) {
+      Object[] fieldValues = (Object[]) current;
+      for (int i = 0; i < aggregators.length; i++) {
+        Object scalar = PDXUtils.convertPDX(fieldValues[this.aggregateColumns[i]], false, true,
+            true, true, objectChangedMarker, isStruct);
+        aggregators[i].accumulate(scalar);
+      }
+    } else {
+      for (Aggregator aggregator : aggregators) {
         current =
             PDXUtils.convertPDX(current, false, true, true, true, objectChangedMarker, isStruct);
         aggregator.accumulate(current);
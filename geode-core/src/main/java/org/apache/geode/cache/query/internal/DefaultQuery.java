@@ -20,6 +20,7 @@ import org.apache.geode.cache.CacheClosedException;
 import org.apache.geode.cache.CacheRuntimeException;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.client.internal.ProxyCache;
+import org.apache.geode.cache.client.internal.QueryResultsCursor;
 import org.apache.geode.cache.client.internal.ServerProxy;
 import org.apache.geode.cache.client.internal.UserAttributes;
 import org.apache.geode.cache.execute.Function;
@@ -38,8 +39,10 @@ import org.apache.geode.cache.query.RegionNotFoundException;
 import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.TypeMismatchException;
 import org.apache.geode.cache.query.internal.cq.InternalCqQuery;
+import org.apache.geode.cache.query.internal.index.IndexManager;
 import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.internal.NanoTimer;
+import org.apache.geode.internal.cache.AbstractRegion;
 import org.apache.geode.internal.cache.BucketRegion;
 import org.apache.geode.internal.cache.CachePerfStats;
 import org.apache.geode.internal.cache.GemFireCacheImpl;
@@ -122,6 +125,11 @@ public class DefaultQuery implements Query {
 
   private volatile boolean lastUsed = true;
 
+  /**
+   * The value of {@link IndexManager#getIndexChangeStamp()} when this query was compiled
+   */
+  private final long indexChangeStamp;
+
   public static TestHook testHook;
 
   private static final ThreadLocal<Boolean> pdxReadSerialized = new ThreadLocal() {
@@ -271,6 +279,7 @@ public class DefaultQuery implements Query {
    */
   public DefaultQuery(String queryString, Cache cache, boolean isForRemote) {
     this.queryString = queryString;
+    this.indexChangeStamp = IndexManager.getIndexChangeStamp();
     QCompiler compiler = new QCompiler();
     this.compiledQuery = compiler.compileQuery(queryString);
     CompiledSelect cs = this.getSimpleSelect();
@@ -479,6 +488,42 @@ public class DefaultQuery implements Query {
     return result;
   }
 
+  /**
+   * Executes this query on a server of the pool it was created for and returns a cursor that
+   * receives the results one response chunk at a time, rather than a <code>SelectResults</code>
+   * holding the whole result. The statistics of the query record the time taken to start the
+   * execution, not the time spent iterating the cursor.
+   *
+   * @param maxBufferedChunks the number of response chunks that may be received ahead of the
+   *        consumer of the cursor
+   * @param parameters the bind parameters of the query
+   * @throws UnsupportedOperationException if this query is not executed on a server
+   */
+  public QueryResultsCursor executeWithCursor(int maxBufferedChunks, Object[] parameters) {
+    if (parameters == null) {
+      throw new IllegalArgumentException(
+          LocalizedStrings.DefaultQuery_PARAMETERS_CANNOT_BE_NULL.toLocalizedString());
+    }
+    if (this.serverProxy == null) {
+      throw new UnsupportedOperationException(
+          "Cursor based execution is only supported for queries executed on a server");
+    }
+    long startTime = CachePerfStats.getStatTime();
+    try {
+      if (proxyCache != null) {
+        if (this.proxyCache.isClosed()) {
+          throw new CacheClosedException("Cache is closed for this user.");
+        }
+        UserAttributes.userAttributes.set(this.proxyCache.getUserAttributes());
+      }
+      return this.serverProxy.queryWithCursor(this.queryString, parameters, maxBufferedChunks);
+    } finally {
+      UserAttributes.userAttributes.set(null);
+      long endTime = CachePerfStats.getStatTime();
+      updateStatistics(endTime - startTime);
+    }
+  }
+
   /**
    * Execute a PR Query on the specified bucket. Assumes query already meets restrictions for PR
    * Query, and the first iterator in the FROM clause can be replaced with the BucketRegion.
@@ -884,6 +929,81 @@ public class DefaultQuery implements Query {
     return this.lastUsed;
   }
 
+  /**
+   * Returns true if indexes have been created or removed on one of the regions of this query since
+   * it was compiled, in which case a cached instance of it should be compiled again rather than
+   * reused. Index changes on other regions, including the buckets of a partitioned region of the
+   * query, are ignored.
+   *
+   * @param parameters the parameters the query is about to be executed with, used to find the
+   *        regions passed as bind parameters
+   */
+  public boolean isIndexChangedSinceCompile(Object[] parameters) {
+    if (this.cache == null) {
+      return false;
+    }
+    for (Object regionPath : getRegionsInQuery(parameters)) {
+      Region region = this.cache.getRegion((String) regionPath);
+      if (region instanceof AbstractRegion
+          && ((AbstractRegion) region).getIndexChangeStamp() > this.indexChangeStamp) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the query string with leading and trailing white space removed and every other run of
+   * white space and comments outside of quoted literals and identifiers collapsed into a single
+   * blank, so that queries differing only in their formatting share an entry in the compiled query
+   * cache. Comments are removed rather than kept because a line comment ends at the next line
+   * break, which collapsing its white space would otherwise remove.
+   */
+  public static String normalizeQueryString(String queryString) {
+    int length = queryString.length();
+    StringBuilder normalized = new StringBuilder(length);
+    char quote = 0;
+    boolean pendingBlank = false;
+    for (int i = 0; i < length; i++) {
+      char c = queryString.charAt(i);
+      if (quote == 0) {
+        int skipTo = -1;
+        if (Character.isWhitespace(c)) {
+          skipTo = i + 1;
+        } else if (queryString.startsWith("--", i)) {
+          skipTo = i + 2;
+          while (skipTo < length && queryString.charAt(skipTo) != '\n'
+              && queryString.charAt(skipTo) != '\r') {
+            skipTo++;
+          }
+        } else if (queryString.startsWith("/*", i)) {
+          int end = queryString.indexOf("*/", i + 2);
+          // an unterminated comment is kept so that the query still fails to compile
+          skipTo = end < 0 ? -1 : end + 2;
+        }
+        if (skipTo > 0) {
+          pendingBlank = normalized.length() > 0;
+          i = skipTo - 1;
+          continue;
+        }
+      }
+      if (pendingBlank) {
+        normalized.append(' ');
+        pendingBlank = false;
+      }
+      if (quote == 0) {
+        if (c == '\'' || c == '"') {
+          quote = c;
+        }
+      } else if (c == quote) {
+        // an escaped quote ('') closes and reopens the literal, which leaves it open
+        quote = 0;
+      }
+      normalized.append(c);
+    }
+    return normalized.toString();
+  }
+
   public InternalCqQuery getCqQuery() {
     return this.cqQuery;
   }
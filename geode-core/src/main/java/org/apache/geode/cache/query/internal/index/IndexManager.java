@@ -119,6 +119,13 @@ public class IndexManager {
 
   public static TestHook testHook;
 
+  /**
+   * Hands out the stamps that regions record when one of their indexes is added or removed. Caches
+   * of compiled queries compare the stamps of the regions of a query with the value this had at
+   * compile time to notice that the set of indexes the query could use has changed.
+   */
+  private static final AtomicLong INDEX_CHANGE_STAMP = new AtomicLong();
+
   // private int numCreatorsInWaiting = 0;
   // @todo ericz
   // there should be a read/write lock PER INDEX in order to maximize
@@ -188,6 +195,24 @@ public class IndexManager {
         && queryStartTime <= SAFE_QUERY_TIME.get() - queryStartTime + lastModifiedTime;
   }
 
+  /**
+   * Returns the stamp of the latest index change on any region.
+   */
+  public static long getIndexChangeStamp() {
+    return INDEX_CHANGE_STAMP.get();
+  }
+
+  /**
+   * Returns a stamp greater than every stamp returned so far.
+   */
+  public static long nextIndexChangeStamp() {
+    return INDEX_CHANGE_STAMP.incrementAndGet();
+  }
+
+  private void indexesChanged() {
+    ((AbstractRegion) this.region).indexesChanged();
+  }
+
   /**
    * 
    * @param value
@@ -490,6 +515,7 @@ public class IndexManager {
   public void addIndex(String indexName, Index index) {
     IndexTask indexTask = new IndexTask(indexName);
     this.indexes.put(indexTask, index);
+    indexesChanged();
   }
 
   /**
@@ -826,6 +852,7 @@ public class IndexManager {
     if (this.indexes.remove(indexTask) != null) {
       AbstractIndex indexHandle = (AbstractIndex) index;
       indexHandle.destroy();
+      indexesChanged();
     }
   }
 
@@ -849,6 +876,9 @@ public class IndexManager {
       IndexTask indexTask = (IndexTask) entry.getKey();
       this.indexes.remove(indexTask);
     }
+    if (numIndexes > 0) {
+      indexesChanged();
+    }
     return numIndexes;
   }
 
@@ -1650,6 +1680,7 @@ public class IndexManager {
             }
           }
           indexes.put(this, index);
+          indexesChanged();
           if (region instanceof BucketRegion && prIndex != null) {
             prIndex.addToBucketIndexes(region, index);
             prIndex.incNumBucketIndexes();
@@ -1667,6 +1698,7 @@ public class IndexManager {
         // For PrimaryKey index
         ((AbstractIndex) index).setPopulated(true);
         indexes.put(this, index);
+        indexesChanged();
         if (region instanceof BucketRegion && prIndex != null) {
           prIndex.addToBucketIndexes(region, index);
         }
@@ -15,6 +15,8 @@
 
 package org.apache.geode.distributed;
 
+import java.util.Collection;
+
 import org.apache.geode.distributed.internal.locks.*;
 import org.apache.geode.distributed.internal.*;
 
@@ -43,7 +45,8 @@ public abstract class DistributedLockService {
    *        distributed lock messaging.
    * 
    * @throws IllegalArgumentException if serviceName is an illegal name or this process has already
-   *         created a DistributedLockService with the given <code>serviceName</code>.
+   *         created a DistributedLockService with the given <code>serviceName</code>. Names
+   *         containing <code>#shard</code> are reserved for the shards of sharded services.
    *
    * @throws IllegalStateException if this process is in the middle of disconnecting from the
    *         <code>DistributedSystem</code>
@@ -55,6 +58,41 @@ public abstract class DistributedLockService {
         true /* destroyOnDisconnect */, false /* automateFreeResources */);
   }
 
+  /**
+   * Create a DistributedLockService with the given serviceName for the given DistributedSystem
+   * whose locks are granted by up to <code>shardCount</code> lock grantors instead of one. Each lock
+   * name is hashed to one of the shards, and each shard has its own lock grantor, so the work of
+   * granting locks is spread over the members using the service. When the grantor of a shard
+   * leaves, the held locks of that shard alone are recovered by a new grantor.
+   * <p>
+   * Every member must create the service with the same <code>shardCount</code>; creating it with a
+   * different count than a member that already created it fails. The lock names must have the
+   * same <code>hashCode()</code> in every member, as strings and boxed primitives do. Suspending
+   * locking suspends it in every shard.
+   * 
+   * @param serviceName the name of the DistributedLockService to create.
+   *
+   * @param ds the <code>DistributedSystem</code> for the new service instance to use for
+   *        distributed lock messaging.
+   *
+   * @param shardCount the number of shards, each with its own lock grantor
+   * 
+   * @throws IllegalArgumentException if serviceName is an illegal name, shardCount is less than
+   *         one, another member created the service with a different <code>shardCount</code> or
+   *         this process has already created a DistributedLockService with the given
+   *         <code>serviceName</code>.
+   *
+   * @throws IllegalStateException if this process is in the middle of disconnecting from the
+   *         <code>DistributedSystem</code>
+   *
+   * @since Geode 1.2
+   */
+  public static DistributedLockService create(String serviceName, DistributedSystem ds,
+      int shardCount) throws IllegalArgumentException {
+    DLockService.validateServiceName(serviceName);
+    return ShardedDLockService.create(serviceName, (InternalDistributedSystem) ds, shardCount);
+  }
+
   /**
    * Look up and return the DistributedLockService with the given name, if it has been created in
    * this VM. If it has not been created, return null.
@@ -65,7 +103,11 @@ public abstract class DistributedLockService {
    *         this VM.
    */
   public static DistributedLockService getServiceNamed(String serviceName) {
-    return DLockService.getServiceNamed(serviceName);
+    DistributedLockService svc = DLockService.getServiceNamed(serviceName);
+    if (svc == null) {
+      svc = ShardedDLockService.getServiceNamed(serviceName);
+    }
+    return svc;
   }
 
   /**
@@ -81,7 +123,9 @@ public abstract class DistributedLockService {
    *         the given <code>serviceName</code> and <code>dm</code>.
    */
   public static void destroy(String serviceName) throws IllegalArgumentException {
-    DLockService.destroyServiceNamed(serviceName);
+    if (!ShardedDLockService.destroyServiceNamed(serviceName)) {
+      DLockService.destroyServiceNamed(serviceName);
+    }
   }
 
   /**
@@ -191,6 +235,88 @@ public abstract class DistributedLockService {
    */
   public abstract void unlock(Object name) throws LeaseExpiredException;
 
+  /**
+   * Attempts to acquire the locks for all of the given <code>names</code> with a single request to
+   * the lock grantor. Either every lock is granted to the current thread, with the same lease, or
+   * none of them are. While any of the locks is held by another thread, the attempt is repeated
+   * until <code>waitTimeMillis</code> has passed.
+   * <p>
+   * The locks are not reentrant: none of them may already be held by the current thread. Each
+   * lock acquired by this method may be released individually with {@link #unlock(Object)} or
+   * together with the others using {@link #unlockAll(Collection)}.
+   * <p>
+   * The attempt is not queued with the requests of {@link #lock(Object, long, long)}: it fails
+   * whenever one of the locks is held or has other requests waiting for it, and is retried every
+   * few milliseconds. A lock that is always held or awaited by other threads can therefore starve
+   * this method, which then returns false once <code>waitTimeMillis</code> has passed. Waiting
+   * forever is only safe when the locks are not contended by individual lock requests.
+   * <p>
+   * Waiting for the locks is not interrupted by {@link Thread#interrupt()}; the interrupt status
+   * of the thread is kept and remains set when this method returns.
+   *
+   * @param names the objects to lock in this service. Each must conform to the general contract of
+   *        <code>equals(Object)</code> and <code>hashCode()</code>. If there are none, nothing is
+   *        locked and true is returned.
+   *
+   * @param waitTimeMillis the number of milliseconds to try to acquire the locks before giving up
+   *        and returning false. A value of -1 causes this method to block until the locks are
+   *        acquired.
+   *
+   * @param leaseTimeMillis the number of milliseconds to hold the locks after granting them,
+   *        before automatically releasing them if they haven't already been released. If
+   *        <code>leaseTimeMillis</code> is -1, hold the locks until explicitly unlocked.
+   *
+   * @return true if all of the locks were acquired, false if the timeout
+   *         <code>waitTimeMillis</code> passed without acquiring them.
+   *
+   * @throws IllegalStateException if the current thread already holds one of the locks
+   *
+   * @throws LockServiceDestroyedException if this lock service has been destroyed
+   *
+   * @since Geode 1.2
+   */
+  public abstract boolean lockAll(Collection<?> names, long waitTimeMillis, long leaseTimeMillis);
+
+  /**
+   * Releases the locks previously granted for all of the given <code>names</code> with a single
+   * request to the lock grantor.
+   *
+   * @param names the objects to unlock in this service. If there are none, nothing is unlocked.
+   *
+   * @throws LockNotHeldException if the current thread is not the owner of one of the locks, in
+   *         which case none of them are released
+   *
+   * @throws LeaseExpiredException if the current thread was the owner of one of the locks, but its
+   *         lease has expired
+   *
+   * @throws LockServiceDestroyedException if the service has been destroyed
+   *
+   * @since Geode 1.2
+   */
+  public abstract void unlockAll(Collection<?> names) throws LeaseExpiredException;
+
+  /**
+   * Extends the leases of the locks held by the current thread for all of the given
+   * <code>names</code> with a single request to the lock grantor. A lease is never shortened by
+   * this method.
+   *
+   * @param names the objects whose locks are held by the current thread
+   *
+   * @param leaseTimeMillis the number of milliseconds from now that the locks should be held
+   *        before automatically releasing them. If <code>leaseTimeMillis</code> is -1, hold the
+   *        locks until explicitly unlocked.
+   *
+   * @return true if the leases were extended, false if the grantor reports that the current
+   *         thread no longer holds one of the locks, in which case none of them were extended
+   *
+   * @throws LockNotHeldException if the current thread is not the owner of one of the locks
+   *
+   * @throws LockServiceDestroyedException if the service has been destroyed
+   *
+   * @since Geode 1.2
+   */
+  public abstract boolean extendLeases(Collection<?> names, long leaseTimeMillis);
+
   /**
    * Determine whether the current thread owns the lock on the given object.
    *
@@ -566,6 +566,13 @@ public interface DMStats {
    */
   public void incThreadOwnedReceivers(long value, int dominoCount);
 
+  /**
+   * Called when the messages of one or more threads were written to a P2P socket at once.
+   * 
+   * @param messages the number of messages written
+   */
+  public void incCoalescedWrites(int messages);
+
   /**
    * Called when a new message is received.
    * 
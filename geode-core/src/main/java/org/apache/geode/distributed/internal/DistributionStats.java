@@ -149,6 +149,8 @@ public class DistributionStats implements DMStats {
 
   private final static int threadOwnedReceiversId;
   private final static int threadOwnedReceiversId2;
+  private final static int coalescedWritesId;
+  private final static int coalescedWriteMessagesId;
 
   private final static int asyncSocketWritesInProgressId;
   private final static int asyncSocketWritesId;
@@ -643,6 +645,12 @@ public class DistributionStats implements DMStats {
         f.createLongGauge("receiversTO2",
             "Number of receiver threads owned in turn by receiver threads in other members",
             "threads"),
+        f.createLongCounter("coalescedWrites",
+            "Total number of socket writes that wrote the messages of all threads waiting to send on a shared P2P connection",
+            "writes"),
+        f.createLongCounter("coalescedWriteMessages",
+            "Total number of messages written by coalescedWrites. The average number of messages per write is coalescedWriteMessages / coalescedWrites.",
+            "messages"),
 
         f.createLongGauge("receiverDirectBufferSize", receiverDirectBufferSizeDesc, "bytes"),
         f.createLongGauge("receiverHeapBufferSize", receiverHeapBufferSizeDesc, "bytes"),
@@ -870,6 +878,8 @@ public class DistributionStats implements DMStats {
 
     threadOwnedReceiversId = type.nameToId("receiversTO");
     threadOwnedReceiversId2 = type.nameToId("receiversTO2");
+    coalescedWritesId = type.nameToId("coalescedWrites");
+    coalescedWriteMessagesId = type.nameToId("coalescedWriteMessages");
 
     receiverDirectBufferSizeId = type.nameToId("receiverDirectBufferSize");
     receiverHeapBufferSizeId = type.nameToId("receiverHeapBufferSize");
@@ -2092,6 +2102,19 @@ public class DistributionStats implements DMStats {
     }
   }
 
+  public void incCoalescedWrites(int messages) {
+    stats.incLong(coalescedWritesId, 1);
+    stats.incLong(coalescedWriteMessagesId, messages);
+  }
+
+  public long getCoalescedWrites() {
+    return stats.getLong(coalescedWritesId);
+  }
+
+  public long getCoalescedWriteMessages() {
+    return stats.getLong(coalescedWriteMessagesId);
+  }
+
   /**
    * @since GemFire 5.0.2.4
    */
@@ -843,6 +843,9 @@ public class LonerDistributionManager implements DM {
     @Override
     public void incThreadOwnedReceivers(long value, int dominoCount) {}
 
+    @Override
+    public void incCoalescedWrites(int messages) {}
+
     @Override
     public long getHeartbeatRequestsSent() {
       return 0;
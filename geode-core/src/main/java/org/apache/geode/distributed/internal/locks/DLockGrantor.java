@@ -162,6 +162,11 @@ public class DLockGrantor {
    */
   protected final DM dm;
 
+  /**
+   * Orders reentrant lock batches whose grant tokens cannot be ordered by identity hash code.
+   */
+  private final Object batchTieLock = new Object();
+
   // -------------------------------------------------------------------------
   // SuspendLocking state (BEGIN)
 
@@ -742,6 +747,10 @@ public class DLockGrantor {
       handleLockBatch(request);
       return;
     }
+    if (request.getObjectName() instanceof DLockNameBatch) {
+      handleLockNameBatch(request);
+      return;
+    }
 
     waitWhileInitializing(); // calcWaitMillisFromNow
 
@@ -781,6 +790,89 @@ public class DLockGrantor {
     }
   }
 
+  /**
+   * Handles a request for a batch of named locks. Every lock in the batch is try-locked on behalf
+   * of the requesting thread: either all of them are granted with the same lease or none of them
+   * are, in which case the request fails as a try-lock would.
+   * <p>
+   * Acquires destroyReadLock. Synchronizes on grantTokens, suspendLock and each grant token.
+   * 
+   * @param request the lock request whose object name is a {@link DLockNameBatch}
+   * @throws LockGrantorDestroyedException if grantor is destroyed
+   */
+  private void handleLockNameBatch(DLockRequestMessage request) throws InterruptedException {
+    waitWhileInitializing(); // calcWaitMillisFromNow
+
+    final boolean isDebugEnabled_DLS = logger.isTraceEnabled(LogMarker.DLS);
+    if (isDebugEnabled_DLS) {
+      logger.trace(LogMarker.DLS, "[DLockGrantor.handleLockNameBatch] {}", request);
+    }
+
+    if (!acquireDestroyReadLock(0)) {
+      waitUntilDestroyed();
+      checkDestroyed();
+    }
+    try {
+      checkDestroyed();
+      final DLockNameBatch batch = (DLockNameBatch) request.getObjectName();
+      final Object[] names = batch.getNames();
+      if (!acquireBatchReadLockPermission(request, names.length)) {
+        return;
+      }
+
+      final InternalDistributedMember sender = request.getSender();
+      final RemoteThread rThread = request.getRemoteThread();
+      long leaseExpireTime = -1;
+      int granted = 0;
+      for (; granted < names.length; granted++) {
+        DLockGrantToken grant = getOrCreateGrant(names[granted]);
+        try {
+          synchronized (grant) {
+            if (grant.isGranted(true) || grant.hasWaitingRequests()) {
+              break;
+            }
+            // calc lease expire time just once...
+            if (leaseExpireTime == -1) {
+              leaseExpireTime = grant.calcLeaseExpireTime(request.getLeaseTime());
+            }
+            grant.grantLock(sender, leaseExpireTime, request.getLockId(), rThread);
+          }
+        } finally {
+          grant.decAccess();
+        }
+      }
+
+      if (granted == names.length) {
+        if (isDebugEnabled_DLS) {
+          logger.trace(LogMarker.DLS, "[DLockGrantor.handleLockNameBatch] granting {}", batch);
+        }
+        request.respondWithGrant(leaseExpireTime);
+        if (leaseExpireTime < Long.MAX_VALUE) {
+          long now = DLockService.getLockTimeStamp(this.dm);
+          this.thread.checkTimeToWait(leaseExpireTime - now, true);
+        }
+        return;
+      }
+
+      // failed... release the locks granted so far and give back permission for the rest
+      Object failedName = names[granted];
+      if (isDebugEnabled_DLS) {
+        logger.trace(LogMarker.DLS, "[DLockGrantor.handleLockNameBatch] {} is not available for {}",
+            failedName, batch);
+      }
+      for (int i = 0; i < granted; i++) {
+        getAndReleaseGrantIfLockedBy(names[i], sender, request.getLockId());
+      }
+      for (int i = granted; i < names.length; i++) {
+        postReleaseLock(rThread, names[i]);
+      }
+      request.respondWithTryLockFailed(failedName);
+      drainPermittedRequests();
+    } finally {
+      releaseDestroyReadLock();
+    }
+  }
+
   /**
    * Internally handles a lock request which has permission to proceed.
    * <p>
@@ -943,6 +1035,9 @@ public class DLockGrantor {
     }
     try {
       checkDestroyed();
+      if (request.getObjectName() instanceof DLockNameBatch) {
+        return reenterLockNameBatch(request);
+      }
       // to fix GEODE-678 no longer call request.checkForTimeout
       DLockGrantToken grant = getGrantToken(request.getObjectName());
       if (grant == null) {
@@ -979,13 +1074,108 @@ public class DLockGrantor {
     }
   }
 
+  /**
+   * Extends the leases of every lock in a {@link DLockNameBatch} held by the sender of the request.
+   * The leases are only extended if the sender still holds all of them: every grant token is
+   * validated before any lease is extended, while the monitors of all of them are held.
+   * <p>
+   * Caller must hold destroyReadLock. Synchronizes on grantTokens and each grant token.
+   * 
+   * @param request the reentrant lock request whose object name is a {@link DLockNameBatch}
+   * @return the earliest of the extended leaseExpireTimes or 0 if requestor no longer holds every
+   *         lock
+   */
+  private long reenterLockNameBatch(DLockRequestMessage request) {
+    final InternalDistributedMember sender = request.getSender();
+    if (!this.dm.isCurrentMember(sender)) {
+      return 0;
+    }
+    final DLockNameBatch batch = (DLockNameBatch) request.getObjectName();
+    final Object[] names = batch.getNames();
+    final DLockGrantToken[] grants = new DLockGrantToken[names.length];
+    for (int i = 0; i < names.length; i++) {
+      grants[i] = getGrantToken(names[i]);
+      if (grants[i] == null) {
+        if (logger.isTraceEnabled(LogMarker.DLS)) {
+          logger.trace(LogMarker.DLS,
+              "[DLockGrantor.reenterLockNameBatch] no grantToken found for {}", names[i]);
+        }
+        return 0;
+      }
+    }
+
+    // order the grant tokens so that concurrent batches acquire their monitors in the same order
+    final Integer[] order = new Integer[grants.length];
+    boolean hashCollision = false;
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (a, b) -> Integer.compare(System.identityHashCode(grants[a]),
+        System.identityHashCode(grants[b])));
+    for (int i = 1; i < order.length; i++) {
+      if (grants[order[i - 1]] != grants[order[i]] && System
+          .identityHashCode(grants[order[i - 1]]) == System.identityHashCode(grants[order[i]])) {
+        hashCollision = true;
+        break;
+      }
+    }
+    if (hashCollision) {
+      // distinct tokens with equal identity hash codes have no consistent order
+      synchronized (this.batchTieLock) {
+        return reenterLockNameBatch(request, batch, grants, order, 0);
+      }
+    }
+    return reenterLockNameBatch(request, batch, grants, order, 0);
+  }
+
+  /**
+   * Synchronizes on the grant token at <code>order[next]</code> and recurses until the monitors of
+   * every grant token in the batch are held, then validates and extends all of them.
+   * <p>
+   * Caller must hold destroyReadLock and the monitors of the grant tokens before
+   * <code>order[next]</code>.
+   */
+  private long reenterLockNameBatch(DLockRequestMessage request, DLockNameBatch batch,
+      DLockGrantToken[] grants, Integer[] order, int next) {
+    if (next < order.length) {
+      synchronized (grants[order[next]]) { // synchronize against grant.expireAndGrantLock
+        return reenterLockNameBatch(request, batch, grants, order, next + 1);
+      }
+    }
+
+    final InternalDistributedMember sender = request.getSender();
+    for (int i = 0; i < grants.length; i++) {
+      DLockGrantToken grant = grants[i];
+      int lockId = batch.getLockId(i, request.getLockId());
+      if (grant.isDestroyed() || !grant.isLockedBy(sender, lockId)) {
+        if (logger.isTraceEnabled(LogMarker.DLS)) {
+          logger.trace(LogMarker.DLS,
+              "[DLockGrantor.reenterLockNameBatch] grant is not locked by sender={} lockId={} grant={}",
+              sender, lockId, grant);
+        }
+        return 0;
+      }
+    }
+
+    long earliestLeaseExpireTime = Long.MAX_VALUE;
+    for (int i = 0; i < grants.length; i++) {
+      DLockGrantToken grant = grants[i];
+      int lockId = batch.getLockId(i, request.getLockId());
+      long leaseExpireTime =
+          Math.max(grant.getLeaseExpireTime(), grant.calcLeaseExpireTime(request.getLeaseTime()));
+      grant.grantLock(sender, leaseExpireTime, lockId, grant.getRemoteThread());
+      earliestLeaseExpireTime = Math.min(earliestLeaseExpireTime, grant.getLeaseExpireTime());
+    }
+    return earliestLeaseExpireTime;
+  }
+
   /**
    * Release named lock if held by owner using lockId. Called from DLockReleaseMessage.basicProcess
    * for remote unlock.
    * <p>
    * Acquires destroyReadLock. Synchronizes on grantTokens and the grant token.
    * 
-   * @param name the name of the lock to release
+   * @param name the name of the lock to release, or a {@link DLockNameBatch} of them
    * @param owner the member releasing the lock
    * @param lockId the identity of the lease used by the owner
    * @throws LockGrantorDestroyedException if grantor is destroyed
@@ -999,7 +1189,15 @@ public class DLockGrantor {
     }
     try {
       checkDestroyed();
-      getAndReleaseGrantIfLockedBy(name, owner, lockId);
+      if (name instanceof DLockNameBatch) {
+        DLockNameBatch batch = (DLockNameBatch) name;
+        Object[] names = batch.getNames();
+        for (int i = 0; i < names.length; i++) {
+          getAndReleaseGrantIfLockedBy(names[i], owner, batch.getLockId(i, lockId));
+        }
+      } else {
+        getAndReleaseGrantIfLockedBy(name, owner, lockId);
+      }
     } finally {
       releaseDestroyReadLock();
     }
@@ -1394,7 +1592,14 @@ public class DLockGrantor {
     try {
       checkDestroyed();
       drainPermittedRequests();
-      grantLock(objectName);
+      if (objectName instanceof DLockNameBatch) {
+        Object[] names = ((DLockNameBatch) objectName).getNames();
+        for (int i = 0; i < names.length; i++) {
+          grantLock(names[i]);
+        }
+      } else {
+        grantLock(objectName);
+      }
     } catch (LockServiceDestroyedException e) {
       // ignore... service was destroyed and that's ok
     } catch (LockGrantorDestroyedException e) {
@@ -2275,6 +2480,44 @@ public class DLockGrantor {
     return permitLockRequest;
   }
 
+  /**
+   * Returns true if a batch of read locks has permission to proceed, counting each of them as
+   * held. A batch is never queued behind suspended locking; it fails as a try-lock would instead.
+   * <p>
+   * Synchronizes on suspendLock.
+   * 
+   * @param request the lock request whose object name is a {@link DLockNameBatch}
+   * @param count the number of locks in the batch
+   */
+  private boolean acquireBatchReadLockPermission(DLockRequestMessage request, int count) {
+    final RemoteThread rThread = request.getRemoteThread();
+    Assert.assertTrue(rThread != null);
+    synchronized (suspendLock) {
+      checkDestroyed();
+      if (!dm.isCurrentMember(request.getSender())) {
+        logger.info(LogMarker.DLS, LocalizedMessage
+            .create(LocalizedStrings.DLockGrantor_IGNORING_LOCK_REQUEST_FROM_NONMEMBER_0, request));
+        return false;
+      }
+      Integer integer = (Integer) readLockCountMap.get(rThread);
+      int readLockCount = integer == null ? 0 : integer.intValue();
+      boolean threadHoldsLock = readLockCount > 0 || isLockingSuspendedBy(rThread);
+      if (!threadHoldsLock && (isLockingSuspended() || writeLockWaiters > 0)) {
+        if (logger.isTraceEnabled(LogMarker.DLS)) {
+          logger.trace(LogMarker.DLS,
+              "[DLockGrantor.acquireBatchReadLockPermission] locking is suspended for {}",
+              request);
+        }
+        request.respondWithTryLockFailed(request.getObjectName());
+        return false;
+      }
+      readLockCountMap.put(rThread, Integer.valueOf(readLockCount + count));
+      totalReadLockCount += count;
+      checkTotalReadLockCount();
+    } // suspendLock sync
+    return true;
+  }
+
   /**
    * Returns true if lock request has permission to proceed; else adds the request to the end of
    * suspendQueue and returns false.
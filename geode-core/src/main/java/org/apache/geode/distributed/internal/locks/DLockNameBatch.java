@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.locks;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.internal.DataSerializableFixedID;
+import org.apache.geode.internal.Version;
+
+/**
+ * Names of locks that are requested, extended or released in a single message to the grantor.
+ * Unlike {@link DLockBatch}, which is specific to transactions, the names are ordinary lock names
+ * and each lock is granted and held as if it had been requested on its own.
+ * <p>
+ * A batch is used as the object name of a {@link DLockRequestProcessor.DLockRequestMessage} or a
+ * {@link DLockReleaseProcessor.DLockReleaseMessage}.
+ */
+public class DLockNameBatch implements DataSerializableFixedID {
+
+  /** The lock names, in the order they are processed by the grantor */
+  private Object[] names;
+
+  /**
+   * The lease id each lock is held with, or null if all of them use the lock id of the message
+   */
+  private int[] lockIds;
+
+  /** Public for DataSerializableFixedID */
+  public DLockNameBatch() {}
+
+  DLockNameBatch(Object[] names, int[] lockIds) {
+    this.names = names;
+    this.lockIds = lockIds;
+  }
+
+  Object[] getNames() {
+    return this.names;
+  }
+
+  int size() {
+    return this.names.length;
+  }
+
+  /**
+   * Returns the lease id that the lock at the given index is held with.
+   *
+   * @param index the index of the lock name
+   * @param defaultLockId the lock id of the message carrying this batch
+   */
+  int getLockId(int index, int defaultLockId) {
+    return this.lockIds == null ? defaultLockId : this.lockIds[index];
+  }
+
+  @Override
+  public int getDSFID() {
+    return DLOCK_NAME_BATCH;
+  }
+
+  @Override
+  public Version[] getSerializationVersions() {
+    return null;
+  }
+
+  @Override
+  public void toData(DataOutput out) throws IOException {
+    DataSerializer.writeObjectArray(this.names, out);
+    DataSerializer.writeIntArray(this.lockIds, out);
+  }
+
+  @Override
+  public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+    this.names = DataSerializer.readObjectArray(in);
+    this.lockIds = DataSerializer.readIntArray(in);
+  }
+
+  @Override
+  public String toString() {
+    return "DLockNameBatch@" + Integer.toHexString(hashCode()) + " names="
+        + Arrays.toString(this.names);
+  }
+}
@@ -55,6 +55,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
@@ -1973,6 +1974,421 @@ public class DLockService extends DistributedLockService {
     }
   }
 
+  @Override
+  public boolean lockAll(Collection<?> names, long waitTimeMillis, long leaseTimeMillis) {
+    checkDestroyed();
+    if (names != null && names.isEmpty()) {
+      return true;
+    }
+    final Object[] lockNames = toLockNames(names);
+    final boolean isDebugEnabled_DLS = logger.isTraceEnabled(LogMarker.DLS);
+    if (isDebugEnabled_DLS) {
+      logger.trace(LogMarker.DLS, "{}, names: {} - entering lockAll()", this, names);
+    }
+
+    long statStart = getStats().startLockBatchWait();
+    long startTime = getLockTimeStamp(dm);
+
+    long requestWaitTime = waitTimeMillis;
+    long requestLeaseTime = leaseTimeMillis;
+
+    // -1 means "lease forever". Long.MAX_VALUE is pretty close.
+    if (requestLeaseTime == -1)
+      requestLeaseTime = Long.MAX_VALUE;
+    // -1 means "wait forever". Long.MAX_VALUE is pretty close.
+    if (requestWaitTime == -1)
+      requestWaitTime = Long.MAX_VALUE;
+
+    long waitLimit = startTime + requestWaitTime;
+    if (waitLimit < 0)
+      waitLimit = Long.MAX_VALUE;
+
+    final DLockToken[] lockTokens = new DLockToken[lockNames.length];
+    boolean gotLocks = false;
+    boolean interrupted = false;
+    try {
+      for (int i = 0; i < lockNames.length; i++) {
+        lockTokens[i] = getOrCreateToken(lockNames[i]);
+        synchronized (lockTokens[i]) {
+          lockTokens[i].checkForExpiration();
+          if (lockTokens[i].isLeaseHeldByCurrentThread()) {
+            throw new IllegalStateException(
+                LocalizedStrings.DLockService_0_ATTEMPTED_TO_REENTER_NONREENTRANT_LOCK_1
+                    .toLocalizedString(new Object[] {Thread.currentThread(), lockTokens[i]}));
+          }
+        }
+      }
+
+      ThreadRequestState requestState = (ThreadRequestState) this.threadRequestState.get();
+      if (requestState == null) {
+        requestState = new ThreadRequestState(incThreadSequence(), false);
+        this.threadRequestState.set(requestState);
+      } else {
+        requestState.interruptible = false;
+      }
+      final int threadId = requestState.threadId;
+      final DLockNameBatch batch = new DLockNameBatch(lockNames, null);
+
+      boolean keepTrying = true;
+      while (keepTrying) {
+        checkDestroyed();
+        LockGrantorId theLockGrantorId = getLockGrantorId();
+
+        // every lock in the batch is try-locked by the grantor
+        DLockRequestProcessor processor = createRequestProcessor(theLockGrantorId, batch, threadId,
+            startTime, requestLeaseTime, requestWaitTime, false, true, false);
+        int lockId = processor.getProcessorId();
+        boolean granted;
+        try {
+          granted = processor.requestLock(false, lockId);
+        } catch (InterruptedException e) {
+          interrupted = true;
+          Assert.assertTrue(false,
+              "Non-interruptible lock is trying to throw InterruptedException");
+          granted = false;
+        }
+        if (isDebugEnabled_DLS) {
+          logger.trace(LogMarker.DLS, "Grantor {} replied {}", theLockGrantorId,
+              processor.getResponseCodeString());
+        }
+
+        if (granted) {
+          long leaseExpireTime = processor.getLeaseExpireTime();
+          boolean needToReleaseOrphanedGrant = false;
+          synchronized (this.lockGrantorIdLock) {
+            if (!checkLockGrantorId(theLockGrantorId)) {
+              // race: grantor changed
+              if (isDebugEnabled_DLS) {
+                logger.trace(LogMarker.DLS,
+                    "Cannot honor grant from {} because {} is now a grantor.", theLockGrantorId,
+                    this.lockGrantorId);
+              }
+              continue;
+            } else if (isDestroyed()) {
+              // race: dls was destroyed
+              needToReleaseOrphanedGrant = true;
+            } else {
+              synchronized (this.tokens) {
+                checkDestroyed();
+                RemoteThread rThread = new RemoteThread(getDistributionManager().getId(), threadId);
+                for (int i = 0; i < lockTokens.length; i++) {
+                  Assert.assertTrue(lockTokens[i] == basicGetToken(lockNames[i]));
+                  lockTokens[i].grantLock(leaseExpireTime, lockId, 0, rThread);
+                  incActiveLocks();
+                }
+                gotLocks = true;
+              } // tokens sync
+            }
+          }
+          if (needToReleaseOrphanedGrant) {
+            processor.getResponse().releaseOrphanedGrant(this.dm);
+            checkDestroyed();
+          }
+          keepTrying = false;
+        }
+
+        // grantor replied destroyed
+        else if (processor.repliedDestroyed()) {
+          checkDestroyed();
+          // should have thrown LockServiceDestroyedException
+          Assert.assertTrue(isDestroyed(),
+              "Grantor reports service " + this + " is destroyed: " + names);
+        }
+
+        // grantor replied NOT_GRANTOR or departed
+        else if (processor.repliedNotGrantor() || processor.hadNoResponse()) {
+          notLockGrantorId(theLockGrantorId, 0, TimeUnit.MILLISECONDS);
+        }
+
+        // one of the locks is held by someone else or locking is suspended. The batch is not
+        // queued at the grantor, so contended locks may keep failing it until waitLimit
+        else {
+          long timeLeft = waitLimit - getLockTimeStamp(this.dm);
+          keepTrying = timeLeft > 0;
+          if (keepTrying && timeLeft > 10) {
+            sleep(10);
+          }
+        }
+      } // while (keepTrying)
+    } finally {
+      getStats().endLockBatchWait(statStart, gotLocks);
+      if (!gotLocks) {
+        // cleanup tokens if failed to get locks
+        for (int i = 0; i < lockTokens.length && lockTokens[i] != null; i++) {
+          synchronized (lockTokens[i]) {
+            lockTokens[i].decUsage();
+          }
+          freeResources(lockNames[i]);
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    if (isDebugEnabled_DLS) {
+      logger.trace(LogMarker.DLS, "{}, names: {} - exiting lockAll() returning {}", this, names,
+          gotLocks);
+    }
+    return gotLocks;
+  }
+
+  @Override
+  public void unlockAll(Collection<?> names) throws LockNotHeldException, LeaseExpiredException {
+    if (names != null && names.isEmpty()) {
+      return;
+    }
+    final Object[] lockNames = toLockNames(names);
+    final boolean isDebugEnabled_DLS = logger.isTraceEnabled(LogMarker.DLS);
+
+    if (this.ds.isDisconnectListenerThread()) {
+      if (isDebugEnabled_DLS) {
+        logger.trace(LogMarker.DLS,
+            "{}, names: {} - disconnect listener thread is exiting unlockAll()", this, names);
+      }
+      return;
+    }
+
+    if (isDebugEnabled_DLS) {
+      logger.trace(LogMarker.DLS, "{}, names: {} - entering unlockAll()", this, names);
+    }
+
+    long statStart = getStats().startLockRelease();
+
+    final DLockToken[] lockTokens = new DLockToken[lockNames.length];
+    final RemoteThread[] rThreads = new RemoteThread[lockNames.length];
+    final int[] lockIds = new int[lockNames.length];
+    final boolean[] hadRecursion = new boolean[lockNames.length];
+    int released = 0;
+
+    try {
+      synchronized (this.tokens) {
+        checkDestroyed();
+        // make sure every lock is held before releasing any of them
+        for (int i = 0; i < lockNames.length; i++) {
+          DLockToken token = basicGetToken(lockNames[i]);
+          if (token == null) {
+            throw new LockNotHeldException(
+                LocalizedStrings.DLockService_ATTEMPTING_TO_UNLOCK_0_1_BUT_THIS_THREAD_DOESNT_OWN_THE_LOCK
+                    .toLocalizedString(new Object[] {this, lockNames[i]}));
+          }
+          synchronized (token) {
+            token.checkForExpiration();
+            RemoteThread rThread = token.getLesseeThread();
+            if (!token.isLeaseHeldByCurrentOrRemoteThread(rThread)) {
+              token.throwIfCurrentThreadHadExpiredLease();
+              throw new LockNotHeldException(
+                  LocalizedStrings.DLockService_ATTEMPTING_TO_UNLOCK_0_1_BUT_THIS_THREAD_DOESNT_OWN_THE_LOCK_2
+                      .toLocalizedString(new Object[] {this, lockNames[i], token}));
+            }
+            lockTokens[i] = token;
+            rThreads[i] = rThread;
+            lockIds[i] = token.getLeaseId();
+            Assert.assertTrue(lockIds[i] > -1);
+          } // token sync
+        }
+
+        for (int i = 0; i < lockNames.length; i++) {
+          synchronized (lockTokens[i]) {
+            // if recursion > 0 then token will still be locked after calling release
+            hadRecursion[i] = lockTokens[i].getRecursion() > 0;
+            if (hadRecursion[i]) {
+              lockTokens[i].releaseLock(lockIds[i], rThreads[i]);
+            } else {
+              lockTokens[i].setIgnoreForRecovery(true);
+              released++;
+            }
+          } // token sync
+        }
+      } // tokens map sync
+
+      if (released > 0) {
+        Object[] releaseNames = new Object[released];
+        int[] releaseLockIds = new int[released];
+        for (int i = 0, j = 0; i < lockNames.length; i++) {
+          if (!hadRecursion[i]) {
+            releaseNames[j] = lockNames[i];
+            releaseLockIds[j] = lockIds[i];
+            j++;
+          }
+        }
+        DLockNameBatch batch = new DLockNameBatch(releaseNames, releaseLockIds);
+
+        boolean releasedByGrantor = false;
+        while (!releasedByGrantor) {
+          checkDestroyed();
+          LockGrantorId theLockGrantorId = getLockGrantorId();
+          try {
+            releasedByGrantor = callReleaseProcessor(theLockGrantorId.getLockGrantorMember(),
+                batch, false, -1);
+          } catch (LockGrantorDestroyedException e) {
+            // loop back around to get next lock grantor
+          } catch (LockServiceDestroyedException e) {
+            // done... NonGrantorDestroyedMessage will release locks for us
+            releasedByGrantor = true;
+          } finally {
+            if (!releasedByGrantor) {
+              notLockGrantorId(theLockGrantorId, 0, TimeUnit.MILLISECONDS);
+            }
+          }
+        } // while !releasedByGrantor
+      }
+
+    } // try
+    finally {
+      try {
+        for (int i = 0; i < lockNames.length; i++) {
+          if (lockTokens[i] != null && !hadRecursion[i]) {
+            decActiveLocks();
+            lockTokens[i].releaseLock(lockIds[i], rThreads[i]);
+          }
+        }
+      } finally {
+        getStats().endLockRelease(statStart);
+        if (this.automateFreeResources) {
+          for (int i = 0; i < lockNames.length; i++) {
+            freeResources(lockNames[i]);
+          }
+        }
+        if (isDebugEnabled_DLS) {
+          logger.trace(LogMarker.DLS, "{}, names: {} - exiting unlockAll()", this, names);
+        }
+      }
+    }
+  }
+
+  @Override
+  public boolean extendLeases(Collection<?> names, long leaseTimeMillis) {
+    checkDestroyed();
+    if (names != null && names.isEmpty()) {
+      return true;
+    }
+    final Object[] lockNames = toLockNames(names);
+    final boolean isDebugEnabled_DLS = logger.isTraceEnabled(LogMarker.DLS);
+    if (isDebugEnabled_DLS) {
+      logger.trace(LogMarker.DLS, "{}, names: {} - entering extendLeases()", this, names);
+    }
+
+    long requestLeaseTime = leaseTimeMillis;
+    // -1 means "lease forever". Long.MAX_VALUE is pretty close.
+    if (requestLeaseTime == -1)
+      requestLeaseTime = Long.MAX_VALUE;
+
+    final DLockToken[] lockTokens = new DLockToken[lockNames.length];
+    final int[] lockIds = new int[lockNames.length];
+    for (int i = 0; i < lockNames.length; i++) {
+      DLockToken token = getToken(lockNames[i]);
+      if (token == null) {
+        throw new LockNotHeldException(
+            LocalizedStrings.DLockService_ATTEMPTING_TO_UNLOCK_0_1_BUT_THIS_THREAD_DOESNT_OWN_THE_LOCK
+                .toLocalizedString(new Object[] {this, lockNames[i]}));
+      }
+      synchronized (token) {
+        token.checkForExpiration();
+        if (!token.isLeaseHeldByCurrentThread()) {
+          token.throwIfCurrentThreadHadExpiredLease();
+          throw new LockNotHeldException(
+              LocalizedStrings.DLockService_ATTEMPTING_TO_UNLOCK_0_1_BUT_THIS_THREAD_DOESNT_OWN_THE_LOCK_2
+                  .toLocalizedString(new Object[] {this, lockNames[i], token}));
+        }
+        lockTokens[i] = token;
+        lockIds[i] = token.getLeaseId();
+      } // token sync
+    }
+
+    final int threadId = ((ThreadRequestState) this.threadRequestState.get()).threadId;
+    final DLockNameBatch batch = new DLockNameBatch(lockNames, lockIds);
+    long statStart = getStats().startLeaseBatchExtension();
+    boolean extended = false;
+    boolean interrupted = false;
+    try {
+      boolean keepTrying = true;
+      while (keepTrying) {
+        checkDestroyed();
+        LockGrantorId theLockGrantorId = getLockGrantorId();
+        long startTime = getLockTimeStamp(dm);
+
+        // reentrant request extends the lease of every lock held by this thread
+        DLockRequestProcessor processor = createRequestProcessor(theLockGrantorId, batch, threadId,
+            startTime, requestLeaseTime, Long.MAX_VALUE, true, false, false);
+        boolean granted;
+        try {
+          granted = processor.requestLock(false, lockIds[0]);
+        } catch (InterruptedException e) {
+          interrupted = true;
+          Assert.assertTrue(false,
+              "Non-interruptible lock is trying to throw InterruptedException");
+          granted = false;
+        }
+        if (isDebugEnabled_DLS) {
+          logger.trace(LogMarker.DLS, "Grantor {} replied {}", theLockGrantorId,
+              processor.getResponseCodeString());
+        }
+
+        if (granted) {
+          long leaseExpireTime = processor.getLeaseExpireTime();
+          synchronized (this.lockGrantorIdLock) {
+            if (!checkLockGrantorId(theLockGrantorId)) {
+              // race: grantor changed
+              continue;
+            }
+            synchronized (this.tokens) {
+              checkDestroyed();
+              for (int i = 0; i < lockTokens.length; i++) {
+                synchronized (lockTokens[i]) {
+                  if (lockTokens[i].getLeaseId() == lockIds[i]) {
+                    lockTokens[i].grantLock(
+                        Math.max(lockTokens[i].getLeaseExpireTime(), leaseExpireTime), lockIds[i],
+                        lockTokens[i].getRecursion(), lockTokens[i].getLesseeThread());
+                  }
+                }
+              }
+            } // tokens sync
+          }
+          extended = true;
+          keepTrying = false;
+        } else if (processor.repliedDestroyed()) {
+          checkDestroyed();
+          // should have thrown LockServiceDestroyedException
+          Assert.assertTrue(isDestroyed(),
+              "Grantor reports service " + this + " is destroyed: " + names);
+        } else if (processor.repliedNotGrantor() || processor.hadNoResponse()) {
+          notLockGrantorId(theLockGrantorId, 0, TimeUnit.MILLISECONDS);
+        } else {
+          // grantor replied NOT_HOLDER: one of the leases has already expired
+          keepTrying = false;
+        }
+      } // while (keepTrying)
+    } finally {
+      getStats().endLeaseBatchExtension(statStart);
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    if (isDebugEnabled_DLS) {
+      logger.trace(LogMarker.DLS, "{}, names: {} - exiting extendLeases() returning {}", this,
+          names, extended);
+    }
+    return extended;
+  }
+
+  /**
+   * Returns the distinct lock names in the given collection in iteration order.
+   *
+   * @throws IllegalArgumentException if names is null or one of them suspends locking
+   */
+  private static Object[] toLockNames(Collection<?> names) {
+    if (names == null) {
+      throw new IllegalArgumentException("Lock names must not be null");
+    }
+    Set<Object> lockNames = new LinkedHashSet<Object>(names);
+    if (lockNames.contains(SUSPEND_LOCKING_TOKEN)) {
+      throw new IllegalArgumentException("Locking cannot be suspended by a batch of locks");
+    }
+    return lockNames.toArray();
+  }
+
   /**
    * Query the grantor for current leasing information of a lock. Returns the current lease info.
    * 
@@ -2898,7 +3314,8 @@ public class DLockService extends DistributedLockService {
         // make sure thread group is ready...
         readyThreadGroup(ds);
 
-        if (services.get(serviceName) != null) {
+        if (services.get(serviceName) != null
+            || ShardedDLockService.getServiceNamed(serviceName) != null) {
           throw new IllegalArgumentException(
               LocalizedStrings.DLockService_SERVICE_NAMED_0_ALREADY_CREATED
                   .toLocalizedString(serviceName));
@@ -3040,6 +3457,12 @@ public class DLockService extends DistributedLockService {
                 .toLocalizedString(serviceName));
       }
     }
+    // the shards of sharded lock services are named after them
+    if (serviceName.contains(ShardedDLockService.SHARD_SEPARATOR)) {
+      throw new IllegalArgumentException(
+          LocalizedStrings.DLockService_SERVICE_NAMED_0_IS_RESERVED_FOR_INTERNAL_USE_ONLY
+              .toLocalizedString(serviceName));
+    }
   }
 
   /** Return a snapshot of all services */
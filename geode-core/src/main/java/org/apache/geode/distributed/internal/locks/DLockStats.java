@@ -46,6 +46,12 @@ public class DLockStats implements DistributedLockStats {
   private final static int lockWaitTimeId;
   private final static int lockWaitsFailedId;
   private final static int lockWaitFailedTimeId;
+  private final static int lockBatchWaitsCompletedId;
+  private final static int lockBatchWaitTimeId;
+  private final static int lockBatchWaitsFailedId;
+  private final static int lockBatchWaitFailedTimeId;
+  private final static int leaseBatchExtensionsId;
+  private final static int leaseBatchExtensionTimeId;
   private final static int grantWaitsInProgressId;
   private final static int grantWaitsCompletedId;
   private final static int grantWaitTimeId;
@@ -132,6 +138,18 @@ public class DLockStats implements DistributedLockStats {
         "Total number of times distributed lock wait has completed by failing to obtain the lock.";
     final String lockWaitFailedTimeDesc =
         "Total time spent waiting for a distributed lock that we failed to obtain.";
+    final String lockBatchWaitsCompletedDesc =
+        "Total number of times a batch of distributed locks was obtained in one request to the grantor.";
+    final String lockBatchWaitTimeDesc =
+        "Total time spent waiting for batches of distributed locks that were obtained.";
+    final String lockBatchWaitsFailedDesc =
+        "Total number of times a batch of distributed locks could not be obtained.";
+    final String lockBatchWaitFailedTimeDesc =
+        "Total time spent waiting for batches of distributed locks that we failed to obtain.";
+    final String leaseBatchExtensionsDesc =
+        "Total number of times the leases of a batch of distributed locks were extended in one request to the grantor.";
+    final String leaseBatchExtensionTimeDesc =
+        "Total time spent extending the leases of batches of distributed locks.";
     final String grantWaitsInProgressDesc =
         "Current number of distributed lock requests being granted.";
     final String grantWaitsCompletedDesc =
@@ -252,6 +270,14 @@ public class DLockStats implements DistributedLockStats {
         f.createLongCounter("lockWaitTime", lockWaitTimeDesc, "nanoseconds", false),
         f.createIntCounter("lockWaitsFailed", lockWaitsFailedDesc, "operations"),
         f.createLongCounter("lockWaitFailedTime", lockWaitFailedTimeDesc, "nanoseconds", false),
+        f.createIntCounter("lockBatchWaitsCompleted", lockBatchWaitsCompletedDesc, "operations"),
+        f.createLongCounter("lockBatchWaitTime", lockBatchWaitTimeDesc, "nanoseconds", false),
+        f.createIntCounter("lockBatchWaitsFailed", lockBatchWaitsFailedDesc, "operations"),
+        f.createLongCounter("lockBatchWaitFailedTime", lockBatchWaitFailedTimeDesc, "nanoseconds",
+            false),
+        f.createIntCounter("leaseBatchExtensions", leaseBatchExtensionsDesc, "operations"),
+        f.createLongCounter("leaseBatchExtensionTime", leaseBatchExtensionTimeDesc, "nanoseconds",
+            false),
         f.createIntGauge("grantWaitsInProgress", grantWaitsInProgressDesc, "operations"),
         f.createIntCounter("grantWaitsCompleted", grantWaitsCompletedDesc, "operations"),
         f.createLongCounter("grantWaitTime", grantWaitTimeDesc, "nanoseconds", false),
@@ -335,6 +361,12 @@ public class DLockStats implements DistributedLockStats {
     lockWaitTimeId = type.nameToId("lockWaitTime");
     lockWaitsFailedId = type.nameToId("lockWaitsFailed");
     lockWaitFailedTimeId = type.nameToId("lockWaitFailedTime");
+    lockBatchWaitsCompletedId = type.nameToId("lockBatchWaitsCompleted");
+    lockBatchWaitTimeId = type.nameToId("lockBatchWaitTime");
+    lockBatchWaitsFailedId = type.nameToId("lockBatchWaitsFailed");
+    lockBatchWaitFailedTimeId = type.nameToId("lockBatchWaitFailedTime");
+    leaseBatchExtensionsId = type.nameToId("leaseBatchExtensions");
+    leaseBatchExtensionTimeId = type.nameToId("leaseBatchExtensionTime");
     grantWaitsInProgressId = type.nameToId("grantWaitsInProgress");
     grantWaitsCompletedId = type.nameToId("grantWaitsCompleted");
     grantWaitTimeId = type.nameToId("grantWaitTime");
@@ -461,6 +493,63 @@ public class DLockStats implements DistributedLockStats {
     }
   }
 
+  // time for call to lockAll() to complete
+  public int getLockBatchWaitsCompleted() {
+    return stats.getInt(lockBatchWaitsCompletedId);
+  }
+
+  public int getLockBatchWaitsFailed() {
+    return stats.getInt(lockBatchWaitsFailedId);
+  }
+
+  public long getLockBatchWaitTime() {
+    return stats.getLong(lockBatchWaitTimeId);
+  }
+
+  public long getLockBatchWaitFailedTime() {
+    return stats.getLong(lockBatchWaitFailedTimeId);
+  }
+
+  public long startLockBatchWait() {
+    return DLockStats.getStatTime();
+  }
+
+  public void endLockBatchWait(long start, boolean success) {
+    long ts = DLockStats.getStatTime();
+    if (success) {
+      stats.incInt(lockBatchWaitsCompletedId, 1);
+      if (DistributionStats.enableClockStats) {
+        stats.incLong(lockBatchWaitTimeId, ts - start);
+      }
+    } else {
+      stats.incInt(lockBatchWaitsFailedId, 1);
+      if (DistributionStats.enableClockStats) {
+        stats.incLong(lockBatchWaitFailedTimeId, ts - start);
+      }
+    }
+  }
+
+  // time for call to extendLeases() to complete
+  public int getLeaseBatchExtensions() {
+    return stats.getInt(leaseBatchExtensionsId);
+  }
+
+  public long getLeaseBatchExtensionTime() {
+    return stats.getLong(leaseBatchExtensionTimeId);
+  }
+
+  public long startLeaseBatchExtension() {
+    return DLockStats.getStatTime();
+  }
+
+  public void endLeaseBatchExtension(long start) {
+    long ts = DLockStats.getStatTime();
+    stats.incInt(leaseBatchExtensionsId, 1);
+    if (DistributionStats.enableClockStats) {
+      stats.incLong(leaseBatchExtensionTimeId, ts - start);
+    }
+  }
+
   // incSerialQueueSize everytime getWaitingQueueHelper add/remove called
   public int getWaitingQueueSize() {
     return this.stats.getInt(waitingQueueSizeId);
@@ -55,6 +55,41 @@ public interface DistributedLockStats {
    */
   public void endLockWait(long start, boolean success);
 
+  // time for call to lockAll() to complete
+
+  /**
+   * Returns the total number of batches of distributed locks that were obtained
+   */
+  public int getLockBatchWaitsCompleted();
+
+  public int getLockBatchWaitsFailed();
+
+  /**
+   * Returns the total number of nanoseconds spent waiting for batches of distributed locks.
+   */
+  public long getLockBatchWaitTime();
+
+  public long getLockBatchWaitFailedTime();
+
+  /**
+   * @return the timestamp that marks the start of the operation
+   */
+  public long startLockBatchWait();
+
+  /**
+   * @param start the timestamp taken when the operation started
+   */
+  public void endLockBatchWait(long start, boolean success);
+
+  // time for call to extendLeases() to complete
+  public int getLeaseBatchExtensions();
+
+  public long getLeaseBatchExtensionTime();
+
+  public long startLeaseBatchExtension();
+
+  public void endLeaseBatchExtension(long start);
+
   // incSerialQueueSize everytime getWaitingQueueHelper add/remove called
   public int getWaitingQueueSize();
 
@@ -50,6 +50,42 @@ public class DummyDLockStats implements DistributedLockStats {
 
   public void endLockWait(long start, boolean success) {}
 
+  public int getLockBatchWaitsCompleted() {
+    return -1;
+  }
+
+  public int getLockBatchWaitsFailed() {
+    return -1;
+  }
+
+  public long getLockBatchWaitTime() {
+    return -1;
+  }
+
+  public long getLockBatchWaitFailedTime() {
+    return -1;
+  }
+
+  public long startLockBatchWait() {
+    return -1;
+  }
+
+  public void endLockBatchWait(long start, boolean success) {}
+
+  public int getLeaseBatchExtensions() {
+    return -1;
+  }
+
+  public long getLeaseBatchExtensionTime() {
+    return -1;
+  }
+
+  public long startLeaseBatchExtension() {
+    return -1;
+  }
+
+  public void endLeaseBatchExtension(long start) {}
+
   public int getWaitingQueueSize() {
     return -1;
   }
@@ -0,0 +1,557 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.locks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.distributed.DistributedLockService;
+import org.apache.geode.distributed.LeaseExpiredException;
+import org.apache.geode.distributed.LockNotHeldException;
+import org.apache.geode.distributed.internal.InternalDistributedSystem;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.i18n.LocalizedStrings;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.log4j.LogMarker;
+
+/**
+ * A distributed lock service whose lock names are hashed over several {@link DLockService}
+ * shards. Each shard is an ordinary lock service with its own grantor, elected and recovered by
+ * the elder independently of the other shards, so the work of granting locks is spread over as
+ * many members as there are shards instead of being done by a single grantor.
+ * <p>
+ * The member that first asks the elder for the grantor of a shard becomes its grantor. To spread
+ * the shards out, every member claims one shard that does not have a grantor yet when it creates
+ * the service. When a grantor departs, the next member to use one of its shards takes over and
+ * recovers the held locks of that shard only.
+ * <p>
+ * Every member must create the service with the same number of shards. Each member records its
+ * shard count in an extra lock service, the shard count service, by holding locks whose names
+ * identify the member and its count, and a member whose count differs from the count of a member
+ * that already created the service is rejected.
+ * <p>
+ * Lock names must have the same <code>hashCode()</code> in every member, as strings and boxed
+ * primitives do, so that every member hashes a name to the same shard. Enums are hashed by their
+ * class and constant names. Names whose class does not override <code>hashCode()</code>, and so
+ * uses the identity hash code of each instance, are rejected.
+ */
+public class ShardedDLockService extends DistributedLockService {
+
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * Separates the service name from the shard index in the name of each shard. Service names
+   * containing it are reserved for sharded lock services.
+   */
+  public static final String SHARD_SEPARATOR = "#shard";
+
+  /** Suffix of the name of the shard count service */
+  private static final String SHARD_COUNT_SUFFIX = SHARD_SEPARATOR + "Count";
+
+  /** Map of all sharded lock services. Key: serviceName, Value: ShardedDLockService */
+  private static final Map<String, ShardedDLockService> services =
+      new HashMap<String, ShardedDLockService>();
+
+  /**
+   * Whether the classes of the lock names seen so far use the identity hash code. Key: class, Value:
+   * true if it does not override <code>hashCode()</code>
+   */
+  private static final ConcurrentMap<Class<?>, Boolean> identityHashClasses =
+      new ConcurrentHashMap<Class<?>, Boolean>();
+
+  /** Unique name for this instance of the sharded locking service */
+  private final String serviceName;
+
+  /** The shards, each of which grants the locks whose names hash to its index */
+  private final DLockService[] shards;
+
+  /** Holds the locks that record the shard count of this member */
+  private final DLockService shardCountService;
+
+  private ShardedDLockService(String serviceName, DLockService[] shards,
+      DLockService shardCountService) {
+    this.serviceName = serviceName;
+    this.shards = shards;
+    this.shardCountService = shardCountService;
+  }
+
+  /**
+   * Creates a named sharded lock service.
+   *
+   * @param serviceName name of the service
+   * @param ds InternalDistributedSystem
+   * @param shardCount the number of shards, which must be the same in every member
+   *
+   * @throws IllegalArgumentException if serviceName is invalid, shardCount is less than one,
+   *         another member created the service with a different shardCount or this process has
+   *         already created named service
+   *
+   * @throws IllegalStateException if system is in process of disconnecting
+   */
+  public static DistributedLockService create(String serviceName, InternalDistributedSystem ds,
+      int shardCount) throws IllegalArgumentException, IllegalStateException {
+    if (shardCount < 1) {
+      throw new IllegalArgumentException("shardCount must be at least 1 but was " + shardCount);
+    }
+    ShardedDLockService svc;
+    synchronized (DLockService.creationLock) {
+      if (getServiceNamed(serviceName) != null
+          || DLockService.getServiceNamed(serviceName) != null) {
+        throw new IllegalArgumentException(
+            LocalizedStrings.DLockService_SERVICE_NAMED_0_ALREADY_CREATED
+                .toLocalizedString(serviceName));
+      }
+      DLockService shardCountService = (DLockService) DLockService.create(
+          serviceName + SHARD_COUNT_SUFFIX, ds, true /* distributed */,
+          true /* destroyOnDisconnect */, false /* automateFreeResources */);
+      DLockService[] shards = new DLockService[shardCount];
+      try {
+        recordShardCount(serviceName, shardCountService, ds, shardCount);
+        for (int i = 0; i < shardCount; i++) {
+          shards[i] = (DLockService) DLockService.create(getShardName(serviceName, i), ds,
+              true /* distributed */, true /* destroyOnDisconnect */,
+              false /* automateFreeResources */);
+        }
+      } catch (RuntimeException e) {
+        for (int i = 0; i < shardCount && shards[i] != null; i++) {
+          shards[i].destroyAndRemove();
+        }
+        shardCountService.destroyAndRemove();
+        throw e;
+      }
+      svc = new ShardedDLockService(serviceName, shards, shardCountService);
+      synchronized (services) {
+        services.put(serviceName, svc);
+      }
+    }
+    svc.claimUngrantedShard(ds);
+    return svc;
+  }
+
+  /**
+   * Records the shard count of this member and checks it against the counts recorded by the other
+   * members. Until it destroys the service or departs, each member holds a lock whose name
+   * identifies the member and its shard count and then a lock whose name identifies the member
+   * alone. A member holding the second lock but not the first one for this shard count created
+   * the service with a different count. Because every member records its count before checking
+   * the others, at least one of two members creating the service at the same time with different
+   * counts sees the other.
+   *
+   * @throws IllegalArgumentException if another member created the service with a different
+   *         shard count
+   */
+  private static void recordShardCount(String serviceName, DLockService shardCountService,
+      InternalDistributedSystem ds, int shardCount) {
+    InternalDistributedMember myId = ds.getDistributedMember();
+    shardCountService.lock(getShardCountLockName(myId, shardCount), -1, -1);
+    shardCountService.lock(getMemberLockName(myId), -1, -1);
+    for (Object id : ds.getDistributionManager().getOtherDistributionManagerIds()) {
+      InternalDistributedMember member = (InternalDistributedMember) id;
+      if (shardCountService.queryLock(getShardCountLockName(member, shardCount))
+          .getLessee() != null) {
+        continue;
+      }
+      if (shardCountService.queryLock(getMemberLockName(member)).getLessee() != null) {
+        throw new IllegalArgumentException("Lock service " + serviceName + " was created by "
+            + member + " with a shard count other than " + shardCount);
+      }
+    }
+  }
+
+  private static String getShardCountLockName(InternalDistributedMember member, int shardCount) {
+    return member + SHARD_COUNT_SUFFIX + shardCount;
+  }
+
+  private static String getMemberLockName(InternalDistributedMember member) {
+    return String.valueOf(member);
+  }
+
+  /**
+   * Returns the sharded lock service with the given name or null if it has not been created or
+   * has been destroyed.
+   */
+  public static ShardedDLockService getServiceNamed(String serviceName) {
+    synchronized (services) {
+      ShardedDLockService svc = services.get(serviceName);
+      if (svc != null && svc.isDestroyed()) {
+        // a shard was destroyed, most likely by disconnect
+        services.remove(serviceName);
+        svc = null;
+      }
+      return svc;
+    }
+  }
+
+  /**
+   * Destroys the named sharded lock service and all of its shards.
+   *
+   * @return false if there is no sharded lock service with the given name
+   */
+  public static boolean destroyServiceNamed(String serviceName) {
+    ShardedDLockService svc;
+    synchronized (services) {
+      svc = services.remove(serviceName);
+    }
+    if (svc == null) {
+      return false;
+    }
+    for (DLockService shard : svc.shards) {
+      if (!shard.isDestroyed()) {
+        shard.destroyAndRemove();
+      }
+    }
+    if (!svc.shardCountService.isDestroyed()) {
+      svc.shardCountService.destroyAndRemove();
+    }
+    return true;
+  }
+
+  static String getShardName(String serviceName, int index) {
+    return serviceName + SHARD_SEPARATOR + index;
+  }
+
+  /**
+   * Returns the index of the shard that grants the lock for the given name.
+   *
+   * @throws IllegalArgumentException if the name does not have the same hash code in every member
+   */
+  static int getShardIndex(Object name, int shardCount) {
+    int h = getStableHashCode(name);
+    h ^= (h >>> 16);
+    return (h & 0x7fffffff) % shardCount;
+  }
+
+  /**
+   * Returns a hash code of the given lock name that is the same in every member.
+   *
+   * @throws IllegalArgumentException if the name's class uses the identity hash code
+   */
+  static int getStableHashCode(Object name) {
+    if (name instanceof String) {
+      return name.hashCode();
+    }
+    if (name instanceof Enum) {
+      // Enum.hashCode() is the identity hash code
+      Enum<?> constant = (Enum<?>) name;
+      return constant.getDeclaringClass().getName().hashCode() * 31 + constant.name().hashCode();
+    }
+    Class<?> c = name.getClass();
+    Boolean identityHash = identityHashClasses.get(c);
+    if (identityHash == null) {
+      try {
+        identityHash = c.getMethod("hashCode").getDeclaringClass() == Object.class;
+      } catch (NoSuchMethodException e) {
+        // not possible, every class has a public hashCode()
+        identityHash = Boolean.TRUE;
+      }
+      identityHashClasses.put(c, identityHash);
+    }
+    if (identityHash) {
+      throw new IllegalArgumentException("Lock name " + name + " of " + c
+          + " does not override hashCode() and cannot be hashed to the same shard by every member");
+    }
+    return name.hashCode();
+  }
+
+  /**
+   * Makes this member the grantor of one shard that has no grantor yet, looking at the shards in
+   * an order that depends on the member so that members created at the same time claim different
+   * shards.
+   */
+  private void claimUngrantedShard(InternalDistributedSystem ds) {
+    if (this.shards.length == 1) {
+      return;
+    }
+    InternalDistributedMember myId = ds.getDistributedMember();
+    int start = getShardIndex(myId, this.shards.length);
+    for (int i = 0; i < this.shards.length; i++) {
+      DLockService shard = this.shards[(start + i) % this.shards.length];
+      GrantorInfo gi = DLockService.checkLockGrantorInfo(shard.getName(), ds);
+      if (gi.getId() == null) {
+        // the elder makes the first member to ask the grantor
+        shard.getLockGrantorId();
+        if (logger.isTraceEnabled(LogMarker.DLS)) {
+          logger.trace(LogMarker.DLS, "{} claimed grantor of {}: {}", this, shard.getName(),
+              shard.isLockGrantor());
+        }
+        return;
+      }
+    }
+  }
+
+  public String getName() {
+    return this.serviceName;
+  }
+
+  public int getShardCount() {
+    return this.shards.length;
+  }
+
+  /**
+   * Returns the shard that grants the lock for the given name.
+   */
+  public DLockService getShard(Object name) {
+    return this.shards[getShardIndex(name, this.shards.length)];
+  }
+
+  /**
+   * Returns true if any of the shards has been destroyed.
+   */
+  public boolean isDestroyed() {
+    for (DLockService shard : this.shards) {
+      if (shard.isDestroyed()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Groups the given names by shard, in shard order.
+   */
+  private TreeMap<Integer, List<Object>> groupByShard(Collection<?> names) {
+    TreeMap<Integer, List<Object>> groups = new TreeMap<Integer, List<Object>>();
+    for (Object name : names) {
+      Integer index = Integer.valueOf(getShardIndex(name, this.shards.length));
+      List<Object> group = groups.get(index);
+      if (group == null) {
+        group = new ArrayList<Object>();
+        groups.put(index, group);
+      }
+      group.add(name);
+    }
+    return groups;
+  }
+
+  @Override
+  public boolean lock(Object name, long waitTimeMillis, long leaseTimeMillis) {
+    return getShard(name).lock(name, waitTimeMillis, leaseTimeMillis);
+  }
+
+  @Override
+  @Deprecated
+  public boolean lockInterruptibly(Object name, long waitTimeMillis, long leaseTimeMillis)
+      throws InterruptedException {
+    return getShard(name).lockInterruptibly(name, waitTimeMillis, leaseTimeMillis);
+  }
+
+  @Override
+  public void unlock(Object name) throws LeaseExpiredException {
+    getShard(name).unlock(name);
+  }
+
+  /**
+   * Locks the names of each shard with a batch request to its grantor. Every shard is try-locked
+   * in shard order; if any of them fails the shards already locked are released before trying
+   * again, so no locks are held while waiting. Like {@link DLockService#lockAll}, waiting is not
+   * interrupted.
+   */
+  @Override
+  public boolean lockAll(Collection<?> names, long waitTimeMillis, long leaseTimeMillis) {
+    if (names.isEmpty()) {
+      return true;
+    }
+    TreeMap<Integer, List<Object>> groups = groupByShard(names);
+    if (groups.size() == 1) {
+      return this.shards[groups.firstKey()].lockAll(names, waitTimeMillis, leaseTimeMillis);
+    }
+
+    long waitLimit = waitTimeMillis == -1 ? Long.MAX_VALUE
+        : System.currentTimeMillis() + waitTimeMillis;
+    if (waitLimit < 0) {
+      waitLimit = Long.MAX_VALUE;
+    }
+    List<Map.Entry<Integer, List<Object>>> locked =
+        new ArrayList<Map.Entry<Integer, List<Object>>>(groups.size());
+    boolean interrupted = false;
+    try {
+      while (true) {
+        boolean success = false;
+        try {
+          for (Map.Entry<Integer, List<Object>> group : groups.entrySet()) {
+            if (!this.shards[group.getKey()].lockAll(group.getValue(), 0, leaseTimeMillis)) {
+              break;
+            }
+            locked.add(group);
+          }
+          success = locked.size() == groups.size();
+        } finally {
+          if (!success) {
+            for (Map.Entry<Integer, List<Object>> group : locked) {
+              this.shards[group.getKey()].unlockAll(group.getValue());
+            }
+            locked.clear();
+          }
+        }
+        if (success) {
+          return true;
+        }
+        long timeLeft = waitLimit - System.currentTimeMillis();
+        if (timeLeft <= 0) {
+          return false;
+        }
+        try {
+          Thread.sleep(Math.min(10, timeLeft));
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  @Override
+  public void unlockAll(Collection<?> names) throws LeaseExpiredException {
+    TreeMap<Integer, List<Object>> groups = groupByShard(names);
+    // make sure every lock is held before releasing any of them
+    for (Object name : names) {
+      if (!getShard(name).isHeldByCurrentThread(name)) {
+        throw new LockNotHeldException(
+            LocalizedStrings.DLockService_ATTEMPTING_TO_UNLOCK_0_1_BUT_THIS_THREAD_DOESNT_OWN_THE_LOCK
+                .toLocalizedString(new Object[] {this, name}));
+      }
+    }
+    for (Map.Entry<Integer, List<Object>> group : groups.entrySet()) {
+      this.shards[group.getKey()].unlockAll(group.getValue());
+    }
+  }
+
+  /**
+   * Extends the leases with one batch request to the grantor of each shard. Returns false if the
+   * leases of any shard could not be extended; the leases of the other shards may have been.
+   */
+  @Override
+  public boolean extendLeases(Collection<?> names, long leaseTimeMillis) {
+    boolean extended = true;
+    for (Map.Entry<Integer, List<Object>> group : groupByShard(names).entrySet()) {
+      extended &= this.shards[group.getKey()].extendLeases(group.getValue(), leaseTimeMillis);
+    }
+    return extended;
+  }
+
+  @Override
+  public boolean isHeldByCurrentThread(Object name) {
+    return getShard(name).isHeldByCurrentThread(name);
+  }
+
+  /**
+   * Suspends locking in every shard, in shard order. If any shard cannot be suspended within the
+   * wait time, locking is resumed in the shards already suspended.
+   */
+  @Override
+  @Deprecated
+  public boolean suspendLockingInterruptibly(long waitTimeMillis) throws InterruptedException {
+    return suspendLocking(waitTimeMillis, true);
+  }
+
+  @Override
+  public boolean suspendLocking(long waitTimeMillis) {
+    try {
+      return suspendLocking(waitTimeMillis, false);
+    } catch (InterruptedException e) {
+      // not possible when not interruptible
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private boolean suspendLocking(long waitTimeMillis, boolean interruptible)
+      throws InterruptedException {
+    long waitLimit = waitTimeMillis == -1 ? Long.MAX_VALUE
+        : System.currentTimeMillis() + waitTimeMillis;
+    if (waitLimit < 0) {
+      waitLimit = Long.MAX_VALUE;
+    }
+    int suspended = 0;
+    try {
+      for (; suspended < this.shards.length; suspended++) {
+        long timeLeft = waitLimit == Long.MAX_VALUE ? -1
+            : Math.max(0, waitLimit - System.currentTimeMillis());
+        if (!this.shards[suspended].suspendLockingInterruptibly(timeLeft, interruptible)) {
+          break;
+        }
+      }
+    } finally {
+      if (suspended < this.shards.length) {
+        for (int i = suspended - 1; i >= 0; i--) {
+          this.shards[i].resumeLocking();
+        }
+      }
+    }
+    return suspended == this.shards.length;
+  }
+
+  @Override
+  public void resumeLocking() {
+    for (int i = this.shards.length - 1; i >= 0; i--) {
+      this.shards[i].resumeLocking();
+    }
+  }
+
+  @Override
+  public boolean isLockingSuspendedByCurrentThread() {
+    for (DLockService shard : this.shards) {
+      if (!shard.isLockingSuspendedByCurrentThread()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void freeResources(Object name) {
+    getShard(name).freeResources(name);
+  }
+
+  /**
+   * Makes this member the grantor of every shard.
+   */
+  @Override
+  public void becomeLockGrantor() {
+    for (DLockService shard : this.shards) {
+      shard.becomeLockGrantor();
+    }
+  }
+
+  /**
+   * Returns true if this member is the grantor of every shard.
+   */
+  @Override
+  public boolean isLockGrantor() {
+    for (DLockService shard : this.shards) {
+      if (!shard.isLockGrantor()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return "<ShardedDLockService@" + Integer.toHexString(System.identityHashCode(this))
+        + " named " + this.serviceName + " with " + this.shards.length + " shards>";
+  }
+}
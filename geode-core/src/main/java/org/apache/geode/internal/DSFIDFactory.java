@@ -83,6 +83,7 @@ import org.apache.geode.distributed.internal.StartupMessage;
 import org.apache.geode.distributed.internal.StartupResponseMessage;
 import org.apache.geode.distributed.internal.StartupResponseWithVersionMessage;
 import org.apache.geode.distributed.internal.WaitForViewInstallation;
+import org.apache.geode.distributed.internal.locks.DLockNameBatch;
 import org.apache.geode.distributed.internal.locks.DLockQueryProcessor;
 import org.apache.geode.distributed.internal.locks.DLockRecoverGrantorProcessor.DLockRecoverGrantorMessage;
 import org.apache.geode.distributed.internal.locks.DLockRecoverGrantorProcessor.DLockRecoverGrantorReplyMessage;
@@ -514,6 +515,7 @@ public final class DSFIDFactory implements DataSerializableFixedID {
     registerDSFID(DLOCK_REQUEST_MESSAGE, DLockRequestProcessor.DLockRequestMessage.class);
     registerDSFID(DLOCK_RESPONSE_MESSAGE, DLockRequestProcessor.DLockResponseMessage.class);
     registerDSFID(DLOCK_RELEASE_MESSAGE, DLockReleaseProcessor.DLockReleaseMessage.class);
+    registerDSFID(DLOCK_NAME_BATCH, DLockNameBatch.class);
     registerDSFID(ADMIN_CACHE_EVENT_MESSAGE,
         SystemMemberCacheEventProcessor.SystemMemberCacheMessage.class);
     registerDSFID(CQ_ENTRY_EVENT, CqEntry.class);
@@ -810,6 +810,8 @@ public interface DataSerializableFixedID extends SerializationVersions {
   public static final short LUCENE_TOP_ENTRIES = 2175;
   public static final short LUCENE_TOP_ENTRIES_COLLECTOR = 2176;
 
+  public static final short DLOCK_NAME_BATCH = 2177;
+
   // NOTE, codes > 65535 will take 4 bytes to serialize
 
   /**
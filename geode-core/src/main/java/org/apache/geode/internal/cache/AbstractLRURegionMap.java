@@ -36,6 +36,8 @@ import org.apache.geode.internal.cache.lru.LRUStatistics;
 import org.apache.geode.internal.cache.lru.MemLRUCapacityController;
 import org.apache.geode.internal.cache.lru.NewLIFOClockHand;
 import org.apache.geode.internal.cache.lru.NewLRUClockHand;
+import org.apache.geode.internal.cache.lru.StripedLRUClockHand;
+import org.apache.geode.internal.cache.lru.TinyLFUClockHand;
 import org.apache.geode.internal.cache.versions.RegionVersionVector;
 import org.apache.geode.internal.cache.versions.VersionSource;
 import org.apache.geode.internal.i18n.LocalizedStrings;
@@ -102,8 +104,15 @@ public abstract class AbstractLRURegionMap extends AbstractRegionMap {
      */
     if (ea == EvictionAlgorithm.LIFO_ENTRY || ea == EvictionAlgorithm.LIFO_MEMORY) {
       _setLruList(new NewLIFOClockHand(owner, _getCCHelper(), internalRegionArgs));
+    } else if (ea == EvictionAlgorithm.LFU_ENTRY) {
+      _setLruList(new TinyLFUClockHand(owner, _getCCHelper(), internalRegionArgs));
     } else {
-      _setLruList(new NewLRUClockHand(owner, _getCCHelper(), internalRegionArgs));
+      int stripes = StripedLRUClockHand.getStripeCount(owner, internalRegionArgs);
+      if (stripes > 1) {
+        _setLruList(new StripedLRUClockHand(owner, _getCCHelper(), internalRegionArgs, stripes));
+      } else {
+        _setLruList(new NewLRUClockHand(owner, _getCCHelper(), internalRegionArgs));
+      }
     }
   }
 
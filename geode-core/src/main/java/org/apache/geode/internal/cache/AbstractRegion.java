@@ -167,6 +167,12 @@ public abstract class AbstractRegion implements Region, RegionAttributes, Attrib
 
   protected volatile IndexManager indexManager = null;
 
+  /**
+   * The {@linkplain IndexManager#nextIndexChangeStamp() stamp} of the last creation or removal of
+   * an index on this region, zero if there was none
+   */
+  private volatile long indexChangeStamp;
+
   // Asif : The ThreadLocal is used to identify if the thread is an
   // index creation thread. This identification helps skip the synchronization
   // block
@@ -798,6 +804,22 @@ public abstract class AbstractRegion implements Region, RegionAttributes, Attrib
     return this.indexManager;
   }
 
+  /**
+   * Records that an index of this region has been created or removed.
+   */
+  public void indexesChanged() {
+    this.indexChangeStamp = IndexManager.nextIndexChangeStamp();
+  }
+
+  /**
+   * Returns the stamp of the last creation or removal of an index on this region. A query compiled
+   * when {@link IndexManager#getIndexChangeStamp()} was at least this value saw the current set of
+   * indexes of this region.
+   */
+  public long getIndexChangeStamp() {
+    return this.indexChangeStamp;
+  }
+
   /**
    * This method call is guarded by imSync lock created for each region. Set IndexManger for region.
    */
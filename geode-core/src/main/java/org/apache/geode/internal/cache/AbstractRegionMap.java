@@ -205,6 +205,11 @@ public abstract class AbstractRegionMap implements RegionMap {
     return (Collection) _getMap().values();
   }
 
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public Iterator<RegionEntry> regionEntriesInPart(int part, int numParts) {
+    return (Iterator) _getMap().valuesInPart(part, numParts);
+  }
+
   public final boolean containsKey(Object key) {
     RegionEntry re = getEntry(key);
     if (re == null) {
@@ -234,6 +239,9 @@ public abstract class AbstractRegionMap implements RegionMap {
 
   public final RegionEntry putEntryIfAbsent(Object key, RegionEntry re) {
     RegionEntry oldRe = (RegionEntry) _getMap().putIfAbsent(key, re);
+    if (oldRe == null) {
+      entryAddedToMap(re);
+    }
     if (oldRe == null && (re instanceof OffHeapRegionEntry) && _isOwnerALocalRegion()
         && _getOwner().isThisRegionBeingClosedOrDestroyed()) {
       // prevent orphan during concurrent destroy (#48068)
@@ -248,6 +256,17 @@ public abstract class AbstractRegionMap implements RegionMap {
     return oldRe;
   }
 
+  /**
+   * Called once an entry has been added to the map. Entries that are created and then discarded
+   * because another entry for the same key won the race never get here.
+   */
+  private void entryAddedToMap(RegionEntry re) {
+    if (re instanceof OffHeapKeyRegionEntry) {
+      // the key's off-heap memory is freed when the entry is removed from the map
+      ((OffHeapKeyRegionEntry) re).moveKeyOffHeap();
+    }
+  }
+
   @Override
   public final RegionEntry getOperationalEntryInVM(Object key) {
     RegionEntry re = (RegionEntry) _getMap().get(key);
@@ -620,6 +639,7 @@ public abstract class AbstractRegionMap implements RegionMap {
       _getOwner().getDiskRegion().replaceIncompatibleEntry((DiskEntry) oldRe, (DiskEntry) newRe);
     }
     _getMap().put(newRe.getKey(), newRe);
+    entryAddedToMap(newRe);
   }
 
   @Retained // Region entry may contain an off-heap value
@@ -1230,6 +1250,9 @@ public abstract class AbstractRegionMap implements RegionMap {
                     continue;
                   }
                   re = (RegionEntry) _getMap().putIfAbsent(event.getKey(), newRe);
+                  if (re == null) {
+                    entryAddedToMap(newRe);
+                  }
                   if (re != null && re != tombstone) {
                     // concurrent change - try again
                     retry = true;
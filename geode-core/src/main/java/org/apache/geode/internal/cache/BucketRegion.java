@@ -32,6 +32,7 @@ import org.apache.geode.internal.cache.BucketAdvisor.BucketProfile;
 import org.apache.geode.internal.cache.FilterRoutingInfo.FilterInfo;
 import org.apache.geode.internal.cache.control.MemoryEvent;
 import org.apache.geode.internal.cache.partitioned.Bucket;
+import org.apache.geode.internal.cache.partitioned.BucketOperationRates;
 import org.apache.geode.internal.cache.partitioned.DestroyMessage;
 import org.apache.geode.internal.cache.partitioned.InvalidateMessage;
 import org.apache.geode.internal.cache.partitioned.LockObject;
@@ -99,6 +100,14 @@ public class BucketRegion extends DistributedRegion implements Bucket {
    */
   private final AtomicLongWithTerminalState bytesInMemory = new AtomicLongWithTerminalState();
 
+  /**
+   * Counts the reads and writes applied to this bucket so that a rebalance using the
+   * {@link org.apache.geode.internal.cache.partitioned.OperationRateLoadProbe} can balance the
+   * buckets by throughput.
+   */
+  private final BucketOperationRates operationRates =
+      new BucketOperationRates(System.currentTimeMillis());
+
   public static final class RawValue {
     private final Object rawValue;
 
@@ -484,6 +493,7 @@ public class BucketRegion extends DistributedRegion implements Bucket {
         forceSerialized(event);
         RegionEntry oldEntry = this.entries.basicPut(event, lastModified, ifNew, ifOld,
             expectedOldValue, requireOldValue, overwriteDestroyed);
+        this.operationRates.recordWrite();
         return oldEntry != null;
       }
       if (event.getDeltaBytes() != null && event.getRawNewValue() == null) {
@@ -511,6 +521,10 @@ public class BucketRegion extends DistributedRegion implements Bucket {
   }
 
 
+  public BucketOperationRates getOperationRates() {
+    return this.operationRates;
+  }
+
   public long generateTailKey() {
     long key = this.eventSeqNum.addAndGet(this.partitionedRegion.getTotalNumberOfBuckets());
     if (key < 0 || key % getPartitionedRegion().getTotalNumberOfBuckets() != getId()) {
@@ -1113,6 +1127,7 @@ public class BucketRegion extends DistributedRegion implements Bucket {
                                                             // used. We kept the cedar change as it
                                                             // is.
             expectedOldValue);
+        this.operationRates.recordWrite();
         if (done && !getBucketAdvisor().isPrimary() && isEntryExpiryPossible()) {
           synchronized (pendingSecondaryExpires) {
             pendingSecondaryExpires.remove(event.getKey());
@@ -76,6 +76,8 @@ public class CachePerfStats {
   protected final static int queryResultsHashCollisionsId;
   protected final static int queryResultsHashCollisionProbeTimeId;
   protected final static int partitionedRegionQueryRetriesId;
+  protected final static int compiledQueryCacheHitsId;
+  protected final static int compiledQueryCacheMissesId;
 
   protected static final int txSuccessLifeTimeId;
   protected static final int txFailedLifeTimeId;
@@ -90,6 +92,8 @@ public class CachePerfStats {
   protected static final int txFailureChangesId;
   protected static final int txRollbackChangesId;
   protected static final int txConflictCheckTimeId;
+  protected static final int txHostedLockWaitsId;
+  protected static final int txHostedLockWaitTimeId;
 
   protected static final int reliableQueuedOpsId;
   protected static final int reliableQueueSizeId;
@@ -110,6 +114,10 @@ public class CachePerfStats {
   protected static final int evictorQueueSizeId;
 
   protected static final int evictWorkTimeId;
+  protected static final int evictorLoopsId;
+  protected static final int evictorLoopTimeId;
+  protected static final int evictorAllocationRateId;
+  protected static final int evictorEvictionRateId;
 
 
   protected static final int indexUpdateInProgressId;
@@ -238,6 +246,10 @@ public class CachePerfStats {
         "Total time spent probing the hashtable in an OQL result set due to hash code collisions, includes reads, writes, and rehashes";
     final String partitionedRegionOQLQueryRetriesDesc =
         "Total number of times an OQL Query on a Partitioned Region had to be retried";
+    final String compiledQueryCacheHitsDesc =
+        "Total number of times a client query with bind parameters was executed using a query already compiled by this server";
+    final String compiledQueryCacheMissesDesc =
+        "Total number of times a client query with bind parameters had to be compiled because it was not cached or indexes had changed since it was compiled";
     final String txSuccessLifeTimeDesc =
         "The total amount of time, in nanoseconds, spent in a transaction before a successful commit. The time measured starts at transaction begin and ends when commit is called.";
     final String txFailedLifeTimeDesc =
@@ -258,6 +270,10 @@ public class CachePerfStats {
     final String txFailureChangesDesc = "Total number of changes lost by failed transactions.";
     final String txRollbackChangesDesc =
         "Total number of changes lost by explicit transaction rollbacks.";
+    final String txHostedLockWaitsDesc =
+        "Total number of times an operation on a transaction hosted for another member or client had to wait for another thread using the same transaction.";
+    final String txHostedLockWaitTimeDesc =
+        "Total time, in nanoseconds, spent waiting for the lock of a hosted transaction held by another thread.";
     final String txConflictCheckTimeDesc =
         "The total amount of time, in nanoseconds, spent doing conflict checks during transaction commit";
     final String reliableQueuedOpsDesc =
@@ -414,6 +430,10 @@ public class CachePerfStats {
                 queryResultsHashCollisionProbeTimeDesc, "nanoseconds"),
             f.createLongCounter("partitionedRegionQueryRetries",
                 partitionedRegionOQLQueryRetriesDesc, "retries"),
+            f.createLongCounter("compiledQueryCacheHits", compiledQueryCacheHitsDesc,
+                "operations"),
+            f.createLongCounter("compiledQueryCacheMisses", compiledQueryCacheMissesDesc,
+                "operations"),
 
             f.createIntCounter("txCommits", txCommitsDesc, "commits"),
             f.createIntCounter("txCommitChanges", txCommitChangesDesc, "changes"),
@@ -431,6 +451,9 @@ public class CachePerfStats {
             f.createLongCounter("txRollbackLifeTime", txRollbackLifeTimeDesc, "nanoseconds", false),
             f.createLongCounter("txConflictCheckTime", txConflictCheckTimeDesc, "nanoseconds",
                 false),
+            f.createIntCounter("txHostedLockWaits", txHostedLockWaitsDesc, "waits"),
+            f.createLongCounter("txHostedLockWaitTime", txHostedLockWaitTimeDesc, "nanoseconds",
+                false),
 
             f.createIntGauge("reliableQueuedOps", reliableQueuedOpsDesc, "operations"),
             f.createIntGauge("reliableQueueSize", reliableQueueSizeDesc, "megabytes"),
@@ -468,6 +491,16 @@ public class CachePerfStats {
                 "Number of jobs waiting to be picked up by evictor threads", "jobs"),
             f.createLongCounter("evictWorkTime",
                 "Total time spent doing eviction work in background threads", "nanoseconds", false),
+            f.createLongCounter("evictorLoops",
+                "Number of passes made by the continuous evictor", "operations"),
+            f.createLongCounter("evictorLoopTime",
+                "Total time the continuous evictor spent in its passes, from sizing a pass to the completion of its last eviction job",
+                "nanoseconds", false),
+            f.createLongGauge("evictorAllocationRate",
+                "Rate at which the continuous evictor measured the used memory to grow", "bytes/sec"),
+            f.createLongGauge("evictorEvictionRate",
+                "Rate at which the continuous evictor evicted entries during its last pass",
+                "bytes/sec"),
             f.createLongCounter("nonSingleHopsCount", nonSingleHopsDesc,
                 "Total number of times client request observed more than one hop during operation.",
                 false),
@@ -558,6 +591,8 @@ public class CachePerfStats {
     queryResultsHashCollisionsId = type.nameToId("queryResultsHashCollisions");
     queryResultsHashCollisionProbeTimeId = type.nameToId("queryResultsHashCollisionProbeTime");
     partitionedRegionQueryRetriesId = type.nameToId("partitionedRegionQueryRetries");
+    compiledQueryCacheHitsId = type.nameToId("compiledQueryCacheHits");
+    compiledQueryCacheMissesId = type.nameToId("compiledQueryCacheMisses");
 
     txSuccessLifeTimeId = type.nameToId("txSuccessLifeTime");
     txFailedLifeTimeId = type.nameToId("txFailedLifeTime");
@@ -572,6 +607,8 @@ public class CachePerfStats {
     txFailureChangesId = type.nameToId("txFailureChanges");
     txRollbackChangesId = type.nameToId("txRollbackChanges");
     txConflictCheckTimeId = type.nameToId("txConflictCheckTime");
+    txHostedLockWaitsId = type.nameToId("txHostedLockWaits");
+    txHostedLockWaitTimeId = type.nameToId("txHostedLockWaitTime");
 
     reliableQueuedOpsId = type.nameToId("reliableQueuedOps");
     reliableQueueSizeId = type.nameToId("reliableQueueSize");
@@ -594,6 +631,10 @@ public class CachePerfStats {
     evictorJobsCompletedId = type.nameToId("evictorJobsCompleted");
     evictorQueueSizeId = type.nameToId("evictorQueueSize");
     evictWorkTimeId = type.nameToId("evictWorkTime");
+    evictorLoopsId = type.nameToId("evictorLoops");
+    evictorLoopTimeId = type.nameToId("evictorLoopTime");
+    evictorAllocationRateId = type.nameToId("evictorAllocationRate");
+    evictorEvictionRateId = type.nameToId("evictorEvictionRate");
 
     metaDataRefreshCountId = type.nameToId("metaDataRefreshCount");
 
@@ -1181,6 +1222,22 @@ public class CachePerfStats {
     stats.incInt(queryResultsHashCollisionsId, 1);
   }
 
+  public void incCompiledQueryCacheHits() {
+    stats.incLong(compiledQueryCacheHitsId, 1);
+  }
+
+  public long getCompiledQueryCacheHits() {
+    return stats.getLong(compiledQueryCacheHitsId);
+  }
+
+  public void incCompiledQueryCacheMisses() {
+    stats.incLong(compiledQueryCacheMissesId, 1);
+  }
+
+  public long getCompiledQueryCacheMisses() {
+    return stats.getLong(compiledQueryCacheMissesId);
+  }
+
   public int getTxCommits() {
     return stats.getInt(txCommitsId);
   }
@@ -1233,6 +1290,28 @@ public class CachePerfStats {
     stats.incLong(txConflictCheckTimeId, delta);
   }
 
+  public int getTxHostedLockWaits() {
+    return stats.getInt(txHostedLockWaitsId);
+  }
+
+  public long getTxHostedLockWaitTime() {
+    return stats.getLong(txHostedLockWaitTimeId);
+  }
+
+  /**
+   * @return the timestamp that marks the start of a wait for the lock of a hosted transaction
+   */
+  public long startTxHostedLockWait() {
+    return getStatTime();
+  }
+
+  public void endTxHostedLockWait(long start) {
+    stats.incInt(txHostedLockWaitsId, 1);
+    if (enableClockStats) {
+      stats.incLong(txHostedLockWaitTimeId, getStatTime() - start);
+    }
+  }
+
   public void txSuccess(long opTime, long txLifeTime, int txChanges) {
     stats.incInt(txCommitsId, 1);
     stats.incInt(txCommitChangesId, txChanges);
@@ -1364,6 +1443,36 @@ public class CachePerfStats {
     this.stats.incLong(evictWorkTimeId, delta);
   }
 
+  /**
+   * @param start the time the pass of the continuous evictor started, from {@link #getStatTime()}
+   */
+  public void endEvictorLoop(long start) {
+    this.stats.incLong(evictorLoopsId, 1);
+    if (enableClockStats) {
+      this.stats.incLong(evictorLoopTimeId, getStatTime() - start);
+    }
+  }
+
+  public long getEvictorLoops() {
+    return this.stats.getLong(evictorLoopsId);
+  }
+
+  public void setEvictorAllocationRate(long bytesPerSecond) {
+    this.stats.setLong(evictorAllocationRateId, bytesPerSecond);
+  }
+
+  public long getEvictorAllocationRate() {
+    return this.stats.getLong(evictorAllocationRateId);
+  }
+
+  public void setEvictorEvictionRate(long bytesPerSecond) {
+    this.stats.setLong(evictorEvictionRateId, bytesPerSecond);
+  }
+
+  public long getEvictorEvictionRate() {
+    return this.stats.getLong(evictorEvictionRateId);
+  }
+
   /**
    * Returns the Statistics instance that stores the cache perf stats.
    * 
@@ -2659,6 +2659,9 @@ public class DistributedRegion extends LocalRegion implements CacheDistributionA
    */
   @Override
   void handleCacheClose(Operation op) {
+    if (op == Operation.FORCED_DISCONNECT) {
+      RegionImageSnapshot.capture(this);
+    }
     try {
       super.handleCacheClose(op);
     } finally {
@@ -316,6 +316,22 @@ public class DummyCachePerfStats extends CachePerfStats {
   @Override
   public void endQueryExecution(long executionTime) {}
 
+  @Override
+  public void incCompiledQueryCacheHits() {}
+
+  @Override
+  public long getCompiledQueryCacheHits() {
+    return 0;
+  }
+
+  @Override
+  public void incCompiledQueryCacheMisses() {}
+
+  @Override
+  public long getCompiledQueryCacheMisses() {
+    return 0;
+  }
+
   @Override
   public int getTxCommits() {
     return 0;
@@ -379,6 +395,24 @@ public class DummyCachePerfStats extends CachePerfStats {
   @Override
   public void incTxConflictCheckTime(long delta) {}
 
+  @Override
+  public int getTxHostedLockWaits() {
+    return 0;
+  }
+
+  @Override
+  public long getTxHostedLockWaitTime() {
+    return 0;
+  }
+
+  @Override
+  public long startTxHostedLockWait() {
+    return 0;
+  }
+
+  @Override
+  public void endTxHostedLockWait(long start) {}
+
   @Override
   public void txSuccess(long opTime, long txLifeTime, int txChanges) {}
 
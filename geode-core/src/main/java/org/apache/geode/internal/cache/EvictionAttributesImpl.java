@@ -182,7 +182,8 @@ public final class EvictionAttributesImpl extends EvictionAttributes
     } else if (this.algorithm == EvictionAlgorithm.LRU_MEMORY) {
       this.evictionController =
           new MemLRUCapacityController(this.maximum, this.sizer, this.action, region, isOffHeap);
-    } else if (this.algorithm == EvictionAlgorithm.LIFO_ENTRY) {
+    } else if (this.algorithm == EvictionAlgorithm.LIFO_ENTRY
+        || this.algorithm == EvictionAlgorithm.LFU_ENTRY) {
       this.evictionController = new LRUCapacityController(this.maximum, this.action, region);
     } else if (this.algorithm == EvictionAlgorithm.LIFO_MEMORY) {
       this.evictionController =
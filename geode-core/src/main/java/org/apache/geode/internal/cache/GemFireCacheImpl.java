@@ -2467,8 +2467,12 @@ public class GemFireCacheImpl
       // do this late to prevent 43412
       TypeRegistry.setPdxSerializer(null);
 
-      for (Iterator iter = cacheLifecycleListeners.iterator(); iter.hasNext();) {
-        CacheLifecycleListener listener = (CacheLifecycleListener) iter.next();
+      // iterate over a copy so that listeners may remove themselves when the cache closes
+      CacheLifecycleListener[] listeners;
+      synchronized (GemFireCacheImpl.class) {
+        listeners = cacheLifecycleListeners.toArray(new CacheLifecycleListener[0]);
+      }
+      for (CacheLifecycleListener listener : listeners) {
         listener.cacheClosed(this);
       }
       stopRestAgentServer();
@@ -29,6 +29,7 @@ import org.apache.geode.distributed.internal.*;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.internal.*;
 import org.apache.geode.internal.cache.InitialImageFlowControl.FlowControlPermitMessage;
+import org.apache.geode.internal.cache.control.RebalanceThrottle;
 import org.apache.geode.internal.cache.ha.HAContainerWrapper;
 import org.apache.geode.internal.cache.persistence.DiskStoreID;
 import org.apache.geode.internal.cache.persistence.PersistenceAdvisor;
@@ -52,8 +53,12 @@ import org.apache.logging.log4j.Logger;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Handles requests for an initial image from a cache peer
@@ -87,6 +92,31 @@ public class InitialImageOperation {
       DistributionConfig.GEMFIRE_PREFIX + "GetInitialImage.MAXIMUM_UNFINISHED_OPERATIONS", 10000)
       .intValue();
 
+  /**
+   * Number of series a full initial image is split into by the image provider. Each series covers
+   * a disjoint set of keys and is streamed by its own thread so that packing, sending and applying
+   * chunks are not limited to a single thread.
+   */
+  private static final int PARALLEL_SERIES = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "GetInitialImage.PARALLEL_SERIES", 1)
+      .intValue();
+
+  /** Replaces PARALLEL_SERIES when positive. Only set by tests. */
+  private static volatile int parallelSeriesOverride;
+
+  static int getParallelSeries() {
+    int n = parallelSeriesOverride;
+    return n > 0 ? n : PARALLEL_SERIES;
+  }
+
+  /**
+   * Sets the number of series full images are split into; zero restores the configured value.
+   * For testing only.
+   */
+  static void setParallelSeriesForTesting(int numSeries) {
+    parallelSeriesOverride = numSeries;
+  }
+
   /**
    * Allowed number GIIs in parallel
    */
@@ -141,6 +171,13 @@ public class InitialImageOperation {
 
   private boolean isSynchronizing;
 
+  /**
+   * keys put into the region from a {@link RegionImageSnapshot} that have not been received from
+   * the image provider yet, mapped to the version they were put with, or null if no snapshot was
+   * used
+   */
+  private volatile Map<Object, VersionTag> seededKeys;
+
   /** Creates a new instance of InitalImageOperation */
   InitialImageOperation(DistributedRegion region, RegionMap entries) {
     this.region = region;
@@ -232,6 +269,12 @@ public class InitialImageOperation {
     }
     long giiStart = this.region.getCachePerfStats().startGetInitialImage();
 
+    // image kept by this member before it was forced out of the distributed system
+    RegionImageSnapshot snapshot = null;
+    if (!recoveredFromDisk && RegionImageSnapshot.isEligible(this.region)) {
+      snapshot = RegionImageSnapshot.remove(this.region.getFullPath());
+    }
+
     for (Iterator itr = recipients.iterator(); !this.gotImage && itr.hasNext();) {
       // if we got a partial image from the previous recipient, then clear it
 
@@ -422,6 +465,27 @@ public class InitialImageOperation {
             }
           }
           m.checkTombstoneVersions = true;
+        } else if (allowDeltaGII && snapshot != null && remote_rvv != null) {
+          if (snapshot.getVersionVector().isNewerThanOrCanFillExceptionsFor(remote_rvv)) {
+            if (isDebugEnabled) {
+              logger.debug(
+                  "Region {}: kept image has operations the provider has not seen, rvv is {}. Do full GII",
+                  this.region.getFullPath(), snapshot.getVersionVector());
+            }
+          } else {
+            Map<Object, VersionTag> keys = new ConcurrentHashMap<Object, VersionTag>();
+            snapshot.seed(this.region, this.entries, keys);
+            this.seededKeys = keys;
+            m.versionVector = snapshot.getVersionVector();
+            m.checkTombstoneVersions = true;
+            if (isDebugEnabled) {
+              logger.debug(
+                  "Region {} reused {} entries kept before reconnect, rvv is {}. Do delta GII",
+                  this.region.getFullPath(), keys.size(), m.versionVector);
+            }
+          }
+          // a kept image is only offered to the first provider
+          snapshot = null;
         }
         if (received_rvv != null) {
           // pack the original RVV, then save the received one
@@ -461,6 +525,16 @@ public class InitialImageOperation {
         try {
           processor.waitForRepliesUninterruptibly();
 
+          // if the provider sent a full image instead of a delta, remove the kept entries it did
+          // not have
+          Map<Object, VersionTag> keys = this.seededKeys;
+          if (keys != null) {
+            this.seededKeys = null;
+            if (this.gotImage && !this.isDeltaGII) {
+              destroyUnchangedSeededEntries(keys);
+            }
+          }
+
           // review unfinished keys and remove untouched entries
           if (this.region.getDataPolicy().withPersistence() && keysOfUnfinishedOps != null
               && !keysOfUnfinishedOps.isEmpty()) {
@@ -761,6 +835,7 @@ public class InitialImageOperation {
     // one volatile read of test flag
     int slow = slowImageProcessing;
     final CachePerfStats stats = this.region.getCachePerfStats();
+    final Map<Object, VersionTag> seeded = this.seededKeys;
     ImageState imgState = this.region.getImageState();
     // Asif : Can the image state be null here. Don't think so
     // Assert.assertTrue(imgState != null, "processChunk :ImageState should not have been null ");
@@ -924,6 +999,9 @@ public class InitialImageOperation {
             }
             this.entries.initialImagePut(entry.key, lastModified, tmpValue, wasRecovered, false,
                 tag, sender, this.isSynchronizing);
+            if (seeded != null) {
+              seeded.remove(entry.key);
+            }
           } catch (RegionDestroyedException e) {
             return false;
           } catch (CancelException e) {
@@ -1041,6 +1119,49 @@ public class InitialImageOperation {
     return keys;
   }
 
+  /**
+   * Removes the entries put from a {@link RegionImageSnapshot} that the image provider did not
+   * send. An entry is only removed if it still has the version it was put with: entries created or
+   * updated by operations received during the GII are kept.
+   */
+  private void destroyUnchangedSeededEntries(Map<Object, VersionTag> seeded) {
+    final boolean isDebugEnabled = logger.isDebugEnabled();
+    InternalDistributedMember myId = this.region.getMyId();
+    int destroyed = 0;
+    for (Map.Entry<Object, VersionTag> seededEntry : seeded.entrySet()) {
+      Object key = seededEntry.getKey();
+      RegionEntry re = this.entries.getEntry(key);
+      if (re == null) {
+        continue;
+      }
+      synchronized (re) {
+        VersionStamp stamp = re.getVersionStamp();
+        if (stamp == null || !hasSeededVersion(stamp, seededEntry.getValue(), myId)) {
+          if (isDebugEnabled) {
+            logger.debug("Keeping entry changed during GII:key={}", key);
+          }
+          continue;
+        }
+        this.region.destroyRecoveredEntry(key);
+        destroyed++;
+      }
+    }
+    if (isDebugEnabled) {
+      logger.debug("Region {} removed {} kept entries the provider did not have",
+          this.region.getFullPath(), destroyed);
+    }
+  }
+
+  private static boolean hasSeededVersion(VersionStamp stamp, VersionTag seeded,
+      InternalDistributedMember myId) {
+    VersionSource id = stamp.getMemberID();
+    if (id == null) {
+      id = myId;
+    }
+    return stamp.getEntryVersion() == seeded.getEntryVersion()
+        && stamp.getRegionVersion() == seeded.getRegionVersion() && id.equals(seeded.getMemberID());
+  }
+
   protected void saveReceivedRVV(RegionVersionVector rvv) {
     assert rvv != null;
 
@@ -1526,8 +1647,9 @@ public class InitialImageOperation {
         // pre-8.0 could not handle a delta-GII
         return true;
       }
-      if (!rgn.getDataPolicy().withPersistence()) {
-        // non-persistent regions always do full GII
+      if (!rgn.getDataPolicy().withPersistence() && !isRequesterInMemory(rgn)) {
+        // non-persistent regions only do delta GII for an in-memory requester offering the image
+        // it kept before it was forced out of the distributed system
         if (logger.isDebugEnabled()) {
           logger.debug("Region {} is not a persistent region, do full GII", rgn.getFullPath());
         }
@@ -1544,6 +1666,12 @@ public class InitialImageOperation {
       return false;
     }
 
+    private boolean isRequesterInMemory(DistributedRegion rgn) {
+      CacheDistributionAdvisor.CacheProfile profile = (CacheDistributionAdvisor.CacheProfile) rgn
+          .getCacheDistributionAdvisor().getProfile(getSender());
+      return profile != null && !profile.dataPolicy.withPersistence();
+    }
+
     @Override
     protected void process(final DistributionManager dm) {
       final boolean isGiiDebugEnabled = logger.isTraceEnabled(LogMarker.GII);
@@ -1607,9 +1735,6 @@ public class InitialImageOperation {
           }
         }
 
-        final int numSeries = 1; // @todo ericz parallelize using series
-        final int seriesNum = 0;
-
         // chunkEntries returns false if didn't finish
         if (isGiiDebugEnabled) {
           logger.trace(LogMarker.GII, "RequestImageMessage: Starting chunkEntries for {}",
@@ -1687,49 +1812,16 @@ public class InitialImageOperation {
             }
           }
           final RegionVersionHolder holderToSend = holderToSync;
-          boolean finished = chunkEntries(rgn, CHUNK_SIZE_IN_BYTES, !keysOnly, versionVector,
-              (HashSet) this.unfinishedKeys, flowControl, new ObjectIntProcedure() {
-                int msgNum = 0;
-
-                boolean last = false;
-
-                /**
-                 * @param entList ArrayList of entries
-                 * @param b positive if last chunk
-                 * @return true to continue to next chunk
-                 */
-                public boolean executeWith(Object entList, int b) {
-                  if (rgn.getCache().isClosed()) {
-                    return false;
-                  }
-
-                  if (this.last) {
-                    throw new InternalGemFireError(
-                        LocalizedStrings.InitialImageOperation_ALREADY_PROCESSED_LAST_CHUNK
-                            .toLocalizedString());
-                  }
-
-                  List entries = (List) entList;
-                  this.last = b > 0 && !lclAbortTest; // if abortTest, then never send last flag set
-                                                      // to true
-                  try {
-                    boolean abort = rgn.isDestroyed();
-                    if (!abort) {
-                      int fid = flowControl.getId();
-                      Map<VersionSource, Long> gcVersions = null;
-                      if (this.last && rgn.getVersionVector() != null) {
-                        gcVersions = rgn.getVersionVector().getMemberToGCVersion();
-                      }
-                      replyWithData(dm, entries, seriesNum, msgNum++, numSeries, this.last, fid,
-                          versionVector != null, holderToSend, gcVersions);
-                    }
-                    return !abort;
-                  } catch (CancelException e) {
-                    return false;
-                  }
-                }
-              });
-
+          boolean finished;
+          int numSeries = getNumSeries(rgn);
+          if (numSeries > 1) {
+            finished = chunkEntriesInParallel(dm, rgn, numSeries, flowControl, holderToSend,
+                lclAbortTest);
+          } else {
+            finished = chunkEntries(rgn, CHUNK_SIZE_IN_BYTES, !keysOnly, versionVector,
+                (HashSet) this.unfinishedKeys, flowControl, new ChunkSender(dm, rgn, 0, 1,
+                    new AtomicInteger(1), flowControl, holderToSend, lclAbortTest));
+          }
 
           if (isGiiDebugEnabled) {
             logger.trace(LogMarker.GII,
@@ -1816,6 +1908,194 @@ public class InitialImageOperation {
     }
 
 
+    /**
+     * Returns the number of series to split the image into. Only full images are split; a delta
+     * image is filtered by the requester's version vector and is usually small. HARegion queues are
+     * never split, and neither are images whose values are partly overflowed to disk, since those
+     * are read in disk order by {@link DistributedRegion#getBestIterator}.
+     */
+    private int getNumSeries(DistributedRegion rgn) {
+      int numSeries = getParallelSeries();
+      if (numSeries <= 1 || this.versionVector != null || rgn instanceof HARegion) {
+        return 1;
+      }
+      DiskRegion dr = rgn.getDiskRegion();
+      if (DistributedRegion.DiskPage.DISK_PAGE_SIZE > 0 && !keysOnly && dr != null) {
+        dr.waitForAsyncRecovery();
+        if (dr.getNumOverflowOnDisk() > 0) {
+          return 1;
+        }
+      }
+      return numSeries;
+    }
+
+    /**
+     * Streams the image as numSeries series, each one covering its own segments of the region map.
+     * Series 0 is sent by the calling thread and the others by threads from the waiting pool. All
+     * series share the flow control permits of this request, so the number of chunks in flight to
+     * the requester is the same as for a single series.
+     *
+     * @return true if all series sent their last chunk
+     */
+    private boolean chunkEntriesInParallel(final DistributionManager dm,
+        final DistributedRegion rgn, final int numSeries,
+        final InitialImageFlowControl flowControl, final RegionVersionHolder holderToSend,
+        final boolean lclAbortTest) throws IOException {
+      if (logger.isTraceEnabled(LogMarker.GII)) {
+        logger.trace(LogMarker.GII, "RequestImageMessage: sending {} in {} series",
+            rgn.getFullPath(), numSeries);
+      }
+      final Set<VersionSource> foundIds =
+          Collections.newSetFromMap(new ConcurrentHashMap<VersionSource, Boolean>());
+      final AtomicInteger seriesRemaining = new AtomicInteger(numSeries);
+      final AtomicBoolean allFinished = new AtomicBoolean(true);
+      final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+      final CountDownLatch seriesDone = new CountDownLatch(numSeries - 1);
+      for (int i = 1; i < numSeries; i++) {
+        final int seriesNum = i;
+        dm.getWaitingThreadPool().execute(new Runnable() {
+          public void run() {
+            try {
+              if (!sendSeries(dm, rgn, seriesNum, numSeries, seriesRemaining, foundIds,
+                  flowControl, holderToSend, lclAbortTest)) {
+                allFinished.set(false);
+              }
+            } catch (VirtualMachineError err) {
+              SystemFailure.initiateFailure(err);
+              throw err;
+            } catch (Throwable t) {
+              SystemFailure.checkFailure();
+              allFinished.set(false);
+              failure.compareAndSet(null, t);
+            } finally {
+              seriesDone.countDown();
+            }
+          }
+        });
+      }
+      try {
+        if (!sendSeries(dm, rgn, 0, numSeries, seriesRemaining, foundIds, flowControl,
+            holderToSend, lclAbortTest)) {
+          allFinished.set(false);
+        }
+      } finally {
+        boolean interrupted = Thread.interrupted();
+        try {
+          while (true) {
+            try {
+              seriesDone.await();
+              break;
+            } catch (InterruptedException e) {
+              interrupted = true;
+              dm.getCancelCriterion().checkCancelInProgress(e);
+            }
+          }
+        } finally {
+          if (interrupted) {
+            Thread.currentThread().interrupt();
+          }
+        }
+      }
+      Throwable t = failure.get();
+      if (t instanceof RuntimeException) {
+        throw (RuntimeException) t;
+      } else if (t instanceof IOException) {
+        throw (IOException) t;
+      } else if (t != null) {
+        throw new InternalGemFireError(t);
+      }
+      // only remove version members once every series has reported the ids it found
+      removeOldMembers(rgn, foundIds);
+      return allFinished.get();
+    }
+
+    private boolean sendSeries(DistributionManager dm, DistributedRegion rgn, int seriesNum,
+        int numSeries, AtomicInteger seriesRemaining, Set<VersionSource> foundIds,
+        InitialImageFlowControl flowControl, RegionVersionHolder holderToSend,
+        boolean lclAbortTest) throws IOException {
+      return chunkEntries(rgn, CHUNK_SIZE_IN_BYTES, !keysOnly, this.versionVector,
+          (HashSet) this.unfinishedKeys, flowControl, seriesNum, numSeries, foundIds,
+          new ChunkSender(dm, rgn, seriesNum, numSeries, seriesRemaining, flowControl,
+              holderToSend, lclAbortTest));
+    }
+
+    /**
+     * Sends the chunks of one series to the image requester.
+     */
+    private class ChunkSender implements ObjectIntProcedure {
+      private final DistributionManager dm;
+
+      private final DistributedRegion rgn;
+
+      private final int seriesNum;
+
+      private final int numSeries;
+
+      /** number of series that have not sent their last chunk yet */
+      private final AtomicInteger seriesRemaining;
+
+      private final InitialImageFlowControl flowControl;
+
+      private final RegionVersionHolder holderToSend;
+
+      private final boolean lclAbortTest;
+
+      int msgNum = 0;
+
+      boolean last = false;
+
+      ChunkSender(DistributionManager dm, DistributedRegion rgn, int seriesNum, int numSeries,
+          AtomicInteger seriesRemaining, InitialImageFlowControl flowControl,
+          RegionVersionHolder holderToSend, boolean lclAbortTest) {
+        this.dm = dm;
+        this.rgn = rgn;
+        this.seriesNum = seriesNum;
+        this.numSeries = numSeries;
+        this.seriesRemaining = seriesRemaining;
+        this.flowControl = flowControl;
+        this.holderToSend = holderToSend;
+        this.lclAbortTest = lclAbortTest;
+      }
+
+      /**
+       * @param entList ArrayList of entries
+       * @param b positive if last chunk
+       * @return true to continue to next chunk
+       */
+      public boolean executeWith(Object entList, int b) {
+        if (this.rgn.getCache().isClosed()) {
+          return false;
+        }
+
+        if (this.last) {
+          throw new InternalGemFireError(
+              LocalizedStrings.InitialImageOperation_ALREADY_PROCESSED_LAST_CHUNK
+                  .toLocalizedString());
+        }
+
+        List entries = (List) entList;
+        this.last = b > 0 && !this.lclAbortTest; // if abortTest, then never send last flag set
+                                                 // to true
+        try {
+          boolean abort = this.rgn.isDestroyed();
+          if (!abort) {
+            int fid = this.flowControl.getId();
+            Map<VersionSource, Long> gcVersions = null;
+            // the GC versions go with the last chunk of the last series to finish
+            if (this.last && this.seriesRemaining.decrementAndGet() == 0
+                && this.rgn.getVersionVector() != null) {
+              gcVersions = this.rgn.getVersionVector().getMemberToGCVersion();
+            }
+            replyWithData(this.dm, entries, this.seriesNum, this.msgNum++, this.numSeries,
+                this.last, fid, versionVector != null, this.holderToSend, gcVersions);
+          }
+          return !abort;
+        } catch (CancelException e) {
+          return false;
+        }
+      }
+    }
+
     /**
      * Serialize the entries into byte[] chunks, calling proc for each one. proc args: the byte[]
      * chunk and an int indicating whether it is the last chunk (positive means last chunk, zero
@@ -1830,6 +2110,24 @@ public class InitialImageOperation {
     protected boolean chunkEntries(DistributedRegion rgn, int chunkSizeInBytes,
         boolean includeValues, RegionVersionVector versionVector, HashSet unfinishedKeys,
         InitialImageFlowControl flowControl, ObjectIntProcedure proc) throws IOException {
+      Set<VersionSource> foundIds = new HashSet<VersionSource>();
+      boolean finished = chunkEntries(rgn, chunkSizeInBytes, includeValues, versionVector,
+          unfinishedKeys, flowControl, 0, 1, foundIds, proc);
+      removeOldMembers(rgn, foundIds);
+      return finished;
+    }
+
+    /**
+     * Serialize the entries of one series into byte[] chunks, calling proc for each one. A series
+     * only iterates its own part of the region map, see {@link RegionMap#regionEntriesInPart}.
+     * 
+     * @param foundIds collects the version members of the entries that were sent
+     * @return true if finished all chunks of this series, false if stopped early
+     */
+    protected boolean chunkEntries(DistributedRegion rgn, int chunkSizeInBytes,
+        boolean includeValues, RegionVersionVector versionVector, HashSet unfinishedKeys,
+        InitialImageFlowControl flowControl, int seriesNum, int numSeries,
+        Set<VersionSource> foundIds, ObjectIntProcedure proc) throws IOException {
       boolean keepGoing = true;
       boolean sentLastChunk = false;
       int MAX_ENTRIES_PER_CHUNK = chunkSizeInBytes / 100;
@@ -1839,6 +2137,10 @@ public class InitialImageOperation {
 
       ByteArrayDataInput in = null;
       DistributionManager dm = (DistributionManager) rgn.getDistributionManager();
+      RebalanceThrottle throttle = null;
+      if (rgn.isUsedForPartitionedRegionBucket()) {
+        throttle = rgn.getGemFireCache().getResourceManager().getRebalanceThrottle();
+      }
 
       List chunkEntries = null;
       chunkEntries =
@@ -1849,7 +2151,6 @@ public class InitialImageOperation {
         in = new ByteArrayDataInput();
       }
       VersionSource myId = rgn.getVersionMember();
-      Set<VersionSource> foundIds = new HashSet<VersionSource>();
       if (internalDuringPackingImage != null
           && this.regionPath.endsWith(internalDuringPackingImage.getRegionName())) {
         internalDuringPackingImage.run();
@@ -1860,6 +2161,8 @@ public class InitialImageOperation {
         if (versionVector != null) {
           // deltaGII
           it = rgn.entries.regionEntries().iterator();
+        } else if (numSeries > 1) {
+          it = rgn.entries.regionEntriesInPart(seriesNum, numSeries);
         } else {
           it = rgn.getBestIterator(includeValues);
         }
@@ -1939,6 +2242,10 @@ public class InitialImageOperation {
             currentChunkSize += entry.calcSerializedSize();
           }
 
+          if (throttle != null) {
+            throttle.throttleBytes(currentChunkSize);
+          }
+
           // send 1 for last message if no more data
           int lastMsg = it.hasNext() ? 0 : 1;
           keepGoing = proc.executeWith(chunkEntries, lastMsg);
@@ -1948,12 +2255,6 @@ public class InitialImageOperation {
           // if this region is destroyed while we are sending data, then abort.
         } while (keepGoing && it.hasNext());
 
-        if (foundIds.size() > 0) {
-          RegionVersionVector vv = rgn.getVersionVector();
-          if (vv != null) {
-            vv.removeOldMembers(foundIds);
-          }
-        }
         // return false if we were told to abort
         return sentLastChunk;
       } finally {
@@ -1963,6 +2264,15 @@ public class InitialImageOperation {
       }
     }
 
+    private void removeOldMembers(DistributedRegion rgn, Set<VersionSource> foundIds) {
+      if (foundIds.size() > 0) {
+        RegionVersionVector vv = rgn.getVersionVector();
+        if (vv != null) {
+          vv.removeOldMembers(foundIds);
+        }
+      }
+    }
+
     private void replyNoData(DistributionManager dm, boolean isDeltaGII,
         Map<VersionSource, Long> gcVersions) {
       ImageReplyMessage.send(getSender(), this.processorId, null, dm, null, 0, 0, 1, true, 0,
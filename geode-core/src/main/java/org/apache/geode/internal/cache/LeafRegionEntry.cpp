@@ -23,7 +23,7 @@ package org.apache.geode.internal.cache;
 #define KEY_TYPE long
 #elif defined(KEY_UUID)
 #define KEY_TYPE UUID
-#elif defined(KEY_STRING1) || defined(KEY_STRING2)
+#elif defined(KEY_STRING1) || defined(KEY_STRING2) || defined(KEY_OFFHEAP_STRING)
 #define KEY_TYPE String
 #else
 #error the KEY_TYPE macro must be defined    
@@ -36,6 +36,9 @@ import java.util.UUID;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 #endif
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+#ifdef KEY_OFFHEAP_STRING
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+#endif
 #if defined(VERSIONED)
 import org.apache.geode.cache.EntryEvent;
 #endif
@@ -60,6 +63,9 @@ import org.apache.geode.internal.cache.versions.VersionTag;
 #endif
 #ifdef OFFHEAP
 import org.apache.geode.internal.offheap.OffHeapRegionEntryHelper;
+#ifdef KEY_OFFHEAP_STRING
+import org.apache.geode.internal.offheap.OffHeapRegionKeyHelper;
+#endif
 import org.apache.geode.internal.offheap.annotations.Released;
 import org.apache.geode.internal.offheap.annotations.Retained;
 import org.apache.geode.internal.offheap.annotations.Unretained;
@@ -79,12 +85,17 @@ import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.Ha
 // key uuid: KEY_UUID
 // key string1: KEY_STRING1
 // key string2: KEY_STRING2
+// key off-heap string: KEY_OFFHEAP_STRING
 
 /**
  * Do not modify this class. It was generated. Instead modify LeafRegionEntry.cpp and then run
  * ./dev-tools/generateRegionEntryClasses.sh (it must be run from the top level directory).
  */
+#ifdef KEY_OFFHEAP_STRING
+public class LEAF_CLASS extends PARENT_CLASS implements OffHeapKeyRegionEntry {
+#else
 public class LEAF_CLASS extends PARENT_CLASS {
+#endif
   public LEAF_CLASS  (RegionEntryContext context, KEY_TYPE key, 
 #ifdef OFFHEAP
       @Retained
@@ -162,6 +173,10 @@ public class LEAF_CLASS extends PARENT_CLASS {
     tmpBits1 |= key.length();
     this.bits1 = tmpBits1;
     this.bits2 = tmpBits2;
+#elif defined(KEY_OFFHEAP_STRING)
+    // caller has already confirmed that the key is too long to be inlined.
+    // The key is moved off-heap once the entry has been added to the region map.
+    this.heapKey = key;
 #endif
   }
 
@@ -225,7 +240,17 @@ public class LEAF_CLASS extends PARENT_CLASS {
 
   @Override
   public boolean setAddress(long expectedAddr, long newAddr) {
+#ifdef KEY_OFFHEAP_STRING
+    if (!ohAddrUpdater.compareAndSet(this, expectedAddr, newAddr)) {
+      return false;
+    }
+    if (OffHeapRegionKeyHelper.isEntryRemoved(expectedAddr, newAddr)) {
+      releaseKey();
+    }
+    return true;
+#else
     return ohAddrUpdater.compareAndSet(this, expectedAddr, newAddr);
+#endif
   }
   
   @Override
@@ -861,6 +886,95 @@ public class LEAF_CLASS extends PARENT_CLASS {
     }
     return false;
   }
+#elif defined(KEY_OFFHEAP_STRING)
+  /**
+   * The address of the off-heap copy of the key, or zero if the key is on the heap. Set to zero
+   * when the entry is removed, after the key has been copied to heapKey.
+   */
+  @Retained @Released private volatile long keyAddress;
+  /**
+   * The key of an entry that has not been added to the map yet or has been removed, or null while
+   * the key is off-heap.
+   */
+  private volatile String heapKey;
+  private final static AtomicLongFieldUpdater<LEAF_CLASS> keyAddrUpdater = AtomicLongFieldUpdater.newUpdater(LEAF_CLASS.class, "keyAddress");
+  private final static AtomicReferenceFieldUpdater<LEAF_CLASS, String> heapKeyUpdater = AtomicReferenceFieldUpdater.newUpdater(LEAF_CLASS.class, String.class, "heapKey");
+  @Override
+  public final Object getKey() {
+    for (;;) {
+      String key = this.heapKey;
+      if (key != null) {
+        return key;
+      }
+      long addr = this.keyAddress;
+      if (addr != 0L && OffHeapRegionKeyHelper.retainKey(addr)) {
+        try {
+          // the memory may have been reused if the key was released before we retained it
+          if (this.keyAddress == addr) {
+            return OffHeapRegionKeyHelper.getKey(addr);
+          }
+        } finally {
+          OffHeapRegionKeyHelper.releaseKey(addr);
+        }
+      }
+      // the key has just been copied back to the heap
+    }
+  }
+
+  // DO NOT modify this class. It was generated from LeafRegionEntry.cpp
+  
+  @Override
+  public boolean isKeyEqual(Object k) {
+    for (;;) {
+      String key = this.heapKey;
+      if (key != null) {
+        return key.equals(k);
+      }
+      long addr = this.keyAddress;
+      if (addr != 0L && OffHeapRegionKeyHelper.retainKey(addr)) {
+        try {
+          if (this.keyAddress == addr) {
+            return OffHeapRegionKeyHelper.isKeyEqual(addr, k);
+          }
+        } finally {
+          OffHeapRegionKeyHelper.releaseKey(addr);
+        }
+      }
+    }
+  }
+  @Override
+  public void moveKeyOffHeap() {
+    String key = this.heapKey;
+    if (key == null || this.keyAddress != 0L || OffHeapRegionKeyHelper.isEntryRemoved(getAddress())) {
+      return;
+    }
+    long addr = OffHeapRegionKeyHelper.allocateKey(key);
+    if (!keyAddrUpdater.compareAndSet(this, 0L, addr)) {
+      OffHeapRegionKeyHelper.releaseKey(addr);
+      return;
+    }
+    heapKeyUpdater.compareAndSet(this, key, null);
+    if (OffHeapRegionKeyHelper.isEntryRemoved(getAddress())) {
+      // the entry was removed while its key was being copied
+      releaseKey();
+    }
+  }
+  private void releaseKey() {
+    long addr = this.keyAddress;
+    if (addr != 0L && OffHeapRegionKeyHelper.retainKey(addr)) {
+      try {
+        if (this.keyAddress == addr) {
+          this.heapKey = OffHeapRegionKeyHelper.getKey(addr);
+          if (keyAddrUpdater.compareAndSet(this, addr, 0L)) {
+            // release the reference owned by this entry
+            OffHeapRegionKeyHelper.releaseKey(addr);
+          }
+        }
+      } finally {
+        OffHeapRegionKeyHelper.releaseKey(addr);
+      }
+    }
+  }
 #endif
   // DO NOT modify this class. It was generated from LeafRegionEntry.cpp
 }
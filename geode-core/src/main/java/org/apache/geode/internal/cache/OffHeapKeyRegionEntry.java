@@ -0,0 +1,31 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+/**
+ * An off-heap RegionEntry that can also store its key off heap. The key stays on the heap until
+ * {@link #moveKeyOffHeap} is called, so that entries created speculatively and then discarded
+ * without being removed never allocate off-heap memory for their key.
+ *
+ * @since Geode 1.2
+ */
+public interface OffHeapKeyRegionEntry extends OffHeapRegionEntry {
+  /**
+   * Copies the key to off-heap memory. Must only be called once the entry has been added to its
+   * region map, because the off-heap copy is only freed when the entry is removed from the map.
+   * Does nothing if the entry has already been removed.
+   */
+  public void moveKeyOffHeap();
+}
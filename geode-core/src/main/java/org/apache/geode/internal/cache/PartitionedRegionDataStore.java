@@ -1939,6 +1939,7 @@ public class PartitionedRegionDataStore implements HasCachePerfStats {
           bucketRegion.getName(), returnTombstones);
     }
     invokeBucketReadHook();
+    bucketRegion.getOperationRates().recordRead();
     try {
       ret = bucketRegion.get(key, aCallbackArgument, true, disableCopyOnRead, preferCD,
           requestingClient, clientEvent, returnTombstones, opScopeIsLocal, false);
@@ -1984,6 +1985,7 @@ public class PartitionedRegionDataStore implements HasCachePerfStats {
           keyInfo.getBucketId(), bucketRegion.getName());
     }
     invokeBucketReadHook();
+    bucketRegion.getOperationRates().recordRead();
 
     try {
       RawValue result = bucketRegion.getSerialized(keyInfo, true, doNotLockEntry, requestingClient,
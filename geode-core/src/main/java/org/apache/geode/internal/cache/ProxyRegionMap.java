@@ -17,6 +17,7 @@ package org.apache.geode.internal.cache;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
@@ -104,6 +105,10 @@ final class ProxyRegionMap implements RegionMap {
     return Collections.emptySet();
   }
 
+  public Iterator<RegionEntry> regionEntriesInPart(int part, int numParts) {
+    return Collections.emptyIterator();
+  }
+
   public boolean containsKey(Object key) {
     return false;
   }
@@ -63,6 +63,8 @@ public class RegionEvictorTask implements Callable<Object> {
 
   private final long bytesToEvictPerTask;
 
+  private volatile long bytesEvicted;
+
   public RegionEvictorTask(List<LocalRegion> regionSet, HeapEvictor evictor,
       long bytesToEvictPerTask) {
     this.evictor = evictor;
@@ -85,6 +87,13 @@ public class RegionEvictorTask implements Callable<Object> {
     return this.evictor;
   }
 
+  /**
+   * Returns the number of bytes this task evicted, once it has completed.
+   */
+  public long getBytesEvicted() {
+    return this.bytesEvicted;
+  }
+
   public Object call() throws Exception {
     getGemFireCache().getCachePerfStats().incEvictorJobsStarted();
     long bytesEvicted = 0;
@@ -128,6 +137,7 @@ public class RegionEvictorTask implements Callable<Object> {
         }
       }
     } finally {
+      this.bytesEvicted = totalBytesEvicted;
       getGemFireCache().getCachePerfStats().incEvictorJobsCompleted();
     }
   }
@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
+import org.apache.geode.internal.cache.versions.VersionStamp;
+import org.apache.geode.internal.cache.versions.VersionTag;
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * The entries and version vector of an in-memory replicated region, kept when the cache is closed
+ * by a forced disconnect so that the region recreated by the auto-reconnect can request a delta
+ * initial image instead of a full one.
+ * <p>
+ * Snapshots are only kept for {@link #TTL_MILLIS} milliseconds and are softly referenced, so an
+ * unused snapshot never prevents its memory from being reclaimed. A snapshot is consumed by the
+ * first initial image request of the recreated region.
+ *
+ * @see InitialImageOperation#getFromOne
+ */
+public class RegionImageSnapshot {
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * How long, in milliseconds, the image of a region closed by a forced disconnect is kept for
+   * the recreated region. Zero, the default, disables snapshots.
+   */
+  public static long TTL_MILLIS = Long
+      .getLong(DistributionConfig.GEMFIRE_PREFIX + "GetInitialImage.RECONNECT_SNAPSHOT_TTL_MS", 0)
+      .longValue();
+
+  private static final Map<String, SoftReference<RegionImageSnapshot>> snapshots =
+      new ConcurrentHashMap<String, SoftReference<RegionImageSnapshot>>();
+
+  /** The member that held the image. Null IDs in version tags refer to it. */
+  private final InternalDistributedMember memberId;
+
+  private final RegionVersionVector versionVector;
+
+  private final List<SnapshotEntry> entries;
+
+  private final long createTime;
+
+  private RegionImageSnapshot(InternalDistributedMember memberId,
+      RegionVersionVector versionVector, List<SnapshotEntry> entries, long createTime) {
+    this.memberId = memberId;
+    this.versionVector = versionVector;
+    this.entries = entries;
+    this.createTime = createTime;
+  }
+
+  /**
+   * Returns true if the image of the given region can be reused by a delta initial image. Only
+   * pure in-memory replicates with concurrency checks qualify: anything on disk or off-heap is
+   * gone once the cache is closed.
+   */
+  static boolean isEligible(DistributedRegion region) {
+    return TTL_MILLIS > 0 && region.getConcurrencyChecksEnabled()
+        && region.getDataPolicy().withReplication() && !region.getDataPolicy().withPersistence()
+        && region.getDiskRegion() == null && !region.getOffHeap() && !region.isInternalRegion()
+        && !region.isUsedForPartitionedRegionBucket() && !(region instanceof HARegion)
+        && region.getVersionVector() != null;
+  }
+
+  /**
+   * Keeps the image of the region and of its eligible subregions. Called while the cache is being
+   * closed by a forced disconnect, before the region's entries are released.
+   */
+  static void capture(DistributedRegion region) {
+    if (TTL_MILLIS <= 0) {
+      return;
+    }
+    captureRegion(region);
+    for (Object subregion : region.subregions(true)) {
+      if (subregion instanceof DistributedRegion) {
+        captureRegion((DistributedRegion) subregion);
+      }
+    }
+  }
+
+  private static void captureRegion(DistributedRegion region) {
+    if (!region.isInitialized() || !isEligible(region)) {
+      return;
+    }
+    InternalDistributedMember myId = region.getMyId();
+    RegionVersionVector rvv = region.getVersionVector().getCloneForTransmission();
+    List<SnapshotEntry> entries = new ArrayList<SnapshotEntry>(region.entries.size());
+    for (Iterator it = region.entries.regionEntries().iterator(); it.hasNext();) {
+      RegionEntry re = (RegionEntry) it.next();
+      synchronized (re) {
+        if (re.isRemoved() && !re.isTombstone()) {
+          continue;
+        }
+        VersionStamp stamp = re.getVersionStamp();
+        if (stamp == null) {
+          continue;
+        }
+        VersionTag tag = stamp.asVersionTag();
+        tag.replaceNullIDs(myId);
+        entries.add(new SnapshotEntry(re.getKey(), re.getValueInVM(region), tag,
+            re.getLastModified()));
+      }
+    }
+    snapshots.put(region.getFullPath(), new SoftReference<RegionImageSnapshot>(
+        new RegionImageSnapshot(myId, rvv, entries, System.currentTimeMillis())));
+    if (logger.isDebugEnabled()) {
+      logger.debug("Kept image of {} with {} entries for reconnect", region.getFullPath(),
+          entries.size());
+    }
+  }
+
+  /**
+   * Removes and returns the snapshot kept for the region with the given path, or null if there is
+   * none or it has expired.
+   */
+  static RegionImageSnapshot remove(String fullPath) {
+    if (snapshots.isEmpty()) {
+      return null;
+    }
+    SoftReference<RegionImageSnapshot> ref = snapshots.remove(fullPath);
+    RegionImageSnapshot snapshot = ref == null ? null : ref.get();
+    long now = System.currentTimeMillis();
+    if (snapshot != null && now - snapshot.createTime > TTL_MILLIS) {
+      snapshot = null;
+    }
+    // drop anything else that expired or was reclaimed
+    for (Iterator<SoftReference<RegionImageSnapshot>> it = snapshots.values().iterator(); it
+        .hasNext();) {
+      RegionImageSnapshot other = it.next().get();
+      if (other == null || now - other.createTime > TTL_MILLIS) {
+        it.remove();
+      }
+    }
+    return snapshot;
+  }
+
+  /** Discards all kept snapshots */
+  static void clear() {
+    snapshots.clear();
+  }
+
+  RegionVersionVector getVersionVector() {
+    return this.versionVector;
+  }
+
+  int size() {
+    return this.entries.size();
+  }
+
+  /**
+   * Puts the kept entries into the region map and records their versions in the region's version
+   * vector, as if they had been recovered from disk.
+   *
+   * @param seededKeys receives the key of every entry put into the map, with the version it was
+   *        put with
+   */
+  void seed(LocalRegion region, RegionMap map, Map<Object, VersionTag> seededKeys) {
+    for (SnapshotEntry entry : this.entries) {
+      if (map.initialImagePut(entry.key, entry.lastModified, entry.value, false, false,
+          entry.versionTag, this.memberId, false)) {
+        seededKeys.put(entry.key, entry.versionTag);
+      }
+    }
+    region.getVersionVector().recordVersions(this.versionVector);
+  }
+
+  private static class SnapshotEntry {
+    final Object key;
+
+    final Object value;
+
+    final VersionTag versionTag;
+
+    final long lastModified;
+
+    SnapshotEntry(Object key, Object value, VersionTag versionTag, long lastModified) {
+      this.key = key;
+      this.value = value;
+      this.versionTag = versionTag;
+      this.lastModified = lastModified;
+    }
+  }
+}
@@ -16,6 +16,7 @@
 package org.apache.geode.internal.cache;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
@@ -112,6 +113,12 @@ public interface RegionMap extends LRUMapCallbacks {
    */
   public Collection<RegionEntry> regionEntriesInVM();
 
+  /**
+   * Returns the RegionEntry instances of one of numParts disjoint parts of this map. Iterating
+   * every part visits the same entries as iterating {@link #regionEntries()}.
+   */
+  public Iterator<RegionEntry> regionEntriesInPart(int part, int numParts);
+
   public boolean containsKey(Object key);
 
   /**
@@ -90,7 +90,16 @@ public class TXManagerImpl implements CacheTransactionManager, MembershipListene
   public TransactionWriter writer = null;
   private volatile boolean closed = false;
 
-  private final Map<TXId, TXStateProxy> hostedTXStates;
+  /**
+   * the transactions hosted on behalf of other members and clients. Lookups take no lock; updates
+   * that must be atomic with respect to each other synchronize on {@link #getHostedTXLock(TXId)}.
+   */
+  private final ConcurrentMap<TXId, TXStateProxy> hostedTXStates;
+
+  /** number of locks guarding the compound updates of hostedTXStates, a power of two */
+  private static final int HOSTED_TX_LOCK_STRIPES = 64;
+
+  private final Object[] hostedTXLocks;
 
   /**
    * the number of client initiated transactions to store for client failover
@@ -161,7 +170,11 @@ public class TXManagerImpl implements CacheTransactionManager, MembershipListene
     this.distributionMgrId = this.dm.getDistributionManagerId();
     this.uniqId = new AtomicInteger(0);
     this.cachePerfStats = cachePerfStats;
-    this.hostedTXStates = new HashMap<TXId, TXStateProxy>();
+    this.hostedTXStates = new ConcurrentHashMap<TXId, TXStateProxy>();
+    this.hostedTXLocks = new Object[HOSTED_TX_LOCK_STRIPES];
+    for (int i = 0; i < HOSTED_TX_LOCK_STRIPES; i++) {
+      this.hostedTXLocks[i] = new Object();
+    }
     this.txContext = new ThreadLocal<TXStateProxy>();
     this.isTXDistributed = new ThreadLocal<Boolean>();
     this.transactionTimeToLive = Integer
@@ -606,13 +619,10 @@ public class TXManagerImpl implements CacheTransactionManager, MembershipListene
     if (isClosed()) {
       return;
     }
-    TXStateProxy[] proxies = null;
-    synchronized (this.hostedTXStates) {
-      // After this, newly added TXStateProxy would not operate on the TXState.
-      this.closed = true;
+    // After this, newly added TXStateProxy would not operate on the TXState.
+    this.closed = true;
 
-      proxies = this.hostedTXStates.values().toArray(new TXStateProxy[this.hostedTXStates.size()]);
-    }
+    TXStateProxy[] proxies = this.hostedTXStates.values().toArray(new TXStateProxy[0]);
 
     for (TXStateProxy proxy : proxies) {
       proxy.getLock().lock();
@@ -776,10 +786,10 @@ public class TXManagerImpl implements CacheTransactionManager, MembershipListene
 
   TXStateProxy getOrSetHostedTXState(TXId key, TransactionMessage msg) {
     TXStateProxy val = this.hostedTXStates.get(key);
-    if (val == null) {
-      synchronized (this.hostedTXStates) {
+    if (val == null && msg.canStartRemoteTransaction()) {
+      synchronized (getHostedTXLock(key)) {
         val = this.hostedTXStates.get(key);
-        if (val == null && msg.canStartRemoteTransaction()) {
+        if (val == null) {
           if (msg.isTransactionDistributed()) {
             val = new DistTXStateProxyImplOnDatanode(this, key, msg.getTXOriginatorClient());
             val.setLocalTXState(new DistTXState(val, true));
@@ -796,8 +806,8 @@ public class TXManagerImpl implements CacheTransactionManager, MembershipListene
 
   boolean getLock(TXStateProxy val, TXId key) {
     if (!val.getLock().isHeldByCurrentThread()) {
-      val.getLock().lock();
-      synchronized (this.hostedTXStates) {
+      lockHostedTXState(val);
+      synchronized (getHostedTXLock(key)) {
         TXStateProxy curVal = this.hostedTXStates.get(key);
         // Inflight op could be received later than TXFailover operation.
         if (curVal == null) {
@@ -843,7 +853,7 @@ public class TXManagerImpl implements CacheTransactionManager, MembershipListene
     TXStateProxy val;
     val = this.hostedTXStates.get(key);
     if (val == null) {
-      synchronized (this.hostedTXStates) {
+      synchronized (getHostedTXLock(key)) {
         val = this.hostedTXStates.get(key);
         if (val == null) {
           // [sjigyasu] TODO: Conditionally create object based on distributed or non-distributed tx
@@ -863,11 +873,11 @@ public class TXManagerImpl implements CacheTransactionManager, MembershipListene
     if (!probeOnly) {
       if (val != null) {
         if (!val.getLock().isHeldByCurrentThread()) {
-          val.getLock().lock();
+          lockHostedTXState(val);
           // add the TXStateProxy back to the map
           // in-case another thread removed it while we were waiting to lock.
           // This can happen during client transaction failover.
-          synchronized (this.hostedTXStates) {
+          synchronized (getHostedTXLock(key)) {
             this.hostedTXStates.put(key, val);
           }
         }
@@ -887,7 +897,7 @@ public class TXManagerImpl implements CacheTransactionManager, MembershipListene
   public void masqueradeAs(TXStateProxy txState) {
     assert txState != null;
     if (!txState.getLock().isHeldByCurrentThread()) {
-      txState.getLock().lock();
+      lockHostedTXState(txState);
     }
     setTXState(txState);
   }
@@ -911,7 +921,7 @@ public class TXManagerImpl implements CacheTransactionManager, MembershipListene
    * @return the TXStateProxy
    */
   public TXStateProxy removeHostedTXState(TXId txId) {
-    synchronized (this.hostedTXStates) {
+    synchronized (getHostedTXLock(txId)) {
       TXStateProxy result = this.hostedTXStates.remove(txId);
       if (result != null) {
         result.close();
@@ -920,21 +930,45 @@ public class TXManagerImpl implements CacheTransactionManager, MembershipListene
     }
   }
 
+  /**
+   * Removes and closes the given hosted txState, unless it has already been replaced or removed.
+   */
+  private void removeHostedTXState(TXId txId, TXStateProxy txState) {
+    synchronized (getHostedTXLock(txId)) {
+      if (this.hostedTXStates.remove(txId, txState)) {
+        txState.close();
+      }
+    }
+  }
+
+  private Object getHostedTXLock(TXId txId) {
+    int h = txId.hashCode();
+    h ^= (h >>> 16);
+    return this.hostedTXLocks[h & (HOSTED_TX_LOCK_STRIPES - 1)];
+  }
+
+  /**
+   * Locks a hosted txState for the current thread, recording in the stats if another thread held
+   * it and we had to wait.
+   */
+  private void lockHostedTXState(TXStateProxy txState) {
+    if (!txState.getLock().tryLock()) {
+      long start = this.cachePerfStats.startTxHostedLockWait();
+      txState.getLock().lock();
+      this.cachePerfStats.endTxHostedLockWait(start);
+    }
+  }
+
   /**
    * Called when the CacheServer is shutdown. Removes txStates hosted on client's behalf
    */
   protected void removeHostedTXStatesForClients() {
-    synchronized (this.hostedTXStates) {
-      Iterator<Entry<TXId, TXStateProxy>> iterator = this.hostedTXStates.entrySet().iterator();
-      while (iterator.hasNext()) {
-        Entry<TXId, TXStateProxy> entry = iterator.next();
-        if (entry.getValue().isOnBehalfOfClient()) {
-          entry.getValue().close();
-          if (logger.isDebugEnabled()) {
-            logger.debug("Cleaning up TXStateProxy for {}", entry.getKey());
-          }
-          iterator.remove();
+    for (Entry<TXId, TXStateProxy> entry : this.hostedTXStates.entrySet()) {
+      if (entry.getValue().isOnBehalfOfClient()) {
+        if (logger.isDebugEnabled()) {
+          logger.debug("Cleaning up TXStateProxy for {}", entry.getKey());
         }
+        removeHostedTXState(entry.getKey(), entry.getValue());
       }
     }
   }
@@ -946,28 +980,22 @@ public class TXManagerImpl implements CacheTransactionManager, MembershipListene
    * @return true if the transaction is in progress, false otherwise
    */
   public boolean isHostedTxInProgress(TXId txId) {
-    synchronized (this.hostedTXStates) {
-      TXStateProxy tx = this.hostedTXStates.get(txId);
-      if (tx == null) {
-        return false;
-      }
-      return tx.isRealDealLocal();
+    TXStateProxy tx = this.hostedTXStates.get(txId);
+    if (tx == null) {
+      return false;
     }
+    return tx.isRealDealLocal();
   }
 
   public TXStateProxy getHostedTXState(TXId txId) {
-    synchronized (this.hostedTXStates) {
-      return this.hostedTXStates.get(txId);
-    }
+    return this.hostedTXStates.get(txId);
   }
 
   /**
    * @return number of transaction in progress on behalf of remote nodes
    */
   public int hostedTransactionsInProgressForTest() {
-    synchronized (this.hostedTXStates) {
-      return this.hostedTXStates.size();
-    }
+    return this.hostedTXStates.size();
   }
 
   public int localTransactionsInProgressForTest() {
@@ -975,18 +1003,13 @@ public class TXManagerImpl implements CacheTransactionManager, MembershipListene
   }
 
   public void memberDeparted(InternalDistributedMember id, boolean crashed) {
-    synchronized (this.hostedTXStates) {
-      Iterator<Map.Entry<TXId, TXStateProxy>> iterator = this.hostedTXStates.entrySet().iterator();
-      while (iterator.hasNext()) {
-        Map.Entry<TXId, TXStateProxy> me = iterator.next();
-        TXId txId = me.getKey();
-        if (txId.getMemberId().equals(id)) {
-          me.getValue().close();
-          if (logger.isDebugEnabled()) {
-            logger.debug("Received memberDeparted, cleaning up txState:{}", txId);
-          }
-          iterator.remove();
+    for (Map.Entry<TXId, TXStateProxy> me : this.hostedTXStates.entrySet()) {
+      TXId txId = me.getKey();
+      if (txId.getMemberId().equals(id)) {
+        if (logger.isDebugEnabled()) {
+          logger.debug("Received memberDeparted, cleaning up txState:{}", txId);
         }
+        removeHostedTXState(txId, me.getValue());
       }
     }
     expireClientTransactionsSentFromDepartedProxy(id);
@@ -1009,11 +1032,9 @@ public class TXManagerImpl implements CacheTransactionManager, MembershipListene
    */
   public Set<TXId> getTransactionsForClient(InternalDistributedMember id) {
     Set<TXId> result = new HashSet<TXId>();
-    synchronized (this.hostedTXStates) {
-      for (Map.Entry<TXId, TXStateProxy> entry : this.hostedTXStates.entrySet()) {
-        if (entry.getKey().getMemberId().equals(id)) {
-          result.add(entry.getKey());
-        }
+    for (Map.Entry<TXId, TXStateProxy> entry : this.hostedTXStates.entrySet()) {
+      if (entry.getKey().getMemberId().equals(id)) {
+        result.add(entry.getKey());
       }
     }
     return result;
@@ -1027,11 +1048,9 @@ public class TXManagerImpl implements CacheTransactionManager, MembershipListene
    */
   public Set<TXStateProxy> getTransactionStatesForClient(InternalDistributedMember id) {
     Set<TXStateProxy> result = new HashSet<TXStateProxy>();
-    synchronized (this.hostedTXStates) {
-      for (Map.Entry<TXId, TXStateProxy> entry : this.hostedTXStates.entrySet()) {
-        if (entry.getKey().getMemberId().equals(id)) {
-          result.add(entry.getValue());
-        }
+    for (Map.Entry<TXId, TXStateProxy> entry : this.hostedTXStates.entrySet()) {
+      if (entry.getKey().getMemberId().equals(id)) {
+        result.add(entry.getValue());
       }
     }
     return result;
@@ -1042,14 +1061,9 @@ public class TXManagerImpl implements CacheTransactionManager, MembershipListene
     if (logger.isDebugEnabled()) {
       logger.debug("expiring the following transactions: {}", txIds);
     }
-    synchronized (this.hostedTXStates) {
-      Iterator<Map.Entry<TXId, TXStateProxy>> iterator = this.hostedTXStates.entrySet().iterator();
-      while (iterator.hasNext()) {
-        Map.Entry<TXId, TXStateProxy> entry = iterator.next();
-        if (txIds.contains(entry.getKey())) {
-          entry.getValue().close();
-          iterator.remove();
-        }
+    for (Map.Entry<TXId, TXStateProxy> entry : this.hostedTXStates.entrySet()) {
+      if (txIds.contains(entry.getKey())) {
+        removeHostedTXState(entry.getKey(), entry.getValue());
       }
     }
     if (distribute) {
@@ -1108,13 +1122,7 @@ public class TXManagerImpl implements CacheTransactionManager, MembershipListene
    * @return true if a wait was performed
    */
   public boolean waitForCompletingTransaction(TXId txId) {
-    TXStateProxy val;
-    val = this.hostedTXStates.get(txId);
-    if (val == null) {
-      synchronized (this.hostedTXStates) {
-        val = this.hostedTXStates.get(txId);
-      }
-    }
+    TXStateProxy val = this.hostedTXStates.get(txId);
     if (val != null && val.isRealDealLocal()) {
       TXStateProxyImpl impl = (TXStateProxyImpl) val;
       TXState state = impl.getLocalRealDeal();
@@ -1575,9 +1583,7 @@ public class TXManagerImpl implements CacheTransactionManager, MembershipListene
 
   // Used by tests
   public ArrayList<TXId> getHostedTxIds() {
-    synchronized (this.hostedTXStates) {
-      return new ArrayList<TXId>(this.hostedTXStates.keySet());
-    }
+    return new ArrayList<TXId>(this.hostedTXStates.keySet());
   }
 
   public void setTransactionTimeToLiveForTest(int seconds) {
@@ -1654,17 +1660,12 @@ public class TXManagerImpl implements CacheTransactionManager, MembershipListene
     if (logger.isDebugEnabled()) {
       logger.debug("expiring the following transactions: {}", txIds);
     }
-    synchronized (this.hostedTXStates) {
-      Iterator<Map.Entry<TXId, TXStateProxy>> iterator = this.hostedTXStates.entrySet().iterator();
-      while (iterator.hasNext()) {
-        Map.Entry<TXId, TXStateProxy> entry = iterator.next();
-        if (txIds.contains(entry.getKey())) {
-          // The TXState was not updated by any other proxy server,
-          // The client would fail over to another proxy server.
-          // Remove it after waiting for transactionTimeToLive period.
-          entry.getValue().close();
-          iterator.remove();
-        }
+    for (Map.Entry<TXId, TXStateProxy> entry : this.hostedTXStates.entrySet()) {
+      if (txIds.contains(entry.getKey())) {
+        // The TXState was not updated by any other proxy server,
+        // The client would fail over to another proxy server.
+        // Remove it after waiting for transactionTimeToLive period.
+        removeHostedTXState(entry.getKey(), entry.getValue());
       }
     }
   }
@@ -1679,14 +1680,12 @@ public class TXManagerImpl implements CacheTransactionManager, MembershipListene
    */
   private Set<TXId> getTransactionsSentFromDepartedProxy(InternalDistributedMember proxyServer) {
     Set<TXId> result = new HashSet<TXId>();
-    synchronized (this.hostedTXStates) {
-      for (Map.Entry<TXId, TXStateProxy> entry : this.hostedTXStates.entrySet()) {
-        TXStateProxy tx = entry.getValue();
-        if (tx.isRealDealLocal() && tx.isOnBehalfOfClient()) {
-          TXState txstate = (TXState) ((TXStateProxyImpl) tx).realDeal;
-          if (proxyServer.equals(txstate.getProxyServer())) {
-            result.add(entry.getKey());
-          }
+    for (Map.Entry<TXId, TXStateProxy> entry : this.hostedTXStates.entrySet()) {
+      TXStateProxy tx = entry.getValue();
+      if (tx.isRealDealLocal() && tx.isOnBehalfOfClient()) {
+        TXState txstate = (TXState) ((TXStateProxyImpl) tx).realDeal;
+        if (proxyServer.equals(txstate.getProxyServer())) {
+          result.add(entry.getKey());
         }
       }
     }
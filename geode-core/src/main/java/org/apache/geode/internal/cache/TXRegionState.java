@@ -19,6 +19,7 @@ import org.apache.geode.CancelException;
 import org.apache.geode.cache.*;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.internal.cache.TXEntryState.DistTxThinEntryState;
+import org.apache.geode.internal.cache.versions.VersionStamp;
 import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.internal.logging.LogService;
 
@@ -42,6 +43,8 @@ public class TXRegionState {
   private final HashMap<Object, TXEntryState> entryMods;
   // A map of Objects (entry keys) -> TXEntryUserAttrState
   private HashMap uaMods;
+  // A map of Objects (entry keys) -> version of the committed entry read by the tx
+  private HashMap<Object, Object> readVersions;
   private Set<InternalDistributedMember> otherMembers = null;
   private TXState txState;
   private LocalRegion region;
@@ -111,6 +114,90 @@ public class TXRegionState {
     return result;
   }
 
+  /**
+   * Remembers the version of the committed entry read by the transaction, instead of creating a
+   * TXEntryState for it, so that {@link #checkForConflicts} can tell if it changed before commit.
+   * Only the first read of a key is remembered.
+   * 
+   * @return false if the committed entry has no version to remember
+   */
+  boolean recordReadVersion(LocalRegion r, Object entryKey) {
+    if (this.readVersions != null && this.readVersions.containsKey(entryKey)) {
+      return true;
+    }
+    Object version = getCommittedVersion(r, entryKey);
+    if (version == null) {
+      return false;
+    }
+    if (this.readVersions == null) {
+      this.readVersions = new HashMap<Object, Object>();
+    }
+    this.readVersions.put(entryKey, version);
+    return true;
+  }
+
+  /**
+   * @return the version tag of the committed entry, a {@link TombstoneVersion} if the entry is a
+   *         tombstone, REMOVED_PHASE1 if there is no entry or null if the entry has no version
+   *         stamp
+   */
+  private static Object getCommittedVersion(LocalRegion r, Object entryKey) {
+    RegionEntry re = r.basicGetEntry(entryKey);
+    if (re == null) {
+      return Token.REMOVED_PHASE1;
+    }
+    synchronized (re) {
+      if (re.isRemoved() && !re.isTombstone()) {
+        return Token.REMOVED_PHASE1;
+      }
+      VersionStamp stamp = re.getVersionStamp();
+      if (stamp == null) {
+        return null;
+      }
+      if (re.isTombstone()) {
+        return new TombstoneVersion(stamp.asVersionTag());
+      }
+      return stamp.asVersionTag();
+    }
+  }
+
+  /**
+   * Returns true if the committed entry read with the given version may have changed since.
+   * <p>
+   * A tombstone that was read may have been garbage collected since, leaving no entry at all. The
+   * entry was absent when read and still is, so this is not a change. The entry may also have been
+   * created and destroyed again before its new tombstone was collected; that cannot be told apart
+   * and is not detected either.
+   */
+  private static boolean isReadVersionChanged(Object readVersion, Object committedVersion) {
+    if (readVersion.equals(committedVersion)) {
+      return false;
+    }
+    return !(readVersion instanceof TombstoneVersion && committedVersion == Token.REMOVED_PHASE1);
+  }
+
+  /**
+   * The version of a tombstone read by the transaction, kept apart from the versions of live
+   * entries so that the tombstone being garbage collected is not mistaken for a change.
+   */
+  private static final class TombstoneVersion {
+    private final Object tag;
+
+    TombstoneVersion(Object tag) {
+      this.tag = tag;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof TombstoneVersion && this.tag.equals(((TombstoneVersion) o).tag);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.tag.hashCode();
+    }
+  }
+
   // public void rmEntry(Object entryKey, TXState txState, LocalRegion r) {
   // rmEntryUserAttr(entryKey);
   // TXEntryState e = (TXEntryState)this.entryMods.remove(entryKey);
@@ -190,7 +277,7 @@ public class TXRegionState {
    * Create a lock request on this region state and adds it to req
    */
   void createLockRequest(LocalRegion r, TXLockRequest req) {
-    if (this.uaMods == null && this.entryMods.isEmpty()) {
+    if (this.uaMods == null && this.entryMods.isEmpty() && this.readVersions == null) {
       return;
     }
     if (this.txState.logger.isDebugEnabled()) {
@@ -220,20 +307,23 @@ public class TXRegionState {
       // }
     }
     final boolean distributedTX = !byPassDLock && r.getScope().isDistributedAck();
-    if (this.uaMods != null || (!distributedTX && this.entryMods.size() > 0)) {
+    // the keys read with a recorded version are locked too, so that they cannot change between
+    // checkForConflicts and the end of the commit
+    final boolean hasEntryLocks = this.entryMods.size() > 0 || this.readVersions != null;
+    if (this.uaMods != null || (!distributedTX && hasEntryLocks)) {
       // need some local locks
       TXRegionLockRequestImpl rlr = new TXRegionLockRequestImpl(r);
       if (this.uaMods != null) {
         rlr.addEntryKeys(this.uaMods.keySet());
       }
-      if (!distributedTX && this.entryMods.size() > 0) {
+      if (!distributedTX && hasEntryLocks) {
         rlr.addEntryKeys(getLockRequestEntryKeys());
       }
       if (!rlr.isEmpty()) {
         req.addLocalRequest(rlr);
       }
     }
-    if (distributedTX && this.entryMods.size() > 0) {
+    if (distributedTX && hasEntryLocks) {
       // need some distributed locks
       TXRegionLockRequestImpl rlr = new TXRegionLockRequestImpl(r);
       rlr.addEntryKeys(getLockRequestEntryKeys());
@@ -245,12 +335,16 @@ public class TXRegionState {
   }
 
   /**
-   * Returns a set of entry keys that this tx needs to request a lock for at commit time.
+   * Returns a set of entry keys that this tx needs to request a lock for at commit time: the keys
+   * it wrote and the keys whose committed version it read.
    * 
    * @return <code>null</code> if no entries need to be locked.
    */
   private Set getLockRequestEntryKeys() {
     HashSet result = null;
+    if (this.readVersions != null) {
+      result = new HashSet(this.readVersions.keySet());
+    }
     Iterator it = this.entryMods.entrySet().iterator();
     while (it.hasNext()) {
       Map.Entry me = (Map.Entry) it.next();
@@ -288,6 +382,17 @@ public class TXRegionState {
         txes.checkForConflict(r, eKey);
       }
     }
+    if (this.readVersions != null) {
+      r.checkReadiness();
+      for (Map.Entry<Object, Object> me : this.readVersions.entrySet()) {
+        Object eKey = me.getKey();
+        if (isReadVersionChanged(me.getValue(), getCommittedVersion(r, eKey))) {
+          throw new CommitConflictException(
+              LocalizedStrings.TXEntryState_ENTRY_FOR_KEY_0_ON_REGION_1_HAD_A_STATE_CHANGE
+                  .toLocalizedString(new Object[] {eKey, r.getDisplayName()}));
+        }
+      }
+    }
   }
 
   /**
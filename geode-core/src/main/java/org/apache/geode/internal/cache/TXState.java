@@ -51,6 +51,7 @@ import org.apache.geode.cache.UnsupportedOperationInTransactionException;
 import org.apache.geode.cache.client.internal.ServerRegionDataAccess;
 import org.apache.geode.distributed.DistributedMember;
 import org.apache.geode.distributed.TXManagerCancelledException;
+import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.internal.Assert;
 import org.apache.geode.internal.cache.control.MemoryThresholds;
@@ -76,6 +77,17 @@ import org.apache.geode.internal.offheap.annotations.Retained;
 public class TXState implements TXStateInterface {
   protected static final Logger logger = LogService.getLogger();
 
+  /**
+   * If true, reads of entries the transaction has not written remember the version of the
+   * committed entry instead of keeping a TXEntryState for it. Such reads see the latest committed
+   * value rather than a repeatable one, but the commit fails with a CommitConflictException if any
+   * of the versions read changed. The keys read are locked at commit like the keys written, and
+   * the versions are checked while those locks are held. Only used on regions with concurrency
+   * checks; other regions keep the repeatable read behavior. public for testing.
+   */
+  public static boolean SNAPSHOT_READS =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "tx.SNAPSHOT_READS");
+
   // The nano-timestamp of when the transaction began
   private final long beginTime;
   // A map of transaction state by Region
@@ -1303,6 +1315,9 @@ public class TXState implements TXStateInterface {
    * org.apache.geode.internal.cache.LocalRegion)
    */
   public boolean containsValueForKey(KeyInfo keyInfo, LocalRegion region) {
+    if (recordSnapshotRead(keyInfo, region)) {
+      return region.nonTXContainsValueForKey(keyInfo);
+    }
     TXEntryState tx = txReadEntry(keyInfo, region, true, true/* create txEntry is absent */);
     if (tx != null) {
       /**
@@ -1437,6 +1452,33 @@ public class TXState implements TXStateInterface {
     return txReadEntry(keyInfo, localRegion, rememberRead, null, createIfAbsent);
   }
 
+  /**
+   * Reads an entry the transaction has not written by remembering the version of the committed
+   * entry, which is checked at commit, instead of creating a TXEntryState for it.
+   * 
+   * @return true if the read was recorded and the committed value should be read directly; false
+   *         if the read needs a TXEntryState
+   * @see #SNAPSHOT_READS
+   */
+  private boolean recordSnapshotRead(KeyInfo keyInfo, LocalRegion localRegion) {
+    if (!SNAPSHOT_READS || isDistTx() || !localRegion.getConcurrencyChecksEnabled()) {
+      return false;
+    }
+    localRegion.cache.getCancelCriterion().checkCancelInProgress(null);
+    LocalRegion dataReg = localRegion.getDataRegionForWrite(keyInfo);
+    if (dataReg != localRegion && !(dataReg instanceof BucketRegion)) {
+      return false;
+    }
+    TXRegionState txr = txReadRegion(dataReg);
+    if (txr != null && txr.readEntry(keyInfo.getKey()) != null) {
+      return false;
+    }
+    if (txr == null) {
+      txr = txWriteRegion(localRegion, keyInfo);
+    }
+    return txr.recordReadVersion(dataReg, keyInfo.getKey());
+  }
+
   /**
    * This form of txReadEntry takes a concurrent-map argument, expectedOldValue. If this parameter
    * is not null it must match the current value of the entry or an EntryNotFoundException is
@@ -1505,6 +1547,10 @@ public class TXState implements TXStateInterface {
   public Object getDeserializedValue(KeyInfo keyInfo, LocalRegion localRegion, boolean updateStats,
       boolean disableCopyOnRead, boolean preferCD, EntryEventImpl clientEvent,
       boolean returnTombstones, boolean retainResult) {
+    if (recordSnapshotRead(keyInfo, localRegion)) {
+      return localRegion.getDeserializedValue(null, keyInfo, updateStats, disableCopyOnRead,
+          preferCD, clientEvent, returnTombstones, retainResult);
+    }
     TXEntryState tx = txReadEntry(keyInfo, localRegion, true, true/* create txEntry is absent */);
     if (tx != null) {
       Object v = tx.getValue(keyInfo, localRegion, preferCD);
@@ -1578,6 +1624,9 @@ public class TXState implements TXStateInterface {
    * org.apache.geode.internal.cache.LocalRegion)
    */
   public boolean containsKey(KeyInfo keyInfo, LocalRegion localRegion) {
+    if (recordSnapshotRead(keyInfo, localRegion)) {
+      return localRegion.nonTXContainsKey(keyInfo);
+    }
     TXEntryState tx = txReadEntry(keyInfo, localRegion, true, true/* create txEntry is absent */);
     if (tx != null) {
       return tx.existsLocally();
@@ -1594,6 +1643,9 @@ public class TXState implements TXStateInterface {
    */
   @Retained
   public Object getValueInVM(KeyInfo keyInfo, LocalRegion localRegion, boolean rememberRead) {
+    if (rememberRead && recordSnapshotRead(keyInfo, localRegion)) {
+      return localRegion.nonTXbasicGetValueInVM(keyInfo);
+    }
     TXEntryState tx =
         txReadEntry(keyInfo, localRegion, rememberRead, true/* create txEntry is absent */);
     if (tx != null) {
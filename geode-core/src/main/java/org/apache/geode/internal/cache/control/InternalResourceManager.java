@@ -78,6 +78,7 @@ public class InternalResourceManager implements ResourceManager {
   private LoadProbe loadProbe;
 
   private final ResourceManagerStats stats;
+  private final RebalanceThrottle rebalanceThrottle;
   private final ResourceAdvisor resourceAdvisor;
   private boolean closed = true;
 
@@ -101,6 +102,7 @@ public class InternalResourceManager implements ResourceManager {
     this.cache = cache;
     this.resourceAdvisor = (ResourceAdvisor) cache.getDistributionAdvisor();
     this.stats = new ResourceManagerStats(cache.getDistributedSystem());
+    this.rebalanceThrottle = new RebalanceThrottle(this.stats);
 
     // Create a new executor that other classes may use for handling resource
     // related tasks
@@ -283,7 +285,15 @@ public class InternalResourceManager implements ResourceManager {
 
   @Override
   public RebalanceFactory createRebalanceFactory() {
-    return new RebalanceFactoryImpl();
+    return new RebalanceFactoryImpl(null);
+  }
+
+  /**
+   * Returns a factory for rebalance operations that measure the load of the members with the given
+   * probe instead of this manager's {@link #getLoadProbe() probe}.
+   */
+  public RebalanceFactory createRebalanceFactory(LoadProbe loadProbe) {
+    return new RebalanceFactoryImpl(loadProbe);
   }
 
   @Override
@@ -309,12 +319,17 @@ public class InternalResourceManager implements ResourceManager {
 
     private Set<String> includedRegions;
     private Set<String> excludedRegions;
+    private final LoadProbe loadProbe;
+
+    RebalanceFactoryImpl(LoadProbe loadProbe) {
+      this.loadProbe = loadProbe;
+    }
 
     @Override
     public RebalanceOperation simulate() {
       RegionFilter filter = new FilterByPath(this.includedRegions, this.excludedRegions);
-      RebalanceOperationImpl op =
-          new RebalanceOperationImpl(InternalResourceManager.this.cache, true, filter);
+      RebalanceOperationImpl op = new RebalanceOperationImpl(InternalResourceManager.this.cache,
+          true, filter, this.loadProbe);
       op.start();
       return op;
     }
@@ -322,8 +337,8 @@ public class InternalResourceManager implements ResourceManager {
     @Override
     public RebalanceOperation start() {
       RegionFilter filter = new FilterByPath(this.includedRegions, this.excludedRegions);
-      RebalanceOperationImpl op =
-          new RebalanceOperationImpl(InternalResourceManager.this.cache, false, filter);
+      RebalanceOperationImpl op = new RebalanceOperationImpl(InternalResourceManager.this.cache,
+          false, filter, this.loadProbe);
       op.start();
       return op;
     }
@@ -529,6 +544,13 @@ public class InternalResourceManager implements ResourceManager {
     return this.resourceAdvisor;
   }
 
+  /**
+   * Returns the limits on the bucket moves of rebalancing and redundancy recovery.
+   */
+  public RebalanceThrottle getRebalanceThrottle() {
+    return this.rebalanceThrottle;
+  }
+
   public LoadProbe getLoadProbe() {
     return this.loadProbe;
   }
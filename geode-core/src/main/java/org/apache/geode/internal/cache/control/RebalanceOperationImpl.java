@@ -25,6 +25,7 @@ import org.apache.geode.cache.partition.PartitionRebalanceInfo;
 import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.internal.cache.PartitionedRegion;
+import org.apache.geode.internal.cache.partitioned.LoadProbe;
 import org.apache.geode.internal.cache.partitioned.PartitionedRegionRebalanceOp;
 import org.apache.geode.internal.cache.partitioned.rebalance.CompositeDirector;
 import org.apache.geode.internal.logging.LogService;
@@ -52,11 +53,22 @@ public class RebalanceOperationImpl implements RebalanceOperation {
   private final AtomicBoolean cancelled = new AtomicBoolean();
   private final Object futureLock = new Object();
   private RegionFilter filter;
+  private final LoadProbe loadProbe;
 
   RebalanceOperationImpl(GemFireCacheImpl cache, boolean simulation, RegionFilter filter) {
+    this(cache, simulation, filter, null);
+  }
+
+  /**
+   * @param loadProbe the probe that measures the load of the members, or null to use the resource
+   *        manager's
+   */
+  RebalanceOperationImpl(GemFireCacheImpl cache, boolean simulation, RegionFilter filter,
+      LoadProbe loadProbe) {
     this.simulation = simulation;
     this.cache = cache;
     this.filter = filter;
+    this.loadProbe = loadProbe;
   }
 
   public void start() {
@@ -85,7 +97,7 @@ public class RebalanceOperationImpl implements RebalanceOperation {
                   DistributionConfig.GEMFIRE_PREFIX + "DISABLE_MOVE_PRIMARIES_ON_STARTUP")) {
                 PartitionedRegionRebalanceOp prOp = new PartitionedRegionRebalanceOp(region,
                     simulation, new CompositeDirector(false, false, false, true), true, true,
-                    cancelled, stats);
+                    cancelled, stats, this.loadProbe);
                 this.futureList.add(submitRebalanceTask(prOp, start));
               } else {
                 continue;
@@ -93,7 +105,8 @@ public class RebalanceOperationImpl implements RebalanceOperation {
             } else {
               PartitionedRegionRebalanceOp prOp =
                   new PartitionedRegionRebalanceOp(region, simulation,
-                      new CompositeDirector(true, true, true, true), true, true, cancelled, stats);
+                      new CompositeDirector(true, true, true, true), true, true, cancelled, stats,
+                      this.loadProbe);
               this.futureList.add(submitRebalanceTask(prOp, start));
             }
           }
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.control;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.geode.distributed.DistributedMember;
+import org.apache.geode.distributed.internal.DistributionConfig;
+
+/**
+ * Limits how hard moving buckets may load the members, so that a rebalance or a redundancy recovery
+ * does not saturate the network and starve the client traffic.
+ * <ul>
+ * <li>The bytes per second limit applies to the initial image chunks of buckets sent by this
+ * member. All the bucket images this member sends share the limit.
+ * <li>The moves per member limit applies to the rebalance operations directed by this member. It is
+ * the number of buckets that may be copied to one member at the same time.
+ * </ul>
+ * Both limits are disabled when zero, which is the default. They are initialized from the
+ * <code>gemfire.ResourceManager.REBALANCE_MAX_BYTES_PER_SECOND</code> and
+ * <code>gemfire.ResourceManager.REBALANCE_MAX_MOVES_PER_MEMBER</code> system properties and can be
+ * changed while a rebalance is in progress.
+ *
+ * @since Geode 1.2
+ */
+public class RebalanceThrottle {
+
+  static final String MAX_BYTES_PER_SECOND_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "ResourceManager.REBALANCE_MAX_BYTES_PER_SECOND";
+
+  static final String MAX_MOVES_PER_MEMBER_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "ResourceManager.REBALANCE_MAX_MOVES_PER_MEMBER";
+
+  private final ResourceManagerStats stats;
+
+  private volatile long maxBytesPerSecond;
+
+  private volatile int maxMovesPerMember;
+
+  /**
+   * The time at which the bytes granted so far will have been sent at the maximum rate. Guarded by
+   * this throttle.
+   */
+  private long nextFreeNanos;
+
+  /** The number of bucket copies to each member in progress. Guarded by itself. */
+  private final Map<DistributedMember, Integer> movesInProgress = new HashMap<>();
+
+  RebalanceThrottle(ResourceManagerStats stats) {
+    this(stats, Long.getLong(MAX_BYTES_PER_SECOND_PROPERTY, 0),
+        Integer.getInteger(MAX_MOVES_PER_MEMBER_PROPERTY, 0));
+  }
+
+  RebalanceThrottle(ResourceManagerStats stats, long maxBytesPerSecond, int maxMovesPerMember) {
+    this.stats = stats;
+    setMaxBytesPerSecond(maxBytesPerSecond);
+    setMaxMovesPerMember(maxMovesPerMember);
+  }
+
+  public long getMaxBytesPerSecond() {
+    return this.maxBytesPerSecond;
+  }
+
+  /**
+   * Sets the rate at which this member may send bucket images, or 0 for no limit.
+   */
+  public void setMaxBytesPerSecond(long maxBytesPerSecond) {
+    if (maxBytesPerSecond < 0) {
+      throw new IllegalArgumentException("maxBytesPerSecond must not be negative");
+    }
+    this.maxBytesPerSecond = maxBytesPerSecond;
+  }
+
+  public int getMaxMovesPerMember() {
+    return this.maxMovesPerMember;
+  }
+
+  /**
+   * Sets the number of buckets a rebalance directed by this member may copy to one member at the
+   * same time, or 0 for no limit.
+   */
+  public void setMaxMovesPerMember(int maxMovesPerMember) {
+    if (maxMovesPerMember < 0) {
+      throw new IllegalArgumentException("maxMovesPerMember must not be negative");
+    }
+    synchronized (this.movesInProgress) {
+      this.maxMovesPerMember = maxMovesPerMember;
+      // a larger budget may let waiting moves start
+      this.movesInProgress.notifyAll();
+    }
+  }
+
+  /**
+   * Waits until this member may send a bucket image chunk of the given size without exceeding the
+   * maximum bytes per second. Returns immediately if there is no limit.
+   */
+  public void throttleBytes(long bytes) {
+    long maxRate = this.maxBytesPerSecond;
+    if (maxRate <= 0) {
+      return;
+    }
+    long waitNanos;
+    synchronized (this) {
+      long now = nanoTime();
+      if (this.nextFreeNanos < now) {
+        // the throttle was idle, so do not let it make up for the lost time
+        this.nextFreeNanos = now;
+      }
+      waitNanos = this.nextFreeNanos - now;
+      this.nextFreeNanos += bytes * TimeUnit.SECONDS.toNanos(1) / maxRate;
+    }
+    if (waitNanos > 0) {
+      try {
+        sleep(waitNanos);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      this.stats.incRebalanceBytesThrottleTime(waitNanos);
+    }
+  }
+
+  /**
+   * Waits until another bucket may be copied to the given member and counts the copy as in
+   * progress. Every call must be followed by a call to {@link #endMove}.
+   */
+  public void startMove(DistributedMember target) {
+    long start = 0;
+    boolean interrupted = false;
+    synchronized (this.movesInProgress) {
+      for (;;) {
+        int max = this.maxMovesPerMember;
+        Integer count = this.movesInProgress.get(target);
+        int inProgress = count == null ? 0 : count;
+        if (max <= 0 || inProgress < max) {
+          this.movesInProgress.put(target, inProgress + 1);
+          break;
+        }
+        if (start == 0) {
+          start = nanoTime();
+        }
+        try {
+          this.movesInProgress.wait();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    }
+    if (start != 0) {
+      this.stats.incRebalanceMovesThrottleTime(nanoTime() - start);
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  public void endMove(DistributedMember target) {
+    synchronized (this.movesInProgress) {
+      Integer count = this.movesInProgress.get(target);
+      if (count == null || count <= 1) {
+        this.movesInProgress.remove(target);
+      } else {
+        this.movesInProgress.put(target, count - 1);
+      }
+      this.movesInProgress.notifyAll();
+    }
+  }
+
+  long nanoTime() {
+    return System.nanoTime();
+  }
+
+  void sleep(long nanos) throws InterruptedException {
+    TimeUnit.NANOSECONDS.sleep(nanos);
+  }
+}
@@ -55,6 +55,8 @@ public class ResourceManagerStats {
   private static final int rebalancePrimaryTransfersFailedId;
   private static final int rebalancePrimaryTransferTimeId;
   private static final int rebalanceMembershipChanges;
+  private static final int rebalanceBytesThrottleTimeId;
+  private static final int rebalanceMovesThrottleTimeId;
   private static final int heapCriticalEventsId;
   private static final int offHeapCriticalEventsId;
   private static final int heapSafeEventsId;
@@ -150,6 +152,14 @@ public class ResourceManagerStats {
                 "nanoseconds", false),
             f.createIntCounter("rebalanceMembershipChanges",
                 "The number of times that membership has changed during a rebalance", "events"),
+            f.createLongCounter("rebalanceBytesThrottleTime",
+                "Total time this process delayed sending bucket image chunks to stay under the "
+                    + "rebalance bytes per second limit.",
+                "nanoseconds", false),
+            f.createLongCounter("rebalanceMovesThrottleTime",
+                "Total time rebalance operations directed by this process waited to stay under the "
+                    + "limit of concurrent bucket moves per member.",
+                "nanoseconds", false),
 
             f.createIntGauge("heapCriticalEvents",
                 "Total number of times the heap usage went over critical threshold.", "events"),
@@ -209,6 +219,8 @@ public class ResourceManagerStats {
     rebalancePrimaryTransfersFailedId = type.nameToId("rebalancePrimaryTransfersFailed");
     rebalancePrimaryTransferTimeId = type.nameToId("rebalancePrimaryTransferTime");
     rebalanceMembershipChanges = type.nameToId("rebalanceMembershipChanges");
+    rebalanceBytesThrottleTimeId = type.nameToId("rebalanceBytesThrottleTime");
+    rebalanceMovesThrottleTimeId = type.nameToId("rebalanceMovesThrottleTime");
     heapCriticalEventsId = type.nameToId("heapCriticalEvents");
     offHeapCriticalEventsId = type.nameToId("offHeapCriticalEvents");
     heapSafeEventsId = type.nameToId("heapSafeEvents");
@@ -320,6 +332,22 @@ public class ResourceManagerStats {
     return this.stats.getInt(rebalanceMembershipChanges);
   }
 
+  public void incRebalanceBytesThrottleTime(long nanos) {
+    this.stats.incLong(rebalanceBytesThrottleTimeId, nanos);
+  }
+
+  public long getRebalanceBytesThrottleTime() {
+    return this.stats.getLong(rebalanceBytesThrottleTimeId);
+  }
+
+  public void incRebalanceMovesThrottleTime(long nanos) {
+    this.stats.incLong(rebalanceMovesThrottleTimeId, nanos);
+  }
+
+  public long getRebalanceMovesThrottleTime() {
+    return this.stats.getLong(rebalanceMovesThrottleTimeId);
+  }
+
   public int getRebalancesInProgress() {
     return this.stats.getInt(rebalancesInProgressId);
   }
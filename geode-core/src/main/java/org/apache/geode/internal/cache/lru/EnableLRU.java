@@ -97,6 +97,21 @@ public interface EnableLRU {
    */
   public int getGreedyReturnsStatId();
 
+  /**
+   * Returns the id of the "listLockWaits" statistic for this LRU algorithm's statistics
+   */
+  public int getListLockWaitsStatId();
+
+  /**
+   * Returns the id of the "admissions" statistic for this LRU algorithm's statistics
+   */
+  public int getAdmissionsStatId();
+
+  /**
+   * Returns the id of the "admissionRejects" statistic for this LRU algorithm's statistics
+   */
+  public int getAdmissionRejectsStatId();
+
   /**
    * Returns whether or not there is enough room to accommodate data of the given size based on the
    * given <code>LRUStatistics</code>.
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+/*
+ * The counter layout, hashing and halving of this file are adapted from the FrequencySketch of
+ * Caffeine (https://github.com/ben-manes/caffeine), Copyright 2015 Ben Manes, which is licensed
+ * under the Apache License, Version 2.0.
+ */
+
+package org.apache.geode.internal.cache.lru;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A count-min sketch estimating how often each key has been used, in four bits per counter. Each
+ * key maps to four counters that live in the same <code>long</code> of the table; its frequency is
+ * the smallest of them. Once the number of increments reaches ten times the size of the table all
+ * counters are halved, so the sketch favors keys that were used recently.
+ * <p>
+ * The sketch is thread safe without locking: counters are incremented with a compare and set of
+ * their <code>long</code>, so the {@link TinyLFUClockHand} that owns it records uses outside of its
+ * list lock. Halving races with concurrent increments, which only makes the estimates a little
+ * less exact.
+ */
+final class FrequencySketch {
+
+  /** The largest frequency a counter can hold */
+  static final int MAX_FREQUENCY = 15;
+
+  /** Do not let a sketch grow beyond 32 megabytes */
+  private static final int MAX_TABLE_SIZE = 1 << 22;
+
+  private static final long[] SEED = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+      0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+  private static final long RESET_MASK = 0x7777777777777777L;
+
+  private static final long ONE_MASK = 0x1111111111111111L;
+
+  private final AtomicLongArray table;
+
+  private final int tableMask;
+
+  private final int sampleSize;
+
+  /** The number of increments since the counters were last halved */
+  private final AtomicInteger additions = new AtomicInteger();
+
+  /**
+   * @param expectedKeys the number of keys whose frequencies should be told apart, usually the
+   *        maximum number of entries of the region
+   */
+  FrequencySketch(long expectedKeys) {
+    int size = 16;
+    while (size < expectedKeys && size < MAX_TABLE_SIZE) {
+      size <<= 1;
+    }
+    this.table = new AtomicLongArray(size);
+    this.tableMask = size - 1;
+    this.sampleSize = 10 * size;
+  }
+
+  /** Returns the estimated number of times the key was used, at most {@link #MAX_FREQUENCY} */
+  int frequency(Object key) {
+    int hash = spread(key.hashCode());
+    int start = (hash & 3) << 2;
+    int frequency = MAX_FREQUENCY;
+    for (int i = 0; i < 4; i++) {
+      int index = indexOf(hash, i);
+      int count = (int) ((this.table.get(index) >>> ((start + i) << 2)) & 0xfL);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+
+  /** Records a use of the key */
+  void increment(Object key) {
+    int hash = spread(key.hashCode());
+    int start = (hash & 3) << 2;
+    boolean added = false;
+    for (int i = 0; i < 4; i++) {
+      added |= incrementAt(indexOf(hash, i), start + i);
+    }
+    // only the thread that reaches the sample size halves the counters
+    if (added && this.additions.incrementAndGet() == this.sampleSize) {
+      reset();
+    }
+  }
+
+  /** Forgets every key */
+  void clear() {
+    for (int i = 0; i < this.table.length(); i++) {
+      this.table.set(i, 0L);
+    }
+    this.additions.set(0);
+  }
+
+  int getTableSize() {
+    return this.table.length();
+  }
+
+  private boolean incrementAt(int index, int counter) {
+    int offset = counter << 2;
+    long mask = 0xfL << offset;
+    for (;;) {
+      long value = this.table.get(index);
+      if ((value & mask) == mask) {
+        return false;
+      }
+      if (this.table.compareAndSet(index, value, value + (1L << offset))) {
+        return true;
+      }
+    }
+  }
+
+  /** Halves every counter */
+  private void reset() {
+    int odd = 0;
+    for (int i = 0; i < this.table.length(); i++) {
+      long value;
+      do {
+        value = this.table.get(i);
+      } while (!this.table.compareAndSet(i, value, (value >>> 1) & RESET_MASK));
+      odd += Long.bitCount(value & ONE_MASK);
+    }
+    // keep the increments made while halving
+    int halved = (this.sampleSize >>> 1) - (odd >>> 2);
+    this.additions.addAndGet(halved - this.sampleSize);
+  }
+
+  private int indexOf(int hash, int i) {
+    long h = (hash + SEED[i]) * SEED[i];
+    h += h >>> 32;
+    return ((int) h) & this.tableMask;
+  }
+
+  private static int spread(int x) {
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    return (x >>> 16) ^ x;
+  }
+}
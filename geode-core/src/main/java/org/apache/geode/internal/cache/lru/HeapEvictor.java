@@ -71,6 +71,23 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
               + "HeapLRUCapacityController.higherEntryCountBucketCalculationInterval", 100)
           .intValue();
 
+  /**
+   * When true the evictor no longer evicts in fixed bursts but makes a pass every
+   * {@link #CONTINUOUS_EVICTION_INTERVAL_MILLIS} while memory is above the eviction threshold. Each
+   * pass is sized from the memory used, the bytes already evicted and the rate at which the memory
+   * grows, and is shared out between the regions and buckets in proportion to how fast they grow.
+   */
+  public static final boolean CONTINUOUS_EVICTION = Boolean.getBoolean(
+      DistributionConfig.GEMFIRE_PREFIX + "HeapLRUCapacityController.continuousEviction");
+
+  public static final int CONTINUOUS_EVICTION_INTERVAL_MILLIS = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX
+          + "HeapLRUCapacityController.continuousEvictionIntervalMillis",
+      100);
+
+  /** The weight of the latest sample in the moving averages of the allocation rates */
+  static final double RATE_SMOOTHING = 0.3;
+
   private static final String EVICTOR_THREAD_GROUP_NAME = "EvictorThreadGroup";
 
   private static final String EVICTOR_THREAD_NAME = "EvictorThread";
@@ -319,6 +336,20 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
   private long previousBytesUsed;
   private final Object evictionLock = new Object();
 
+  // The state of the continuous eviction feedback loop. Only the thread running the current pass
+  // reads or changes it; a new eviction event asks for it to be reset.
+  private volatile MemoryEvent latestEvent;
+  private volatile boolean resetContinuousEviction;
+  /** True while a {@link ContinuousEvictionTask} is submitted or running */
+  private final AtomicBoolean continuousEvictionRunning = new AtomicBoolean();
+  private long lastBytesUsed;
+  private long lastSampleTime;
+  private double allocationRate;
+  private long pendingBytes;
+  private long lastPassBytesEvicted;
+  private final Map<LocalRegion, RegionAllocation> regionAllocations =
+      new HashMap<LocalRegion, RegionAllocation>();
+
   @Override
   public void onEvent(final MemoryEvent event) {
     if (DISABLE_HEAP_EVICTIOR_THREAD_POOL) {
@@ -330,6 +361,7 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
     if (this.isRunning.get() && event.isLocal()) {
       if (event.getState().isEviction()) {
         final LogWriter logWriter = cache.getLogger();
+        this.latestEvent = event;
 
         // Have we previously received an eviction event and already started eviction ...
         if (this.mustEvict.get() == true) {
@@ -367,6 +399,15 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
           logWriter.fine("Starting eviction in response to memory event: " + event);
         }
 
+        if (CONTINUOUS_EVICTION) {
+          this.resetContinuousEviction = true;
+          // the task of an earlier event may still be waiting for its next pass
+          if (this.continuousEvictionRunning.compareAndSet(false, true)) {
+            this.evictorThreadPool.execute(new ContinuousEvictionTask());
+          }
+          return;
+        }
+
         // The new thread which will run in a loop performing evictions
         final Runnable evictionManagerTask = new Runnable() {
           @Override
@@ -431,6 +472,257 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
     }
   }
 
+  /**
+   * Runs passes of continuous eviction until memory drops below the eviction threshold. At most one
+   * task runs at a time, because the passes share unsynchronized state.
+   */
+  private class ContinuousEvictionTask implements Runnable {
+    @Override
+    public void run() {
+      boolean again = false;
+      try {
+        again = runPass();
+      } finally {
+        if (again && HeapEvictor.this.mustEvict.get()) {
+          HeapEvictor.this.evictorThreadPool.submit(this);
+        } else {
+          continuousEvictionRunning.set(false);
+          // an eviction event may have come after the last check and found this task running
+          if (again && HeapEvictor.this.mustEvict.get()
+              && continuousEvictionRunning.compareAndSet(false, true)) {
+            HeapEvictor.this.evictorThreadPool.submit(this);
+          }
+        }
+      }
+    }
+
+    /**
+     * Returns false if no more passes should be made.
+     */
+    private boolean runPass() {
+      // Has the test hook been set which will cause eviction to abort early
+      if (numEvictionLoopsCompleted >= testAbortAfterLoopCount) {
+        return false;
+      }
+      try {
+        runContinuousEvictionPass();
+      } catch (RegionDestroyedException e) {
+        // a bucket moved while the pass was being sized, the next pass will not see it
+      } catch (InterruptedException e) {
+        // the evictor is closing
+        Thread.currentThread().interrupt();
+        return false;
+      }
+
+      synchronized (evictionLock) {
+        numEvictionLoopsCompleted++;
+        try {
+          evictionLock.wait(CONTINUOUS_EVICTION_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Makes one pass of continuous eviction. The bytes to evict are the distance from the memory used
+   * to the level at which the eviction threshold clears, less the bytes evicted since the memory
+   * last dropped, which the garbage collector has not freed yet, plus what the measured rate of
+   * allocation will add before the next pass. They are shared out between the regions in proportion
+   * to the rate at which each grows, and evicted from all of them in parallel.
+   */
+  private void runContinuousEvictionPass() throws InterruptedException {
+    MemoryEvent event = this.latestEvent;
+    if (event == null) {
+      return;
+    }
+    CachePerfStats stats = getGemFireCache().getCachePerfStats();
+    long start = CachePerfStats.getStatTime();
+    long now = System.nanoTime();
+    long bytesUsed = getBytesUsed(event);
+
+    long elapsed = 0;
+    if (this.resetContinuousEviction) {
+      this.resetContinuousEviction = false;
+      this.allocationRate = 0;
+      this.pendingBytes = 0;
+      this.lastPassBytesEvicted = 0;
+      this.regionAllocations.clear();
+    } else {
+      elapsed = now - this.lastSampleTime;
+      if (bytesUsed < this.lastBytesUsed) {
+        // the garbage collector ran and freed what was evicted
+        this.pendingBytes = 0;
+      } else if (elapsed > 0) {
+        this.allocationRate = smoothRate(this.allocationRate,
+            (bytesUsed - this.lastBytesUsed) * (double) TimeUnit.SECONDS.toNanos(1) / elapsed);
+      }
+      if (elapsed > 0) {
+        stats.setEvictorEvictionRate(
+            (long) (this.lastPassBytesEvicted * (double) TimeUnit.SECONDS.toNanos(1) / elapsed));
+      }
+    }
+    this.lastBytesUsed = bytesUsed;
+    this.lastSampleTime = now;
+    stats.setEvictorAllocationRate((long) this.allocationRate);
+
+    long bytesToEvict = getBytesToEvict(bytesUsed,
+        event.getThresholds().getEvictionThresholdClearBytes(), this.pendingBytes,
+        this.allocationRate, CONTINUOUS_EVICTION_INTERVAL_MILLIS);
+
+    List<LocalRegion> regions = getAllRegionList();
+    Map<LocalRegion, RegionAllocation> allocations =
+        new HashMap<LocalRegion, RegionAllocation>(regions.size());
+    long[] weights = new long[regions.size()];
+    long[] sizes = new long[regions.size()];
+    boolean growing = false;
+    for (int i = 0; i < weights.length; i++) {
+      LocalRegion region = regions.get(i);
+      sizes[i] = getEvictionCounter(region);
+      RegionAllocation allocation = this.regionAllocations.get(region);
+      if (allocation == null) {
+        allocation = new RegionAllocation(sizes[i]);
+      } else {
+        allocation.sample(sizes[i], elapsed);
+      }
+      allocations.put(region, allocation);
+      weights[i] = (long) allocation.rate;
+      growing |= weights[i] > 0;
+    }
+    // forget the buckets that moved away
+    this.regionAllocations.clear();
+    this.regionAllocations.putAll(allocations);
+    if (!growing) {
+      // nothing has grown yet, so evict in proportion to size instead
+      weights = sizes;
+    }
+
+    long[] shares = shareBytesToEvict(bytesToEvict, weights);
+    List<RegionEvictorTask> tasks = new ArrayList<RegionEvictorTask>();
+    List<RegionAllocation> taskAllocations = new ArrayList<RegionAllocation>();
+    for (int i = 0; i < shares.length; i++) {
+      if (shares[i] > 0) {
+        List<LocalRegion> regionList = new ArrayList<LocalRegion>(1);
+        regionList.add(regions.get(i));
+        tasks.add(new RegionEvictorTask(regionList, this, shares[i]));
+        taskAllocations.add(allocations.get(regions.get(i)));
+      }
+    }
+
+    long bytesEvicted = 0;
+    if (!tasks.isEmpty() && mustEvict()) {
+      this.evictorThreadPool.invokeAll(tasks);
+      for (int i = 0; i < tasks.size(); i++) {
+        long evicted = tasks.get(i).getBytesEvicted();
+        taskAllocations.get(i).evicted += evicted;
+        bytesEvicted += evicted;
+      }
+    }
+    this.pendingBytes += bytesEvicted;
+    this.lastPassBytesEvicted = bytesEvicted;
+    RegionEvictorTask.setLastTaskCompletionTime(System.currentTimeMillis());
+    stats.endEvictorLoop(start);
+  }
+
+  /**
+   * Returns the bytes a pass of continuous eviction should evict.
+   *
+   * @param bytesUsed the memory used
+   * @param clearBytes the memory used at which the eviction threshold clears
+   * @param pendingBytes the bytes evicted since the memory used last dropped
+   * @param allocationRate the rate at which memory is allocated, in bytes per second
+   * @param intervalMillis the time until the next pass
+   */
+  static long getBytesToEvict(long bytesUsed, long clearBytes, long pendingBytes,
+      double allocationRate, long intervalMillis) {
+    long bytesToEvict = bytesUsed - pendingBytes - clearBytes
+        + (long) (allocationRate * intervalMillis / TimeUnit.SECONDS.toMillis(1));
+    return Math.max(0, bytesToEvict);
+  }
+
+  /**
+   * Shares the bytes to evict out in proportion to the given weights. Any remainder of the integer
+   * division goes to the heaviest weight.
+   */
+  static long[] shareBytesToEvict(long bytesToEvict, long[] weights) {
+    long[] shares = new long[weights.length];
+    double totalWeight = 0;
+    int heaviest = -1;
+    for (int i = 0; i < weights.length; i++) {
+      totalWeight += weights[i];
+      if (weights[i] > 0 && (heaviest < 0 || weights[i] > weights[heaviest])) {
+        heaviest = i;
+      }
+    }
+    if (bytesToEvict <= 0 || heaviest < 0) {
+      return shares;
+    }
+    long shared = 0;
+    for (int i = 0; i < weights.length; i++) {
+      shares[i] = (long) (bytesToEvict * (weights[i] / totalWeight));
+      shared += shares[i];
+    }
+    shares[heaviest] += bytesToEvict - shared;
+    return shares;
+  }
+
+  static double smoothRate(double average, double sample) {
+    if (average == 0) {
+      return sample;
+    }
+    return RATE_SMOOTHING * sample + (1 - RATE_SMOOTHING) * average;
+  }
+
+  /**
+   * Returns the bytes the region counts against its heap LRU limit.
+   */
+  private static long getEvictionCounter(LocalRegion region) {
+    if (region instanceof BucketRegion) {
+      return ((BucketRegion) region).getCounter();
+    }
+    return ((AbstractLRURegionMap) region.getRegionMap()).getLRUStatistics().getCounter();
+  }
+
+  /**
+   * Returns the memory currently used by the kind of memory this evictor watches, or the memory used
+   * reported by the latest eviction event if it can not be measured.
+   */
+  protected long getBytesUsed(MemoryEvent event) {
+    if (HeapMemoryMonitor.getTenuredMemoryPoolMXBean() == null) {
+      return event.getBytesUsed();
+    }
+    return getGemFireCache().getResourceManager().getHeapMonitor().getBytesUsed();
+  }
+
+  /**
+   * The allocation rate of one region or bucket, measured from the growth of its LRU counter. The
+   * bytes evicted from it are added back so that eviction does not hide the allocations.
+   */
+  private static class RegionAllocation {
+    long lastCounter;
+
+    long evicted;
+
+    double rate;
+
+    RegionAllocation(long counter) {
+      this.lastCounter = counter;
+    }
+
+    void sample(long counter, long elapsed) {
+      long allocated = Math.max(0, counter - this.lastCounter + this.evicted);
+      this.lastCounter = counter;
+      this.evicted = 0;
+      if (elapsed > 0) {
+        this.rate =
+            smoothRate(this.rate, allocated * (double) TimeUnit.SECONDS.toNanos(1) / elapsed);
+      }
+    }
+  }
+
   protected int getEvictionLoopDelayTime() {
     int delayTime = 850; // The waiting period when running fast loops
     if ((numEvictionLoopsCompleted - numFastLoops) > 2) {
@@ -80,6 +80,12 @@ public final class LRUCapacityController extends LRUAlgorithm implements Declara
         "Maximum number of entry destroys triggered by LRU before scan occurs.";
     final String lruEvaluationsDesc = "Number of entries evaluated during LRU operations.";
     final String lruGreedyReturnsDesc = "Number of non-LRU entries evicted during LRU operations";
+    final String lruListLockWaitsDesc =
+        "Number of times an LRU list operation waited for a list stripe locked by another thread.";
+    final String lruAdmissionsDesc =
+        "Number of entries admitted by LFU eviction in place of a less frequently used entry.";
+    final String lruAdmissionRejectsDesc =
+        "Number of new entries evicted by LFU eviction as existing entries were used more often.";
 
     statType = f.createType("LRUStatistics",
         "Statistics about entry based Least Recently Used region entry disposal",
@@ -90,7 +96,10 @@ public final class LRUCapacityController extends LRUAlgorithm implements Declara
             f.createLongCounter("lruDestroys", lruDestroysDesc, "entries"),
             f.createLongGauge("lruDestroysLimit", lruDestroysLimitDesc, "entries"),
             f.createLongCounter("lruEvaluations", lruEvaluationsDesc, "entries"),
-            f.createLongCounter("lruGreedyReturns", lruGreedyReturnsDesc, "entries"),});
+            f.createLongCounter("lruGreedyReturns", lruGreedyReturnsDesc, "entries"),
+            f.createLongCounter("lruListLockWaits", lruListLockWaitsDesc, "operations"),
+            f.createLongCounter("lruAdmissions", lruAdmissionsDesc, "entries"),
+            f.createLongCounter("lruAdmissionRejects", lruAdmissionRejectsDesc, "entries"),});
 
   }
 
@@ -284,6 +293,18 @@ public final class LRUCapacityController extends LRUAlgorithm implements Declara
         return statType.nameToId("lruGreedyReturns");
       }
 
+      public int getListLockWaitsStatId() {
+        return statType.nameToId("lruListLockWaits");
+      }
+
+      public int getAdmissionsStatId() {
+        return statType.nameToId("lruAdmissions");
+      }
+
+      public int getAdmissionRejectsStatId() {
+        return statType.nameToId("lruAdmissionRejects");
+      }
+
       public boolean mustEvict(LRUStatistics stats, Region region, int delta) {
         return stats.getCounter() + delta > stats.getLimit();
       }
@@ -44,6 +44,12 @@ public class LRUStatistics {
   protected int destroysId;
   protected int evaluationsId;
   protected int greedyReturnsId;
+  /** times a striped LRU list lock was found held by another thread */
+  protected int listLockWaitsId;
+  /** entries let into the main list of an LFU list in place of less frequently used ones */
+  protected int admissionsId;
+  /** new entries evicted from an LFU list because they were used less often than the others */
+  protected int admissionRejectsId;
 
   // Note: the following atomics have been added so that the LRU code
   // does not depend on the value of a statistic for its operations.
@@ -74,6 +80,9 @@ public class LRUStatistics {
     destroysId = helper.getDestroysStatId();
     this.evaluationsId = helper.getEvaluationsStatId();
     this.greedyReturnsId = helper.getGreedyReturnsStatId();
+    this.listLockWaitsId = helper.getListLockWaitsStatId();
+    this.admissionsId = helper.getAdmissionsStatId();
+    this.admissionRejectsId = helper.getAdmissionRejectsStatId();
   }
 
   public LRUStatistics(StatisticsFactory factory, String name, StatisticsType statisticsType) {
@@ -85,6 +94,9 @@ public class LRUStatistics {
     destroysId = 0;
     this.evaluationsId = 0;
     this.greedyReturnsId = 0;
+    this.listLockWaitsId = 0;
+    this.admissionsId = 0;
+    this.admissionRejectsId = 0;
   }
 
   public void close() {
@@ -193,6 +205,30 @@ public class LRUStatistics {
     stats.incLong(greedyReturnsId, numEvals);
   }
 
+  public void incListLockWaits() {
+    stats.incLong(listLockWaitsId, 1);
+  }
+
+  public long getListLockWaits() {
+    return stats.getLong(listLockWaitsId);
+  }
+
+  public void incAdmissions() {
+    stats.incLong(admissionsId, 1);
+  }
+
+  public long getAdmissions() {
+    return stats.getLong(admissionsId);
+  }
+
+  public void incAdmissionRejects() {
+    stats.incLong(admissionRejectsId, 1);
+  }
+
+  public long getAdmissionRejects() {
+    return stats.getLong(admissionRejectsId);
+  }
+
 
   public Statistics getStats() {
     return this.stats;
@@ -114,6 +114,12 @@ public final class MemLRUCapacityController extends LRUAlgorithm implements Decl
         "Maximum number of entry destroys triggered by LRU before scan occurs.";
     final String lruEvaluationsDesc = "Number of entries evaluated during LRU operations.";
     final String lruGreedyReturnsDesc = "Number of non-LRU entries evicted during LRU operations";
+    final String lruListLockWaitsDesc =
+        "Number of times an LRU list operation waited for a list stripe locked by another thread.";
+    final String lruAdmissionsDesc =
+        "Number of entries admitted by LFU eviction in place of a less frequently used entry.";
+    final String lruAdmissionRejectsDesc =
+        "Number of new entries evicted by LFU eviction as existing entries were used more often.";
 
     statType = f.createType("MemLRUStatistics",
         "Statistics about byte based Least Recently Used region entry disposal",
@@ -123,7 +129,10 @@ public final class MemLRUCapacityController extends LRUAlgorithm implements Decl
             f.createLongCounter("lruDestroys", lruDestroysDesc, "entries"),
             f.createLongGauge("lruDestroysLimit", lruDestroysLimitDesc, "entries"),
             f.createLongCounter("lruEvaluations", lruEvaluationsDesc, "entries"),
-            f.createLongCounter("lruGreedyReturns", lruGreedyReturnsDesc, "entries"),});
+            f.createLongCounter("lruGreedyReturns", lruGreedyReturnsDesc, "entries"),
+            f.createLongCounter("lruListLockWaits", lruListLockWaitsDesc, "operations"),
+            f.createLongCounter("lruAdmissions", lruAdmissionsDesc, "entries"),
+            f.createLongCounter("lruAdmissionRejects", lruAdmissionRejectsDesc, "entries"),});
   }
 
   //////////////////// Instance Fields ////////////////////
@@ -418,6 +427,18 @@ public final class MemLRUCapacityController extends LRUAlgorithm implements Decl
         return statType.nameToId("lruGreedyReturns");
       }
 
+      public int getListLockWaitsStatId() {
+        return statType.nameToId("lruListLockWaits");
+      }
+
+      public int getAdmissionsStatId() {
+        return statType.nameToId("lruAdmissions");
+      }
+
+      public int getAdmissionRejectsStatId() {
+        return statType.nameToId("lruAdmissionRejects");
+      }
+
       public boolean mustEvict(LRUStatistics stats, Region region, int delta) {
         return stats.getCounter() + delta > stats.getLimit();
       }
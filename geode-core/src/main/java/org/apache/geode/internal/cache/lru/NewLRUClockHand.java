@@ -141,7 +141,7 @@ public class NewLRUClockHand {
    *
    * @param aNode Description of the Parameter
    */
-  public final void appendEntry(final LRUClockNode aNode) {
+  public void appendEntry(final LRUClockNode aNode) {
     synchronized (this.lock) {
       if (aNode.nextLRUNode() != null || aNode.prevLRUNode() != null) {
         return;
@@ -164,7 +164,7 @@ public class NewLRUClockHand {
    * return the head entry in the list preserving the cupipe requirement of at least one entry left
    * in the list
    */
-  private LRUClockNode getHeadEntry() {
+  protected LRUClockNode getHeadEntry() {
     synchronized (lock) {
       LRUClockNode aNode = NewLRUClockHand.this.head.nextLRUNode();
       if (aNode == this.tail) {
@@ -408,7 +408,7 @@ public class NewLRUClockHand {
   protected static class HeadLock extends Object {
   }
 
-  private static final class GuardNode implements LRUClockNode {
+  static final class GuardNode implements LRUClockNode {
 
     private LRUClockNode next;
     LRUClockNode prev;
@@ -20,6 +20,7 @@ import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.internal.cache.LocalRegion;
 import org.apache.geode.internal.cache.PartitionedRegion;
 import org.apache.geode.internal.cache.control.InternalResourceManager.ResourceType;
+import org.apache.geode.internal.cache.control.MemoryEvent;
 import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.internal.offheap.MemoryAllocator;
 
@@ -90,6 +91,11 @@ public class OffHeapEvictor extends HeapEvictor {
     return bytesToEvictWithEachBurst;
   }
 
+  @Override
+  protected long getBytesUsed(MemoryEvent event) {
+    return getGemFireCache().getResourceManager().getOffHeapMonitor().getBytesUsed();
+  }
+
   @Override
   protected ResourceType getResourceType() {
     return ResourceType.OFFHEAP_MEMORY;
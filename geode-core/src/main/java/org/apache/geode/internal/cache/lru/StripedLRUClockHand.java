@@ -0,0 +1,313 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.geode.internal.cache.lru;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.BucketRegion;
+import org.apache.geode.internal.cache.InternalRegionArguments;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.PartitionedRegion;
+import org.apache.geode.internal.cache.PlaceHolderDiskRegion;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
+import org.apache.geode.internal.i18n.LocalizedStrings;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.log4j.LocalizedMessage;
+import org.apache.geode.internal.logging.log4j.LogMarker;
+
+/**
+ * An LRU clock whose list is split into stripes, each with its own lock, so that threads touching
+ * different entries of a busy region do not all serialize on the single lock of
+ * {@link NewLRUClockHand}. An entry always lives in the stripe chosen by its identity hash code.
+ * The evictor visits the stripes round-robin, taking the head of the next non-empty stripe, so
+ * the order of eviction is only approximately least recently used across the whole region.
+ * <p>
+ * The number of stripes is taken from the <code>gemfire.lru.clockStripes.&lt;region path&gt;</code>
+ * system property, or from <code>gemfire.lru.clockStripes</code> if that is not set, and is rounded
+ * up to a power of two. Buckets use the path of their partitioned region. One stripe, the default,
+ * selects the unstriped {@link NewLRUClockHand}.
+ */
+public class StripedLRUClockHand extends NewLRUClockHand {
+  private static final Logger logger = LogService.getLogger();
+
+  static final String STRIPES_PROPERTY = DistributionConfig.GEMFIRE_PREFIX + "lru.clockStripes";
+
+  /** The maximum number of stripes a clock can be split into */
+  static final int MAX_STRIPES = 256;
+
+  private final Stripe[] stripes;
+
+  private final int mask;
+
+  /** The stripe the next eviction starts its search at */
+  private final AtomicInteger nextStripe = new AtomicInteger();
+
+  public StripedLRUClockHand(Object region, EnableLRU ccHelper,
+      InternalRegionArguments internalRegionArgs, int stripeCount) {
+    super(region, ccHelper, internalRegionArgs);
+    int n = 1;
+    while (n < stripeCount && n < MAX_STRIPES) {
+      n <<= 1;
+    }
+    this.stripes = new Stripe[n];
+    for (int i = 0; i < n; i++) {
+      this.stripes[i] = new Stripe();
+    }
+    this.mask = n - 1;
+  }
+
+  /**
+   * Returns the number of stripes configured for the LRU list of the given region map owner.
+   */
+  public static int getStripeCount(Object owner, InternalRegionArguments internalRegionArgs) {
+    String path = null;
+    if (owner instanceof BucketRegion) {
+      PartitionedRegion pr = internalRegionArgs.getPartitionedRegion();
+      if (pr != null) {
+        path = pr.getFullPath();
+      }
+    } else if (owner instanceof LocalRegion) {
+      path = ((LocalRegion) owner).getFullPath();
+    } else if (owner instanceof PlaceHolderDiskRegion) {
+      PlaceHolderDiskRegion phdr = (PlaceHolderDiskRegion) owner;
+      path = phdr.isBucket() ? phdr.getPrName() : phdr.getName();
+    }
+    Integer stripes = Integer.getInteger(STRIPES_PROPERTY, 1);
+    if (path != null) {
+      stripes = Integer.getInteger(STRIPES_PROPERTY + "." + path, stripes);
+    }
+    return stripes.intValue();
+  }
+
+  int getStripeCount() {
+    return this.stripes.length;
+  }
+
+  private Stripe getStripe(LRUClockNode aNode) {
+    int h = System.identityHashCode(aNode);
+    return this.stripes[(h ^ (h >>> 16)) & this.mask];
+  }
+
+  /** Locks the stripe, counting the times another thread already held it */
+  private void lock(Stripe stripe) {
+    if (!stripe.lock.tryLock()) {
+      stats().incListLockWaits();
+      stripe.lock.lock();
+    }
+  }
+
+  @Override
+  public void appendEntry(final LRUClockNode aNode) {
+    Stripe stripe = getStripe(aNode);
+    lock(stripe);
+    try {
+      if (aNode.nextLRUNode() != null || aNode.prevLRUNode() != null) {
+        return;
+      }
+
+      if (logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+        logger.trace(LogMarker.LRU_CLOCK, LocalizedMessage
+            .create(LocalizedStrings.NewLRUClockHand_ADDING_ANODE_TO_LRU_LIST, aNode));
+      }
+      LRUClockNode tail = stripe.tail;
+      aNode.setNextLRUNode(tail);
+      tail.prevLRUNode().setNextLRUNode(aNode);
+      aNode.setPrevLRUNode(tail.prevLRUNode());
+      tail.setPrevLRUNode(aNode);
+
+      stripe.size++;
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  /**
+   * Removes and returns the head of the next non-empty stripe, or null if every stripe is empty.
+   */
+  @Override
+  protected LRUClockNode getHeadEntry() {
+    int start = this.nextStripe.getAndIncrement();
+    for (int i = 0; i < this.stripes.length; i++) {
+      Stripe stripe = this.stripes[(start + i) & this.mask];
+      if (stripe.size == 0) {
+        continue;
+      }
+      lock(stripe);
+      try {
+        LRUClockNode aNode = stripe.head.nextLRUNode();
+        if (aNode == stripe.tail) {
+          continue;
+        }
+
+        LRUClockNode next = aNode.nextLRUNode();
+        stripe.head.setNextLRUNode(next);
+        next.setPrevLRUNode(stripe.head);
+
+        aNode.setNextLRUNode(null);
+        aNode.setPrevLRUNode(null);
+        stripe.size--;
+        return aNode;
+      } finally {
+        stripe.lock.unlock();
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public boolean unlinkEntry(LRUClockNode entry) {
+    if (logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+      logger.trace(LogMarker.LRU_CLOCK,
+          LocalizedMessage.create(LocalizedStrings.NewLRUClockHand_UNLINKENTRY_CALLED, entry));
+    }
+    entry.setEvicted();
+    stats().incDestroys();
+    Stripe stripe = getStripe(entry);
+    lock(stripe);
+    try {
+      LRUClockNode next = entry.nextLRUNode();
+      LRUClockNode prev = entry.prevLRUNode();
+      if (next == null || prev == null) {
+        // not in the list anymore.
+        return false;
+      }
+      next.setPrevLRUNode(prev);
+      prev.setNextLRUNode(next);
+      entry.setNextLRUNode(null);
+      entry.setPrevLRUNode(null);
+      stripe.size--;
+    } finally {
+      stripe.lock.unlock();
+    }
+    return true;
+  }
+
+  @Override
+  public void clear(RegionVersionVector rvv) {
+    if (rvv != null) {
+      return; // when concurrency checks are enabled the clear operation removes entries iteratively
+    }
+    // stripes are always locked in index order so concurrent clears can not deadlock
+    for (Stripe stripe : this.stripes) {
+      lock(stripe);
+    }
+    try {
+      super.clear(null);
+      for (Stripe stripe : this.stripes) {
+        stripe.init();
+      }
+    } finally {
+      for (Stripe stripe : this.stripes) {
+        stripe.lock.unlock();
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    int result = 0;
+    for (Stripe stripe : this.stripes) {
+      result += stripe.size;
+    }
+    return result;
+  }
+
+  @Override
+  public long getExpensiveListCount() {
+    long count = 0;
+    for (Stripe stripe : this.stripes) {
+      lock(stripe);
+      try {
+        for (LRUClockNode aNode = stripe.head.nextLRUNode(); aNode != stripe.tail; aNode =
+            aNode.nextLRUNode()) {
+          count++;
+        }
+      } finally {
+        stripe.lock.unlock();
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public void dumpList() {
+    if (!logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+      return;
+    }
+    for (int i = 0; i < this.stripes.length; i++) {
+      Stripe stripe = this.stripes[i];
+      lock(stripe);
+      try {
+        int idx = 1;
+        for (LRUClockNode aNode = stripe.head; aNode != null; aNode = aNode.nextLRUNode()) {
+          logger.trace(LogMarker.LRU_CLOCK, "  [{}] ({}) {}", i, (idx++), aNode);
+        }
+      } finally {
+        stripe.lock.unlock();
+      }
+    }
+  }
+
+  @Override
+  public String getAuditReport() {
+    int totalNodes = 0;
+    int evictedNodes = 0;
+    int usedNodes = 0;
+    for (Stripe stripe : this.stripes) {
+      LRUClockNode h = stripe.head;
+      while (h != null) {
+        totalNodes++;
+        if (h.testEvicted())
+          evictedNodes++;
+        if (h.testRecentlyUsed())
+          usedNodes++;
+        h = h.nextLRUNode();
+      }
+    }
+    StringBuffer result = new StringBuffer(128);
+    result.append("LRUList Audit: stripes = ").append(this.stripes.length)
+        .append(" listEntries = ").append(totalNodes).append(" evicted = ").append(evictedNodes)
+        .append(" used = ").append(usedNodes);
+    return result.toString();
+  }
+
+  /** One sub-list of the clock, with its own guard nodes and lock */
+  private static final class Stripe {
+    final ReentrantLock lock = new ReentrantLock();
+
+    LRUClockNode head;
+
+    LRUClockNode tail;
+
+    volatile int size;
+
+    Stripe() {
+      init();
+    }
+
+    void init() {
+      this.head = new GuardNode();
+      this.tail = new GuardNode();
+      this.head.setNextLRUNode(this.tail);
+      this.tail.setPrevLRUNode(this.head);
+      this.size = 0;
+    }
+  }
+}
@@ -0,0 +1,373 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.geode.internal.cache.lru;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.cache.EvictionAlgorithm;
+import org.apache.geode.internal.cache.AbstractRegionEntry;
+import org.apache.geode.internal.cache.InternalRegionArguments;
+import org.apache.geode.internal.cache.PartitionedRegion;
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
+import org.apache.geode.internal.i18n.LocalizedStrings;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.log4j.LocalizedMessage;
+import org.apache.geode.internal.logging.log4j.LogMarker;
+
+/**
+ * The list behind {@link EvictionAlgorithm#LFU_ENTRY}: a W-TinyLFU policy built on the LRU clock.
+ * New entries go to a small admission window, about one percent of the list. The rest of the list
+ * is the main clock of {@link NewLRUClockHand}. Once the region is full, the oldest entry of the
+ * window is only admitted to the main clock if a {@link FrequencySketch} estimates that its key
+ * has been used more often than the key of the entry the clock would evict; otherwise the window
+ * entry itself is evicted. This keeps a scan of keys that are used once from flushing the entries
+ * that are used all the time.
+ * <p>
+ * Reads of an entry only set its recently used bit, so they are counted in the sketch when the
+ * clock hand finds the bit set. Creates and updates are counted as they are appended to the list.
+ */
+public class TinyLFUClockHand extends NewLRUClockHand {
+  private static final Logger logger = LogService.getLogger();
+
+  /** The window holds this fraction of the list, but at least one entry */
+  static final int WINDOW_DIVISOR = 100;
+
+  private final FrequencySketch sketch;
+
+  private LRUClockNode windowHead;
+
+  private LRUClockNode windowTail;
+
+  /** The entries currently in the window, to tell them apart from entries in the main clock */
+  private final Set<LRUClockNode> windowMembers =
+      Collections.newSetFromMap(new IdentityHashMap<LRUClockNode, Boolean>());
+
+  public TinyLFUClockHand(Object region, EnableLRU ccHelper,
+      InternalRegionArguments internalRegionArgs) {
+    super(region, ccHelper, internalRegionArgs);
+    long expectedKeys = ccHelper.limit();
+    PartitionedRegion pr = internalRegionArgs.getPartitionedRegion();
+    if (pr != null) {
+      // each bucket has its own list but the limit is for all of them
+      expectedKeys = expectedKeys / pr.getTotalNumberOfBuckets() + 1;
+    }
+    this.sketch = new FrequencySketch(expectedKeys);
+    initWindow();
+  }
+
+  private void initWindow() {
+    this.windowHead = new GuardNode();
+    this.windowTail = new GuardNode();
+    this.windowHead.setNextLRUNode(this.windowTail);
+    this.windowTail.setPrevLRUNode(this.windowHead);
+    this.windowMembers.clear();
+  }
+
+  private static Object getSketchKey(LRUClockNode aNode) {
+    if (aNode instanceof RegionEntry) {
+      Object key = ((RegionEntry) aNode).getKey();
+      if (key != null) {
+        return key;
+      }
+    }
+    return aNode;
+  }
+
+  private int getWindowLimit() {
+    return Math.max(1, this.size / WINDOW_DIVISOR);
+  }
+
+  private boolean isFull() {
+    LRUStatistics stats = stats();
+    return stats.getCounter() >= stats.getLimit();
+  }
+
+  /**
+   * Adds a new entry to the window, or just records a use of an entry that is already in the list.
+   * While the region has room the window is trimmed by moving its oldest entries to the main clock.
+   */
+  @Override
+  public void appendEntry(final LRUClockNode aNode) {
+    // the sketch is thread safe, so uses are not recorded under the list lock
+    this.sketch.increment(getSketchKey(aNode));
+    synchronized (this.lock) {
+      if (aNode.nextLRUNode() != null || aNode.prevLRUNode() != null) {
+        return;
+      }
+
+      if (logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+        logger.trace(LogMarker.LRU_CLOCK, LocalizedMessage
+            .create(LocalizedStrings.NewLRUClockHand_ADDING_ANODE_TO_LRU_LIST, aNode));
+      }
+      linkLast(aNode, this.windowTail);
+      this.windowMembers.add(aNode);
+      this.size++;
+
+      while (this.windowMembers.size() > getWindowLimit() && !isFull()) {
+        LRUClockNode oldest = unlinkFirst(this.windowHead, this.windowTail);
+        this.windowMembers.remove(oldest);
+        linkLast(oldest, this.tail);
+      }
+    }
+  }
+
+  /**
+   * Returns the entry to evict. If the window is over its share of the list its oldest entry
+   * competes with the entry picked by the main clock and the less frequently used of the two is
+   * returned; the other one stays in, or is admitted to, the main clock.
+   */
+  @Override
+  public LRUClockNode getLRUEntry() {
+    for (;;) {
+      LRUClockNode candidate = null;
+      synchronized (this.lock) {
+        if (this.windowMembers.size() > getWindowLimit()) {
+          candidate = pollWindow();
+        }
+      }
+
+      if (candidate != null) {
+        if (!isEvictable(candidate)) {
+          continue;
+        }
+        synchronized (candidate) {
+          // the bit was set when the entry was created, which the sketch already counted
+          candidate.unsetRecentlyUsed();
+        }
+        LRUClockNode victim = getMainEntry();
+        if (victim == null) {
+          // nothing to compare with, so the candidate is admitted
+          relink(candidate, false);
+          continue;
+        }
+        if (this.sketch.frequency(getSketchKey(candidate)) > this.sketch
+            .frequency(getSketchKey(victim))) {
+          relink(candidate, false);
+          stats().incAdmissions();
+          return victim;
+        } else {
+          // the victim stays at the head of the clock
+          relink(victim, true);
+          stats().incAdmissionRejects();
+          return candidate;
+        }
+      }
+
+      LRUClockNode victim = getMainEntry();
+      if (victim != null) {
+        return victim;
+      }
+      synchronized (this.lock) {
+        candidate = pollWindow();
+      }
+      if (candidate == null) {
+        return null;
+      }
+      if (isEvictable(candidate)) {
+        return candidate;
+      }
+    }
+  }
+
+  /** Removes and returns the oldest entry of the window. Caller must hold the list lock. */
+  private LRUClockNode pollWindow() {
+    LRUClockNode aNode = unlinkFirst(this.windowHead, this.windowTail);
+    if (aNode != null) {
+      this.windowMembers.remove(aNode);
+      this.size--;
+    }
+    return aNode;
+  }
+
+  /**
+   * Runs the main clock until it finds an entry that was not used since the hand last passed it.
+   * The uses found on the way are recorded in the sketch.
+   */
+  private LRUClockNode getMainEntry() {
+    long numEvals = 0;
+    for (;;) {
+      LRUClockNode aNode;
+      synchronized (this.lock) {
+        aNode = unlinkFirst(this.head, this.tail);
+        if (aNode != null) {
+          this.size--;
+        }
+      }
+      if (aNode == null) {
+        stats().incEvaluations(numEvals);
+        return null;
+      }
+      numEvals++;
+
+      synchronized (aNode) {
+        if (!isEvictable(aNode)) {
+          continue;
+        }
+        if (aNode.testRecentlyUsed()) {
+          aNode.unsetRecentlyUsed();
+          if (logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+            logger.trace(LogMarker.LRU_CLOCK, LocalizedMessage
+                .create(LocalizedStrings.NewLRUClockHand_SKIPPING_RECENTLY_USED_ENTRY, aNode));
+          }
+          this.sketch.increment(getSketchKey(aNode));
+          relink(aNode, false);
+          continue;
+        }
+        stats().incEvaluations(numEvals);
+        return aNode;
+      }
+    }
+  }
+
+  /**
+   * Puts an entry that this clock hand took off the list back into the main clock, at its tail or,
+   * if first is true, at its head. Like {@link NewLRUClockHand#appendEntry}, it does nothing if the
+   * entry has been linked again meanwhile, for example by an update that appended it to the window,
+   * or if it has been evicted.
+   */
+  private void relink(LRUClockNode aNode, boolean first) {
+    synchronized (aNode) {
+      synchronized (this.lock) {
+        if (aNode.nextLRUNode() != null || aNode.prevLRUNode() != null || aNode.testEvicted()) {
+          return;
+        }
+        if (first) {
+          linkFirst(aNode, this.head);
+        } else {
+          linkLast(aNode, this.tail);
+        }
+        this.size++;
+      }
+    }
+  }
+
+  /** Returns false for entries that are already evicted or are part of a transaction */
+  private boolean isEvictable(LRUClockNode aNode) {
+    synchronized (aNode) {
+      if (aNode instanceof AbstractRegionEntry) {
+        if (((AbstractRegionEntry) aNode).isInUseByTransaction()) {
+          if (logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+            logger.trace(LogMarker.LRU_CLOCK, LocalizedMessage.create(
+                LocalizedStrings.NewLRUClockHand_REMOVING_TRANSACTIONAL_ENTRY_FROM_CONSIDERATION));
+          }
+          return false;
+        }
+      }
+      if (aNode.testEvicted()) {
+        if (logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+          logger.trace(LogMarker.LRU_CLOCK,
+              LocalizedMessage.create(LocalizedStrings.NewLRUClockHand_DISCARDING_EVICTED_ENTRY));
+        }
+        return false;
+      }
+      return true;
+    }
+  }
+
+  private static void linkLast(LRUClockNode aNode, LRUClockNode tail) {
+    aNode.setNextLRUNode(tail);
+    tail.prevLRUNode().setNextLRUNode(aNode);
+    aNode.setPrevLRUNode(tail.prevLRUNode());
+    tail.setPrevLRUNode(aNode);
+  }
+
+  private static void linkFirst(LRUClockNode aNode, LRUClockNode head) {
+    LRUClockNode next = head.nextLRUNode();
+    aNode.setPrevLRUNode(head);
+    aNode.setNextLRUNode(next);
+    next.setPrevLRUNode(aNode);
+    head.setNextLRUNode(aNode);
+  }
+
+  private static LRUClockNode unlinkFirst(LRUClockNode head, LRUClockNode tail) {
+    LRUClockNode aNode = head.nextLRUNode();
+    if (aNode == tail) {
+      return null;
+    }
+    LRUClockNode next = aNode.nextLRUNode();
+    head.setNextLRUNode(next);
+    next.setPrevLRUNode(head);
+    aNode.setNextLRUNode(null);
+    aNode.setPrevLRUNode(null);
+    return aNode;
+  }
+
+  @Override
+  public boolean unlinkEntry(LRUClockNode entry) {
+    if (logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+      logger.trace(LogMarker.LRU_CLOCK,
+          LocalizedMessage.create(LocalizedStrings.NewLRUClockHand_UNLINKENTRY_CALLED, entry));
+    }
+    entry.setEvicted();
+    stats().incDestroys();
+    synchronized (this.lock) {
+      LRUClockNode next = entry.nextLRUNode();
+      LRUClockNode prev = entry.prevLRUNode();
+      if (next == null || prev == null) {
+        // not in the list anymore.
+        return false;
+      }
+      next.setPrevLRUNode(prev);
+      prev.setNextLRUNode(next);
+      entry.setNextLRUNode(null);
+      entry.setPrevLRUNode(null);
+      this.windowMembers.remove(entry);
+      this.size--;
+    }
+    return true;
+  }
+
+  @Override
+  public void clear(RegionVersionVector rvv) {
+    if (rvv != null) {
+      return; // when concurrency checks are enabled the clear operation removes entries iteratively
+    }
+    synchronized (this.lock) {
+      super.clear(null);
+      initWindow();
+      this.sketch.clear();
+    }
+  }
+
+  /** Returns the number of entries in the admission window */
+  int getWindowSize() {
+    synchronized (this.lock) {
+      return this.windowMembers.size();
+    }
+  }
+
+  @Override
+  public long getExpensiveListCount() {
+    synchronized (this.lock) {
+      long count = super.getExpensiveListCount();
+      for (LRUClockNode aNode = this.windowHead.nextLRUNode(); aNode != this.windowTail; aNode =
+          aNode.nextLRUNode()) {
+        count++;
+      }
+      return count;
+    }
+  }
+
+  @Override
+  public String getAuditReport() {
+    return super.getAuditReport() + " window = " + this.windowMembers.size();
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.partitioned;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the reads and writes applied to one bucket and turns the counts into rates for the
+ * {@link OperationRateLoadProbe}. Recording an operation only increments a striped counter, so
+ * concurrent operations on a hot bucket do not contend on a single memory location. The rates are
+ * computed when they are asked for, from the operations counted since the last sample, and are
+ * smoothed with the previous rates so that one quiet interval does not make a hot bucket look idle.
+ * <p>
+ * A rebalance probes the load of every bucket more than once in quick succession, so a new sample
+ * is only taken once {@link #MIN_SAMPLE_INTERVAL_MILLIS} have passed since the last one.
+ *
+ * @since Geode 1.2
+ */
+public class BucketOperationRates {
+
+  static final long MIN_SAMPLE_INTERVAL_MILLIS = 1000;
+
+  private final LongAdder reads = new LongAdder();
+
+  private final LongAdder writes = new LongAdder();
+
+  private long lastSampleTime;
+
+  private long lastReads;
+
+  private long lastWrites;
+
+  private boolean sampled;
+
+  private float readRate;
+
+  private float writeRate;
+
+  public BucketOperationRates(long now) {
+    this.lastSampleTime = now;
+  }
+
+  public void recordRead() {
+    this.reads.increment();
+  }
+
+  public void recordWrite() {
+    this.writes.increment();
+  }
+
+  /**
+   * Returns the smoothed number of reads per second.
+   */
+  public synchronized float getReadRate(long now) {
+    sample(now);
+    return this.readRate;
+  }
+
+  /**
+   * Returns the smoothed number of writes per second.
+   */
+  public synchronized float getWriteRate(long now) {
+    sample(now);
+    return this.writeRate;
+  }
+
+  private void sample(long now) {
+    long elapsed = now - this.lastSampleTime;
+    if (elapsed < MIN_SAMPLE_INTERVAL_MILLIS) {
+      return;
+    }
+    long currentReads = this.reads.sum();
+    long currentWrites = this.writes.sum();
+    float newReadRate = (currentReads - this.lastReads) * 1000f / elapsed;
+    float newWriteRate = (currentWrites - this.lastWrites) * 1000f / elapsed;
+    if (this.sampled) {
+      this.readRate = (this.readRate + newReadRate) / 2;
+      this.writeRate = (this.writeRate + newWriteRate) / 2;
+    } else {
+      this.readRate = newReadRate;
+      this.writeRate = newWriteRate;
+      this.sampled = true;
+    }
+    this.lastReads = currentReads;
+    this.lastWrites = currentWrites;
+    this.lastSampleTime = now;
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.partitioned;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+
+import org.apache.geode.internal.cache.BucketAdvisor;
+import org.apache.geode.internal.cache.BucketRegion;
+import org.apache.geode.internal.cache.PartitionedRegion;
+import org.apache.geode.internal.cache.PartitionedRegionDataStore;
+import org.apache.geode.internal.cache.control.HeapMemoryMonitor;
+
+/**
+ * A load probe which calculates the load of a pr using the rate of operations on its buckets, so
+ * that a rebalance spreads the throughput rather than the bytes.
+ * <p>
+ * Every copy of a bucket applies its writes, so the load of hosting a bucket is its write rate. The
+ * primary also serves the reads, so the load of being the primary is the read rate plus the write
+ * rate. Each load also includes {@link #MIN_BUCKET_LOAD} so that idle buckets are balanced by
+ * count.
+ * <p>
+ * The weight of a member is its local max memory, reduced by up to half as its heap and CPU usage
+ * grow, so that a member that is already busy is given a smaller share of the load.
+ *
+ * @since Geode 1.2
+ */
+public class OperationRateLoadProbe implements LoadProbe {
+  private static final long serialVersionUID = -2563491466271932826L;
+
+  /** The load of an idle bucket */
+  public static final float MIN_BUCKET_LOAD = 1;
+
+  /** The largest fraction of its weight a member loses when its heap or CPU is fully used */
+  static final float MAX_PRESSURE_PENALTY = 0.5f;
+
+  public PRLoad getLoad(PartitionedRegion pr) {
+    PartitionedRegionDataStore ds = pr.getDataStore();
+    int configuredBucketCount = pr.getTotalNumberOfBuckets();
+    float weight = pr.getLocalMaxMemory() * (1 - MAX_PRESSURE_PENALTY * getPressure(pr));
+    PRLoad prLoad = new PRLoad(configuredBucketCount, weight);
+
+    long now = System.currentTimeMillis();
+    for (Integer bidInt : ds.getAllLocalBucketIds()) {
+      int bid = bidInt.intValue();
+      BucketRegion bucket = ds.getLocalBucketById(bidInt);
+      if (bucket == null) {
+        continue;
+      }
+      BucketOperationRates rates = bucket.getOperationRates();
+      float writeRate = rates.getWriteRate(now);
+
+      BucketAdvisor bucketAdvisor = pr.getRegionAdvisor().getBucket(bid).getBucketAdvisor();
+      // Wait for a primary to exist for this bucket, because
+      // it might be this member.
+      bucketAdvisor.getPrimary();
+      boolean isPrimary = bucketAdvisor.isPrimary();
+      float primaryLoad = 0;
+      if (isPrimary) {
+        primaryLoad = MIN_BUCKET_LOAD + rates.getReadRate(now) + writeRate;
+      }
+      prLoad.addBucket(bid, MIN_BUCKET_LOAD + writeRate, primaryLoad);
+    }
+
+    return prLoad;
+  }
+
+  /**
+   * Returns how busy this member is, from 0 for idle to 1 for a full heap or CPU.
+   */
+  float getPressure(PartitionedRegion pr) {
+    return Math.max(getHeapPressure(pr), getCpuPressure());
+  }
+
+  float getHeapPressure(PartitionedRegion pr) {
+    long maxMemory = HeapMemoryMonitor.getTenuredPoolMaxMemory();
+    if (maxMemory <= 0) {
+      return 0;
+    }
+    try {
+      long bytesUsed = pr.getCache().getResourceManager().getHeapMonitor().getBytesUsed();
+      return clamp((float) bytesUsed / maxMemory);
+    } catch (IllegalStateException e) {
+      // no tenured pool to measure
+      return 0;
+    }
+  }
+
+  float getCpuPressure() {
+    OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+    double loadAverage = os.getSystemLoadAverage();
+    if (loadAverage < 0) {
+      // not available on this platform
+      return 0;
+    }
+    return clamp((float) (loadAverage / os.getAvailableProcessors()));
+  }
+
+  private static float clamp(float pressure) {
+    return Math.min(1, Math.max(0, pressure));
+  }
+
+  public void fromData(DataInput in) throws IOException, ClassNotFoundException {}
+
+  public void toData(DataOutput out) throws IOException {}
+}
@@ -82,6 +82,8 @@ public class PartitionedRegionRebalanceOp {
   private final AtomicBoolean cancelled;
   private final ResourceManagerStats stats;
   private final boolean isRebalance; // true indicates a rebalance instead of recovery
+  /** the probe that measures the load of the members, or null to use the resource manager's */
+  private final LoadProbe loadProbe;
 
   private volatile boolean membershipChange = false;
 
@@ -118,6 +120,28 @@ public class PartitionedRegionRebalanceOp {
   public PartitionedRegionRebalanceOp(PartitionedRegion region, boolean simulate,
       RebalanceDirector director, boolean replaceOfflineData, boolean isRebalance,
       AtomicBoolean cancelled, ResourceManagerStats stats) {
+    this(region, simulate, director, replaceOfflineData, isRebalance, cancelled, stats, null);
+  }
+
+  /**
+   * Create a rebalance operation for a single region that measures the load of the members with
+   * the given probe instead of the resource manager's.
+   * 
+   * @param region the region to rebalance
+   * @param simulate true to only simulate rebalancing, without actually doing anything
+   * @param replaceOfflineData true to replace offline copies of buckets with new live copies of
+   *        buckets
+   * @param isRebalance true if this op is a full rebalance instead of a more limited redundancy
+   *        recovery
+   * @param cancelled the AtomicBoolean reference used for cancellation; if any code sets the AB
+   *        value to true then the rebalance will be cancelled
+   * @param stats the ResourceManagerStats to use for rebalancing stats
+   * @param loadProbe the probe that measures the load of the members, or null to use the resource
+   *        manager's
+   */
+  public PartitionedRegionRebalanceOp(PartitionedRegion region, boolean simulate,
+      RebalanceDirector director, boolean replaceOfflineData, boolean isRebalance,
+      AtomicBoolean cancelled, ResourceManagerStats stats, LoadProbe loadProbe) {
 
     PartitionedRegion leader = ColocationHelper.getLeaderRegion(region);
     Assert.assertTrue(leader != null);
@@ -131,6 +155,7 @@ public class PartitionedRegionRebalanceOp {
     this.replaceOfflineData = replaceOfflineData;
     this.isRebalance = isRebalance;
     this.stats = simulate ? null : stats;
+    this.loadProbe = loadProbe;
   }
 
   /**
@@ -184,7 +209,8 @@ public class PartitionedRegionRebalanceOp {
       Map<PartitionedRegion, InternalPRInfo> detailsMap = fetchDetails(cache);
       BucketOperatorWrapper serialOperator = getBucketOperator(detailsMap);
       ParallelBucketOperator parallelOperator = new ParallelBucketOperator(MAX_PARALLEL_OPERATIONS,
-          cache.getDistributionManager().getWaitingThreadPool(), serialOperator);
+          cache.getDistributionManager().getWaitingThreadPool(), serialOperator,
+          simulate ? null : resourceManager.getRebalanceThrottle());
       model = buildModel(parallelOperator, detailsMap, resourceManager);
       for (PartitionRebalanceDetailsImpl details : serialOperator.getDetailSet()) {
         details.setPartitionMemberDetailsBefore(
@@ -388,7 +414,8 @@ public class PartitionedRegionRebalanceOp {
   }
 
   private Map<PartitionedRegion, InternalPRInfo> fetchDetails(GemFireCacheImpl cache) {
-    LoadProbe probe = cache.getResourceManager().getLoadProbe();
+    LoadProbe probe =
+        this.loadProbe != null ? this.loadProbe : cache.getResourceManager().getLoadProbe();
     Map<PartitionedRegion, InternalPRInfo> detailsMap =
         new LinkedHashMap<PartitionedRegion, InternalPRInfo>(colocatedRegions.size());
     for (PartitionedRegion colocatedRegion : colocatedRegions) {
@@ -23,6 +23,7 @@ import java.util.concurrent.TimeUnit;
 import org.apache.geode.CancelException;
 import org.apache.geode.cache.RegionDestroyedException;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.cache.control.RebalanceThrottle;
 
 /**
  * A bucket operator that will perform operations on a bucket asynchronously.
@@ -39,6 +40,9 @@ import org.apache.geode.distributed.internal.membership.InternalDistributedMembe
  * 
  * Note that only createRedundantBucket is asynchronous, the rest of the operations are synchronous.
  * 
+ * If a {@link RebalanceThrottle} is given, the buckets created or moved on one member at the same
+ * time are limited by its moves per member budget.
+ * 
  */
 public class ParallelBucketOperator implements BucketOperator {
 
@@ -46,6 +50,7 @@ public class ParallelBucketOperator implements BucketOperator {
   private final ExecutorService executor;
   private final Semaphore operationSemaphore;
   private final int maxParallelOperations;
+  private final RebalanceThrottle throttle;
   private final ConcurrentLinkedQueue<Completion> pendingSuccess =
       new ConcurrentLinkedQueue<BucketOperator.Completion>();
   private final ConcurrentLinkedQueue<Completion> pendingFailure =
@@ -64,7 +69,18 @@ public class ParallelBucketOperator implements BucketOperator {
    */
   public ParallelBucketOperator(int maxParallelOperations, ExecutorService executor,
       BucketOperator operator) {
+    this(maxParallelOperations, executor, operator, null);
+  }
+
+  /**
+   * Create a parallel bucket operator
+   * 
+   * @param throttle limits the operations on each member, or null for no limit
+   */
+  public ParallelBucketOperator(int maxParallelOperations, ExecutorService executor,
+      BucketOperator operator, RebalanceThrottle throttle) {
     this.maxParallelOperations = maxParallelOperations;
+    this.throttle = throttle;
     this.operationSemaphore = new Semaphore(maxParallelOperations);
     this.delegate = operator;
     this.executor = executor;
@@ -83,6 +99,9 @@ public class ParallelBucketOperator implements BucketOperator {
       final int bucketId, final Map<String, Long> colocatedRegionBytes,
       final Completion completion) {
     drainCompletions();
+    if (throttle != null) {
+      throttle.startMove(targetMember);
+    }
     operationSemaphore.acquireUninterruptibly();
     executor.execute(new Runnable() {
       @Override
@@ -106,6 +125,9 @@ public class ParallelBucketOperator implements BucketOperator {
           // ignore
         } finally {
           operationSemaphore.release();
+          if (throttle != null) {
+            throttle.endMove(targetMember);
+          }
         }
       }
     });
@@ -122,7 +144,15 @@ public class ParallelBucketOperator implements BucketOperator {
   public boolean moveBucket(InternalDistributedMember sourceMember,
       InternalDistributedMember targetMember, int bucketId,
       Map<String, Long> colocatedRegionBytes) {
-    return delegate.moveBucket(sourceMember, targetMember, bucketId, colocatedRegionBytes);
+    if (throttle == null) {
+      return delegate.moveBucket(sourceMember, targetMember, bucketId, colocatedRegionBytes);
+    }
+    throttle.startMove(targetMember);
+    try {
+      return delegate.moveBucket(sourceMember, targetMember, bucketId, colocatedRegionBytes);
+    } finally {
+      throttle.endMove(targetMember);
+    }
   }
 
   @Override
@@ -15,6 +15,7 @@
 package org.apache.geode.internal.cache.tier.sockets;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -225,7 +226,7 @@ public abstract class BaseCommandQuery extends BaseCommand {
           // from 7.0, if the object is in the form of serialized byte array,
           // send it as a part of ObjectPartList
           if (hasSerializedObjects) {
-            sendResultsAsObjectPartList(numberOfChunks, servConn, selectResults.asList(), isStructs,
+            sendResultsAsObjectPartList(numberOfChunks, servConn, selectResults, isStructs,
                 collectionType, queryString, cqQuery, sendCqResultsWithKey, sendResults);
           } else {
             sendResultsAsObjectArray(selectResults, numberOfChunks, servConn, isStructs,
@@ -362,39 +363,27 @@ public abstract class BaseCommandQuery extends BaseCommand {
     }
   }
 
+  /**
+   * Sends the results to the client in chunks of {@link #maximumChunkSize} entries. The results are
+   * walked with an iterator and each chunk is written as soon as it is full, so no second copy of
+   * the result set is built on the server and the client can start consuming the first chunk while
+   * later ones are still being assembled.
+   */
   private void sendResultsAsObjectArray(SelectResults selectResults, int numberOfChunks,
       ServerConnection servConn, boolean isStructs, CollectionType collectionType,
       String queryString, ServerCQ cqQuery, boolean sendCqResultsWithKey, boolean sendResults)
       throws IOException {
-    int resultIndex = 0;
-    // For CQ only as we dont want CQEntries which have null values.
-    int cqResultIndex = 0;
-    Object[] objs = selectResults.toArray();
-    for (int j = 0; j < numberOfChunks; j++) {
-      boolean incompleteArray = false;
-      if (logger.isTraceEnabled()) {
-        logger.trace("{}: Creating chunk: {}", servConn.getName(), j);
-      }
-      Object[] results = new Object[maximumChunkSize];
-      for (int i = 0; i < maximumChunkSize; i++) {
-        if ((resultIndex) == selectResults.size()) {
-          incompleteArray = true;
-          break;
-        }
-        if (logger.isTraceEnabled()) {
-          logger.trace("{}: Adding entry [{}] to query results: {}", servConn.getName(),
-              resultIndex, objs[resultIndex]);
-        }
-        if (cqQuery != null) {
-          CqEntry e = (CqEntry) objs[resultIndex];
-          // The value may have become null because of entry invalidation.
-          if (e.getValue() == null) {
-            resultIndex++;
-            // i will get incremented anyway so we need to decrement it back so
-            // that results[i] is not null.
-            i--;
-            continue;
-          }
+    Iterator resultsIterator = selectResults.iterator();
+    List<Object> chunk = new ArrayList<Object>(Math.min(maximumChunkSize, selectResults.size()));
+    int chunkNumber = 0;
+    boolean lastChunk = !resultsIterator.hasNext();
+    while (!lastChunk) {
+      Object result = resultsIterator.next();
+      lastChunk = !resultsIterator.hasNext();
+      if (cqQuery != null) {
+        CqEntry e = (CqEntry) result;
+        // The value may have become null because of entry invalidation.
+        if (e.getValue() != null) {
           // Add the key into CQ results cache.
           // For PR the Result caching is not yet supported.
           // cqQuery.cqResultsCacheInitialized is added to take care
@@ -406,80 +395,58 @@ public abstract class BaseCommandQuery extends BaseCommand {
 
           // Add to the Results object array.
           if (sendCqResultsWithKey) {
-            results[i] = e.getKeyValuePair();
+            chunk.add(e.getKeyValuePair());
           } else {
-            results[i] = e.getValue();
-          }
-        } else {
-          // instance check added to fix bug 40516.
-          if (isStructs && (objs[resultIndex] instanceof Struct)) {
-            results[i] = ((Struct) objs[resultIndex]).getFieldValues();
-          } else {
-            results[i] = objs[resultIndex];
+            chunk.add(e.getValue());
           }
         }
-        resultIndex++;
-        cqResultIndex++;
-      }
-      // Shrink array if necessary. This will occur if the number
-      // of entries in the chunk does not divide evenly into the
-      // number of entries in the result set.
-      if (incompleteArray) {
-        Object[] newResults;
-        if (cqQuery != null) {
-          newResults = new Object[cqResultIndex % maximumChunkSize];
+      } else {
+        // instance check added to fix bug 40516.
+        if (isStructs && (result instanceof Struct)) {
+          chunk.add(((Struct) result).getFieldValues());
         } else {
-          newResults = new Object[resultIndex % maximumChunkSize];
+          chunk.add(result);
         }
-        for (int i = 0; i < newResults.length; i++) {
-          newResults[i] = results[i];
-        }
-        results = newResults;
       }
 
-      if (sendResults) {
-        writeQueryResponseChunk(results, collectionType, (resultIndex == selectResults.size()),
-            servConn);
+      if (chunk.size() == maximumChunkSize || lastChunk) {
+        if (sendResults) {
+          writeQueryResponseChunk(chunk.toArray(), collectionType, lastChunk, servConn);
 
-        if (logger.isDebugEnabled()) {
-          logger.debug("{}: Sent chunk ({} of {}) of query response for query: {}",
-              servConn.getName(), (j + 1), numberOfChunks, queryString);
+          if (logger.isDebugEnabled()) {
+            logger.debug("{}: Sent chunk ({} of {}) of query response for query: {}",
+                servConn.getName(), (chunkNumber + 1), numberOfChunks, queryString);
+          }
         }
-      }
-      // If we have reached the last element of SelectResults then we should
-      // break out of loop here only.
-      if (resultIndex == selectResults.size()) {
-        break;
+        chunk.clear();
+        chunkNumber++;
       }
     }
   }
 
-  private void sendResultsAsObjectPartList(int numberOfChunks, ServerConnection servConn, List objs,
-      boolean isStructs, CollectionType collectionType, String queryString, ServerCQ cqQuery,
-      boolean sendCqResultsWithKey, boolean sendResults) throws IOException {
-    int resultIndex = 0;
-    Object result = null;
-    for (int j = 0; j < numberOfChunks; j++) {
+  private void sendResultsAsObjectPartList(int numberOfChunks, ServerConnection servConn,
+      SelectResults selectResults, boolean isStructs, CollectionType collectionType,
+      String queryString, ServerCQ cqQuery, boolean sendCqResultsWithKey, boolean sendResults)
+      throws IOException {
+    Iterator resultsIterator = selectResults.iterator();
+    ObjectPartList serializedObjs = new ObjectPartList(maximumChunkSize, false);
+    int entriesInChunk = 0;
+    int chunkNumber = 0;
+    boolean lastChunk = !resultsIterator.hasNext();
+    while (!lastChunk) {
+      Object result = resultsIterator.next();
+      lastChunk = !resultsIterator.hasNext();
       if (logger.isTraceEnabled()) {
-        logger.trace("{}: Creating chunk: {}", servConn.getName(), j);
+        logger.trace("{}: Adding entry [{}] to query results: {}", servConn.getName(),
+            entriesInChunk, result);
       }
-      ObjectPartList serializedObjs = new ObjectPartList(maximumChunkSize, false);
-      for (int i = 0; i < maximumChunkSize; i++) {
-        if ((resultIndex) == objs.size()) {
-          break;
-        }
-        if (logger.isTraceEnabled()) {
-          logger.trace("{}: Adding entry [{}] to query results: {}", servConn.getName(),
-              resultIndex, objs.get(resultIndex));
-        }
-        if (cqQuery != null) {
-          CqEntry e = (CqEntry) objs.get(resultIndex);
-          // The value may have become null because of entry invalidation.
-          if (e.getValue() == null) {
-            resultIndex++;
-            continue;
-          }
-
+      boolean skip = false;
+      if (cqQuery != null) {
+        CqEntry e = (CqEntry) result;
+        // The value may have become null because of entry invalidation.
+        if (e.getValue() == null) {
+          skip = true;
+        } else {
           // Add the key into CQ results cache.
           // For PR the Result caching is not yet supported.
           // cqQuery.cqResultsCacheInitialized is added to take care
@@ -495,23 +462,27 @@ public abstract class BaseCommandQuery extends BaseCommand {
           } else {
             result = e.getValue();
           }
-        } else {
-          result = objs.get(resultIndex);
         }
+      }
+      if (!skip) {
         if (sendResults) {
           addToObjectPartList(serializedObjs, result, collectionType, false, servConn, isStructs);
         }
-        resultIndex++;
+        entriesInChunk++;
       }
 
-      if (sendResults) {
-        writeQueryResponseChunk(serializedObjs, collectionType, ((j + 1) == numberOfChunks),
-            servConn);
+      if (entriesInChunk == maximumChunkSize || lastChunk) {
+        if (sendResults) {
+          writeQueryResponseChunk(serializedObjs, collectionType, lastChunk, servConn);
 
-        if (logger.isDebugEnabled()) {
-          logger.debug("{}: Sent chunk ({} of {}) of query response for query: {}",
-              servConn.getName(), (j + 1), numberOfChunks, queryString);
+          if (logger.isDebugEnabled()) {
+            logger.debug("{}: Sent chunk ({} of {}) of query response for query: {}",
+                servConn.getName(), (chunkNumber + 1), numberOfChunks, queryString);
+          }
+          serializedObjs = new ObjectPartList(maximumChunkSize, false);
         }
+        entriesInChunk = 0;
+        chunkNumber++;
       }
     }
   }
@@ -89,6 +89,7 @@ import org.apache.geode.internal.VersionedDataInputStream;
 import org.apache.geode.internal.VersionedDataOutputStream;
 import org.apache.geode.internal.cache.CacheClientStatus;
 import org.apache.geode.internal.cache.CacheDistributionAdvisor;
+import org.apache.geode.internal.cache.CachePerfStats;
 import org.apache.geode.internal.cache.CacheServerImpl;
 import org.apache.geode.internal.cache.ClientRegionEventImpl;
 import org.apache.geode.internal.cache.ClientServerObserver;
@@ -2341,8 +2342,13 @@ public class CacheClientNotifier {
     return this.socketCloser;
   }
 
+  /**
+   * Caches a query compiled for a client request. Queries are keyed by their
+   * {@linkplain DefaultQuery#normalizeQueryString normalized} query string.
+   */
   public void addCompiledQuery(DefaultQuery query) {
-    if (this.compiledQueries.putIfAbsent(query.getQueryString(), query) == null) {
+    String key = DefaultQuery.normalizeQueryString(query.getQueryString());
+    if (this.compiledQueries.putIfAbsent(key, query) == null) {
       // Added successfully.
       this._statistics.incCompiledQueryCount(1);
       if (logger.isDebugEnabled()) {
@@ -2355,8 +2361,34 @@ public class CacheClientNotifier {
     }
   }
 
-  public Query getCompiledQuery(String queryString) {
-    return this.compiledQueries.get(queryString);
+  /**
+   * Returns the cached compiled query for the given query string, or null if there is none. A
+   * query compiled before indexes were created or removed on one of its regions is dropped from
+   * the cache and null is returned so that the caller compiles it again.
+   *
+   * @param queryParams the parameters the query is about to be executed with
+   */
+  public Query getCompiledQuery(String queryString, Object[] queryParams) {
+    String key = DefaultQuery.normalizeQueryString(queryString);
+    DefaultQuery query = this.compiledQueries.get(key);
+    if (query != null && query.isIndexChangedSinceCompile(queryParams)) {
+      if (this.compiledQueries.remove(key, query)) {
+        this._statistics.incCompiledQueryCount(-1);
+        if (logger.isDebugEnabled()) {
+          logger.debug(
+              "Removed compiled query from ccn.compliedQueries list because indexes changed. Query: {}",
+              query.getQueryString());
+        }
+      }
+      query = null;
+    }
+    CachePerfStats cachePerfStats = this._cache.getCachePerfStats();
+    if (query != null) {
+      cachePerfStats.incCompiledQueryCacheHits();
+    } else {
+      cachePerfStats.incCompiledQueryCacheMisses();
+    }
+    return query;
   }
 
   private void clearCompiledQueries() {
@@ -98,7 +98,7 @@ public class Query651 extends BaseCommandQuery {
       if (queryParams != null) {
         // Its a compiled query.
         CacheClientNotifier ccn = servConn.getAcceptor().getCacheClientNotifier();
-        query = ccn.getCompiledQuery(queryString);
+        query = ccn.getCompiledQuery(queryString, queryParams);
         if (query == null) {
           // This is first time the query is seen by this server.
           query = queryService.newQuery(queryString);
@@ -105,6 +105,10 @@ public class AddressableMemoryManager {
     unsafe.putByte(addr, value);
   }
 
+  public static void writeChar(long addr, char value) {
+    unsafe.putChar(null, addr, value);
+  }
+
   public static void writeInt(long addr, int value) {
     unsafe.putInt(null, addr, value);
   }
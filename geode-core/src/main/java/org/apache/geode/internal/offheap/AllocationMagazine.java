@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * The free tiny chunks cached by one thread, so that most of its allocations and frees do not touch
+ * the shared free lists of the {@link FreeListManager}. Each size class holds up to a fixed number
+ * of chunk addresses. An empty size class is refilled with a batch taken from the shared free list,
+ * and a full one returns half of its chunks to the shared free list in one batch.
+ * <p>
+ * Only the owning thread allocates and frees through a magazine, but a defragmentation drains the
+ * magazines of all threads, so every method synchronizes on the magazine. The lock is almost never
+ * contended.
+ */
+final class AllocationMagazine {
+
+  private final FreeListManager freeListManager;
+
+  private final WeakReference<Thread> owner;
+
+  private final int capacity;
+
+  /** The cached addresses of each size class, created when the class is first used */
+  private final long[][] rounds;
+
+  private final int[] counts;
+
+  /** The allocations served from this magazine since they were last reported to the stats */
+  private long hits;
+
+  AllocationMagazine(FreeListManager freeListManager, Thread owner, int sizeClasses,
+      int capacity) {
+    this.freeListManager = freeListManager;
+    this.owner = new WeakReference<Thread>(owner);
+    this.capacity = capacity;
+    this.rounds = new long[sizeClasses][];
+    this.counts = new int[sizeClasses];
+  }
+
+  int getSizeClasses() {
+    return this.rounds.length;
+  }
+
+  /**
+   * Returns true if the thread that owns this magazine has terminated.
+   */
+  boolean isOrphaned() {
+    Thread t = this.owner.get();
+    return t == null || !t.isAlive();
+  }
+
+  /**
+   * Removes and returns a cached chunk of the size class, or returns 0 if there is none.
+   */
+  synchronized long poll(int idx) {
+    int count = this.counts[idx];
+    if (count == 0) {
+      return 0L;
+    }
+    this.hits++;
+    this.counts[idx] = --count;
+    return this.rounds[idx][count];
+  }
+
+  /**
+   * Moves a batch of chunks from the shared free list into the size class, which must be empty,
+   * and removes and returns one of them. Returns 0 if the shared free list is empty too.
+   */
+  synchronized long refill(int idx, OffHeapStoredObjectAddressStack sharedList) {
+    long[] round = getRound(idx);
+    int count = sharedList.poll(round, 0, Math.max(1, this.capacity / 2));
+    if (count == 0) {
+      return 0L;
+    }
+    this.counts[idx] = --count;
+    return round[count];
+  }
+
+  /**
+   * Caches a freed chunk of the size class. If the size class is full half of it is first returned
+   * to the shared free list.
+   */
+  synchronized void offer(int idx, long addr) {
+    long[] round = getRound(idx);
+    int count = this.counts[idx];
+    if (count == this.capacity) {
+      int keep = count / 2;
+      this.freeListManager.freeTinyBatch(idx, round, keep, count - keep);
+      count = keep;
+    }
+    round[count] = addr;
+    this.counts[idx] = count + 1;
+  }
+
+  /**
+   * Returns every cached chunk to the shared free lists.
+   */
+  synchronized void drain() {
+    for (int idx = 0; idx < this.rounds.length; idx++) {
+      if (this.counts[idx] > 0) {
+        this.freeListManager.freeTinyBatch(idx, this.rounds[idx], 0, this.counts[idx]);
+        this.counts[idx] = 0;
+      }
+    }
+  }
+
+  /**
+   * Returns the number of bytes of the cached chunks.
+   */
+  synchronized long computeTotalSize() {
+    long result = 0;
+    for (int idx = 0; idx < this.rounds.length; idx++) {
+      for (int i = 0; i < this.counts[idx]; i++) {
+        result += OffHeapStoredObject.getSize(this.rounds[idx][i]);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the allocations served from this magazine since the last call and resets the count.
+   */
+  synchronized long takeHits() {
+    long result = this.hits;
+    this.hits = 0;
+    return result;
+  }
+
+  private long[] getRound(int idx) {
+    long[] round = this.rounds[idx];
+    if (round == null) {
+      round = new long[this.capacity];
+      this.rounds[idx] = round;
+    }
+    return round;
+  }
+}
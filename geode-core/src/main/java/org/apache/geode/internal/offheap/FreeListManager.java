@@ -17,9 +17,11 @@ package org.apache.geode.internal.offheap;
 import org.apache.geode.OutOfOffHeapMemoryException;
 import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.internal.logging.LogService;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import org.apache.logging.log4j.Logger;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -116,6 +118,9 @@ public class FreeListManager {
         tinyFree += cl.computeTotalSize();
       }
     }
+    for (AllocationMagazine m : this.magazines) {
+      tinyFree += m.computeTotalSize();
+    }
     return tinyFree;
   }
 
@@ -145,6 +150,12 @@ public class FreeListManager {
     }
     this.fragmentList = new CopyOnWriteArrayList<Fragment>(tmp);
     this.totalSlabSize = total;
+    if (getMagazineCapacity() > 0) {
+      this.magazineSizeClasses =
+          Math.min(TINY_FREE_LIST_COUNT, getNearestTinyMultiple(getMagazineMaxChunkSize()) + 1);
+    } else {
+      this.magazineSizeClasses = 0;
+    }
 
     fillFragments();
   }
@@ -315,6 +326,29 @@ public class FreeListManager {
     verifyHugeMultiple(HUGE_MULTIPLE);
   }
   public final static int MAX_TINY = TINY_MULTIPLE * TINY_FREE_LIST_COUNT;
+  /**
+   * Number of free tiny chunks of each size that a thread caches in its {@link AllocationMagazine}.
+   * Zero, the default, disables the magazines.
+   */
+  public final static int MAGAZINE_CAPACITY =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_MAGAZINE_CAPACITY", 0);
+  /**
+   * Chunks up to this size, including the header, are cached in the magazines.
+   */
+  public final static int MAGAZINE_MAX_CHUNK_SIZE = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_MAGAZINE_MAX_CHUNK_SIZE", 1024);
+
+  /**
+   * The magazine of each thread that has allocated or freed a tiny chunk. Stays null for a thread
+   * when the magazines are disabled.
+   */
+  private final ThreadLocal<AllocationMagazine> magazine = new ThreadLocal<AllocationMagazine>();
+  /**
+   * All the magazines, so that a defragmentation can drain them.
+   */
+  private final Set<AllocationMagazine> magazines =
+      Collections.newSetFromMap(new ConcurrentHashMap<AllocationMagazine, Boolean>());
+  private final int magazineSizeClasses;
 
   /**
    * Return true if the two chunks have been combined into one. If low and high are adjacent to each
@@ -448,6 +482,48 @@ public class FreeListManager {
     boolean result = false;
     ArrayList<LongStack> freeChunks = new ArrayList<LongStack>();
     collectFreeChunks(freeChunks);
+    ResizableLongArray sorted = coalesce(freeChunks, null);
+
+    int largestFragment = 0;
+    this.lastFragmentAllocation.set(0);
+    ArrayList<Fragment> tmp = new ArrayList<Fragment>();
+    for (int i = sorted.size() - 1; i >= 0; i--) {
+      long addr = sorted.get(i);
+      if (addr == 0L)
+        continue;
+      int addrSize = OffHeapStoredObject.getSize(addr);
+      Fragment f = createFragment(addr, addrSize);
+      if (addrSize >= chunkSize) {
+        result = true;
+      }
+      if (addrSize > largestFragment) {
+        largestFragment = addrSize;
+        // TODO it might be better to sort them biggest first
+        tmp.add(0, f);
+      } else {
+        tmp.add(f);
+      }
+    }
+    this.fragmentList.addAll(tmp);
+
+    fillFragments();
+
+    this.ma.getStats().setLargestFragment(largestFragment);
+    this.ma.getStats().setFragments(tmp.size());
+    this.ma.getStats().setFragmentation(getFragmentation());
+    this.ma.getStats().setFreeListFragmentation(getFreeListFragmentation());
+
+    return result;
+  }
+
+  /**
+   * Sorts the chunks of the given stacks by address, combining adjacent chunks. Returns the
+   * addresses of the combined chunks; an address of 0 marks a chunk combined with its predecessor.
+   * 
+   * @param combined if not null the address of every chunk that another chunk was appended to is
+   *        added to it
+   */
+  private ResizableLongArray coalesce(List<LongStack> freeChunks, LongOpenHashSet combined) {
     ResizableLongArray sorted = new ResizableLongArray();
     for (LongStack l : freeChunks) {
       long addr = l.poll();
@@ -462,15 +538,15 @@ public class FreeListManager {
             // nothing was in the array
             sorted.add(addr);
           } else {
-            if (!combineIfAdjacentAndSmallEnough(sorted.get(idx - 1), addr)) {
+            if (!combine(sorted.get(idx - 1), addr, combined)) {
               sorted.add(addr);
             }
           }
         } else {
-          if (combineIfAdjacentAndSmallEnough(addr, sorted.get(idx))) {
+          if (combine(addr, sorted.get(idx), combined)) {
             sorted.set(idx, addr);
           } else {
-            if (idx == 0 || !combineIfAdjacentAndSmallEnough(sorted.get(idx - 1), addr)) {
+            if (idx == 0 || !combine(sorted.get(idx - 1), addr, combined)) {
               sorted.insert(idx, addr);
             }
           }
@@ -479,40 +555,97 @@ public class FreeListManager {
       }
     }
     for (int i = sorted.size() - 1; i > 0; i--) {
-      if (combineIfAdjacentAndSmallEnough(sorted.get(i - 1), sorted.get(i))) {
+      if (combine(sorted.get(i - 1), sorted.get(i), combined)) {
         sorted.set(i, 0L);
       }
     }
+    return sorted;
+  }
+
+  private boolean combine(long lowAddr, long highAddr, LongOpenHashSet combined) {
+    if (combineIfAdjacentAndSmallEnough(lowAddr, highAddr)) {
+      if (combined != null) {
+        combined.add(lowAddr);
+      }
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Combines the adjacent chunks of the tiny and huge free lists into new fragments so that fewer
+   * allocations fail and have to defragment. Unlike {@link #defragment(int)} the existing fragments
+   * are left alone, so allocations keep being served from them while this runs. Chunks that have no
+   * free neighbor go back to their free list. Returns true if any chunks were combined.
+   */
+  boolean defragmentFreeLists() {
+    final long startDefragmentationTime = this.ma.getStats().startBackgroundDefragmentation();
+    try {
+      synchronized (this) {
+        boolean result = doDefragmentFreeLists();
+
+        // Signal any allocation that waited to defragment that it should retry first.
+        this.defragmentationCount.incrementAndGet();
+
+        return result;
+      } // sync
+    } finally {
+      this.ma.getStats().endBackgroundDefragmentation(startDefragmentationTime);
+    }
+  }
+
+  /**
+   * Does the work of {@link #defragmentFreeLists()}. Like {@link #doDefragment(int)} this method is
+   * not thread safe and should only be called by defragmentFreeLists and unit tests.
+   */
+  boolean doDefragmentFreeLists() {
+    ArrayList<LongStack> freeChunks = new ArrayList<LongStack>();
+    collectFreeHugeChunks(freeChunks);
+    collectFreeTinyChunks(freeChunks);
+    LongOpenHashSet combined = new LongOpenHashSet();
+    ResizableLongArray sorted = coalesce(freeChunks, combined);
 
-    int largestFragment = 0;
-    this.lastFragmentAllocation.set(0);
     ArrayList<Fragment> tmp = new ArrayList<Fragment>();
-    for (int i = sorted.size() - 1; i >= 0; i--) {
+    for (int i = 0; i < sorted.size(); i++) {
       long addr = sorted.get(i);
-      if (addr == 0L)
+      if (addr == 0L) {
         continue;
-      int addrSize = OffHeapStoredObject.getSize(addr);
-      Fragment f = createFragment(addr, addrSize);
-      if (addrSize >= chunkSize) {
-        result = true;
       }
-      if (addrSize > largestFragment) {
-        largestFragment = addrSize;
-        // TODO it might be better to sort them biggest first
-        tmp.add(0, f);
-      } else {
+      if (combined.contains(addr)) {
+        Fragment f = createFragment(addr, OffHeapStoredObject.getSize(addr));
+        if (this.validateMemoryWithFill) {
+          // only the new fragments, the others may be allocated from concurrently
+          f.fill();
+        }
         tmp.add(f);
+      } else {
+        free(addr, false);
       }
     }
     this.fragmentList.addAll(tmp);
 
-    fillFragments();
-
+    int largestFragment = 0;
+    for (Fragment f : this.fragmentList) {
+      largestFragment = Math.max(largestFragment, f.freeSpace());
+    }
     this.ma.getStats().setLargestFragment(largestFragment);
-    this.ma.getStats().setFragments(tmp.size());
+    this.ma.getStats().setFragments(this.fragmentList.size());
     this.ma.getStats().setFragmentation(getFragmentation());
+    this.ma.getStats().setFreeListFragmentation(getFreeListFragmentation());
+    return !tmp.isEmpty();
+  }
 
-    return result;
+  /**
+   * Returns the percentage of free memory that is held in the tiny and huge free lists, in chunks
+   * of the sizes that were freed, rather than in fragments that any allocation can be carved from.
+   */
+  protected int getFreeListFragmentation() {
+    long freeMemory = getFreeMemory();
+    if (freeMemory <= 0) {
+      return 0;
+    }
+    long freeListMemory = Math.max(0, freeMemory - getFreeFragmentMemory());
+    return (int) Math.rint(((double) freeListMemory / (double) freeMemory) * 100d);
   }
 
   /**
@@ -616,6 +749,7 @@ public class FreeListManager {
   }
 
   private void collectFreeTinyChunks(List<LongStack> l) {
+    drainMagazines();
     for (int i = 0; i < this.tinyFreeLists.length(); i++) {
       OffHeapStoredObjectAddressStack cl = this.tinyFreeLists.get(i);
       if (cl != null) {
@@ -692,8 +826,79 @@ public class FreeListManager {
   }
 
   private OffHeapStoredObject allocateTiny(int size, boolean useFragments) {
-    return basicAllocate(getNearestTinyMultiple(size), TINY_MULTIPLE, 0, this.tinyFreeLists,
-        useFragments);
+    int idx = getNearestTinyMultiple(size);
+    if (useFragments && idx < this.magazineSizeClasses) {
+      OffHeapStoredObject result = allocateFromMagazine(idx);
+      if (result != null) {
+        return result;
+      }
+    }
+    return basicAllocate(idx, TINY_MULTIPLE, 0, this.tinyFreeLists, useFragments);
+  }
+
+  /**
+   * Allocates from the magazine of the current thread, refilling it from the shared free list if it
+   * is empty. Returns null if both are empty.
+   */
+  private OffHeapStoredObject allocateFromMagazine(int idx) {
+    AllocationMagazine m = getMagazine();
+    long memAddr = m.poll(idx);
+    if (memAddr == 0L) {
+      // report the hits with each miss so the stats are not updated on every allocation
+      OffHeapMemoryStats stats = this.ma.getStats();
+      stats.incMagazineHits(m.takeHits());
+      stats.incMagazineMisses(1);
+      OffHeapStoredObjectAddressStack clq = this.tinyFreeLists.get(idx);
+      if (clq != null) {
+        memAddr = m.refill(idx, clq);
+      }
+      if (memAddr == 0L) {
+        return null;
+      }
+    }
+    OffHeapStoredObject result = new OffHeapStoredObject(memAddr);
+    checkDataIntegrity(result);
+    result.readyForAllocation();
+    return result;
+  }
+
+  private AllocationMagazine getMagazine() {
+    AllocationMagazine m = this.magazine.get();
+    if (m == null) {
+      m = new AllocationMagazine(this, Thread.currentThread(), this.magazineSizeClasses,
+          getMagazineCapacity());
+      this.magazine.set(m);
+      this.magazines.add(m);
+    }
+    return m;
+  }
+
+  /**
+   * Returns the chunks cached by all threads to the shared free lists. Magazines of threads that
+   * have terminated are dropped.
+   */
+  void drainMagazines() {
+    Iterator<AllocationMagazine> it = this.magazines.iterator();
+    while (it.hasNext()) {
+      AllocationMagazine m = it.next();
+      m.drain();
+      if (m.isOrphaned()) {
+        it.remove();
+        this.ma.getStats().incMagazineHits(m.takeHits());
+      }
+    }
+  }
+
+  /**
+   * Returns the number of chunks of each tiny size a thread caches. Tests override this method to
+   * enable the magazines.
+   */
+  protected int getMagazineCapacity() {
+    return MAGAZINE_CAPACITY;
+  }
+
+  protected int getMagazineMaxChunkSize() {
+    return MAGAZINE_MAX_CHUNK_SIZE;
   }
 
   private OffHeapStoredObject basicAllocate(int idx, int multiple, int offset,
@@ -783,7 +988,12 @@ public class FreeListManager {
       this.ma.notifyListeners();
     }
     if (cSize <= MAX_TINY) {
-      freeTiny(addr, cSize);
+      int idx = getNearestTinyMultiple(cSize);
+      if (updateStats && idx < this.magazineSizeClasses) {
+        getMagazine().offer(idx, addr);
+      } else {
+        freeTiny(addr, cSize);
+      }
     } else {
       freeHuge(addr, cSize);
     }
@@ -808,6 +1018,20 @@ public class FreeListManager {
     }
   }
 
+  /**
+   * Returns a batch of chunks of the same tiny size to the shared free list.
+   */
+  void freeTinyBatch(int idx, long[] addrs, int offset, int count) {
+    OffHeapStoredObjectAddressStack clq = this.tinyFreeLists.get(idx);
+    if (clq == null) {
+      clq = createFreeListForEmptySlot(this.tinyFreeLists, idx);
+      if (!this.tinyFreeLists.compareAndSet(idx, null, clq)) {
+        clq = this.tinyFreeLists.get(idx);
+      }
+    }
+    clq.offer(addrs, offset, count);
+  }
+
   /**
    * Tests override this method to simulate concurrent modification
    */
@@ -856,6 +1080,8 @@ public class FreeListManager {
   private List<MemoryBlock> getTinyFreeBlocks() {
     final List<MemoryBlock> value = new ArrayList<MemoryBlock>();
     final MemoryAllocatorImpl sma = this.ma;
+    // the chunks cached by threads are only visible once they are back in the free lists
+    drainMagazines();
     for (int i = 0; i < this.tinyFreeLists.length(); i++) {
       if (this.tinyFreeLists.get(i) == null)
         continue;
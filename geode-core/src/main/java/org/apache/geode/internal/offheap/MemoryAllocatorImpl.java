@@ -56,6 +56,8 @@ public class MemoryAllocatorImpl implements MemoryAllocator {
 
   private MemoryInspector memoryInspector;
 
+  private final OffHeapDefragmenter defragmenter;
+
   private volatile MemoryUsageListener[] memoryUsageListeners = new MemoryUsageListener[0];
 
   private static MemoryAllocatorImpl singleton = null;
@@ -209,6 +211,11 @@ public class MemoryAllocatorImpl implements MemoryAllocator {
 
     this.stats.incMaxMemory(this.freeList.getTotalMemory());
     this.stats.incFreeMemory(this.freeList.getTotalMemory());
+
+    this.defragmenter = OffHeapDefragmenter.create(this);
+    if (this.defragmenter != null) {
+      this.defragmenter.start();
+    }
   }
 
   public List<OffHeapStoredObject> getLostChunks() {
@@ -374,6 +381,9 @@ public class MemoryAllocatorImpl implements MemoryAllocator {
   private void realClose() {
     // Removing this memory immediately can lead to a SEGV. See 47885.
     if (setClosed()) {
+      if (this.defragmenter != null) {
+        this.defragmenter.stop();
+      }
       this.freeList.freeSlabs();
       this.stats.close();
       singleton = null;
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThreadGroup;
+
+/**
+ * Periodically checks how much of the free off-heap memory is held in the free lists of freed
+ * objects and, once that exceeds a threshold, has the {@link FreeListManager} combine the adjacent
+ * free chunks into fragments. Doing this while the system runs keeps allocations from failing and
+ * having to defragment all of off-heap memory while every allocating thread waits.
+ * <p>
+ * The defragmenter is disabled unless <code>gemfire.OFF_HEAP_DEFRAGMENTATION_INTERVAL_MILLIS</code>
+ * is set to a positive number of milliseconds between checks. The threshold is the percentage of
+ * free memory given by <code>gemfire.OFF_HEAP_DEFRAGMENTATION_THRESHOLD</code>, 30 by default.
+ *
+ * @since Geode 1.2
+ */
+class OffHeapDefragmenter implements Runnable {
+  private static final Logger logger = LogService.getLogger();
+
+  static final String INTERVAL_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_DEFRAGMENTATION_INTERVAL_MILLIS";
+
+  static final String THRESHOLD_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_DEFRAGMENTATION_THRESHOLD";
+
+  private final MemoryAllocatorImpl ma;
+
+  private final long intervalMillis;
+
+  private final int threshold;
+
+  private volatile boolean stopping = false;
+
+  /**
+   * The fragmentation found before the last defragmentation if it combined nothing, otherwise -1.
+   * There is no point in defragmenting again until more memory has gone to the free lists.
+   */
+  private int fruitlessFragmentation = -1;
+
+  private Thread thread;
+
+  OffHeapDefragmenter(MemoryAllocatorImpl ma, long intervalMillis, int threshold) {
+    this.ma = ma;
+    this.intervalMillis = intervalMillis;
+    this.threshold = threshold;
+  }
+
+  /**
+   * Returns a defragmenter configured by the system properties, or null if it is disabled.
+   */
+  static OffHeapDefragmenter create(MemoryAllocatorImpl ma) {
+    long intervalMillis = Long.getLong(INTERVAL_PROPERTY, 0);
+    if (intervalMillis <= 0) {
+      return null;
+    }
+    return new OffHeapDefragmenter(ma, intervalMillis, Integer.getInteger(THRESHOLD_PROPERTY, 30));
+  }
+
+  synchronized void start() {
+    ThreadGroup group =
+        LoggingThreadGroup.createThreadGroup("OffHeapDefragmenter Threads", logger);
+    Thread t = new Thread(group, this, "OffHeapDefragmenter");
+    t.setDaemon(true);
+    t.start();
+    this.thread = t;
+  }
+
+  /**
+   * Stops the defragmenter and waits for a defragmentation in progress to complete.
+   */
+  void stop() {
+    Thread threadToWaitFor;
+    synchronized (this) {
+      this.stopping = true;
+      this.notifyAll();
+      threadToWaitFor = this.thread;
+      this.thread = null;
+    }
+    if (threadToWaitFor != null) {
+      try {
+        threadToWaitFor.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  @Override
+  public void run() {
+    while (true) {
+      synchronized (this) {
+        if (this.stopping) {
+          return;
+        }
+        try {
+          this.wait(this.intervalMillis);
+        } catch (InterruptedException e) {
+          return;
+        }
+        if (this.stopping) {
+          return;
+        }
+      }
+      try {
+        defragmentIfNeeded();
+      } catch (RuntimeException e) {
+        logger.warn("Off-heap background defragmentation failed", e);
+      }
+    }
+  }
+
+  /**
+   * Defragments the free lists if they hold at least the threshold percentage of free memory.
+   * Returns true if it did.
+   */
+  boolean defragmentIfNeeded() {
+    FreeListManager freeList = this.ma.getFreeListManager();
+    int fragmentation = freeList.getFreeListFragmentation();
+    this.ma.getStats().setFreeListFragmentation(fragmentation);
+    if (fragmentation < this.threshold || fragmentation <= this.fruitlessFragmentation) {
+      return false;
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug("Defragmenting off-heap free lists holding {}% of free memory", fragmentation);
+    }
+    boolean combined = freeList.defragmentFreeLists();
+    this.fruitlessFragmentation = combined ? -1 : fragmentation;
+    return true;
+  }
+}
@@ -43,6 +43,16 @@ public interface OffHeapMemoryStats {
 
   public void setFragmentation(int value);
 
+  public long startBackgroundDefragmentation();
+
+  public void endBackgroundDefragmentation(long start);
+
+  public void setFreeListFragmentation(int value);
+
+  public void incMagazineHits(long value);
+
+  public void incMagazineMisses(long value);
+
   public long getFreeMemory();
 
   public long getMaxMemory();
@@ -65,6 +75,16 @@ public interface OffHeapMemoryStats {
 
   public long getDefragmentationTime();
 
+  public int getBackgroundDefragmentations();
+
+  public long getBackgroundDefragmentationTime();
+
+  public int getFreeListFragmentation();
+
+  public long getMagazineHits();
+
+  public long getMagazineMisses();
+
   public Statistics getStats();
 
   public void close();
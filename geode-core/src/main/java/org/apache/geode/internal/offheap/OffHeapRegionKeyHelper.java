@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.OffHeapRegionEntry;
+import org.apache.geode.internal.offheap.annotations.Retained;
+import org.apache.geode.internal.offheap.annotations.Unretained;
+
+/**
+ * The class just has static methods used by the {@link OffHeapRegionEntry} classes that store their
+ * String key in off-heap memory instead of on the heap. These are used for the keys that are too
+ * long to be encoded inline in the entry.
+ * <p>
+ * The key is stored in an off-heap object whose data starts with an int holding the key length
+ * shifted left by one, with the low bit set if each char is stored as a single byte. The chars
+ * follow. The key is only copied off-heap once the entry has been added to its region map. The
+ * entry then owns one reference to the object and releases it when the entry is removed.
+ * Readers must retain the object and then check that the entry still refers to it before reading
+ * the key.
+ * <p>
+ * Off-heap keys are disabled unless <code>gemfire.OFF_HEAP_REGION_KEYS</code> is set to true.
+ *
+ * @since Geode 1.2
+ */
+public class OffHeapRegionKeyHelper {
+
+  public static final boolean OFF_HEAP_REGION_KEYS =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_REGION_KEYS");
+
+  private static final int LENGTH_SIZE = 4;
+
+  private static final int BYTE_ENCODED_BIT = 1;
+
+  /**
+   * Copies the key to a new off-heap object and returns its address.
+   */
+  @Retained
+  public static long allocateKey(String key) {
+    final int keylen = key.length();
+    final boolean byteEncode = isByteEncodingOk(key);
+    final int dataSize = LENGTH_SIZE + (byteEncode ? keylen : keylen * 2);
+    final OffHeapStoredObject chunk =
+        (OffHeapStoredObject) MemoryAllocatorImpl.getAllocator().allocate(dataSize);
+    final long base = chunk.getBaseDataAddress();
+    AddressableMemoryManager.writeInt(base, (keylen << 1) | (byteEncode ? BYTE_ENCODED_BIT : 0));
+    final long charsAddr = base + LENGTH_SIZE;
+    if (byteEncode) {
+      for (int i = 0; i < keylen; i++) {
+        AddressableMemoryManager.writeByte(charsAddr + i, (byte) key.charAt(i));
+      }
+    } else {
+      for (int i = 0; i < keylen; i++) {
+        AddressableMemoryManager.writeChar(charsAddr + (i * 2), key.charAt(i));
+      }
+    }
+    return chunk.getAddress();
+  }
+
+  /**
+   * Returns the key stored at the given address. The caller must have retained the address.
+   */
+  public static String getKey(@Unretained long addr) {
+    final long base = addr + OffHeapStoredObject.HEADER_SIZE;
+    final int header = AddressableMemoryManager.readInt(base);
+    final int keylen = header >>> 1;
+    final long charsAddr = base + LENGTH_SIZE;
+    final char[] chars = new char[keylen];
+    if ((header & BYTE_ENCODED_BIT) != 0) {
+      for (int i = 0; i < keylen; i++) {
+        chars[i] = (char) (AddressableMemoryManager.readByte(charsAddr + i) & 0xff);
+      }
+    } else {
+      for (int i = 0; i < keylen; i++) {
+        chars[i] = AddressableMemoryManager.readChar(charsAddr + (i * 2));
+      }
+    }
+    return new String(chars);
+  }
+
+  /**
+   * Returns true if the key stored at the given address is equal to the given object. The caller
+   * must have retained the address.
+   */
+  public static boolean isKeyEqual(@Unretained long addr, Object k) {
+    if (!(k instanceof String)) {
+      return false;
+    }
+    final String str = (String) k;
+    final long base = addr + OffHeapStoredObject.HEADER_SIZE;
+    final int header = AddressableMemoryManager.readInt(base);
+    final int keylen = header >>> 1;
+    if (str.length() != keylen) {
+      return false;
+    }
+    final long charsAddr = base + LENGTH_SIZE;
+    if ((header & BYTE_ENCODED_BIT) != 0) {
+      for (int i = 0; i < keylen; i++) {
+        if (str.charAt(i) != (char) (AddressableMemoryManager.readByte(charsAddr + i) & 0xff)) {
+          return false;
+        }
+      }
+    } else {
+      for (int i = 0; i < keylen; i++) {
+        if (str.charAt(i) != AddressableMemoryManager.readChar(charsAddr + (i * 2))) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns false if the key at the given address has already been released.
+   */
+  public static boolean retainKey(long addr) {
+    return OffHeapStoredObject.retain(addr);
+  }
+
+  public static void releaseKey(long addr) {
+    OffHeapStoredObject.release(addr);
+  }
+
+  /**
+   * Returns true if an entry whose value address changed from oldAddr to newAddr has just been
+   * removed, in which case it should release its key.
+   */
+  public static boolean isEntryRemoved(long oldAddr, long newAddr) {
+    return newAddr == OffHeapRegionEntryHelper.REMOVED_PHASE2_ADDRESS && oldAddr != newAddr;
+  }
+
+  /**
+   * Returns true if an entry whose value address is the given one has been removed.
+   */
+  public static boolean isEntryRemoved(long addr) {
+    return addr == OffHeapRegionEntryHelper.REMOVED_PHASE2_ADDRESS;
+  }
+
+  private static boolean isByteEncodingOk(String skey) {
+    for (int i = 0; i < skey.length(); i++) {
+      if (skey.charAt(i) > 0x7f) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -56,6 +56,11 @@ public class OffHeapStorage implements OffHeapMemoryStats {
   private static final int defragmentationTimeId;
   private static final int fragmentationId;
   private static final int defragmentationsInProgressId;
+  private static final int backgroundDefragmentationId;
+  private static final int backgroundDefragmentationTimeId;
+  private static final int freeListFragmentationId;
+  private static final int magazineHitsId;
+  private static final int magazineMissesId;
   // NOTE!!!! When adding new stats make sure and update the initialize method on this class
 
   // creates and registers the statistics type
@@ -69,6 +74,16 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     final String defragmentationsInProgressDesc =
         "Current number of defragment operations currently in progress.";
     final String defragmentationTimeDesc = "The total time spent defragmenting off-heap memory.";
+    final String backgroundDefragmentationDesc =
+        "The total number of times the background defragmenter has coalesced the off-heap free lists.";
+    final String backgroundDefragmentationTimeDesc =
+        "The total time the background defragmenter spent coalescing the off-heap free lists.";
+    final String freeListFragmentationDesc =
+        "The percentage of off-heap free memory held in the free lists of freed objects rather than in fragments. Updated every time the background defragmenter checks it or a defragmentation is done.";
+    final String magazineHitsDesc =
+        "The total number of small off-heap allocations served from the free chunks cached by the allocating thread. Updated when a thread's cache misses.";
+    final String magazineMissesDesc =
+        "The total number of small off-heap allocations that found no free chunk cached by the allocating thread and had to go to the shared free lists.";
     final String fragmentationDesc =
         "The percentage of off-heap free memory that is fragmented.  Updated every time a defragmentation is performed.";
     final String fragmentsDesc =
@@ -88,6 +103,11 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     final String defragmentationsInProgress = "defragmentationsInProgress";
     final String defragmentationTime = "defragmentationTime";
     final String fragmentation = "fragmentation";
+    final String backgroundDefragmentations = "backgroundDefragmentations";
+    final String backgroundDefragmentationTime = "backgroundDefragmentationTime";
+    final String freeListFragmentation = "freeListFragmentation";
+    final String magazineHits = "magazineHits";
+    final String magazineMisses = "magazineMisses";
     final String fragments = "fragments";
     final String freeMemory = "freeMemory";
     final String largestFragment = "largestFragment";
@@ -102,6 +122,13 @@ public class OffHeapStorage implements OffHeapMemoryStats {
                 "operations"),
             f.createLongCounter(defragmentationTime, defragmentationTimeDesc, "nanoseconds", false),
             f.createIntGauge(fragmentation, fragmentationDesc, "percentage"),
+            f.createIntCounter(backgroundDefragmentations, backgroundDefragmentationDesc,
+                "operations"),
+            f.createLongCounter(backgroundDefragmentationTime, backgroundDefragmentationTimeDesc,
+                "nanoseconds", false),
+            f.createIntGauge(freeListFragmentation, freeListFragmentationDesc, "percentage"),
+            f.createLongCounter(magazineHits, magazineHitsDesc, "operations"),
+            f.createLongCounter(magazineMisses, magazineMissesDesc, "operations"),
             f.createLongGauge(fragments, fragmentsDesc, "fragments"),
             f.createLongGauge(freeMemory, freeMemoryDesc, "bytes"),
             f.createIntGauge(largestFragment, largestFragmentDesc, "bytes"),
@@ -114,6 +141,11 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     defragmentationsInProgressId = statsType.nameToId(defragmentationsInProgress);
     defragmentationTimeId = statsType.nameToId(defragmentationTime);
     fragmentationId = statsType.nameToId(fragmentation);
+    backgroundDefragmentationId = statsType.nameToId(backgroundDefragmentations);
+    backgroundDefragmentationTimeId = statsType.nameToId(backgroundDefragmentationTime);
+    freeListFragmentationId = statsType.nameToId(freeListFragmentation);
+    magazineHitsId = statsType.nameToId(magazineHits);
+    magazineMissesId = statsType.nameToId(magazineMisses);
     fragmentsId = statsType.nameToId(fragments);
     freeMemoryId = statsType.nameToId(freeMemory);
     largestFragmentId = statsType.nameToId(largestFragment);
@@ -370,6 +402,61 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     return this.stats.getInt(fragmentationId);
   }
 
+  @Override
+  public long startBackgroundDefragmentation() {
+    return DistributionStats.getStatTime();
+  }
+
+  @Override
+  public void endBackgroundDefragmentation(long start) {
+    this.stats.incInt(backgroundDefragmentationId, 1);
+    if (DistributionStats.enableClockStats) {
+      stats.incLong(backgroundDefragmentationTimeId, DistributionStats.getStatTime() - start);
+    }
+  }
+
+  @Override
+  public int getBackgroundDefragmentations() {
+    return this.stats.getInt(backgroundDefragmentationId);
+  }
+
+  @Override
+  public long getBackgroundDefragmentationTime() {
+    return stats.getLong(backgroundDefragmentationTimeId);
+  }
+
+  @Override
+  public void setFreeListFragmentation(int value) {
+    this.stats.setInt(freeListFragmentationId, value);
+  }
+
+  @Override
+  public int getFreeListFragmentation() {
+    return this.stats.getInt(freeListFragmentationId);
+  }
+
+  @Override
+  public void incMagazineHits(long value) {
+    if (value != 0) {
+      this.stats.incLong(magazineHitsId, value);
+    }
+  }
+
+  @Override
+  public long getMagazineHits() {
+    return this.stats.getLong(magazineHitsId);
+  }
+
+  @Override
+  public void incMagazineMisses(long value) {
+    this.stats.incLong(magazineMissesId, value);
+  }
+
+  @Override
+  public long getMagazineMisses() {
+    return this.stats.getLong(magazineMissesId);
+  }
+
   public Statistics getStats() {
     return this.stats;
   }
@@ -392,6 +479,11 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     setLargestFragment(oldStats.getLargestFragment());
     setDefragmentationTime(oldStats.getDefragmentationTime());
     setFragmentation(oldStats.getFragmentation());
+    setBackgroundDefragmentations(oldStats.getBackgroundDefragmentations());
+    setBackgroundDefragmentationTime(oldStats.getBackgroundDefragmentationTime());
+    setFreeListFragmentation(oldStats.getFreeListFragmentation());
+    setMagazineHits(oldStats.getMagazineHits());
+    setMagazineMisses(oldStats.getMagazineMisses());
 
     oldStats.close();
   }
@@ -400,6 +492,22 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     stats.setLong(defragmentationTimeId, value);
   }
 
+  private void setBackgroundDefragmentations(int value) {
+    this.stats.setInt(backgroundDefragmentationId, value);
+  }
+
+  private void setBackgroundDefragmentationTime(long value) {
+    stats.setLong(backgroundDefragmentationTimeId, value);
+  }
+
+  private void setMagazineHits(long value) {
+    this.stats.setLong(magazineHitsId, value);
+  }
+
+  private void setMagazineMisses(long value) {
+    this.stats.setLong(magazineMissesId, value);
+  }
+
   private void setDefragmentations(int value) {
     this.stats.setInt(defragmentationId, value);
   }
@@ -19,8 +19,8 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 
 import org.apache.geode.cache.Region;
+import org.apache.geode.internal.ByteBufferWriter;
 import org.apache.geode.internal.DSCODE;
-import org.apache.geode.internal.HeapDataOutputStream;
 import org.apache.geode.internal.InternalDataSerializer;
 import org.apache.geode.internal.cache.BytesAndBitsForCompactor;
 import org.apache.geode.internal.cache.EntryBits;
@@ -283,16 +283,16 @@ public class OffHeapStoredObject extends AbstractStoredObject
 
   @Override
   public void sendTo(DataOutput out) throws IOException {
-    if (!this.isCompressed() && out instanceof HeapDataOutputStream) {
+    if (!this.isCompressed() && out instanceof ByteBufferWriter) {
       ByteBuffer bb = createDirectByteBuffer();
       if (bb != null) {
-        HeapDataOutputStream hdos = (HeapDataOutputStream) out;
+        ByteBufferWriter writer = (ByteBufferWriter) out;
         if (this.isSerialized()) {
-          hdos.write(bb);
+          writer.write(bb);
         } else {
-          hdos.writeByte(DSCODE.BYTE_ARRAY);
-          InternalDataSerializer.writeArrayLength(bb.remaining(), hdos);
-          hdos.write(bb);
+          out.writeByte(DSCODE.BYTE_ARRAY);
+          InternalDataSerializer.writeArrayLength(bb.remaining(), out);
+          writer.write(bb);
         }
         return;
       }
@@ -300,14 +300,19 @@ public class OffHeapStoredObject extends AbstractStoredObject
     super.sendTo(out);
   }
 
+  /**
+   * If out can take a ByteBuffer (for example a HeapDataOutputStream, or the MsgStreamer used to
+   * send a DistributionMessage) then the off-heap data is handed to it as a direct ByteBuffer.
+   * This avoids copying the value into a heap byte[] that would only be copied again into the
+   * stream's buffer.
+   */
   @Override
   public void sendAsByteArray(DataOutput out) throws IOException {
-    if (!isCompressed() && out instanceof HeapDataOutputStream) {
+    if (!isCompressed() && out instanceof ByteBufferWriter) {
       ByteBuffer bb = createDirectByteBuffer();
       if (bb != null) {
-        HeapDataOutputStream hdos = (HeapDataOutputStream) out;
-        InternalDataSerializer.writeArrayLength(bb.remaining(), hdos);
-        hdos.write(bb);
+        InternalDataSerializer.writeArrayLength(bb.remaining(), out);
+        ((ByteBufferWriter) out).write(bb);
         return;
       }
     }
@@ -62,6 +62,45 @@ public class OffHeapStoredObjectAddressStack implements LongStack {
     return result;
   }
 
+  /**
+   * Pushes the count addresses of src starting at offset, taking the lock once.
+   */
+  public void offer(long[] src, int offset, int count) {
+    if (count == 0) {
+      return;
+    }
+    int last = offset + count - 1;
+    for (int i = offset; i < last; i++) {
+      assert src[i] != 0;
+      MemoryAllocatorImpl.validateAddress(src[i]);
+      OffHeapStoredObject.setNext(src[i], src[i + 1]);
+    }
+    assert src[last] != 0;
+    MemoryAllocatorImpl.validateAddress(src[last]);
+    synchronized (this) {
+      OffHeapStoredObject.setNext(src[last], this.topAddr);
+      this.topAddr = src[offset];
+    }
+  }
+
+  /**
+   * Pops up to max addresses into dest starting at offset, taking the lock once. Returns the number
+   * of addresses popped.
+   */
+  public int poll(long[] dest, int offset, int max) {
+    int count = 0;
+    synchronized (this) {
+      long addr = this.topAddr;
+      while (addr != 0L && count < max) {
+        dest[offset + count] = addr;
+        count++;
+        addr = OffHeapStoredObject.getNext(addr);
+      }
+      this.topAddr = addr;
+    }
+    return count;
+  }
+
   /**
    * Returns the address of the "top" item in this stack.
    */
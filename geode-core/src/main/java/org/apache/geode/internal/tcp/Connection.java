@@ -45,8 +45,10 @@ import java.nio.channels.ClosedSelectorException;
 import java.nio.channels.SocketChannel;
 import java.util.*;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 import static org.apache.geode.distributed.ConfigurationProperties.*;
 
@@ -194,6 +196,12 @@ public class Connection implements Runnable {
   /** output stream/channel lock */
   private final Object outLock = new Object();
 
+  /**
+   * Writes of other threads waiting for the outLock that the next writer to get it will combine
+   * with its own. Only used if {@link #COALESCE_WRITES} is enabled. Guarded by itself.
+   */
+  private final List<PendingWrite> pendingWrites = new ArrayList<PendingWrite>();
+
   /** the ID string of the conduit (for logging) */
   String conduitIdStr;
 
@@ -3340,6 +3348,116 @@ public class Connection implements Runnable {
     }
   }
 
+  /**
+   * If true, threads that send messages on the same shared connection at the same time have their
+   * messages written to the socket with a single gathering write by whichever thread gets the
+   * socket first, instead of one write per message.
+   */
+  private static final boolean COALESCE_WRITES = Boolean.getBoolean("p2p.coalesceWrites");
+
+  /**
+   * Number of microseconds the thread that writes coalesced messages waits for more messages to
+   * arrive before writing. Zero, the default, only combines messages that are already waiting.
+   */
+  private static final long COALESCE_LINGER_NANOS =
+      TimeUnit.MICROSECONDS.toNanos(Long.getLong("p2p.coalesceWritesLingerMicros", 0).longValue());
+
+  /** A message waiting to be written by {@link #coalescingWrite} */
+  private static final class PendingWrite {
+    final ByteBuffer buffer;
+    /** guarded by outLock */
+    boolean done;
+    /** guarded by outLock */
+    Throwable failure;
+
+    PendingWrite(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+  }
+
+  /**
+   * Writes the given buffer together with the buffers of all other threads that are waiting to
+   * write to this connection. Each thread still blocks until its own buffer has been written, so
+   * callers may reuse their buffer when this method returns.
+   */
+  void coalescingWrite(SocketChannel channel, ByteBuffer buffer, DistributionMessage msg,
+      DMStats stats) throws IOException, ConnectionException {
+    final PendingWrite write = new PendingWrite(buffer);
+    boolean first;
+    synchronized (this.pendingWrites) {
+      first = this.pendingWrites.isEmpty();
+      this.pendingWrites.add(write);
+    }
+    if (first && COALESCE_LINGER_NANOS > 0) {
+      // wait for more messages without holding the socket, which may be written to meanwhile
+      LockSupport.parkNanos(COALESCE_LINGER_NANOS);
+    }
+    long startLock = stats.startSocketLock();
+    synchronized (this.outLock) {
+      stats.endSocketLock(startLock);
+      if (!write.done) {
+        if (this.asyncQueuingInProgress) {
+          synchronized (this.pendingWrites) {
+            this.pendingWrites.remove(write);
+          }
+          if (!addToQueue(buffer, msg, false)) {
+            writeBuffers(channel, new ByteBuffer[] {buffer}, stats);
+          }
+          return;
+        }
+        PendingWrite[] writes;
+        synchronized (this.pendingWrites) {
+          writes = this.pendingWrites.toArray(new PendingWrite[this.pendingWrites.size()]);
+          this.pendingWrites.clear();
+        }
+        ByteBuffer[] buffers = new ByteBuffer[writes.length];
+        for (int i = 0; i < writes.length; i++) {
+          buffers[i] = writes[i].buffer;
+        }
+        Throwable failure = null;
+        try {
+          writeBuffers(channel, buffers, stats);
+          stats.incCoalescedWrites(writes.length);
+        } catch (Throwable t) {
+          // the other threads whose messages were not written must fail too, even on an Error
+          failure = t;
+          throw t;
+        } finally {
+          for (PendingWrite w : writes) {
+            w.failure = failure;
+            w.done = true;
+          }
+        }
+      } else if (write.failure != null) {
+        // another thread failed writing our message
+        if (write.failure instanceof ConnectionException) {
+          throw new ConnectionException(write.failure.getMessage(), write.failure);
+        }
+        if (write.failure instanceof RuntimeException) {
+          throw (RuntimeException) write.failure;
+        }
+        throw new IOException(write.failure.getMessage(), write.failure);
+      }
+    }
+  }
+
+  private void writeBuffers(SocketChannel channel, ByteBuffer[] buffers, DMStats stats)
+      throws IOException {
+    int first = 0;
+    while (first < buffers.length) {
+      long amtWritten = 0;
+      long start = stats.startSocketWrite(true);
+      try {
+        amtWritten = channel.write(buffers, first, buffers.length - first);
+      } finally {
+        stats.endSocketWrite(true, start, (int) amtWritten, 0);
+      }
+      while (first < buffers.length && buffers[first].remaining() == 0) {
+        first++;
+      }
+    }
+  }
+
   /**
    * nioWriteFully implements a blocking write on a channel that is in non-blocking mode.
    * 
@@ -3359,6 +3477,10 @@ public class Connection implements Runnable {
         }
         // fall through
       }
+      if (COALESCE_WRITES && this.sharedResource && !this.isReceiver) {
+        coalescingWrite(channel, buffer, msg, stats);
+        return;
+      }
       long startLock = stats.startSocketLock();
       synchronized (this.outLock) {
         stats.endSocketLock(startLock);
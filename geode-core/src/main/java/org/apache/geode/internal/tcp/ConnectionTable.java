@@ -95,6 +95,22 @@ public class ConnectionTable {
   // ThreadLocal<Map>
   private final ThreadLocal threadOrderedConnMap;
 
+  /**
+   * Members this thread sends ordered messages to over the shared ordered connection although it
+   * owns its resources, because the member already had the maximum number of thread-owned
+   * connections. The thread keeps using the shared connection for such a member so that the order
+   * of its messages is preserved.
+   */
+  // ThreadLocal<Set>
+  private final ThreadLocal threadSharedOrderedMembers;
+
+  /**
+   * List of the threadSharedOrderedMembers sets, so that departed members can be removed from them
+   * 
+   * @see #threadSharedOrderedMembers
+   */
+  private final List threadSharedOrderedMemberSets;
+
   /**
    * List of thread-owned ordered connection maps, for cleanup
    * 
@@ -152,6 +168,20 @@ public class ConnectionTable {
   private final static long READER_POOL_KEEP_ALIVE_TIME =
       Long.getLong("p2p.READER_POOL_KEEP_ALIVE_TIME", 120).longValue();
 
+  /**
+   * Maximum number of thread-owned ordered connections to a single member. Threads that would
+   * exceed this limit send their ordered messages to that member over the shared ordered
+   * connection instead, so that a large number of sending threads does not create a socket and a
+   * reader thread per thread on every member. Zero, the default, means no limit. This is a soft
+   * limit; threads forming connections concurrently may exceed it slightly.
+   * <p>
+   * This only mitigates the socket and thread growth of conserve-sockets=false. It does not
+   * multiplex the threads over a few connections: the threads over the limit share one ordered
+   * connection, with its usual head of line blocking, instead of getting channels of their own.
+   */
+  private final static int MAX_THREAD_OWNED_CONNECTIONS_PER_MEMBER =
+      Integer.getInteger("p2p.MAX_THREAD_OWNED_CONNECTIONS_PER_MEMBER", 0).intValue();
+
   private final SocketCloser socketCloser;
 
   /**
@@ -222,6 +252,8 @@ public class ConnectionTable {
     this.idleConnTimer = (this.owner.idleConnectionTimeout != 0)
         ? new SystemTimer(c.getDM().getSystem(), true) : null;
     this.threadOrderedConnMap = new ThreadLocal();
+    this.threadSharedOrderedMembers = new ThreadLocal();
+    this.threadSharedOrderedMemberSets = new ArrayList();
     this.threadConnMaps = new ArrayList();
     this.threadConnectionMap = new ConcurrentHashMap();
     this.p2pReaderThreadPool = createThreadPoolForIO(c.getDM().getSystem().isShareSockets());
@@ -657,7 +689,7 @@ public class ConnectionTable {
     }
     Connection result = null;
     boolean threadOwnsResources = threadOwnsResources();
-    if (!preserveOrder || !threadOwnsResources) {
+    if (!preserveOrder || !threadOwnsResources || threadSharesOrderedConnection(id)) {
       result = getUnorderedOrConserveSockets(id, threadOwnsResources, preserveOrder, startTime,
           ackTimeout, ackSATimeout);
     } else {
@@ -669,6 +701,104 @@ public class ConnectionTable {
     return result;
   }
 
+  /**
+   * Returns true if the current thread, although it owns its resources, has to use the shared
+   * ordered connection to the given member because of
+   * {@link #MAX_THREAD_OWNED_CONNECTIONS_PER_MEMBER}.
+   */
+  private boolean threadSharesOrderedConnection(DistributedMember id) {
+    return threadSharesOrderedConnection(id, MAX_THREAD_OWNED_CONNECTIONS_PER_MEMBER);
+  }
+
+  boolean threadSharesOrderedConnection(DistributedMember id, int maxPerMember) {
+    if (maxPerMember <= 0) {
+      return false;
+    }
+    if (Boolean.TRUE.equals(getThreadOwnsResourcesRegistration())) {
+      // threads that asked for their own resources, like the readers that send replies, must not
+      // share a connection or they could deadlock with the thread they reply to
+      return false;
+    }
+    Set sharedMembers = (Set) this.threadSharedOrderedMembers.get();
+    if (sharedMembers != null) {
+      synchronized (sharedMembers) {
+        if (sharedMembers.contains(id)) {
+          return true;
+        }
+      }
+    }
+    Map m = (Map) this.threadOrderedConnMap.get();
+    if (m != null) {
+      synchronized (m) {
+        if (m.get(id) != null) {
+          // this thread already owns a connection to the member
+          return false;
+        }
+      }
+    }
+    if (getThreadOwnedConnectionCount(id) < maxPerMember) {
+      return false;
+    }
+    if (sharedMembers == null) {
+      sharedMembers = new HashSet();
+      synchronized (this.threadSharedOrderedMemberSets) {
+        // check for stale references and remove them.
+        for (Iterator it = this.threadSharedOrderedMemberSets.iterator(); it.hasNext();) {
+          Reference r = (Reference) it.next();
+          if (r.get() == null) {
+            it.remove();
+          }
+        } // for
+        this.threadSharedOrderedMemberSets.add(new WeakReference(sharedMembers));
+      } // synchronized
+      this.threadSharedOrderedMembers.set(sharedMembers);
+    }
+    synchronized (sharedMembers) {
+      sharedMembers.add(id);
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          "ConnectionTable: {} thread-owned connections to {} already exist; using the shared ordered connection",
+          maxPerMember, id);
+    }
+    return true;
+  }
+
+  /** Returns the number of thread-owned ordered connections to the given member */
+  int getThreadOwnedConnectionCount(DistributedMember id) {
+    ConcurrentMap cm = this.threadConnectionMap;
+    if (cm == null) {
+      return 0;
+    }
+    ArrayList al = (ArrayList) cm.get(id);
+    if (al == null) {
+      return 0;
+    }
+    synchronized (al) {
+      return al.size();
+    }
+  }
+
+  /**
+   * Forgets that threads were sharing the ordered connection to a member that has left, so that
+   * the sets do not keep growing in long-lived threads.
+   */
+  private void removeThreadSharedOrderedMember(DistributedMember memberID) {
+    synchronized (this.threadSharedOrderedMemberSets) {
+      for (Iterator it = this.threadSharedOrderedMemberSets.iterator(); it.hasNext();) {
+        Reference r = (Reference) it.next();
+        Set sharedMembers = (Set) r.get();
+        if (sharedMembers == null) {
+          it.remove();
+        } else {
+          synchronized (sharedMembers) {
+            sharedMembers.remove(memberID);
+          }
+        }
+      }
+    }
+  }
+
   protected synchronized void fileDescriptorsExhausted() {
     if (!ulimitWarningIssued) {
       ulimitWarningIssued = true;
@@ -765,6 +895,9 @@ public class ConnectionTable {
         this.threadConnMaps.clear();
       }
     }
+    synchronized (this.threadSharedOrderedMemberSets) {
+      this.threadSharedOrderedMemberSets.clear();
+    }
     {
       Executor localExec = this.p2pReaderThreadPool;
       if (localExec != null) {
@@ -852,6 +985,7 @@ public class ConnectionTable {
     if (this.closed) {
       return;
     }
+    removeThreadSharedOrderedMember(memberID);
     boolean needsRemoval = false;
     synchronized (this.orderedConnectionMap) {
       if (this.orderedConnectionMap.get(memberID) != null)
@@ -1867,6 +1867,22 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
    * existed upon construction of the iterator, and may (but is not guaranteed to) reflect any
    * modifications subsequent to construction.
    */
+  /**
+   * Returns an iterator over the values of one of <code>numParts</code> disjoint parts of this map.
+   * The map is split by segment, so iterating every part visits the same values as iterating
+   * {@link #values()}, and each part only walks its own segments. Parts are empty if the map has
+   * fewer segments than <code>numParts</code>.
+   *
+   * @param part the part to iterate, from 0 to <code>numParts - 1</code>
+   * @param numParts the number of parts the map is split into
+   */
+  public final Iterator<V> valuesInPart(int part, int numParts) {
+    if (part < 0 || part >= numParts) {
+      throw new IllegalArgumentException("part " + part + " is not in [0, " + numParts + ")");
+    }
+    return new ValueIterator(part, numParts);
+  }
+
   @Override
   public final Collection<V> values() {
     final Collection<V> vs = this.values;
@@ -1957,7 +1973,18 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
 
     int currentListIndex;
 
+    /** only the segments whose index modulo numParts is part are iterated */
+    final int part;
+
+    final int numParts;
+
     HashIterator() {
+      this(0, 1);
+    }
+
+    HashIterator(int part, int numParts) {
+      this.part = part;
+      this.numParts = numParts;
       this.currentSegmentIndex = CustomEntryConcurrentHashMap.this.segments.length;
       this.nextTableIndex = -1;
       this.currentList = new ArrayList<HashEntry<K, V>>(5);
@@ -2005,7 +2032,7 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
       while (this.currentSegmentIndex > 0) {
         final Segment<K, V> seg =
             CustomEntryConcurrentHashMap.this.segments[--this.currentSegmentIndex];
-        if (seg.count != 0) {
+        if (seg.count != 0 && this.currentSegmentIndex % this.numParts == this.part) {
           this.currentTable = seg.table;
           final ReentrantReadWriteLock.ReadLock listLock = seg.listUpdateLock.readLock();
           listLock.lock();
@@ -2077,6 +2104,14 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
 
   final class ValueIterator extends HashIterator implements Iterator<V>, Enumeration<V> {
 
+    ValueIterator() {
+      super();
+    }
+
+    ValueIterator(int part, int numParts) {
+      super(part, numParts);
+    }
+
     public V next() {
       return super.nextEntry().getMapValue();
     }
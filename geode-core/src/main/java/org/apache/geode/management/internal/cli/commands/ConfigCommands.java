@@ -297,10 +297,18 @@ public class ConfigCommands extends AbstractCommandsSupport {
           help = CliStrings.ALTER_RUNTIME_CONFIG__MESSAGE__SYNC__INTERVAL__HELP) Integer messageSyncInterval,
       @CliOption(key = {CliStrings.ALTER_RUNTIME_CONFIG__SEARCH__TIMEOUT},
           unspecifiedDefaultValue = CliMetaData.ANNOTATION_NULL_VALUE,
-          help = CliStrings.ALTER_RUNTIME_CONFIG__SEARCH__TIMEOUT__HELP) Integer searchTimeout) {
+          help = CliStrings.ALTER_RUNTIME_CONFIG__SEARCH__TIMEOUT__HELP) Integer searchTimeout,
+      @CliOption(key = {CliStrings.ALTER_RUNTIME_CONFIG__REBALANCE__MAX__BYTES__PER__SECOND},
+          unspecifiedDefaultValue = CliMetaData.ANNOTATION_NULL_VALUE,
+          help = CliStrings.ALTER_RUNTIME_CONFIG__REBALANCE__MAX__BYTES__PER__SECOND__HELP) Long rebalanceMaxBytesPerSecond,
+      @CliOption(key = {CliStrings.ALTER_RUNTIME_CONFIG__REBALANCE__MAX__MOVES__PER__MEMBER},
+          unspecifiedDefaultValue = CliMetaData.ANNOTATION_NULL_VALUE,
+          help = CliStrings.ALTER_RUNTIME_CONFIG__REBALANCE__MAX__MOVES__PER__MEMBER__HELP) Integer rebalanceMaxMovesPerMember) {
 
     Map<String, String> runTimeDistributionConfigAttributes = new HashMap<String, String>();
     Map<String, String> rumTimeCacheAttributes = new HashMap<String, String>();
+    // Attributes of the resource manager, which are not saved in the cluster configuration.
+    Map<String, String> runTimeResourceManagerAttributes = new HashMap<String, String>();
     Set<DistributedMember> targetMembers = new HashSet<DistributedMember>();
 
     try {
@@ -378,10 +386,24 @@ public class ConfigCommands extends AbstractCommandsSupport {
             searchTimeout.toString());
       }
 
-      if (!runTimeDistributionConfigAttributes.isEmpty() || !rumTimeCacheAttributes.isEmpty()) {
+      if (rebalanceMaxBytesPerSecond != null && rebalanceMaxBytesPerSecond >= 0) {
+        runTimeResourceManagerAttributes.put(
+            CliStrings.ALTER_RUNTIME_CONFIG__REBALANCE__MAX__BYTES__PER__SECOND,
+            rebalanceMaxBytesPerSecond.toString());
+      }
+
+      if (rebalanceMaxMovesPerMember != null && rebalanceMaxMovesPerMember >= 0) {
+        runTimeResourceManagerAttributes.put(
+            CliStrings.ALTER_RUNTIME_CONFIG__REBALANCE__MAX__MOVES__PER__MEMBER,
+            rebalanceMaxMovesPerMember.toString());
+      }
+
+      if (!runTimeDistributionConfigAttributes.isEmpty() || !rumTimeCacheAttributes.isEmpty()
+          || !runTimeResourceManagerAttributes.isEmpty()) {
         Map<String, String> allRunTimeAttributes = new HashMap<String, String>();
         allRunTimeAttributes.putAll(runTimeDistributionConfigAttributes);
         allRunTimeAttributes.putAll(rumTimeCacheAttributes);
+        allRunTimeAttributes.putAll(runTimeResourceManagerAttributes);
 
         ResultCollector<?, ?> rc = CliUtil.executeFunction(alterRunTimeConfigFunction,
             allRunTimeAttributes, targetMembers);
@@ -67,6 +67,14 @@ public class AlterRuntimeConfigFunction extends FunctionAdapter implements Inter
           cache.setSearchTimeout(Integer.parseInt(attributeValue));
         } else if (attributeName.equals(CliStrings.ALTER_RUNTIME_CONFIG__MESSAGE__SYNC__INTERVAL)) {
           cache.setMessageSyncInterval(Integer.parseInt(attributeValue));
+        } else if (attributeName
+            .equals(CliStrings.ALTER_RUNTIME_CONFIG__REBALANCE__MAX__BYTES__PER__SECOND)) {
+          cache.getResourceManager().getRebalanceThrottle()
+              .setMaxBytesPerSecond(Long.parseLong(attributeValue));
+        } else if (attributeName
+            .equals(CliStrings.ALTER_RUNTIME_CONFIG__REBALANCE__MAX__MOVES__PER__MEMBER)) {
+          cache.getResourceManager().getRebalanceThrottle()
+              .setMaxMovesPerMember(Integer.parseInt(attributeValue));
         } else {
           config.setAttribute(attributeName, attributeValue, ConfigSource.runtime());
         }
@@ -419,6 +419,14 @@ public class CliStrings {
   public static final String ALTER_RUNTIME_CONFIG__SEARCH__TIMEOUT = CacheXml.SEARCH_TIMEOUT;
   public static final String ALTER_RUNTIME_CONFIG__SEARCH__TIMEOUT__HELP =
       "Sets the number of seconds a cache get operation can spend searching for a value.";
+  public static final String ALTER_RUNTIME_CONFIG__REBALANCE__MAX__BYTES__PER__SECOND =
+      "rebalance-max-bytes-per-second";
+  public static final String ALTER_RUNTIME_CONFIG__REBALANCE__MAX__BYTES__PER__SECOND__HELP =
+      "Sets the number of bytes per second a member may send when copying buckets for rebalancing or redundancy recovery. 0 means no limit.";
+  public static final String ALTER_RUNTIME_CONFIG__REBALANCE__MAX__MOVES__PER__MEMBER =
+      "rebalance-max-moves-per-member";
+  public static final String ALTER_RUNTIME_CONFIG__REBALANCE__MAX__MOVES__PER__MEMBER__HELP =
+      "Sets the number of buckets a rebalance directed by a member may copy to one member at the same time. 0 means no limit.";
 
 
   public static final String ALTER_RUNTIME_CONFIG__SUCCESS__MESSAGE =
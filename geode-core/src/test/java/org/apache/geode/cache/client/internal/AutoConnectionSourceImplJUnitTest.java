@@ -51,6 +51,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -431,6 +432,10 @@ public class AutoConnectionSourceImplJUnitTest {
       return background;
     }
 
+    public ExecutorService getCursorReaders() {
+      return null;
+    }
+
     public Object executeOn(Connection con, Op op) {
       return null;
     }
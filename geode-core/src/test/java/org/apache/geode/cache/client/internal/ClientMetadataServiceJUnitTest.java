@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.cache.BucketServerLocation66;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class ClientMetadataServiceJUnitTest {
+
+  private static final String REGION_PATH = "/region";
+
+  private ClientMetadataService cms;
+
+  private LocalRegion region;
+
+  private ClientPartitionAdvisor advisor;
+
+  private List<Integer> keys;
+
+  @Before
+  public void setUp() {
+    this.cms = new ClientMetadataService(mock(Cache.class));
+    this.region = mock(LocalRegion.class);
+    when(this.region.getFullPath()).thenReturn(REGION_PATH);
+    this.advisor = new ClientPartitionAdvisor(2, null, null, null);
+    this.keys = new ArrayList<Integer>();
+    for (int i = 0; i < 20; i++) {
+      this.keys.add(i);
+    }
+  }
+
+  @Test
+  public void bulkOpKeysAreGroupedByPrimary() {
+    addBucket(0, 40001, true);
+    addBucket(1, 40002, true);
+
+    Map<ServerLocation, HashSet> serverToKeys =
+        this.cms.getServerToFilterMapForBulkOp(this.keys, this.region);
+
+    assertThat(serverToKeys).hasSize(2);
+    assertThat(allKeys(serverToKeys)).containsOnlyElementsOf(this.keys).hasSameSizeAs(this.keys);
+  }
+
+  @Test
+  public void bulkOpKeysOfBucketWithoutPrimaryGoToAServerHostingTheBucket() {
+    addBucket(0, 40001, true);
+    addBucket(1, 40002, false);
+
+    Map<ServerLocation, HashSet> serverToKeys =
+        this.cms.getServerToFilterMapForBulkOp(this.keys, this.region);
+
+    // the keys of bucket 1 are forwarded by its secondary, not sent to every server
+    assertThat(serverToKeys).containsOnlyKeys(new ServerLocation("localhost", 40001),
+        new ServerLocation("localhost", 40002));
+    assertThat(allKeys(serverToKeys)).containsOnlyElementsOf(this.keys).hasSameSizeAs(this.keys);
+  }
+
+  @Test
+  public void bulkOpKeysOfBucketWithoutAnyKnownCopyGoToARandomServer() {
+    // no location is known for bucket 1
+    addBucket(0, 40001, true);
+
+    Map<ServerLocation, HashSet> serverToKeys =
+        this.cms.getServerToFilterMapForBulkOp(this.keys, this.region);
+
+    assertThat(serverToKeys).containsOnlyKeys(new ServerLocation("localhost", 40001));
+    assertThat(allKeys(serverToKeys)).containsOnlyElementsOf(this.keys).hasSameSizeAs(this.keys);
+  }
+
+  @Test
+  public void bulkOpKeysAreNotGroupedWithoutMetadata() {
+    assertThat(this.cms.getServerToFilterMapForBulkOp(this.keys, this.region)).isNull();
+  }
+
+  private void addBucket(int bucketId, int port, boolean isPrimary) {
+    this.cms.getClientPRMetadata_TEST_ONLY().put(REGION_PATH, this.advisor);
+    BucketServerLocation66 location =
+        new BucketServerLocation66(bucketId, port, "localhost", isPrimary, (byte) 0, new String[0]);
+    this.advisor.updateBucketServerLocations(bucketId, Arrays.asList(location), this.cms);
+  }
+
+  private List<Object> allKeys(Map<ServerLocation, HashSet> serverToKeys) {
+    List<Object> allKeys = new ArrayList<Object>();
+    for (HashSet serverKeys : serverToKeys.values()) {
+      allKeys.addAll(serverKeys);
+    }
+    return allKeys;
+  }
+}
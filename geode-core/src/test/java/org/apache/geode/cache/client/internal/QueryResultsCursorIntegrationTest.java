@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.client.PoolManager;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.internal.DefaultQuery;
+import org.apache.geode.cache.query.internal.QueryExecutionCanceledException;
+import org.apache.geode.cache.server.CacheServer;
+import org.apache.geode.distributed.DistributedSystem;
+import org.apache.geode.internal.AvailablePortHelper;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+import com.jayway.awaitility.Awaitility;
+
+/**
+ * Executes queries with a cursor against a cache server in the same JVM. The pool has a single
+ * connection so every query after the first one checks that the cursor gave it back.
+ */
+@Category({IntegrationTest.class, ClientServerTest.class})
+public class QueryResultsCursorIntegrationTest {
+
+  private static final int NUM_ENTRIES = 1000;
+
+  private static final String QUERY = "select * from /cursorRegion";
+
+  private Cache cache;
+
+  private PoolImpl pool;
+
+  @Before
+  public void setUp() throws Exception {
+    Properties props = new Properties();
+    props.setProperty(MCAST_PORT, "0");
+    props.setProperty(LOCATORS, "");
+    this.cache = CacheFactory.create(DistributedSystem.connect(props));
+    Region<Integer, Integer> region =
+        this.cache.<Integer, Integer>createRegionFactory(RegionShortcut.REPLICATE)
+            .create("cursorRegion");
+    for (int i = 0; i < NUM_ENTRIES; i++) {
+      region.put(i, i);
+    }
+    int port = AvailablePortHelper.getRandomAvailableTCPPort();
+    CacheServer server = this.cache.addCacheServer();
+    server.setPort(port);
+    server.start();
+    this.pool = (PoolImpl) PoolManager.createFactory().addServer("localhost", port)
+        .setMaxConnections(1).setRetryAttempts(0).create("cursorPool");
+  }
+
+  @After
+  public void tearDown() {
+    if (this.cache != null && !this.cache.isClosed()) {
+      this.cache.close();
+    }
+  }
+
+  @Test
+  public void cursorReturnsAllResults() throws Exception {
+    DefaultQuery query = (DefaultQuery) this.pool.getQueryService().newQuery(QUERY);
+    QueryResultsCursor cursor = query.executeWithCursor(2, new Object[0]);
+
+    Set<Object> results = new HashSet<Object>();
+    while (cursor.hasNext()) {
+      results.add(cursor.next());
+    }
+    assertEquals(NUM_ENTRIES, results.size());
+    assertEquals(NUM_ENTRIES, executeQuery().size());
+  }
+
+  @Test
+  public void closedCursorReturnsItsConnection() throws Exception {
+    QueryResultsCursor cursor = QueryOp.executeWithCursor(this.pool, QUERY, null, 1);
+    assertTrue(cursor.hasNext());
+    cursor.next();
+    cursor.close();
+
+    assertEquals(NUM_ENTRIES, executeQuery().size());
+  }
+
+  @Test
+  public void abandonedCursorReturnsItsConnection() throws Exception {
+    final QueryResultsCursor cursor =
+        QueryOp.executeWithCursor(this.pool, QUERY, null, new QueryResultsCursor(1, 200));
+
+    // the cursor is never read nor closed
+    Awaitility.await().atMost(30, TimeUnit.SECONDS)
+        .until(() -> assertTrue(cursor.isAbandoned()));
+    assertEquals(NUM_ENTRIES, executeQuery().size());
+    try {
+      cursor.hasNext();
+      fail("expected QueryExecutionCanceledException");
+    } catch (QueryExecutionCanceledException expected) {
+    }
+  }
+
+  @Test
+  public void destroyingThePoolReleasesTheCursor() throws Exception {
+    QueryResultsCursor cursor = QueryOp.executeWithCursor(this.pool, QUERY, null, 1);
+    assertTrue(cursor.hasNext());
+
+    this.pool.destroy();
+
+    try {
+      while (cursor.hasNext()) {
+        cursor.next();
+      }
+      fail("expected the iteration to fail once the pool is destroyed");
+    } catch (RuntimeException expected) {
+    }
+  }
+
+  private SelectResults executeQuery() throws Exception {
+    return (SelectResults) this.pool.getQueryService().newQuery(QUERY).execute();
+  }
+}
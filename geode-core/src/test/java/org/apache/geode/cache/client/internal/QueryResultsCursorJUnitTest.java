@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.client.ServerOperationException;
+import org.apache.geode.cache.query.internal.QueryExecutionCanceledException;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class QueryResultsCursorJUnitTest {
+
+  @Test
+  public void iteratesAllChunksInOrder() throws Exception {
+    QueryResultsCursor cursor = new QueryResultsCursor(4);
+    cursor.addChunk(Arrays.<Object>asList(1, 2));
+    cursor.addChunk(new ArrayList<Object>());
+    cursor.addChunk(Arrays.<Object>asList(3));
+    cursor.endOfResults(null);
+
+    List<Object> results = new ArrayList<Object>();
+    while (cursor.hasNext()) {
+      results.add(cursor.next());
+    }
+    assertEquals(Arrays.<Object>asList(1, 2, 3), results);
+    assertFalse(cursor.hasNext());
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void nextPastEndThrows() throws Exception {
+    QueryResultsCursor cursor = new QueryResultsCursor(1);
+    cursor.endOfResults(null);
+    cursor.next();
+  }
+
+  @Test
+  public void readerBlocksWhileConsumerIsBehind() throws Exception {
+    final QueryResultsCursor cursor = new QueryResultsCursor(1);
+    cursor.addChunk(Arrays.<Object>asList(1));
+    final AtomicBoolean secondChunkAdded = new AtomicBoolean();
+    final CountDownLatch done = new CountDownLatch(1);
+    Thread reader = new Thread(new Runnable() {
+      public void run() {
+        try {
+          cursor.addChunk(Arrays.<Object>asList(2));
+          secondChunkAdded.set(true);
+          cursor.endOfResults(null);
+        } catch (InterruptedException ignore) {
+        }
+        done.countDown();
+      }
+    });
+    reader.start();
+
+    assertFalse(done.await(300, TimeUnit.MILLISECONDS));
+    assertFalse(secondChunkAdded.get());
+
+    assertEquals(1, cursor.next());
+    assertEquals(2, cursor.next());
+    assertFalse(cursor.hasNext());
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void closeReleasesBlockedReader() throws Exception {
+    QueryResultsCursor cursor = new QueryResultsCursor(1);
+    assertTrue(cursor.addChunk(Arrays.<Object>asList(1)));
+    cursor.close();
+    assertFalse(cursor.addChunk(Arrays.<Object>asList(2)));
+    assertFalse(cursor.hasNext());
+  }
+
+  @Test
+  public void failureIsThrownToConsumerAfterBufferedResults() throws Exception {
+    QueryResultsCursor cursor = new QueryResultsCursor(2);
+    cursor.addChunk(Arrays.<Object>asList(1));
+    cursor.endOfResults(new ServerOperationException("expected"));
+
+    assertEquals(1, cursor.next());
+    try {
+      cursor.hasNext();
+      fail("expected ServerOperationException");
+    } catch (ServerOperationException expected) {
+      assertTrue(expected.getMessage().endsWith("expected"));
+    }
+  }
+
+  @Test
+  public void unreadCursorIsAbandonedAfterIdleTimeout() throws Exception {
+    QueryResultsCursor cursor = new QueryResultsCursor(1, 100);
+    assertTrue(cursor.addChunk(Arrays.<Object>asList(1)));
+
+    // nobody reads the cursor so the reader gives up instead of blocking forever
+    assertFalse(cursor.addChunk(Arrays.<Object>asList(2)));
+    assertTrue(cursor.isAbandoned());
+    assertTrue(cursor.isClosed());
+    try {
+      cursor.hasNext();
+      fail("expected QueryExecutionCanceledException");
+    } catch (QueryExecutionCanceledException expected) {
+    }
+  }
+
+  @Test
+  public void cursorThatIsReadIsNotAbandoned() throws Exception {
+    final QueryResultsCursor cursor = new QueryResultsCursor(1, 500);
+    Thread reader = new Thread(new Runnable() {
+      public void run() {
+        try {
+          for (int i = 0; i < 5; i++) {
+            cursor.addChunk(Arrays.<Object>asList(i, i));
+          }
+          cursor.endOfResults(null);
+        } catch (InterruptedException ignore) {
+        }
+      }
+    });
+    reader.start();
+
+    int count = 0;
+    while (cursor.hasNext()) {
+      // each chunk takes longer to consume than the idle timeout, one element at a time
+      Thread.sleep(300);
+      cursor.next();
+      count++;
+    }
+    assertEquals(10, count);
+    assertFalse(cursor.isAbandoned());
+    reader.join(10000);
+  }
+
+  @Test
+  public void abortWakesBlockedConsumer() throws Exception {
+    final QueryResultsCursor cursor = new QueryResultsCursor(2);
+    cursor.addChunk(Arrays.<Object>asList(1));
+    final AtomicReference<Throwable> thrown = new AtomicReference<Throwable>();
+    Thread consumer = new Thread(new Runnable() {
+      public void run() {
+        try {
+          while (cursor.hasNext()) {
+            cursor.next();
+          }
+        } catch (Throwable t) {
+          thrown.set(t);
+        }
+      }
+    });
+    consumer.start();
+
+    Thread.sleep(100);
+    cursor.abort(new ServerOperationException("expected"));
+    consumer.join(10000);
+
+    assertFalse(consumer.isAlive());
+    assertTrue(thrown.get() instanceof ServerOperationException);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void requiresRoomForOneChunk() {
+    new QueryResultsCursor(0);
+  }
+}
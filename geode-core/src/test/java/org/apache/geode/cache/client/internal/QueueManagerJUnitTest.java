@@ -41,6 +41,7 @@ import java.net.Socket;
 import java.net.UnknownHostException;
 import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 
@@ -452,6 +453,10 @@ public class QueueManagerJUnitTest {
       return null;
     }
 
+    public ExecutorService getCursorReaders() {
+      return null;
+    }
+
     public CancelCriterion getCancelCriterion() {
       return new CancelCriterion() {
 
@@ -996,6 +996,135 @@ public abstract class GroupByTestImpl implements GroupByTestInterface {
         new Object[][] {{sr, null}});
   }
 
+  @Test
+  public void testAggregatesWithOrderByOnGroupColumn() throws Exception {
+    Region region = this.createRegion("portfolio", Portfolio.class);
+    Map<String, int[]> expected = new HashMap<String, int[]>();
+    for (int i = 1; i < 200; ++i) {
+      Portfolio pf = new Portfolio(i);
+      region.put("" + i, pf);
+      int[] countSumMax = expected.get(pf.status);
+      if (countSumMax == null) {
+        countSumMax = new int[3];
+        expected.put(pf.status, countSumMax);
+      }
+      countSumMax[0]++;
+      countSumMax[1] += pf.ID;
+      countSumMax[2] = Math.max(countSumMax[2], pf.ID);
+    }
+    String queryStr = "select p.status as status, count(*) as cnt, sum(p.ID) as summ, "
+        + "max(p.ID) as mx from /portfolio p where p.ID > 0 group by status order by status desc";
+    QueryService qs = CacheUtils.getQueryService();
+    SelectResults sr = (SelectResults) qs.newQuery(queryStr).execute();
+    assertTrue(sr.getCollectionType().getElementType().isStructType());
+    assertEquals(2, sr.size());
+
+    Iterator iter = sr.iterator();
+    for (String status : new String[] {"inactive", "active"}) {
+      Struct struct = (Struct) iter.next();
+      int[] countSumMax = expected.get(status);
+      assertEquals(status, struct.get("status"));
+      assertEquals(countSumMax[0], ((Number) struct.get("cnt")).intValue());
+      assertEquals(countSumMax[1], ((Number) struct.get("summ")).intValue());
+      assertEquals(countSumMax[2], ((Number) struct.get("mx")).intValue());
+    }
+  }
+
+  @Test
+  public void testDistinctGroupByWithAggregates() throws Exception {
+    Region region = this.createRegion("portfolio", Portfolio.class);
+    Map<Short, Integer> expectedCounts = new HashMap<Short, Integer>();
+    for (int i = 1; i < 200; ++i) {
+      Portfolio pf = new Portfolio(i);
+      pf.shortID = (short) (i % 7);
+      region.put("" + i, pf);
+      Integer count = expectedCounts.get(pf.shortID);
+      expectedCounts.put(pf.shortID, count == null ? 1 : count + 1);
+    }
+    String queryStr = "select distinct p.shortID as shid, count(*) as cnt, min(p.ID) as mn "
+        + "from /portfolio p where p.ID > 0 group by shid order by shid";
+    QueryService qs = CacheUtils.getQueryService();
+    SelectResults sr = (SelectResults) qs.newQuery(queryStr).execute();
+    assertEquals(7, sr.size());
+
+    short expectedShortID = 0;
+    for (Object o : sr) {
+      Struct struct = (Struct) o;
+      assertEquals(expectedShortID, ((Number) struct.get("shid")).shortValue());
+      assertEquals(expectedCounts.get(expectedShortID).intValue(),
+          ((Number) struct.get("cnt")).intValue());
+      // the smallest ID with this remainder
+      assertEquals(expectedShortID == 0 ? 7 : expectedShortID,
+          ((Number) struct.get("mn")).intValue());
+      expectedShortID++;
+    }
+  }
+
+  @Test
+  public void testGroupByNullGroup() throws Exception {
+    Region region = this.createRegion("portfolio", Portfolio.class);
+    int nullCount = 0;
+    int nullSum = 0;
+    for (int i = 1; i < 200; ++i) {
+      Portfolio pf = new Portfolio(i);
+      if (i % 3 == 0) {
+        pf.status = null;
+        nullCount++;
+        nullSum += pf.ID;
+      }
+      region.put("" + i, pf);
+    }
+    String queryStr = "select p.status as status, count(*) as cnt, sum(p.ID) as summ "
+        + "from /portfolio p where p.ID > 0 group by status";
+    QueryService qs = CacheUtils.getQueryService();
+    SelectResults sr = (SelectResults) qs.newQuery(queryStr).execute();
+    assertEquals(3, sr.size());
+
+    int total = 0;
+    boolean foundNullGroup = false;
+    for (Object o : sr) {
+      Struct struct = (Struct) o;
+      int count = ((Number) struct.get("cnt")).intValue();
+      total += count;
+      if (struct.get("status") == null) {
+        foundNullGroup = true;
+        assertEquals(nullCount, count);
+        assertEquals(nullSum, ((Number) struct.get("summ")).intValue());
+      }
+    }
+    assertTrue(foundNullGroup);
+    assertEquals(199, total);
+  }
+
+  @Test
+  public void testSingleAggregateProjection() throws Exception {
+    Region region = this.createRegion("portfolio", Portfolio.class);
+    int activeSum = 0;
+    int max = 0;
+    for (int i = 1; i < 200; ++i) {
+      Portfolio pf = new Portfolio(i);
+      region.put("" + i, pf);
+      if (pf.status.equals("active")) {
+        activeSum += pf.ID;
+      }
+      max = Math.max(max, pf.ID);
+    }
+    QueryService qs = CacheUtils.getQueryService();
+
+    // the results are not structs, the only row is the aggregated value itself
+    SelectResults sr = (SelectResults) qs
+        .newQuery("select sum(p.ID) from /portfolio p where p.status = 'active'").execute();
+    assertFalse(sr.getCollectionType().getElementType().isStructType());
+    assertEquals(1, sr.size());
+    assertEquals(activeSum, ((Number) sr.iterator().next()).intValue());
+
+    sr = (SelectResults) qs.newQuery("select max(p.ID) from /portfolio p where p.ID > 0")
+        .execute();
+    assertFalse(sr.getCollectionType().getElementType().isStructType());
+    assertEquals(1, sr.size());
+    assertEquals(max, ((Number) sr.iterator().next()).intValue());
+  }
+
   @Before
   public void setUp() throws Exception {
     CacheUtils.startCache();
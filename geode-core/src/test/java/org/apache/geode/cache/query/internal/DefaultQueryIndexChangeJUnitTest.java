@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.CacheUtils;
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Tests that a compiled query is only considered stale when the indexes of its own regions change.
+ */
+@Category(IntegrationTest.class)
+public class DefaultQueryIndexChangeJUnitTest {
+
+  private QueryService qs;
+
+  private Region portfolios;
+
+  @Before
+  public void setUp() throws Exception {
+    CacheUtils.startCache();
+    this.portfolios = CacheUtils.createRegion("portfolios", Portfolio.class);
+    CacheUtils.createRegion("others", Portfolio.class);
+    this.qs = CacheUtils.getQueryService();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    CacheUtils.closeCache();
+  }
+
+  @Test
+  public void onlyIndexChangesOnTheRegionsOfTheQueryMakeItStale() throws Exception {
+    Object[] params = new Object[] {1};
+    DefaultQuery query =
+        (DefaultQuery) this.qs.newQuery("select * from /portfolios p where p.ID = $1");
+    assertFalse(query.isIndexChangedSinceCompile(params));
+
+    this.qs.createIndex("othersID", "p.ID", "/others p");
+    assertFalse(query.isIndexChangedSinceCompile(params));
+
+    Index index = this.qs.createIndex("portfoliosID", "p.ID", "/portfolios p");
+    assertTrue(query.isIndexChangedSinceCompile(params));
+
+    DefaultQuery recompiled =
+        (DefaultQuery) this.qs.newQuery("select * from /portfolios p where p.ID = $1");
+    assertFalse(recompiled.isIndexChangedSinceCompile(params));
+    this.qs.removeIndex(index);
+    assertTrue(recompiled.isIndexChangedSinceCompile(params));
+  }
+
+  @Test
+  public void regionsPassedAsBindParametersAreChecked() throws Exception {
+    DefaultQuery query = (DefaultQuery) this.qs.newQuery("select * from $1 p where p.ID = $2");
+    Region others = CacheUtils.getRegion("/others");
+
+    this.qs.createIndex("portfoliosID", "p.ID", "/portfolios p");
+    assertTrue(query.isIndexChangedSinceCompile(new Object[] {this.portfolios, 1}));
+    assertFalse(query.isIndexChangedSinceCompile(new Object[] {others, 1}));
+  }
+
+  @Test
+  public void bucketIndexesDoNotMakePartitionedRegionQueriesStale() throws Exception {
+    Region<Integer, Portfolio> pr = CacheUtils.getCache()
+        .<Integer, Portfolio>createRegionFactory(RegionShortcut.PARTITION).create("pr");
+    this.qs.createIndex("prID", "p.ID", "/pr p");
+    Object[] params = new Object[] {1};
+    DefaultQuery query = (DefaultQuery) this.qs.newQuery("select * from /pr p where p.ID = $1");
+
+    // creates buckets, each of which gets its own copy of the index
+    for (int i = 0; i < 10; i++) {
+      pr.put(i, new Portfolio(i));
+    }
+    assertFalse(query.isIndexChangedSinceCompile(params));
+
+    this.qs.createIndex("prStatus", "p.status", "/pr p");
+    assertTrue(query.isIndexChangedSinceCompile(params));
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class DefaultQueryJUnitTest {
+
+  @Test
+  public void normalizeQueryStringCollapsesWhiteSpace() {
+    assertEquals("select * from /portfolio p where p.ID = $1",
+        DefaultQuery.normalizeQueryString(
+            "  select *\n  from /portfolio p\twhere   p.ID = $1 \n"));
+  }
+
+  @Test
+  public void normalizeQueryStringKeepsQuotedText() {
+    assertEquals("select * from /p where p.status = 'a  b' and p.\"my  field\" = 1",
+        DefaultQuery.normalizeQueryString(
+            "select * from /p where p.status = 'a  b'   and p.\"my  field\" = 1"));
+  }
+
+  @Test
+  public void normalizeQueryStringHandlesEscapedQuotes() {
+    assertEquals("select * from /p where p.name = 'it''s  here' and p.ID > 1",
+        DefaultQuery.normalizeQueryString(
+            "select * from /p where p.name = 'it''s  here'  and   p.ID > 1"));
+  }
+
+  @Test
+  public void normalizeQueryStringLeavesNormalizedStringUnchanged() {
+    String query = "select distinct * from /portfolio p where p.ID in set(1, 2)";
+    assertEquals(query, DefaultQuery.normalizeQueryString(query));
+  }
+
+  @Test
+  public void normalizeQueryStringRemovesLineComments() {
+    // the where clause is commented out in the second query only
+    assertEquals("select * from /p where p.ID = $1",
+        DefaultQuery.normalizeQueryString("select * from /p -- c\n where p.ID = $1"));
+    assertEquals("select * from /p",
+        DefaultQuery.normalizeQueryString("select * from /p -- c where p.ID = $1"));
+  }
+
+  @Test
+  public void normalizeQueryStringRemovesBlockComments() {
+    assertEquals("select * from /p where p.ID = $1",
+        DefaultQuery.normalizeQueryString("select * /* all\n fields */from /p where p.ID = $1"));
+    assertEquals("select * from /p /* open",
+        DefaultQuery.normalizeQueryString("select * from /p /* open"));
+  }
+
+  @Test
+  public void normalizeQueryStringKeepsCommentsInQuotedText() {
+    String query = "select * from /p where p.name = 'a -- b' or p.name = '/* c */'";
+    assertEquals(query, DefaultQuery.normalizeQueryString(query));
+  }
+}
@@ -18,11 +18,13 @@ import static org.junit.Assert.*;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.geode.test.junit.categories.DLockTest;
@@ -42,6 +44,7 @@ import org.apache.geode.distributed.internal.locks.DLockRequestProcessor.DLockRe
 import org.apache.geode.distributed.internal.locks.DLockService;
 import org.apache.geode.distributed.internal.locks.DLockToken;
 import org.apache.geode.distributed.internal.locks.RemoteThread;
+import org.apache.geode.distributed.internal.locks.ShardedDLockService;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.internal.util.StopWatch;
 import org.apache.geode.test.dunit.AsyncInvocation;
@@ -873,6 +876,245 @@ public class DistributedLockServiceDUnitTest extends JUnit4DistributedTestCase {
     assertEquals("More than one vm unlocked the tryLock", 1, unlockCount);
   }
 
+  @Test
+  public void testLockAllAndUnlockAll() {
+    final String serviceName = getUniqueName();
+    final Collection<String> names = Arrays.asList("a", "b", "c");
+
+    // controller is the grantor
+    remoteCreateService(serviceName);
+    DistributedLockService service = DistributedLockService.getServiceNamed(serviceName);
+    assertTrue(service.lock("x", -1, -1));
+    service.unlock("x");
+
+    VM vm = Host.getHost(0).getVM(0);
+    vm.invoke(() -> remoteCreateService(serviceName));
+    assertEquals(Boolean.TRUE, vm.invoke(() -> {
+      DistributedLockService dls = DistributedLockService.getServiceNamed(serviceName);
+      boolean locked = dls.lockAll(names, 0, -1);
+      for (String name : names) {
+        assertTrue(dls.isHeldByCurrentThread(name));
+      }
+      return locked;
+    }));
+
+    for (String name : names) {
+      assertFalse(service.lock(name, 0, -1));
+    }
+
+    vm.invoke(() -> {
+      DistributedLockService dls = DistributedLockService.getServiceNamed(serviceName);
+      dls.unlockAll(names);
+      assertEquals(1, ((DLockService) dls).getStats().getLockBatchWaitsCompleted());
+    });
+
+    assertTrue(service.lockAll(names, 0, -1));
+    service.unlock("b");
+    assertTrue(service.lock("b", 0, -1));
+    service.unlockAll(names);
+    for (String name : names) {
+      assertFalse(service.isHeldByCurrentThread(name));
+    }
+  }
+
+  @Test
+  public void testLockAllIsAllOrNothing() {
+    final String serviceName = getUniqueName();
+    final Collection<String> names = Arrays.asList("a", "b", "c");
+
+    // controller is the grantor and holds one of the locks
+    remoteCreateService(serviceName);
+    DistributedLockService service = DistributedLockService.getServiceNamed(serviceName);
+    assertTrue(service.lock("b", -1, -1));
+
+    VM vm = Host.getHost(0).getVM(0);
+    vm.invoke(() -> remoteCreateService(serviceName));
+    vm.invoke(() -> {
+      DistributedLockService dls = DistributedLockService.getServiceNamed(serviceName);
+      assertFalse(dls.lockAll(names, 100, -1));
+      for (String name : names) {
+        assertFalse(dls.isHeldByCurrentThread(name));
+      }
+      assertEquals(1, ((DLockService) dls).getStats().getLockBatchWaitsFailed());
+    });
+
+    // the locks granted before the conflict were released
+    assertTrue(service.lock("a", 0, -1));
+    assertTrue(service.lock("c", 0, -1));
+    service.unlockAll(names);
+
+    assertEquals(Boolean.TRUE, vm.invoke(() -> {
+      DistributedLockService dls = DistributedLockService.getServiceNamed(serviceName);
+      boolean locked = dls.lockAll(names, 0, -1);
+      dls.unlockAll(names);
+      return locked;
+    }));
+  }
+
+  @Test
+  public void testLockAllIsNotReentrant() {
+    final String serviceName = getUniqueName();
+    remoteCreateService(serviceName);
+    DistributedLockService service = DistributedLockService.getServiceNamed(serviceName);
+    assertTrue(service.lock("b", -1, -1));
+    try {
+      service.lockAll(Arrays.asList("a", "b"), 0, -1);
+      fail("Expected IllegalStateException");
+    } catch (IllegalStateException expected) {
+      // expected
+    }
+    assertTrue(service.lock("a", 0, -1));
+    service.unlockAll(Arrays.asList("a", "b"));
+  }
+
+  @Test
+  public void testExtendLeases() throws Exception {
+    final String serviceName = getUniqueName();
+    final Collection<String> names = Arrays.asList("a", "b");
+
+    // controller is the grantor
+    remoteCreateService(serviceName);
+    DistributedLockService service = DistributedLockService.getServiceNamed(serviceName);
+    assertTrue(service.lock("x", -1, -1));
+    service.unlock("x");
+
+    VM vm = Host.getHost(0).getVM(0);
+    vm.invoke(() -> remoteCreateService(serviceName));
+    vm.invoke(() -> {
+      DistributedLockService dls = DistributedLockService.getServiceNamed(serviceName);
+      assertTrue(dls.lockAll(names, 0, 1000));
+      assertTrue(dls.extendLeases(names, 60 * 1000));
+      assertEquals(1, ((DLockService) dls).getStats().getLeaseBatchExtensions());
+      try {
+        dls.extendLeases(Arrays.asList("a", "z"), 60 * 1000);
+        fail("Expected LockNotHeldException");
+      } catch (LockNotHeldException expected) {
+        // expected
+      }
+    });
+
+    Thread.sleep(2000);
+    for (String name : names) {
+      assertFalse(service.lock(name, 0, -1));
+    }
+
+    vm.invoke(() -> {
+      DistributedLockService dls = DistributedLockService.getServiceNamed(serviceName);
+      dls.unlockAll(names);
+    });
+    assertTrue(service.lockAll(names, 0, -1));
+    service.unlockAll(names);
+  }
+
+  @Test
+  public void testShardedService() throws Exception {
+    final String serviceName = getUniqueName();
+    final int shardCount = 4;
+    final Collection<String> names = new LinkedList<String>();
+    for (int i = 0; i < 20; i++) {
+      names.add("name" + i);
+    }
+
+    VM vm0 = Host.getHost(0).getVM(0);
+    VM vm1 = Host.getHost(0).getVM(1);
+    remoteCreateShardedService(serviceName, shardCount);
+    vm0.invoke(() -> remoteCreateShardedService(serviceName, shardCount));
+    vm1.invoke(() -> remoteCreateShardedService(serviceName, shardCount));
+
+    // every member claimed the grantor of a shard
+    assertEquals(1, countGrantorShards(serviceName));
+    assertEquals(1, (int) vm0.invoke(() -> countGrantorShards(serviceName)));
+    assertEquals(1, (int) vm1.invoke(() -> countGrantorShards(serviceName)));
+
+    DistributedLockService service = DistributedLockService.getServiceNamed(serviceName);
+    assertTrue(service instanceof ShardedDLockService);
+    for (String name : names) {
+      assertTrue(service.lock(name, 0, -1));
+    }
+    assertTrue(service.lockAll(Arrays.asList("a", "b", "c", "d", "e"), 0, -1));
+    service.unlockAll(Arrays.asList("a", "b", "c", "d", "e"));
+    assertTrue(service.lockAll(Collections.emptyList(), 0, -1));
+
+    // names using the identity hash code could be granted by a different shard in each member
+    try {
+      service.lock(new Object(), 0, -1);
+      fail("expected IllegalArgumentException");
+    } catch (IllegalArgumentException expected) {
+    }
+
+    // like a lock service that is not sharded, waiting for locks is not interrupted
+    final CountDownLatch held = new CountDownLatch(1);
+    Thread holder = new Thread(() -> {
+      service.lock("a", 0, -1);
+      held.countDown();
+      Wait.pause(500);
+      service.unlock("a");
+    });
+    holder.start();
+    held.await();
+    Thread.currentThread().interrupt();
+    boolean lockedAll = service.lockAll(Arrays.asList("a", "b", "c", "d", "e"), 30000, -1);
+    assertTrue(Thread.interrupted());
+    assertTrue(lockedAll);
+    service.unlockAll(Arrays.asList("a", "b", "c", "d", "e"));
+    ThreadUtils.join(holder, 30000);
+
+    // the locks granted by a departed grantor are recovered by its successor
+    vm1.invoke(() -> disconnectFromDS());
+    assertEquals(Boolean.FALSE, vm0.invoke(() -> {
+      DistributedLockService dls = DistributedLockService.getServiceNamed(serviceName);
+      for (String name : names) {
+        if (dls.lock(name, 0, -1)) {
+          return true;
+        }
+      }
+      return dls.lockAll(names, 0, -1);
+    }));
+
+    service.unlockAll(names);
+    assertEquals(Boolean.TRUE, vm0.invoke(() -> {
+      DistributedLockService dls = DistributedLockService.getServiceNamed(serviceName);
+      boolean locked = dls.lockAll(names, 0, -1);
+      dls.unlockAll(names);
+      return locked;
+    }));
+
+    DistributedLockService.destroy(serviceName);
+    assertNull(DistributedLockService.getServiceNamed(serviceName));
+  }
+
+  @Test
+  public void testShardedServiceRejectsDifferentShardCount() throws Exception {
+    final String serviceName = getUniqueName();
+    VM vm0 = Host.getHost(0).getVM(0);
+    vm0.invoke(() -> remoteCreateShardedService(serviceName, 4));
+
+    try {
+      DistributedLockService.create(serviceName, dlstSystem, 2);
+      fail("expected IllegalArgumentException");
+    } catch (IllegalArgumentException expected) {
+    }
+    assertNull(DistributedLockService.getServiceNamed(serviceName));
+
+    // the shards of a sharded service cannot be created as plain services
+    try {
+      DistributedLockService.create(serviceName + "#shard0", dlstSystem);
+      fail("expected IllegalArgumentException");
+    } catch (IllegalArgumentException expected) {
+    }
+
+    remoteCreateShardedService(serviceName, 4);
+    DistributedLockService service = DistributedLockService.getServiceNamed(serviceName);
+    assertTrue(service.lock("name", 0, -1));
+    assertEquals(Boolean.FALSE, vm0.invoke(() -> {
+      return DistributedLockService.getServiceNamed(serviceName).lock("name", 0, -1);
+    }));
+    service.unlock("name");
+
+    DistributedLockService.destroy(serviceName);
+    vm0.invoke(() -> DistributedLockService.destroy(serviceName));
+  }
+
   @Test
   public void testOneGetsThenOtherGets() throws Exception { // (numVMs, numThreadsPerVM)
     doOneGetsThenOtherGets(1, 1);
@@ -2950,6 +3192,28 @@ public class DistributedLockServiceDUnitTest extends JUnit4DistributedTestCase {
     logInfo("Created " + newService);
   }
 
+  /**
+   * Creates a new sharded DistributedLockService in a remote VM.
+   */
+  protected static void remoteCreateShardedService(String name, int shardCount) {
+    DistributedLockService newService = DistributedLockService.create(name, dlstSystem, shardCount);
+    logInfo("Created " + newService);
+  }
+
+  /**
+   * Returns the number of shards of the named sharded lock service granted by this member.
+   */
+  private static int countGrantorShards(String serviceName) {
+    ShardedDLockService service = ShardedDLockService.getServiceNamed(serviceName);
+    int count = 0;
+    for (int i = 0; i < service.getShardCount(); i++) {
+      if (DLockService.getInternalServiceNamed(serviceName + "#shard" + i).isLockGrantor()) {
+        count++;
+      }
+    }
+    return count;
+  }
+
   private static Object getLockAndIncrement(String serviceName, Object objectName, long timeout,
       long holdTime) throws Exception {
     logInfo("[getLockAndIncrement] In getLockAndIncrement");
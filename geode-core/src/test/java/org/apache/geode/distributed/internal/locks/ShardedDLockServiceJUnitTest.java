@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.locks;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.DLockTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, DLockTest.class})
+public class ShardedDLockServiceJUnitTest {
+
+  @Test
+  public void namesWithValueHashCodesAreHashedByValue() {
+    assertEquals("name".hashCode(), ShardedDLockService.getStableHashCode(new String("name")));
+    assertEquals(Long.valueOf(12).hashCode(),
+        ShardedDLockService.getStableHashCode(Long.valueOf(12)));
+    assertEquals(ShardedDLockService.getShardIndex(new String("name"), 7),
+        ShardedDLockService.getShardIndex(new String("name"), 7));
+  }
+
+  @Test
+  public void enumsAreHashedByName() {
+    assertEquals(
+        TimeUnit.class.getName().hashCode() * 31 + TimeUnit.SECONDS.name().hashCode(),
+        ShardedDLockService.getStableHashCode(TimeUnit.SECONDS));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void namesWithIdentityHashCodesAreRejected() {
+    ShardedDLockService.getShardIndex(new Object(), 4);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void serviceNamesOfShardsAreReserved() {
+    DLockService.validateServiceName("service" + ShardedDLockService.SHARD_SEPARATOR + "0");
+  }
+}
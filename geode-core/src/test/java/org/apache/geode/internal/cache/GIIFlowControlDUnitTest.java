@@ -73,6 +73,7 @@ public class GIIFlowControlDUnitTest extends JUnit4CacheTestCase {
       public void run() {
         InitialImageOperation.CHUNK_SIZE_IN_BYTES = origChunkSize;
         InitialImageOperation.CHUNK_PERMITS = origNumChunks;
+        InitialImageOperation.setParallelSeriesForTesting(0);
       }
     });
   }
@@ -99,6 +100,30 @@ public class GIIFlowControlDUnitTest extends JUnit4CacheTestCase {
 
   }
 
+  @Test
+  public void testLotsOfChunksInParallelSeries() throws Throwable {
+    Host host = Host.getHost(0);
+    VM vm0 = host.getVM(0);
+    VM vm1 = host.getVM(1);
+    Invoke.invokeInEveryVM(new SerializableRunnable("set chunk size and series") {
+      public void run() {
+        InitialImageOperation.CHUNK_SIZE_IN_BYTES = 10;
+        InitialImageOperation.CHUNK_PERMITS = 2;
+        InitialImageOperation.setParallelSeriesForTesting(4);
+      }
+    });
+
+    createRegion(vm0);
+
+    createData(vm0, 0, 50, "1234567890");
+
+    createRegion(vm1);
+
+    checkData(vm1, 0, 50, "1234567890");
+
+    closeCache(vm0);
+  }
+
   @Test
   public void testFlowControlHappening() throws Throwable {
     Host host = Host.getHost(0);
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.DataPolicy;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionFactory;
+import org.apache.geode.cache.Scope;
+import org.apache.geode.test.dunit.Host;
+import org.apache.geode.test.dunit.Invoke;
+import org.apache.geode.test.dunit.SerializableRunnable;
+import org.apache.geode.test.dunit.VM;
+import org.apache.geode.test.dunit.cache.internal.JUnit4CacheTestCase;
+import org.apache.geode.test.junit.categories.DistributedTest;
+
+@Category(DistributedTest.class)
+public class RegionImageSnapshotDUnitTest extends JUnit4CacheTestCase {
+
+  protected static final String REGION_NAME = "region";
+
+  @Override
+  public final void preTearDownCacheTestCase() throws Exception {
+    Invoke.invokeInEveryVM(new SerializableRunnable("reset snapshots") {
+      public void run() {
+        RegionImageSnapshot.TTL_MILLIS = 0;
+        RegionImageSnapshot.clear();
+      }
+    });
+  }
+
+  @Test
+  public void testDeltaGIIFromKeptImage() throws Throwable {
+    Host host = Host.getHost(0);
+    VM vm0 = host.getVM(0);
+    VM vm1 = host.getVM(1);
+    setSnapshotTTL(vm1, 60 * 1000);
+
+    createRegion(vm0);
+    createRegion(vm1);
+    putData(vm0, 0, 100, "a");
+
+    keepImageAndDisconnect(vm1);
+
+    putData(vm0, 100, 110, "a");
+    putData(vm0, 0, 1, "b");
+    destroyData(vm0, 1, 2);
+
+    createRegion(vm1);
+
+    checkData(vm1);
+    assertEquals(1, getDeltaGIICount(vm1));
+  }
+
+  @Test
+  public void testFullGIIWhenKeptImageExpired() throws Throwable {
+    Host host = Host.getHost(0);
+    VM vm0 = host.getVM(0);
+    VM vm1 = host.getVM(1);
+    setSnapshotTTL(vm1, 1);
+
+    createRegion(vm0);
+    createRegion(vm1);
+    putData(vm0, 0, 100, "a");
+
+    keepImageAndDisconnect(vm1);
+
+    putData(vm0, 100, 110, "a");
+    putData(vm0, 0, 1, "b");
+    destroyData(vm0, 1, 2);
+    Thread.sleep(10);
+
+    createRegion(vm1);
+
+    checkData(vm1);
+    assertEquals(0, getDeltaGIICount(vm1));
+  }
+
+  private void setSnapshotTTL(VM vm, final long ttl) {
+    vm.invoke(new SerializableRunnable("set snapshot ttl") {
+      public void run() {
+        RegionImageSnapshot.TTL_MILLIS = ttl;
+      }
+    });
+  }
+
+  private void createRegion(VM vm) {
+    vm.invoke(new SerializableRunnable("Create non persistent region") {
+      public void run() {
+        getCache();
+        RegionFactory rf = new RegionFactory();
+        rf.setDataPolicy(DataPolicy.REPLICATE);
+        rf.setScope(Scope.DISTRIBUTED_ACK);
+        rf.create(REGION_NAME);
+      }
+    });
+  }
+
+  /**
+   * Keeps the image of the region as a forced disconnect would and leaves the distributed system,
+   * so that the next cache has a new member id.
+   */
+  private void keepImageAndDisconnect(VM vm) {
+    vm.invoke(new SerializableRunnable("keep image and disconnect") {
+      public void run() {
+        RegionImageSnapshot.capture((DistributedRegion) getCache().getRegion(REGION_NAME));
+        disconnectFromDS();
+      }
+    });
+  }
+
+  private void putData(VM vm, final int startKey, final int endKey, final Object value) {
+    vm.invoke(new SerializableRunnable("put data") {
+      public void run() {
+        Region region = getCache().getRegion(REGION_NAME);
+        for (int i = startKey; i < endKey; i++) {
+          region.put(i, value);
+        }
+      }
+    });
+  }
+
+  private void destroyData(VM vm, final int startKey, final int endKey) {
+    vm.invoke(new SerializableRunnable("destroy data") {
+      public void run() {
+        Region region = getCache().getRegion(REGION_NAME);
+        for (int i = startKey; i < endKey; i++) {
+          region.destroy(i);
+        }
+      }
+    });
+  }
+
+  private void checkData(VM vm) {
+    vm.invoke(new SerializableRunnable("check data") {
+      public void run() {
+        Region region = getCache().getRegion(REGION_NAME);
+        assertEquals(109, region.size());
+        assertEquals("b", region.get(0));
+        assertFalse(region.containsKey(1));
+        for (int i = 2; i < 110; i++) {
+          assertEquals("On key " + i, "a", region.get(i));
+        }
+      }
+    });
+  }
+
+  private int getDeltaGIICount(VM vm) {
+    return (Integer) vm.invoke(() -> {
+      Cache cache = getCache();
+      return ((LocalRegion) cache.getRegion(REGION_NAME)).getCachePerfStats()
+          .getDeltaGetInitialImagesCompleted();
+    });
+  }
+}
@@ -48,12 +48,14 @@ public class TXManagerImplTest {
   DistributionManager dm;
   TXRemoteRollbackMessage rollbackMsg;
   TXRemoteCommitMessage commitMsg;
+  CachePerfStats cachePerfStats;
 
   @Before
   public void setUp() {
     Cache cache = Fakes.cache();
     dm = mock(DistributionManager.class);
-    txMgr = new TXManagerImpl(mock(CachePerfStats.class), cache);
+    cachePerfStats = mock(CachePerfStats.class);
+    txMgr = new TXManagerImpl(cachePerfStats, cache);
     txid = new TXId(null, 0);
     msg = mock(DestroyMessage.class);
     txCommitMsg = mock(TXCommitMessage.class);
@@ -189,6 +191,29 @@ public class TXManagerImplTest {
     assertTrue(txMgr.getLock(tx, txid));
   }
 
+  @Test
+  public void getLockRecordsWaitOnlyWhenContended() throws InterruptedException {
+    TXStateProxy tx = txMgr.getOrSetHostedTXState(txid, msg);
+    assertTrue(txMgr.getLock(tx, txid));
+    tx.getLock().unlock();
+    verify(cachePerfStats, never()).endTxHostedLockWait(anyLong());
+
+    tx.getLock().lock();
+    Thread t1 = new Thread(new Runnable() {
+      public void run() {
+        assertTrue(txMgr.getLock(tx, txid));
+        tx.getLock().unlock();
+      }
+    });
+    t1.start();
+    Awaitility.await().pollInterval(10, TimeUnit.MILLISECONDS).atMost(30, TimeUnit.SECONDS)
+        .until(() -> tx.getLock().hasQueuedThreads());
+    tx.getLock().unlock();
+    t1.join();
+
+    verify(cachePerfStats, times(1)).endTxHostedLockWait(anyLong());
+  }
+
   @Test
   public void masqueradeAsCanGetLock() throws InterruptedException {
     TXStateProxy tx;
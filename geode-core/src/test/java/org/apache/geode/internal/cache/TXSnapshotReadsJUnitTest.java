@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.CommitConflictException;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Tests transactions reading with {@link TXState#SNAPSHOT_READS}
+ */
+@Category(IntegrationTest.class)
+public class TXSnapshotReadsJUnitTest {
+
+  private GemFireCacheImpl cache;
+  private Region<String, String> region;
+  private TXManagerImpl txMgr;
+
+  @Before
+  public void setUp() throws Exception {
+    TXState.SNAPSHOT_READS = true;
+    Properties props = new Properties();
+    props.put(MCAST_PORT, "0");
+    props.put(LOCATORS, "");
+    cache = (GemFireCacheImpl) new CacheFactory(props).create();
+    region = cache.<String, String>createRegionFactory(RegionShortcut.REPLICATE)
+        .create("testRegion");
+    txMgr = cache.getTxManager();
+    region.put("a", "1");
+    region.put("b", "1");
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    TXState.SNAPSHOT_READS = false;
+    cache.close();
+  }
+
+  @Test
+  public void readsDoNotCreateTXEntryStates() throws Exception {
+    txMgr.begin();
+    assertEquals("1", region.get("a"));
+    assertTrue(region.containsKey("b"));
+    assertFalse(region.containsKey("c"));
+    TXRegionState txr = getTXState().readRegion((LocalRegion) region);
+    assertNotNull(txr);
+    assertTrue(txr.getEntryKeys().isEmpty());
+    txMgr.commit();
+  }
+
+  @Test
+  public void readSeesOwnWrites() throws Exception {
+    txMgr.begin();
+    assertEquals("1", region.get("a"));
+    region.put("a", "2");
+    assertEquals("2", region.get("a"));
+    txMgr.commit();
+    assertEquals("2", region.get("a"));
+  }
+
+  @Test
+  public void commitFailsIfReadEntryChanged() throws Exception {
+    txMgr.begin();
+    assertEquals("1", region.get("a"));
+    region.put("b", "2");
+    TXStateProxy tx = txMgr.internalSuspend();
+    region.put("a", "3");
+    txMgr.resume(tx);
+    try {
+      txMgr.commit();
+      fail("expected CommitConflictException");
+    } catch (CommitConflictException expected) {
+    }
+    assertEquals("1", region.get("b"));
+  }
+
+  @Test
+  public void commitFailsIfAbsentEntryWasCreated() throws Exception {
+    txMgr.begin();
+    assertNull(region.get("c"));
+    TXStateProxy tx = txMgr.internalSuspend();
+    region.put("c", "1");
+    txMgr.resume(tx);
+    try {
+      txMgr.commit();
+      fail("expected CommitConflictException");
+    } catch (CommitConflictException expected) {
+    }
+  }
+
+  @Test
+  public void commitSucceedsIfOtherEntryChanged() throws Exception {
+    txMgr.begin();
+    assertEquals("1", region.get("a"));
+    region.put("b", "2");
+    TXStateProxy tx = txMgr.internalSuspend();
+    region.put("c", "1");
+    txMgr.resume(tx);
+    txMgr.commit();
+    assertEquals("2", region.get("b"));
+  }
+
+  @Test
+  public void readOnlyTransactionLocksTheKeysRead() throws Exception {
+    Region<String, String> local =
+        cache.<String, String>createRegionFactory(RegionShortcut.LOCAL).create("localRegion");
+    local.put("a", "1");
+    txMgr.begin();
+    assertEquals("1", local.get("a"));
+    TXRegionState txr = getTXState().readRegion((LocalRegion) local);
+    TXLockRequest req = new TXLockRequest();
+    txr.createLockRequest((LocalRegion) local, req);
+    TXRegionLockRequestImpl rlr =
+        (TXRegionLockRequestImpl) req.getRegionLockRequest(local.getFullPath());
+    assertNotNull(rlr);
+    assertEquals(Collections.singleton("a"), rlr.getKeys());
+    txMgr.commit();
+  }
+
+  @Test
+  public void keysReadCannotBeWrittenWhileCommitting() throws Exception {
+    final Region<String, String> local =
+        cache.<String, String>createRegionFactory(RegionShortcut.LOCAL).create("localRegion");
+    local.put("a", "1");
+    final AtomicReference<Throwable> writerFailure = new AtomicReference<Throwable>();
+    txMgr.begin();
+    assertEquals("1", local.get("a"));
+    getTXState().setAfterReservation(() -> {
+      Thread writer = new Thread(() -> {
+        txMgr.begin();
+        local.put("a", "2");
+        try {
+          txMgr.commit();
+        } catch (Throwable t) {
+          writerFailure.set(t);
+        }
+      });
+      writer.start();
+      try {
+        writer.join(30000);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    txMgr.commit();
+    assertTrue(writerFailure.get() instanceof CommitConflictException);
+    assertEquals("1", local.get("a"));
+  }
+
+  @Test
+  public void partitionedRegionReadsAreChecked() throws Exception {
+    Region<String, String> pr =
+        cache.<String, String>createRegionFactory(RegionShortcut.PARTITION).create("prRegion");
+    pr.put("a", "1");
+    pr.put("b", "1");
+    txMgr.begin();
+    // containsKey reads through the partitioned region rather than the bucket
+    assertTrue(pr.containsKey("a"));
+    BucketRegion bucket = ((PartitionedRegion) pr).getDataStore().getLocalBucketByKey("a");
+    TXRegionState txr = getTXState().readRegion(bucket);
+    assertNotNull(txr);
+    assertTrue(txr.getEntryKeys().isEmpty());
+    pr.put("b", "2");
+    TXStateProxy tx = txMgr.internalSuspend();
+    pr.put("a", "3");
+    txMgr.resume(tx);
+    try {
+      txMgr.commit();
+      fail("expected CommitConflictException");
+    } catch (CommitConflictException expected) {
+    }
+    assertEquals("1", pr.get("b"));
+  }
+
+  @Test
+  public void collectedTombstoneIsNotAConflict() throws Exception {
+    region.destroy("a");
+    txMgr.begin();
+    assertNull(region.get("a"));
+    region.put("b", "2");
+    TXStateProxy tx = txMgr.internalSuspend();
+    assertTrue(cache.getTombstoneService().forceBatchExpirationForTests(1));
+    assertNull(((LocalRegion) region).getRegionMap().getEntry("a"));
+    txMgr.resume(tx);
+    txMgr.commit();
+    assertEquals("2", region.get("b"));
+  }
+
+  @Test
+  public void recreatedEntryIsAConflict() throws Exception {
+    region.destroy("a");
+    txMgr.begin();
+    assertNull(region.get("a"));
+    TXStateProxy tx = txMgr.internalSuspend();
+    region.put("a", "2");
+    txMgr.resume(tx);
+    try {
+      txMgr.commit();
+      fail("expected CommitConflictException");
+    } catch (CommitConflictException expected) {
+    }
+  }
+
+  private TXState getTXState() {
+    return (TXState) ((TXStateProxyImpl) txMgr.getTXState()).getRealDeal(null, null);
+  }
+}
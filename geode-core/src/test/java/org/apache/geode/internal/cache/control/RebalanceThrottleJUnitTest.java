@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.control;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.DistributedMember;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class RebalanceThrottleJUnitTest {
+
+  private ResourceManagerStats stats;
+
+  @Before
+  public void setUp() {
+    this.stats = mock(ResourceManagerStats.class);
+  }
+
+  @Test
+  public void unlimitedThrottleDoesNotWait() {
+    FakeClockThrottle throttle = new FakeClockThrottle(this.stats, 0, 0);
+
+    throttle.throttleBytes(1000000);
+    throttle.throttleBytes(1000000);
+
+    assertThat(throttle.sleeps).isEmpty();
+    verify(this.stats, never()).incRebalanceBytesThrottleTime(anyLong());
+  }
+
+  @Test
+  public void throttleBytesPacesChunksAtMaxRate() {
+    FakeClockThrottle throttle = new FakeClockThrottle(this.stats, 1000, 0);
+
+    // the first chunk is sent at once, the next ones wait for the earlier ones to drain
+    throttle.throttleBytes(500);
+    throttle.throttleBytes(500);
+    throttle.throttleBytes(1000);
+
+    long halfSecond = TimeUnit.MILLISECONDS.toNanos(500);
+    assertThat(throttle.sleeps).containsExactly(halfSecond, 2 * halfSecond);
+    verify(this.stats).incRebalanceBytesThrottleTime(halfSecond);
+    verify(this.stats).incRebalanceBytesThrottleTime(2 * halfSecond);
+  }
+
+  @Test
+  public void idleThrottleDoesNotAccumulateCredit() {
+    FakeClockThrottle throttle = new FakeClockThrottle(this.stats, 1000, 0);
+
+    throttle.throttleBytes(1000);
+    throttle.now += TimeUnit.SECONDS.toNanos(10);
+    throttle.throttleBytes(1000);
+    throttle.throttleBytes(1000);
+
+    assertThat(throttle.sleeps).containsExactly(TimeUnit.SECONDS.toNanos(1));
+  }
+
+  @Test
+  public void negativeLimitsAreRejected() {
+    RebalanceThrottle throttle = new RebalanceThrottle(this.stats, 0, 0);
+
+    assertThatThrownBy(() -> throttle.setMaxBytesPerSecond(-1))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> throttle.setMaxMovesPerMember(-1))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void startMoveWaitsForEndMoveWhenBudgetIsUsed() throws Exception {
+    RebalanceThrottle throttle = new RebalanceThrottle(this.stats, 0, 1);
+    DistributedMember target = mock(DistributedMember.class);
+    DistributedMember other = mock(DistributedMember.class);
+
+    throttle.startMove(target);
+    // the budget is per target member
+    throttle.startMove(other);
+
+    CountDownLatch started = new CountDownLatch(1);
+    Thread mover = new Thread(() -> {
+      throttle.startMove(target);
+      started.countDown();
+    });
+    mover.start();
+
+    assertThat(started.await(200, TimeUnit.MILLISECONDS)).isFalse();
+    throttle.endMove(target);
+    assertThat(started.await(30, TimeUnit.SECONDS)).isTrue();
+    mover.join();
+    verify(this.stats).incRebalanceMovesThrottleTime(anyLong());
+  }
+
+  @Test
+  public void raisingBudgetReleasesWaitingMoves() throws Exception {
+    RebalanceThrottle throttle = new RebalanceThrottle(this.stats, 0, 1);
+    DistributedMember target = mock(DistributedMember.class);
+    throttle.startMove(target);
+
+    CountDownLatch started = new CountDownLatch(1);
+    Thread mover = new Thread(() -> {
+      throttle.startMove(target);
+      started.countDown();
+    });
+    mover.start();
+
+    assertThat(started.await(200, TimeUnit.MILLISECONDS)).isFalse();
+    throttle.setMaxMovesPerMember(0);
+    assertThat(started.await(30, TimeUnit.SECONDS)).isTrue();
+    mover.join();
+  }
+
+  /**
+   * A throttle whose clock only moves when the test moves it, and which records its sleeps.
+   */
+  private static class FakeClockThrottle extends RebalanceThrottle {
+    private final List<Long> sleeps = new ArrayList<>();
+
+    private long now = 1;
+
+    FakeClockThrottle(ResourceManagerStats stats, long maxBytesPerSecond, int maxMovesPerMember) {
+      super(stats, maxBytesPerSecond, maxMovesPerMember);
+    }
+
+    @Override
+    long nanoTime() {
+      return this.now;
+    }
+
+    @Override
+    void sleep(long nanos) {
+      this.sleeps.add(nanos);
+    }
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.lru;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class FrequencySketchJUnitTest {
+
+  @Test
+  public void frequencyCountsIncrementsUpToMaximum() {
+    FrequencySketch sketch = new FrequencySketch(1000);
+    assertEquals(0, sketch.frequency("key"));
+    for (int i = 1; i <= FrequencySketch.MAX_FREQUENCY; i++) {
+      sketch.increment("key");
+      assertEquals(i, sketch.frequency("key"));
+    }
+    sketch.increment("key");
+    assertEquals(FrequencySketch.MAX_FREQUENCY, sketch.frequency("key"));
+
+    sketch.clear();
+    assertEquals(0, sketch.frequency("key"));
+  }
+
+  @Test
+  public void countersAreHalvedAfterSampleSize() {
+    FrequencySketch sketch = new FrequencySketch(16);
+    for (int i = 0; i < 10; i++) {
+      sketch.increment("hot");
+    }
+    // ten increments for each counter of the table reaches the sample size
+    for (int i = 0; i < 10 * sketch.getTableSize(); i++) {
+      sketch.increment(i);
+    }
+    assertTrue(sketch.frequency("hot") < 10);
+  }
+
+  @Test
+  public void concurrentIncrementsAreNotLost() throws Exception {
+    final FrequencySketch sketch = new FrequencySketch(1000);
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int t = 0; t < 5; t++) {
+      Thread thread = new Thread(() -> {
+        for (int i = 0; i < 3; i++) {
+          sketch.increment("key");
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(FrequencySketch.MAX_FREQUENCY, sketch.frequency("key"));
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.lru;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+/**
+ * Tests how the continuous mode of {@link HeapEvictor} sizes its passes and shares them out.
+ */
+@Category(UnitTest.class)
+public class HeapEvictorJUnitTest {
+
+  @Test
+  public void bytesToEvictCoverDistanceToClearThreshold() {
+    assertEquals(400, HeapEvictor.getBytesToEvict(1000, 600, 0, 0, 100));
+  }
+
+  @Test
+  public void bytesToEvictExcludeBytesNotCollectedYet() {
+    assertEquals(150, HeapEvictor.getBytesToEvict(1000, 600, 250, 0, 100));
+    assertEquals(0, HeapEvictor.getBytesToEvict(1000, 600, 500, 0, 100));
+  }
+
+  @Test
+  public void bytesToEvictIncludeAllocationsUntilNextPass() {
+    // 10000 bytes per second for a tenth of a second
+    assertEquals(1400, HeapEvictor.getBytesToEvict(1000, 600, 0, 10000, 100));
+  }
+
+  @Test
+  public void bytesAreSharedInProportionToWeights() {
+    long[] shares = HeapEvictor.shareBytesToEvict(1000, new long[] {1, 3, 0, 6});
+    assertArrayEquals(new long[] {100, 300, 0, 600}, shares);
+  }
+
+  @Test
+  public void remainderGoesToHeaviestWeight() {
+    long[] shares = HeapEvictor.shareBytesToEvict(100, new long[] {1, 1, 1});
+    assertEquals(100, shares[0] + shares[1] + shares[2]);
+    assertEquals(34, shares[0]);
+  }
+
+  @Test
+  public void nothingIsSharedWithoutWeights() {
+    assertArrayEquals(new long[] {0, 0}, HeapEvictor.shareBytesToEvict(100, new long[] {0, 0}));
+    assertArrayEquals(new long[] {0, 0}, HeapEvictor.shareBytesToEvict(0, new long[] {1, 2}));
+  }
+
+  @Test
+  public void smoothedRateStartsAtFirstSample() {
+    assertEquals(500, HeapEvictor.smoothRate(0, 500), 0);
+    double rate = HeapEvictor.smoothRate(500, 1500);
+    assertTrue(rate > 500 && rate < 1500);
+  }
+}
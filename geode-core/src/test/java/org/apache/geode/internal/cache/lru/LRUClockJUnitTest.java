@@ -17,7 +17,11 @@ package org.apache.geode.internal.cache.lru;
 import static org.apache.geode.distributed.ConfigurationProperties.*;
 import static org.junit.Assert.*;
 
+import java.util.HashSet;
 import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -35,6 +39,7 @@ import org.apache.geode.cache.CacheExistsException;
 import org.apache.geode.cache.CacheFactory;
 import org.apache.geode.cache.EvictionAction;
 import org.apache.geode.cache.EvictionAlgorithm;
+import org.apache.geode.cache.EvictionAttributes;
 import org.apache.geode.cache.Region;
 import org.apache.geode.distributed.DistributedSystem;
 import org.apache.geode.internal.statistics.StatisticsTypeFactoryImpl;
@@ -240,6 +245,240 @@ public class LRUClockJUnitTest {
     assertEquals(null, clock.getLRUEntry());
   }
 
+  @Test
+  public void testStripedClockReturnsEveryEntryOnce() throws Exception {
+    StripedLRUClockHand clock = getAStripedClockHand(getARegion(), new TestEnableLRU(), 5);
+    assertEquals(8, clock.getStripeCount());
+
+    LRUTestEntry[] nodes = new LRUTestEntry[100];
+    for (int i = 0; i < 100; i++) {
+      nodes[i] = getANode(i);
+      clock.appendEntry(nodes[i]);
+      if (i % 2 == 0) {
+        nodes[i].setRecentlyUsed();
+      }
+    }
+    assertEquals(100, clock.size());
+    assertEquals(100, clock.getExpensiveListCount());
+
+    clock.unlinkEntry(nodes[7]);
+    assertEquals(99, clock.size());
+
+    // recently used entries are skipped until every other entry of their stripe has been returned
+    Set<LRUTestEntry> found = new HashSet<LRUTestEntry>();
+    for (int i = 0; i < 99; i++) {
+      LRUTestEntry n = (LRUTestEntry) clock.getLRUEntry();
+      assertNotNull("expected an entry after " + i + " returned", n);
+      assertTrue("nodes[" + n.id() + "] returned twice", found.add(n));
+      assertFalse(n.testRecentlyUsed());
+    }
+    assertFalse(found.contains(nodes[7]));
+    assertEquals(null, clock.getLRUEntry());
+    assertEquals(0, clock.size());
+  }
+
+  @Test
+  public void testStripedClockClear() throws Exception {
+    StripedLRUClockHand clock = getAStripedClockHand(getARegion(), new TestEnableLRU(), 4);
+    for (int i = 0; i < 10; i++) {
+      clock.appendEntry(getANode(i));
+    }
+    clock.clear(null);
+    assertEquals(0, clock.size());
+    assertEquals(0, clock.getExpensiveListCount());
+    assertEquals(null, clock.getLRUEntry());
+
+    LRUTestEntry node = getANode(10);
+    clock.appendEntry(node);
+    assertSame(node, clock.getLRUEntry());
+  }
+
+  @Test
+  public void testStripedClockConcurrentAppendAndEvict() throws Exception {
+    final StripedLRUClockHand clock =
+        getAStripedClockHand(getARegion(), new TestEnableLRU(), 16);
+    final int threadCount = 4;
+    final int entriesPerThread = 5000;
+    final AtomicInteger evicted = new AtomicInteger();
+    Thread[] threads = new Thread[threadCount];
+    for (int t = 0; t < threadCount; t++) {
+      final int base = t * entriesPerThread;
+      threads[t] = new Thread(new Runnable() {
+        public void run() {
+          for (int i = 0; i < entriesPerThread; i++) {
+            clock.appendEntry(getANode(base + i));
+            if (i % 2 == 1 && clock.getLRUEntry() != null) {
+              evicted.incrementAndGet();
+            }
+          }
+        }
+      });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(threadCount * entriesPerThread - evicted.get(), clock.size());
+    assertEquals(clock.size(), clock.getExpensiveListCount());
+  }
+
+  @Test
+  public void testStripeCountSelectedByRegionPath() throws Exception {
+    Region region = getARegion();
+    InternalRegionArguments args = new InternalRegionArguments();
+    assertEquals(1, StripedLRUClockHand.getStripeCount(region, args));
+    String property = StripedLRUClockHand.STRIPES_PROPERTY + "." + region.getFullPath();
+    System.setProperty(property, "8");
+    try {
+      assertEquals(8, StripedLRUClockHand.getStripeCount(region, args));
+      assertEquals(1, StripedLRUClockHand.getStripeCount(region.getParentRegion(), args));
+    } finally {
+      System.clearProperty(property);
+    }
+  }
+
+  @Test
+  public void testTinyLFURejectsInfrequentEntries() throws Exception {
+    TinyLFUClockHand clock = new TinyLFUClockHand(getARegion(), new TestEnableLRU(),
+        new InternalRegionArguments());
+    LRUTestEntry[] hot = new LRUTestEntry[10];
+    for (int i = 0; i < 10; i++) {
+      hot[i] = getANode(i);
+      clock.appendEntry(hot[i]);
+    }
+    clock.appendEntry(getANode(10));
+    assertEquals(1, clock.getWindowSize());
+    // appending an entry that is already in the list records a use of it
+    for (int n = 0; n < 3; n++) {
+      for (int i = 0; i < 10; i++) {
+        clock.appendEntry(hot[i]);
+      }
+    }
+    clock.stats().updateCounter(clock.stats().getLimit());
+
+    for (int i = 11; i < 100; i++) {
+      clock.appendEntry(getANode(i));
+      LRUTestEntry n = (LRUTestEntry) clock.getLRUEntry();
+      assertTrue("evicted frequently used nodes[" + n.id() + "]", n.id() >= 10);
+    }
+    assertEquals(11, clock.size());
+    assertEquals(89, clock.stats().getAdmissionRejects());
+    assertEquals(0, clock.stats().getAdmissions());
+  }
+
+  @Test
+  public void testTinyLFUAdmitsFrequentEntries() throws Exception {
+    TinyLFUClockHand clock = new TinyLFUClockHand(getARegion(), new TestEnableLRU(),
+        new InternalRegionArguments());
+    LRUTestEntry[] nodes = new LRUTestEntry[10];
+    for (int i = 0; i < 10; i++) {
+      nodes[i] = getANode(i);
+      clock.appendEntry(nodes[i]);
+    }
+    clock.stats().updateCounter(clock.stats().getLimit());
+
+    LRUTestEntry frequent = getANode(10);
+    for (int n = 0; n < 5; n++) {
+      clock.appendEntry(frequent);
+    }
+    assertEquals(2, clock.getWindowSize());
+
+    // nodes[9] was left in the window and is no more frequent than the head of the main list
+    assertSame(nodes[9], clock.getLRUEntry());
+    assertEquals(1, clock.stats().getAdmissionRejects());
+
+    clock.appendEntry(getANode(11));
+    assertSame(nodes[0], clock.getLRUEntry());
+    assertEquals(1, clock.stats().getAdmissions());
+    assertEquals(1, clock.getWindowSize());
+    assertEquals(10, clock.size());
+    assertEquals(10, clock.getExpensiveListCount());
+
+    clock.clear(null);
+    assertEquals(0, clock.size());
+    assertEquals(null, clock.getLRUEntry());
+  }
+
+  @Test
+  public void testTinyLFUConcurrentUpdateAndEvict() throws Exception {
+    final TinyLFUClockHand clock = new TinyLFUClockHand(getARegion(), new TestEnableLRU(),
+        new InternalRegionArguments());
+    final LRUTestEntry[] nodes = new LRUTestEntry[200];
+    for (int i = 0; i < nodes.length; i++) {
+      nodes[i] = getANode(i);
+      clock.appendEntry(nodes[i]);
+    }
+    // keep the window at its share of the list so that getLRUEntry compares window entries
+    clock.stats().updateCounter(clock.stats().getLimit());
+
+    final int opsPerThread = 50000;
+    Thread[] threads = new Thread[4];
+    for (int t = 0; t < threads.length; t++) {
+      final boolean evictor = t == 0;
+      final int seed = t;
+      threads[t] = new Thread(new Runnable() {
+        public void run() {
+          Random random = new Random(seed);
+          for (int i = 0; i < opsPerThread; i++) {
+            if (evictor) {
+              LRUClockNode n = clock.getLRUEntry();
+              if (n != null) {
+                // the entry is created again
+                clock.appendEntry(n);
+              }
+            } else {
+              // an update appends the entry again, which relinks it if the clock hand took it off
+              LRUTestEntry n = nodes[random.nextInt(nodes.length)];
+              synchronized (n) {
+                n.setRecentlyUsed();
+              }
+              clock.appendEntry(n);
+            }
+          }
+        }
+      });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    int size = clock.size();
+    assertEquals(size, clock.getExpensiveListCount());
+    // every node must be in the list at most once
+    Set<LRUClockNode> seen = new HashSet<LRUClockNode>();
+    for (int i = 0; i <= nodes.length; i++) {
+      LRUClockNode n = clock.getLRUEntry();
+      if (n == null) {
+        break;
+      }
+      assertTrue("node " + ((LRUTestEntry) n).id() + " was in the list twice", seen.add(n));
+    }
+    assertEquals(size, seen.size());
+    assertEquals(0, clock.size());
+  }
+
+  @Test
+  public void testLFURegionKeepsFrequentlyUsedEntriesDuringScan() throws Exception {
+    Region root = getARegion().getParentRegion();
+    AttributesFactory af = new AttributesFactory();
+    af.setEvictionAttributes(
+        EvictionAttributes.createLFUEntryAttributes(100, EvictionAction.LOCAL_DESTROY));
+    Region region = root.createSubregion(testName.getMethodName() + "LFU", af.create());
+    for (int n = 0; n < 5; n++) {
+      for (int i = 0; i < 50; i++) {
+        region.put("hot" + i, i);
+      }
+    }
+    for (int i = 0; i < 1000; i++) {
+      region.put("scan" + i, i);
+    }
+    assertEquals(100, region.size());
+    for (int i = 0; i < 50; i++) {
+      assertTrue("hot" + i + " was evicted", region.containsKey("hot" + i));
+    }
+  }
+
   /** manufacture a node so that a shared type can be used by SharedLRUClockTest. */
   private LRUTestEntry getANode(int id) {
     return new LocalLRUTestEntry(id);
@@ -372,6 +611,12 @@ public class LRUClockJUnitTest {
       final String lruDestroysDesc = "Number of entry destroys triggered by LRU.";
       final String lruDestroysLimitDesc =
           "Maximum number of entry destroys triggered by LRU before scan occurs.";
+      final String lruListLockWaitsDesc =
+          "Number of times an LRU list operation waited for a list stripe locked by another thread.";
+      final String lruAdmissionsDesc =
+          "Number of entries admitted by LFU eviction in place of a less frequently used entry.";
+      final String lruAdmissionRejectsDesc =
+          "Number of new entries evicted by LFU eviction as existing entries were used more often.";
 
       statType = f.createType("TestLRUStatistics",
           "Statistics about byte based Least Recently Used region entry disposal",
@@ -381,7 +626,10 @@ public class LRUClockJUnitTest {
               f.createLongCounter("lruEvaluations", lruEvaluationsDesc, "entries"),
               f.createLongCounter("lruGreedyReturns", lruGreedyReturnsDesc, "entries"),
               f.createLongCounter("lruDestroys", lruDestroysDesc, "entries"),
-              f.createLongCounter("lruDestroysLimit", lruDestroysLimitDesc, "entries"),});
+              f.createLongCounter("lruDestroysLimit", lruDestroysLimitDesc, "entries"),
+              f.createLongCounter("lruListLockWaits", lruListLockWaitsDesc, "operations"),
+              f.createLongCounter("lruAdmissions", lruAdmissionsDesc, "entries"),
+              f.createLongCounter("lruAdmissionRejects", lruAdmissionRejectsDesc, "entries"),});
     }
 
     @Override
@@ -458,6 +706,21 @@ public class LRUClockJUnitTest {
       return statType.nameToId("lruGreedyReturns");
     }
 
+    @Override
+    public int getListLockWaitsStatId() {
+      return statType.nameToId("lruListLockWaits");
+    }
+
+    @Override
+    public int getAdmissionsStatId() {
+      return statType.nameToId("lruAdmissions");
+    }
+
+    @Override
+    public int getAdmissionRejectsStatId() {
+      return statType.nameToId("lruAdmissionRejects");
+    }
+
     @Override
     public boolean mustEvict(LRUStatistics stats, Region region, int delta) {
       throw new UnsupportedOperationException("Not implemented");
@@ -490,6 +753,10 @@ public class LRUClockJUnitTest {
     return new NewLRUClockHand(reg, elru, new InternalRegionArguments());
   }
 
+  private StripedLRUClockHand getAStripedClockHand(Region reg, EnableLRU elru, int stripes) {
+    return new StripedLRUClockHand(reg, elru, new InternalRegionArguments(), stripes);
+  }
+
   private Region getARegion() throws Exception {
     DistributedSystem ds = DistributedSystem.connect(sysProps);
     Cache c = null;
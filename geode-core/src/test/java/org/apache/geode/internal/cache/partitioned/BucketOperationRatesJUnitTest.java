@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.partitioned;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class BucketOperationRatesJUnitTest {
+
+  @Test
+  public void ratesAreZeroUntilFirstSample() {
+    BucketOperationRates rates = new BucketOperationRates(0);
+    rates.recordRead();
+    rates.recordWrite();
+
+    assertThat(rates.getReadRate(500)).isZero();
+    assertThat(rates.getWriteRate(500)).isZero();
+  }
+
+  @Test
+  public void firstSampleIsAverageSinceCreation() {
+    BucketOperationRates rates = new BucketOperationRates(0);
+    for (int i = 0; i < 40; i++) {
+      rates.recordRead();
+    }
+    for (int i = 0; i < 10; i++) {
+      rates.recordWrite();
+    }
+
+    assertThat(rates.getReadRate(2000)).isEqualTo(20f);
+    assertThat(rates.getWriteRate(2000)).isEqualTo(5f);
+  }
+
+  @Test
+  public void laterSamplesAreSmoothed() {
+    BucketOperationRates rates = new BucketOperationRates(0);
+    for (int i = 0; i < 10; i++) {
+      rates.recordWrite();
+    }
+    assertThat(rates.getWriteRate(1000)).isEqualTo(10f);
+
+    // no writes in the next second halves the rate
+    assertThat(rates.getWriteRate(2000)).isEqualTo(5f);
+  }
+
+  @Test
+  public void samplesCloserThanMinimumIntervalReturnPreviousRate() {
+    BucketOperationRates rates = new BucketOperationRates(0);
+    for (int i = 0; i < 10; i++) {
+      rates.recordRead();
+    }
+    assertThat(rates.getReadRate(1000)).isEqualTo(10f);
+
+    for (int i = 0; i < 100; i++) {
+      rates.recordRead();
+    }
+    assertThat(rates.getReadRate(1000 + BucketOperationRates.MIN_SAMPLE_INTERVAL_MILLIS - 1))
+        .isEqualTo(10f);
+  }
+}
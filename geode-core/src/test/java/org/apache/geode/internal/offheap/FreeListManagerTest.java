@@ -71,6 +71,16 @@ public class FreeListManagerTest {
     this.freeListManager = createFreeListManager(ma, new Slab[] {slab});
   }
 
+  private void setUpMagazineManager(final int capacity) {
+    Slab slab = new SlabImpl(DEFAULT_SLAB_SIZE);
+    this.freeListManager = new TestableFreeListManager(ma, new Slab[] {slab}) {
+      @Override
+      protected int getMagazineCapacity() {
+        return capacity;
+      }
+    };
+  }
+
   @Test
   public void usedMemoryIsZeroOnDefault() {
     setUpSingleSlabManager();
@@ -451,6 +461,124 @@ public class FreeListManagerTest {
         .isEqualTo(originalFragment.getAddress() + (16 + 8));
   }
 
+  @Test
+  public void freedTinyChunkIsReallocatedFromMagazine() {
+    setUpMagazineManager(4);
+    OffHeapStoredObject c1 = freeListManager.allocate(64 - 8);
+    OffHeapStoredObject.release(c1.getAddress(), freeListManager);
+
+    assertThat(this.freeListManager.getFreeTinyMemory()).isEqualTo(64);
+    assertThat(this.freeListManager.allocate(64 - 8).getAddress()).isEqualTo(c1.getAddress());
+    assertThat(this.freeListManager.getFreeTinyMemory()).isZero();
+    verify(this.stats).incMagazineMisses(1);
+  }
+
+  @Test
+  public void fullMagazineReturnsHalfToFreeList() throws Exception {
+    setUpMagazineManager(4);
+    final List<Long> freed = new ArrayList<Long>();
+    for (int i = 0; i < 5; i++) {
+      freed.add(freeListManager.allocate(64 - 8).getAddress());
+    }
+    for (long addr : freed) {
+      OffHeapStoredObject.release(addr, freeListManager);
+    }
+
+    // another thread refills its own magazine from the two chunks returned to the free list
+    final List<Long> allocated = new ArrayList<Long>();
+    Thread t = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        allocated.add(freeListManager.allocate(64 - 8).getAddress());
+        allocated.add(freeListManager.allocate(64 - 8).getAddress());
+      }
+    });
+    t.start();
+    t.join();
+    assertThat(allocated).containsOnly(freed.get(2), freed.get(3));
+    assertThat(this.freeListManager.getFreeTinyMemory()).isEqualTo(3 * 64);
+  }
+
+  @Test
+  public void chunksOverMagazineMaxSizeAreNotCached() {
+    setUpMagazineManager(4);
+    OffHeapStoredObject c1 = freeListManager.allocate(2048 - 8);
+    OffHeapStoredObject.release(c1.getAddress(), freeListManager);
+
+    assertThat(this.freeListManager.allocate(2048 - 8).getAddress()).isEqualTo(c1.getAddress());
+    verify(this.stats, never()).incMagazineMisses(anyLong());
+  }
+
+  @Test
+  public void defragmentFreeListsDrainsMagazines() {
+    setUpMagazineManager(4);
+    OffHeapStoredObject c1 = freeListManager.allocate(64 - 8);
+    OffHeapStoredObject c2 = freeListManager.allocate(64 - 8);
+    OffHeapStoredObject.release(c1.getAddress(), freeListManager);
+    OffHeapStoredObject.release(c2.getAddress(), freeListManager);
+
+    assertThat(this.freeListManager.doDefragmentFreeLists()).isTrue();
+
+    assertThat(this.freeListManager.getFreeTinyMemory()).isZero();
+    assertThat(this.freeListManager.getFreeMemory()).isEqualTo(DEFAULT_SLAB_SIZE);
+  }
+
+  @Test
+  public void defragmentFreeListsCombinesAdjacentFreedChunks() {
+    setUpSingleSlabManager();
+    OffHeapStoredObject c1 = freeListManager.allocate(64 - 8);
+    OffHeapStoredObject c2 = freeListManager.allocate(64 - 8);
+    OffHeapStoredObject c3 = freeListManager.allocate(64 - 8);
+    OffHeapStoredObject c4 = freeListManager.allocate(64 - 8);
+    OffHeapStoredObject.release(c1.getAddress(), freeListManager);
+    OffHeapStoredObject.release(c2.getAddress(), freeListManager);
+    OffHeapStoredObject.release(c4.getAddress(), freeListManager);
+
+    assertThat(this.freeListManager.doDefragmentFreeLists()).isTrue();
+
+    assertThat(this.freeListManager.getFragmentList()).hasSize(2);
+    Fragment combined = this.freeListManager.getFragmentList().get(1);
+    assertThat(combined.getAddress()).isEqualTo(c1.getAddress());
+    assertThat(combined.getSize()).isEqualTo(128);
+    assertThat(this.freeListManager.getUsedMemory()).isEqualTo(64);
+    // c4 has no free neighbor so it went back to its free list
+    assertThat(this.freeListManager.allocate(64 - 8).getAddress()).isEqualTo(c4.getAddress());
+  }
+
+  @Test
+  public void defragmentFreeListsWithoutAdjacentChunksReturnsFalse() {
+    setUpSingleSlabManager();
+    OffHeapStoredObject c1 = freeListManager.allocate(64 - 8);
+    freeListManager.allocate(64 - 8);
+    OffHeapStoredObject c3 = freeListManager.allocate(64 - 8);
+    freeListManager.allocate(64 - 8);
+    OffHeapStoredObject.release(c1.getAddress(), freeListManager);
+    OffHeapStoredObject.release(c3.getAddress(), freeListManager);
+
+    assertThat(this.freeListManager.doDefragmentFreeLists()).isFalse();
+
+    assertThat(this.freeListManager.getFragmentList()).hasSize(1);
+    assertThat(this.freeListManager.getFreeTinyMemory()).isEqualTo(128);
+  }
+
+  @Test
+  public void freeListFragmentationIsShareOfFreeMemoryInFreeLists() {
+    setUpSingleSlabManager();
+    assertThat(this.freeListManager.getFreeListFragmentation()).isEqualTo(0);
+    OffHeapStoredObject c1 = freeListManager.allocate(DEFAULT_SLAB_SIZE / 2 - 8);
+    OffHeapStoredObject c2 = freeListManager.allocate(DEFAULT_SLAB_SIZE / 2 - 8);
+    OffHeapStoredObject.release(c1.getAddress(), freeListManager);
+    assertThat(this.freeListManager.getFreeListFragmentation()).isEqualTo(100);
+
+    OffHeapStoredObject.release(c2.getAddress(), freeListManager);
+    assertThat(this.freeListManager.defragmentFreeLists()).isTrue();
+
+    assertThat(this.freeListManager.getFreeListFragmentation()).isEqualTo(0);
+    assertThat(this.freeListManager.getFreeHugeMemory()).isEqualTo(0);
+    verify(this.stats).setFreeListFragmentation(0);
+    verify(this.stats).endBackgroundDefragmentation(anyLong());
+  }
+
   @Test
   public void allocationsThatLeaveLessThanMinChunkSizeFreeInAFragment() {
     int SMALL_SLAB = 16;
@@ -113,6 +113,48 @@ public class NullOffHeapMemoryStats implements OffHeapMemoryStats {
     return 0;
   }
 
+  @Override
+  public long startBackgroundDefragmentation() {
+    return 0;
+  }
+
+  @Override
+  public void endBackgroundDefragmentation(long start) {}
+
+  @Override
+  public int getBackgroundDefragmentations() {
+    return 0;
+  }
+
+  @Override
+  public long getBackgroundDefragmentationTime() {
+    return 0;
+  }
+
+  @Override
+  public void setFreeListFragmentation(int value) {}
+
+  @Override
+  public int getFreeListFragmentation() {
+    return 0;
+  }
+
+  @Override
+  public void incMagazineHits(long value) {}
+
+  @Override
+  public long getMagazineHits() {
+    return 0;
+  }
+
+  @Override
+  public void incMagazineMisses(long value) {}
+
+  @Override
+  public long getMagazineMisses() {
+    return 0;
+  }
+
   @Override
   public void close() {
     this.isClosed = true;
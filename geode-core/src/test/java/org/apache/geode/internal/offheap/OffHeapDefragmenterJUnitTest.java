@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.contrib.java.lang.system.RestoreSystemProperties;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class OffHeapDefragmenterJUnitTest {
+
+  private final MemoryAllocatorImpl ma = mock(MemoryAllocatorImpl.class);
+  private final FreeListManager freeList = mock(FreeListManager.class);
+  private final OffHeapMemoryStats stats = mock(OffHeapMemoryStats.class);
+
+  @Rule
+  public final RestoreSystemProperties restoreSystemProperties = new RestoreSystemProperties();
+
+  @Before
+  public void setUp() throws Exception {
+    when(ma.getFreeListManager()).thenReturn(freeList);
+    when(ma.getStats()).thenReturn(stats);
+  }
+
+  @Test
+  public void isDisabledByDefault() {
+    assertThat(OffHeapDefragmenter.create(ma)).isNull();
+  }
+
+  @Test
+  public void isEnabledByInterval() {
+    System.setProperty(OffHeapDefragmenter.INTERVAL_PROPERTY, "1000");
+    assertThat(OffHeapDefragmenter.create(ma)).isNotNull();
+  }
+
+  @Test
+  public void doesNotDefragmentBelowThreshold() {
+    OffHeapDefragmenter defragmenter = new OffHeapDefragmenter(ma, 1000, 30);
+    when(freeList.getFreeListFragmentation()).thenReturn(29);
+
+    assertThat(defragmenter.defragmentIfNeeded()).isFalse();
+
+    verify(stats).setFreeListFragmentation(29);
+    verify(freeList, never()).defragmentFreeLists();
+  }
+
+  @Test
+  public void defragmentsAtThreshold() {
+    OffHeapDefragmenter defragmenter = new OffHeapDefragmenter(ma, 1000, 30);
+    when(freeList.getFreeListFragmentation()).thenReturn(30);
+    when(freeList.defragmentFreeLists()).thenReturn(true);
+
+    assertThat(defragmenter.defragmentIfNeeded()).isTrue();
+    assertThat(defragmenter.defragmentIfNeeded()).isTrue();
+
+    verify(freeList, times(2)).defragmentFreeLists();
+  }
+
+  @Test
+  public void doesNotRepeatFruitlessDefragmentationUntilFragmentationGrows() {
+    OffHeapDefragmenter defragmenter = new OffHeapDefragmenter(ma, 1000, 30);
+    when(freeList.getFreeListFragmentation()).thenReturn(50);
+    when(freeList.defragmentFreeLists()).thenReturn(false);
+
+    assertThat(defragmenter.defragmentIfNeeded()).isTrue();
+    assertThat(defragmenter.defragmentIfNeeded()).isFalse();
+
+    when(freeList.getFreeListFragmentation()).thenReturn(51);
+    assertThat(defragmenter.defragmentIfNeeded()).isTrue();
+
+    verify(freeList, times(2)).defragmentFreeLists();
+  }
+
+  @Test
+  public void stopEndsThread() throws Exception {
+    OffHeapDefragmenter defragmenter = new OffHeapDefragmenter(ma, 1, 30);
+    when(freeList.getFreeListFragmentation()).thenReturn(0);
+    defragmenter.start();
+    defragmenter.stop();
+
+    verify(freeList, never()).defragmentFreeLists();
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.apache.geode.distributed.ConfigurationProperties.OFF_HEAP_MEMORY_SIZE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.EntryExistsException;
+import org.apache.geode.cache.EntryNotFoundException;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionFactory;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Checks that the off-heap keys of region entries do not leak when concurrent operations on the
+ * same keys create entries that are then discarded.
+ */
+@Category(IntegrationTest.class)
+public class OffHeapRegionKeyIntegrationTest {
+
+  private static final String KEY_PREFIX = "a key that is too long to be inlined in the entry ";
+
+  private static final int KEYS = 10;
+
+  private static final int THREADS = 8;
+
+  private static final int OPS_PER_THREAD = 20000;
+
+  private Cache cache;
+
+  @BeforeClass
+  public static void enableOffHeapKeys() {
+    // read once when OffHeapRegionKeyHelper is loaded; integration tests run in their own JVM
+    System.setProperty(DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_REGION_KEYS", "true");
+  }
+
+  @Before
+  public void setUp() {
+    Properties props = new Properties();
+    props.setProperty(MCAST_PORT, "0");
+    props.setProperty(LOCATORS, "");
+    props.setProperty(OFF_HEAP_MEMORY_SIZE, "8m");
+    this.cache = new CacheFactory(props).create();
+  }
+
+  @After
+  public void tearDown() {
+    this.cache.close();
+    MemoryAllocatorImpl.freeOffHeapMemory();
+  }
+
+  @Test
+  public void createDestroyRaceDoesNotLeakKeys() throws Exception {
+    assertThat(OffHeapRegionKeyHelper.OFF_HEAP_REGION_KEYS).isTrue();
+    RegionFactory<String, String> rf = this.cache.createRegionFactory();
+    rf.setOffHeap(true);
+    rf.setConcurrencyChecksEnabled(false);
+    final Region<String, String> region = rf.create("createDestroyRaceDoesNotLeakKeys");
+    MemoryAllocatorImpl ma = MemoryAllocatorImpl.getAllocator();
+    long baseline = ma.getUsedMemory();
+
+    final CyclicBarrier barrier = new CyclicBarrier(THREADS);
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < THREADS; t++) {
+        final int thread = t;
+        futures.add(executor.submit(() -> {
+          barrier.await();
+          for (int i = 0; i < OPS_PER_THREAD; i++) {
+            String key = KEY_PREFIX + (i % KEYS);
+            try {
+              switch ((i + thread) % 3) {
+                case 0:
+                  region.create(key, "value");
+                  break;
+                case 1:
+                  region.put(key, "value");
+                  break;
+                default:
+                  region.destroy(key);
+                  break;
+              }
+            } catch (EntryExistsException | EntryNotFoundException expected) {
+              // another thread won the race
+            }
+          }
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(5, TimeUnit.MINUTES);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    for (String key : new ArrayList<>(region.keySet())) {
+      region.destroy(key);
+    }
+    assertThat(region).isEmpty();
+    assertThat(ma.getUsedMemory()).isEqualTo(baseline);
+  }
+}
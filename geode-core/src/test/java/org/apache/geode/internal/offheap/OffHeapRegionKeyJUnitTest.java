@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.util.ObjectSizer;
+import org.apache.geode.internal.cache.VMThinRegionEntryOffHeapObjectKey;
+import org.apache.geode.internal.cache.VMThinRegionEntryOffHeapOffHeapStringKey;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class OffHeapRegionKeyJUnitTest {
+
+  private static final String KEY = "a key that is too long to be inlined";
+
+  private MemoryAllocatorImpl ma;
+
+  @Before
+  public void setUp() {
+    this.ma = MemoryAllocatorImpl.createForUnitTest(new NullOutOfOffHeapMemoryListener(),
+        new NullOffHeapMemoryStats(), new SlabImpl[] {new SlabImpl(1024 * 1024)});
+  }
+
+  @After
+  public void tearDown() {
+    MemoryAllocatorImpl.freeOffHeapMemory();
+  }
+
+  @Test
+  public void keyIsStoredOffHeapOnceEntryIsAddedToMap() {
+    VMThinRegionEntryOffHeapOffHeapStringKey re =
+        new VMThinRegionEntryOffHeapOffHeapStringKey(null, KEY, null);
+
+    // an entry that loses the race to be added to the map must not allocate anything
+    assertThat(this.ma.getUsedMemory()).isZero();
+    assertThat(re.getKey()).isEqualTo(KEY);
+    assertThat(re.isKeyEqual(KEY)).isTrue();
+
+    re.moveKeyOffHeap();
+
+    assertThat(this.ma.getUsedMemory()).isGreaterThan(KEY.length());
+    assertThat(re.getKey()).isEqualTo(KEY);
+    assertThat(re.isKeyEqual(KEY)).isTrue();
+    assertThat(re.isKeyEqual(KEY + "x")).isFalse();
+    assertThat(re.isKeyEqual(KEY.substring(1) + "b")).isFalse();
+    assertThat(re.isKeyEqual(Integer.valueOf(1))).isFalse();
+  }
+
+  @Test
+  public void keyWithWideCharsIsStoredOffHeap() {
+    String key = KEY + "\u00e9\u4e2d";
+    VMThinRegionEntryOffHeapOffHeapStringKey re =
+        new VMThinRegionEntryOffHeapOffHeapStringKey(null, key, null);
+    re.moveKeyOffHeap();
+
+    assertThat(re.getKey()).isEqualTo(key);
+    assertThat(re.isKeyEqual(key)).isTrue();
+    assertThat(re.isKeyEqual(KEY + "e\u4e2d")).isFalse();
+  }
+
+  @Test
+  public void releaseFreesKeyButKeepsItReadable() {
+    VMThinRegionEntryOffHeapOffHeapStringKey re =
+        new VMThinRegionEntryOffHeapOffHeapStringKey(null, KEY, null);
+    re.moveKeyOffHeap();
+
+    re.release();
+
+    assertThat(this.ma.getUsedMemory()).isZero();
+    assertThat(re.getKey()).isEqualTo(KEY);
+    assertThat(re.isKeyEqual(KEY)).isTrue();
+    assertThat(re.isKeyEqual(KEY + "x")).isFalse();
+
+    // releasing a removed entry again must not release the key twice
+    re.release();
+    assertThat(this.ma.getUsedMemory()).isZero();
+  }
+
+  @Test
+  public void keyOfRemovedEntryIsNotMovedOffHeap() {
+    VMThinRegionEntryOffHeapOffHeapStringKey re =
+        new VMThinRegionEntryOffHeapOffHeapStringKey(null, KEY, null);
+    re.release();
+
+    re.moveKeyOffHeap();
+
+    assertThat(this.ma.getUsedMemory()).isZero();
+    assertThat(re.getKey()).isEqualTo(KEY);
+  }
+
+  @Test
+  public void entryUsesLessHeapThanObjectKeyEntry() {
+    VMThinRegionEntryOffHeapOffHeapStringKey re =
+        new VMThinRegionEntryOffHeapOffHeapStringKey(null, KEY, null);
+    re.moveKeyOffHeap();
+    Object re2 = new VMThinRegionEntryOffHeapObjectKey(null, KEY, null);
+    assertThat(ObjectSizer.REFLECTION_SIZE.sizeof(re))
+        .isLessThan(ObjectSizer.REFLECTION_SIZE.sizeof(re2));
+  }
+}
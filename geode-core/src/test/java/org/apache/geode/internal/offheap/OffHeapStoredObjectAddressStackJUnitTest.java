@@ -180,6 +180,33 @@ public class OffHeapStoredObjectAddressStackJUnitTest {
     }
   }
 
+  @Test
+  public void batchOfferAndPollKeepStackOrder() {
+    SlabImpl slab = new SlabImpl(1024);
+    try {
+      MemoryAllocatorImpl ma =
+          MemoryAllocatorImpl.createForUnitTest(new NullOutOfOffHeapMemoryListener(),
+              new NullOffHeapMemoryStats(), new SlabImpl[] {slab});
+      long addr1 = ((OffHeapStoredObject) ma.allocate(100)).getAddress();
+      long addr2 = ((OffHeapStoredObject) ma.allocate(100)).getAddress();
+      long addr3 = ((OffHeapStoredObject) ma.allocate(100)).getAddress();
+
+      OffHeapStoredObjectAddressStack stack = new OffHeapStoredObjectAddressStack();
+      stack.offer(addr3);
+      stack.offer(new long[] {0L, addr1, addr2}, 1, 2);
+      assertEquals(addr1, stack.getTopAddress());
+
+      long[] dest = new long[3];
+      assertEquals(2, stack.poll(dest, 1, 2));
+      assertArrayEquals(new long[] {0L, addr1, addr2}, dest);
+      assertEquals(addr3, stack.poll());
+      assertEquals(0, stack.poll(dest, 0, 3));
+      assertEquals(true, stack.isEmpty());
+    } finally {
+      MemoryAllocatorImpl.freeOffHeapMemory();
+    }
+  }
+
   @Test
   public void stackWithChunkTotalSizeIsChunkSize() {
     SlabImpl slab = new SlabImpl(1024);
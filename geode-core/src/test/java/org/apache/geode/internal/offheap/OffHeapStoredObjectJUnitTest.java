@@ -18,6 +18,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
+import java.io.DataOutput;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 
@@ -29,6 +30,7 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import org.apache.geode.compression.Compressor;
+import org.apache.geode.internal.ByteBufferWriter;
 import org.apache.geode.internal.DSCODE;
 import org.apache.geode.internal.HeapDataOutputStream;
 import org.apache.geode.internal.Version;
@@ -604,6 +606,26 @@ public class OffHeapStoredObjectJUnitTest extends AbstractStoredObjectTestBase {
     chunk.release();
   }
 
+  @Test
+  public void sendAsByteArrayShouldWriteDirectByteBufferToAnyByteBufferWriter()
+      throws IOException {
+    OffHeapStoredObject chunk = createValueAsSerializedStoredObject(getValue());
+    OffHeapStoredObject spyChunk = spy(chunk);
+
+    DataOutput dataOutput =
+        mock(DataOutput.class, withSettings().extraInterfaces(ByteBufferWriter.class));
+    ByteBuffer directByteBuffer = ByteBuffer.allocate(1024);
+
+    doReturn(directByteBuffer).when(spyChunk).createDirectByteBuffer();
+
+    spyChunk.sendAsByteArray(dataOutput);
+
+    verify((ByteBufferWriter) dataOutput, times(1)).write(directByteBuffer);
+    verify(spyChunk, never()).getSerializedValue();
+
+    chunk.release();
+  }
+
   @Test
   public void createDirectByteBufferShouldCreateAByteBuffer() {
     byte[] regionEntryValue = getValueAsByteArray();
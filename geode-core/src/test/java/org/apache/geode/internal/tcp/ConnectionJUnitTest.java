@@ -14,18 +14,30 @@
  */
 package org.apache.geode.internal.tcp;
 
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.*;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.geode.test.junit.categories.MembershipTest;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import org.apache.geode.CancelCriterion;
 import org.apache.geode.distributed.internal.DM;
+import org.apache.geode.distributed.internal.DMStats;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.distributed.internal.membership.MembershipManager;
 import org.apache.geode.internal.net.SocketCloser;
@@ -81,4 +93,91 @@ public class ConnectionJUnitTest {
     conn.run();
     verify(membership).suspectMember(any(InternalDistributedMember.class), any(String.class));
   }
+
+  /**
+   * Test that the threads whose messages were coalesced into a write that failed with an Error
+   * fail too, instead of returning as if their message had been sent
+   */
+  @Test
+  public void testCoalescedWritesFailWithError() throws Exception {
+    ConnectionTable table = mock(ConnectionTable.class);
+    TCPConduit conduit = mock(TCPConduit.class);
+    when(table.getConduit()).thenReturn(conduit);
+    when(conduit.getId()).thenReturn(new InetSocketAddress(SocketCreator.getLocalHost(), 10337));
+    when(conduit.useNIO()).thenReturn(false);
+    final Connection conn = new Connection(table, mock(Socket.class));
+    final DMStats stats = mock(DMStats.class);
+
+    final CountDownLatch firstWriteStarted = new CountDownLatch(1);
+    final CountDownLatch releaseFirstWrite = new CountDownLatch(1);
+    final AtomicInteger writeCalls = new AtomicInteger();
+    final SocketChannel channel = mock(SocketChannel.class);
+    when(channel.write(any(ByteBuffer[].class), anyInt(), anyInt())).thenAnswer(new Answer() {
+      public Object answer(InvocationOnMock invocation) throws Throwable {
+        if (writeCalls.incrementAndGet() > 1) {
+          throw new Error("write failed");
+        }
+        firstWriteStarted.countDown();
+        releaseFirstWrite.await();
+        ByteBuffer[] buffers = (ByteBuffer[]) invocation.getArguments()[0];
+        long written = 0;
+        for (ByteBuffer buffer : buffers) {
+          written += buffer.remaining();
+          buffer.position(buffer.limit());
+        }
+        return written;
+      }
+    });
+
+    final AtomicReference<Throwable>[] failures = new AtomicReference[3];
+    Thread[] writers = new Thread[3];
+    for (int i = 0; i < writers.length; i++) {
+      final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+      failures[i] = failure;
+      writers[i] = new Thread(new Runnable() {
+        public void run() {
+          try {
+            conn.coalescingWrite(channel, ByteBuffer.wrap(new byte[10]), null, stats);
+          } catch (Throwable t) {
+            failure.set(t);
+          }
+        }
+      });
+    }
+
+    // the first writer holds the socket while the other two queue their messages
+    writers[0].start();
+    assertTrue(firstWriteStarted.await(30, TimeUnit.SECONDS));
+    writers[1].start();
+    writers[2].start();
+    for (int i = 1; i < writers.length; i++) {
+      long giveUp = System.currentTimeMillis() + 30000;
+      while (writers[i].getState() != Thread.State.BLOCKED
+          && System.currentTimeMillis() < giveUp) {
+        Thread.sleep(10);
+      }
+      assertEquals(Thread.State.BLOCKED, writers[i].getState());
+    }
+    releaseFirstWrite.countDown();
+    for (Thread writer : writers) {
+      writer.join(30000);
+      assertFalse(writer.isAlive());
+    }
+
+    // the two queued messages are written together, and both writers see the failure
+    assertEquals(2, writeCalls.get());
+    assertNull(failures[0].get());
+    int errors = 0;
+    for (int i = 1; i < failures.length; i++) {
+      Throwable failure = failures[i].get();
+      assertNotNull(failure);
+      if (failure instanceof Error) {
+        errors++;
+      } else {
+        assertTrue(failure instanceof IOException);
+        assertTrue(failure.getCause() instanceof Error);
+      }
+    }
+    assertEquals(1, errors);
+  }
 }
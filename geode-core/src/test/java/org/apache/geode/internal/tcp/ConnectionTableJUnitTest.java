@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tcp;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.internal.DM;
+import org.apache.geode.distributed.internal.InternalDistributedSystem;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.test.junit.categories.MembershipTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, MembershipTest.class})
+public class ConnectionTableJUnitTest {
+
+  private ConnectionTable table;
+
+  private InternalDistributedMember member;
+
+  @Before
+  public void setUp() throws Exception {
+    TCPConduit conduit = mock(TCPConduit.class);
+    DM distMgr = mock(DM.class);
+    InternalDistributedSystem system = mock(InternalDistributedSystem.class);
+    when(conduit.getDM()).thenReturn(distMgr);
+    when(distMgr.getSystem()).thenReturn(system);
+    when(system.isShareSockets()).thenReturn(false);
+    this.table = spy(ConnectionTable.create(conduit));
+    this.member = mock(InternalDistributedMember.class);
+  }
+
+  @Test
+  public void threadsOverTheCapShareTheOrderedConnection() {
+    doReturn(2).when(this.table).getThreadOwnedConnectionCount(this.member);
+    assertFalse(this.table.threadSharesOrderedConnection(this.member, 3));
+    assertTrue(this.table.threadSharesOrderedConnection(this.member, 2));
+
+    // the thread keeps using the shared connection so that its messages stay in order
+    doReturn(0).when(this.table).getThreadOwnedConnectionCount(this.member);
+    assertTrue(this.table.threadSharesOrderedConnection(this.member, 2));
+  }
+
+  @Test
+  public void threadsThatWantOwnResourcesAreNotCapped() throws Exception {
+    doReturn(5).when(this.table).getThreadOwnedConnectionCount(this.member);
+    final AtomicBoolean shares = new AtomicBoolean(true);
+    Thread reader = new Thread(new Runnable() {
+      public void run() {
+        // like the reader threads that send replies
+        ConnectionTable.threadWantsOwnResources();
+        shares.set(table.threadSharesOrderedConnection(member, 1));
+      }
+    });
+    reader.start();
+    reader.join();
+
+    assertFalse(shares.get());
+  }
+
+  @Test
+  public void departedMemberIsForgotten() {
+    doReturn(1).when(this.table).getThreadOwnedConnectionCount(this.member);
+    assertTrue(this.table.threadSharesOrderedConnection(this.member, 1));
+
+    this.table.removeEndpoint(this.member, "member departed", false);
+
+    doReturn(0).when(this.table).getThreadOwnedConnectionCount(this.member);
+    assertFalse(this.table.threadSharesOrderedConnection(this.member, 1));
+  }
+}
@@ -19,6 +19,7 @@ import static org.junit.Assert.*;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Random;
@@ -63,6 +64,27 @@ public class ConcurrentHashMapIteratorJUnitTest {
     assertEquals(baselineMap, testMap);
   }
 
+  @Test
+  public void valuesInPartsAreDisjointAndComplete() {
+    Properties props = new Properties();
+    props.setProperty(MCAST_PORT, "0");
+    DistributedSystem.connect(props);
+    CustomEntryConcurrentHashMap testMap = new CustomEntryConcurrentHashMap(16, 0.75f, 16);
+    for (int i = 0; i < 1000; i++) {
+      testMap.put(i, i);
+    }
+
+    for (int numParts : new int[] {1, 3, 16, 20}) {
+      HashSet found = new HashSet();
+      for (int part = 0; part < numParts; part++) {
+        for (Iterator it = testMap.valuesInPart(part, numParts); it.hasNext();) {
+          assertTrue(found.add(it.next()));
+        }
+      }
+      assertEquals(new HashSet(testMap.values()), found);
+    }
+  }
+
   private void checkForInitialSet(int i, ConcurrentMap testMap, Map initialSet) {
     HashSet found = new HashSet(testMap.values());
     if (!found.containsAll(initialSet.values())) {
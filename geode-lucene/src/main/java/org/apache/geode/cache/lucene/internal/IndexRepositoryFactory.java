@@ -15,7 +15,9 @@
 package org.apache.geode.cache.lucene.internal;
 
 import java.io.IOException;
+import java.util.concurrent.ScheduledExecutorService;
 
+import org.apache.geode.cache.lucene.LuceneServiceProvider;
 import org.apache.geode.cache.lucene.internal.directory.RegionDirectory;
 import org.apache.geode.cache.lucene.internal.repository.IndexRepository;
 import org.apache.geode.cache.lucene.internal.repository.IndexRepositoryImpl;
@@ -46,10 +48,21 @@ public class IndexRepositoryFactory {
     IndexWriterConfig config = new IndexWriterConfig(indexForPR.getAnalyzer());
     IndexWriter writer = new IndexWriter(dir, config);
     repo = new IndexRepositoryImpl(fileBucket, writer, serializer, indexForPR.getIndexStats(),
-        dataBucket);
+        dataBucket, getCommitTimer(index));
     return repo;
   }
 
+  /**
+   * Returns the timer of the lucene service that commits updates between batches, or null if time
+   * based commits are disabled.
+   */
+  protected ScheduledExecutorService getCommitTimer(LuceneIndexImpl index) {
+    if (IndexRepositoryImpl.COMMIT_INTERVAL_MS <= 0) {
+      return null;
+    }
+    return ((InternalLuceneService) LuceneServiceProvider.get(index.getCache())).getCommitTimer();
+  }
+
   /**
    * Find the bucket in region2 that matches the bucket id from region1.
    */
@@ -15,6 +15,8 @@
 
 package org.apache.geode.cache.lucene.internal;
 
+import java.util.concurrent.ScheduledExecutorService;
+
 import org.apache.geode.cache.Cache;
 import org.apache.geode.cache.lucene.LuceneService;
 import org.apache.geode.internal.cache.CacheService;
@@ -22,4 +24,10 @@ import org.apache.geode.internal.cache.extension.Extension;
 
 public interface InternalLuceneService extends LuceneService, Extension<Cache>, CacheService {
 
+  /**
+   * Returns the timer that commits the index repositories of this cache. It is shut down when the
+   * cache closes.
+   */
+  ScheduledExecutorService getCommitTimer();
+
 }
@@ -46,6 +46,10 @@ public class LuceneIndexStats {
   private static final int commitsId;
   private static final int commitTimeId;
   private static final int commitsInProgressId;
+  private static final int refreshesId;
+  private static final int refreshTimeId;
+  private static final int refreshLagId;
+  private static final int uncommittedUpdatesId;
   private static final int documentsId;
 
   private final Statistics stats;
@@ -81,6 +85,16 @@ public class LuceneIndexStats {
             "nanoseconds"),
         f.createIntGauge("commitsInProgress", "Number of lucene index commits in progress",
             "operations"),
+        f.createIntCounter("refreshes",
+            "Number of times the lucene index searchers were refreshed on this member",
+            "operations"),
+        f.createLongCounter("refreshTime", "Amount of time spent refreshing lucene index searchers",
+            "nanoseconds"),
+        f.createLongCounter("refreshLag",
+            "Total time the oldest update of each refresh waited before becoming visible to queries",
+            "nanoseconds"),
+        f.createIntGauge("uncommittedUpdates",
+            "Number of index updates that are searchable but not yet committed", "operations"),
         f.createIntGauge("documents", "Number of documents in the index", "documents"),});
 
     queryExecutionsId = statsType.nameToId("queryExecutions");
@@ -98,6 +112,10 @@ public class LuceneIndexStats {
     commitsId = statsType.nameToId("commits");
     commitTimeId = statsType.nameToId("commitTime");
     commitsInProgressId = statsType.nameToId("commitsInProgress");
+    refreshesId = statsType.nameToId("refreshes");
+    refreshTimeId = statsType.nameToId("refreshTime");
+    refreshLagId = statsType.nameToId("refreshLag");
+    uncommittedUpdatesId = statsType.nameToId("uncommittedUpdates");
     documentsId = statsType.nameToId("documents");
   }
 
@@ -176,6 +194,29 @@ public class LuceneIndexStats {
     stats.incInt(commitsId, 1);
   }
 
+  /**
+   * @return the timestamp that marks the start of the operation
+   */
+  public long startRefresh() {
+    return getStatTime();
+  }
+
+  /**
+   * @param start the timestamp taken when the operation started
+   * @param oldestUpdate the timestamp taken when the oldest update made visible by this refresh
+   *        started
+   */
+  public void endRefresh(long start, long oldestUpdate) {
+    long end = getStatTime();
+    stats.incLong(refreshTimeId, end - start);
+    stats.incLong(refreshLagId, end - oldestUpdate);
+    stats.incInt(refreshesId, 1);
+  }
+
+  public void incUncommittedUpdates(int delta) {
+    stats.incInt(uncommittedUpdatesId, delta);
+  }
+
   public void addDocumentsSupplier(IntSupplier supplier) {
     this.documentsSuppliers.add(supplier);
   }
@@ -232,6 +273,22 @@ public class LuceneIndexStats {
     return stats.getInt(commitsInProgressId);
   }
 
+  public int getRefreshes() {
+    return stats.getInt(refreshesId);
+  }
+
+  public long getRefreshTime() {
+    return stats.getLong(refreshTimeId);
+  }
+
+  public long getRefreshLag() {
+    return stats.getLong(refreshLagId);
+  }
+
+  public int getUncommittedUpdates() {
+    return stats.getInt(uncommittedUpdatesId);
+  }
+
   public Statistics getStats() {
     return this.stats;
   }
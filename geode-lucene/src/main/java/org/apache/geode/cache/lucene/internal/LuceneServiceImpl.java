@@ -16,6 +16,10 @@
 package org.apache.geode.cache.lucene.internal;
 
 import java.util.*;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.geode.cache.lucene.internal.management.LuceneServiceMBean;
 import org.apache.geode.cache.lucene.internal.management.ManagementIndexListener;
@@ -47,6 +51,7 @@ import org.apache.geode.cache.lucene.internal.xml.LuceneServiceXmlGenerator;
 import org.apache.geode.internal.DSFIDFactory;
 import org.apache.geode.internal.DataSerializableFixedID;
 import org.apache.geode.internal.cache.extension.Extensible;
+import org.apache.geode.internal.cache.CacheLifecycleListener;
 import org.apache.geode.internal.cache.CacheService;
 import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.internal.cache.InternalRegionArguments;
@@ -55,6 +60,7 @@ import org.apache.geode.internal.cache.RegionListener;
 import org.apache.geode.internal.cache.xmlcache.XmlGenerator;
 import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThreadGroup;
 
 /**
  * Implementation of LuceneService to create lucene index and query.
@@ -70,6 +76,20 @@ public class LuceneServiceImpl implements InternalLuceneService {
   private final HashMap<String, LuceneIndex> indexMap = new HashMap<String, LuceneIndex>();
   private final HashMap<String, LuceneIndexCreationProfile> definedIndexMap = new HashMap<>();
   private IndexListener managementListener;
+  /** guarded by this */
+  private ScheduledExecutorService commitTimer;
+  private final CacheLifecycleListener closeListener = new CacheLifecycleListener() {
+    @Override
+    public void cacheCreated(GemFireCacheImpl created) {}
+
+    @Override
+    public void cacheClosed(GemFireCacheImpl closed) {
+      if (closed == cache) {
+        GemFireCacheImpl.removeCacheLifecycleListener(this);
+        shutdownCommitTimer();
+      }
+    }
+  };
 
   public LuceneServiceImpl() {
 
@@ -83,6 +103,7 @@ public class LuceneServiceImpl implements InternalLuceneService {
     gfc.getCancelCriterion().checkCancelInProgress(null);
 
     this.cache = gfc;
+    GemFireCacheImpl.addCacheLifecycleListener(this.closeListener);
 
     FunctionService.registerFunction(new LuceneFunction());
     FunctionService.registerFunction(new DumpDirectoryFiles());
@@ -101,6 +122,32 @@ public class LuceneServiceImpl implements InternalLuceneService {
     return InternalLuceneService.class;
   }
 
+  @Override
+  public synchronized ScheduledExecutorService getCommitTimer() {
+    cache.getCancelCriterion().checkCancelInProgress(null);
+    if (commitTimer == null) {
+      commitTimer = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+        private final AtomicInteger threadNum = new AtomicInteger();
+
+        public Thread newThread(final Runnable r) {
+          Thread result = new Thread(
+              LoggingThreadGroup.createThreadGroup("LuceneIndexCommitThreadGroup", logger), r,
+              "Lucene Index Commit Timer-" + threadNum.incrementAndGet());
+          result.setDaemon(true);
+          return result;
+        }
+      });
+    }
+    return commitTimer;
+  }
+
+  private synchronized void shutdownCommitTimer() {
+    if (commitTimer != null) {
+      commitTimer.shutdownNow();
+      commitTimer = null;
+    }
+  }
+
   public static String getUniqueIndexName(String indexName, String regionPath) {
     if (!regionPath.startsWith("/")) {
       regionPath = "/" + regionPath;
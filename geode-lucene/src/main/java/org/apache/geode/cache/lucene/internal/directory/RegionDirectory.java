@@ -29,6 +29,7 @@ import org.apache.lucene.store.IndexOutput;
 import org.apache.lucene.store.OutputStreamIndexOutput;
 import org.apache.lucene.store.SingleInstanceLockFactory;
 
+import org.apache.geode.cache.lucene.internal.filesystem.ChunkCache;
 import org.apache.geode.cache.lucene.internal.filesystem.ChunkKey;
 import org.apache.geode.cache.lucene.internal.filesystem.File;
 import org.apache.geode.cache.lucene.internal.filesystem.FileSystem;
@@ -46,12 +47,18 @@ public class RegionDirectory extends BaseDirectory {
 
   /**
    * Create a region directory with a given file and chunk region. These regions may be bucket
-   * regions or they may be replicated regions.
+   * regions or they may be replicated regions. Chunk reads are served from the member's shared
+   * {@link ChunkCache}, if it is enabled.
    */
   public RegionDirectory(ConcurrentMap<String, File> fileRegion,
       ConcurrentMap<ChunkKey, byte[]> chunkRegion, FileSystemStats stats) {
+    this(fileRegion, chunkRegion, stats, ChunkCache.getDefault());
+  }
+
+  public RegionDirectory(ConcurrentMap<String, File> fileRegion,
+      ConcurrentMap<ChunkKey, byte[]> chunkRegion, FileSystemStats stats, ChunkCache chunkCache) {
     super(new SingleInstanceLockFactory());
-    fs = new FileSystem(fileRegion, chunkRegion, stats);
+    fs = new FileSystem(fileRegion, chunkRegion, stats, chunkCache);
   }
 
   @Override
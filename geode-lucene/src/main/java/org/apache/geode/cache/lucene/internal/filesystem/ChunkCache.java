@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.lucene.internal.filesystem;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+
+/**
+ * A least recently used cache of file chunks, bounded by the total number of bytes of the cached
+ * chunks. Lucene reads the same chunks of hot files over and over again; serving them from this
+ * cache saves fetching them from the chunk region on every access.
+ * 
+ * The cache is split into segments, each with its own lock and an equal share of the byte budget,
+ * so that concurrent readers of different chunks do not contend on a single lock. Least recently
+ * used order is kept per segment.
+ * 
+ * Chunks are cached by reference, so the cached arrays must not be modified. A single cache may
+ * be shared by many {@link FileSystem}s because chunk keys contain the unique id of their file.
+ */
+public class ChunkCache {
+
+  /**
+   * Maximum number of bytes held by the cache shared by all region directories of this member.
+   * The cache is disabled unless this is set to a positive value.
+   */
+  public static final long DEFAULT_MAX_BYTES =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "RegionDirectory.CHUNK_CACHE_BYTES", 0);
+
+  private static final ChunkCache DEFAULT_INSTANCE =
+      DEFAULT_MAX_BYTES > 0 ? new ChunkCache(DEFAULT_MAX_BYTES) : null;
+
+  private static final int MAX_SEGMENTS = 16;
+
+  /**
+   * Minimum number of full sized chunks each segment must be able to hold, so that splitting a
+   * small cache does not leave segments too small to cache anything.
+   */
+  private static final int MIN_CHUNKS_PER_SEGMENT = 4;
+
+  private final long maxBytes;
+
+  private final Segment[] segments;
+
+  public ChunkCache(long maxBytes) {
+    this(maxBytes, defaultSegments(maxBytes));
+  }
+
+  public ChunkCache(long maxBytes, int numSegments) {
+    if (maxBytes <= 0) {
+      throw new IllegalArgumentException("maxBytes must be positive but was " + maxBytes);
+    }
+    if (numSegments <= 0 || numSegments > maxBytes) {
+      throw new IllegalArgumentException(
+          "numSegments must be between 1 and " + maxBytes + " but was " + numSegments);
+    }
+    this.maxBytes = maxBytes;
+    this.segments = new Segment[numSegments];
+    long segmentBytes = maxBytes / numSegments;
+    // the first segment takes the remainder so the segments add up to maxBytes
+    segments[0] = new Segment(maxBytes - segmentBytes * (numSegments - 1));
+    for (int i = 1; i < numSegments; i++) {
+      segments[i] = new Segment(segmentBytes);
+    }
+  }
+
+  private static int defaultSegments(long maxBytes) {
+    long segments = maxBytes / ((long) FileSystem.CHUNK_SIZE * MIN_CHUNKS_PER_SEGMENT);
+    return (int) Math.max(1, Math.min(MAX_SEGMENTS, segments));
+  }
+
+  /**
+   * @return the cache shared by the region directories of this member, or null if the cache is
+   *         disabled
+   */
+  public static ChunkCache getDefault() {
+    return DEFAULT_INSTANCE;
+  }
+
+  byte[] get(ChunkKey key) {
+    return segmentFor(key).get(key);
+  }
+
+  void put(ChunkKey key, byte[] chunk) {
+    segmentFor(key).put(key, chunk);
+  }
+
+  void remove(ChunkKey key) {
+    segmentFor(key).remove(key);
+  }
+
+  public int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      size += segment.size();
+    }
+    return size;
+  }
+
+  public long getBytes() {
+    long bytes = 0;
+    for (Segment segment : segments) {
+      bytes += segment.getBytes();
+    }
+    return bytes;
+  }
+
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  int getNumSegments() {
+    return segments.length;
+  }
+
+  private Segment segmentFor(ChunkKey key) {
+    int h = key.hashCode();
+    h ^= (h >>> 16);
+    return segments[(h & 0x7fffffff) % segments.length];
+  }
+
+  private static class Segment {
+
+    private final long maxBytes;
+
+    /** guarded by this */
+    private final LinkedHashMap<ChunkKey, byte[]> chunks =
+        new LinkedHashMap<ChunkKey, byte[]>(16, 0.75f, true);
+
+    /** guarded by this */
+    private long bytes;
+
+    Segment(long maxBytes) {
+      this.maxBytes = maxBytes;
+    }
+
+    synchronized byte[] get(ChunkKey key) {
+      return chunks.get(key);
+    }
+
+    synchronized void put(ChunkKey key, byte[] chunk) {
+      if (chunk.length > maxBytes) {
+        return;
+      }
+      byte[] previous = chunks.put(key, chunk);
+      bytes += chunk.length;
+      if (previous != null) {
+        bytes -= previous.length;
+      }
+      Iterator<Map.Entry<ChunkKey, byte[]>> lru = chunks.entrySet().iterator();
+      while (bytes > maxBytes) {
+        bytes -= lru.next().getValue().length;
+        lru.remove();
+      }
+    }
+
+    synchronized void remove(ChunkKey key) {
+      byte[] previous = chunks.remove(key);
+      if (previous != null) {
+        bytes -= previous.length;
+      }
+    }
+
+    synchronized int size() {
+      return chunks.size();
+    }
+
+    synchronized long getBytes() {
+      return bytes;
+    }
+  }
+}
@@ -38,6 +38,7 @@ public class FileSystem {
 
   static final int CHUNK_SIZE = 1024 * 1024; // 1 MB
   private final FileSystemStats stats;
+  private final ChunkCache chunkCache;
 
   /**
    * Create filesystem that will store data in the two provided regions. The fileRegion contains
@@ -51,9 +52,22 @@ public class FileSystem {
    */
   public FileSystem(ConcurrentMap<String, File> fileRegion,
       ConcurrentMap<ChunkKey, byte[]> chunkRegion, FileSystemStats stats) {
+    this(fileRegion, chunkRegion, stats, null);
+  }
+
+  /**
+   * Create filesystem that will store data in the two provided regions and serve chunk reads from
+   * the given cache.
+   * 
+   * @param chunkCache the cache of recently read chunks, or null to always read from the
+   *        chunkRegion
+   */
+  public FileSystem(ConcurrentMap<String, File> fileRegion,
+      ConcurrentMap<ChunkKey, byte[]> chunkRegion, FileSystemStats stats, ChunkCache chunkCache) {
     this.fileRegion = fileRegion;
     this.chunkRegion = chunkRegion;
     this.stats = stats;
+    this.chunkCache = chunkCache;
   }
 
   public Collection<String> listFileNames() {
@@ -102,6 +116,12 @@ public class FileSystem {
 
     // TODO consider removeAll with all ChunkKeys listed.
     final ChunkKey key = new ChunkKey(file.id, 0);
+    if (chunkCache != null) {
+      for (key.chunkId = 0; key.chunkId < file.chunks; key.chunkId++) {
+        chunkCache.remove(key);
+      }
+      key.chunkId = 0;
+    }
     while (true) {
       // TODO consider mutable ChunkKey
       if (null == chunkRegion.remove(key)) {
@@ -146,6 +166,7 @@ public class FileSystem {
     // exist. Purge all of the chunks that are larger than the file metadata
     if (id >= file.chunks) {
       while (chunkRegion.containsKey(key)) {
+        uncacheChunk(key);
         chunkRegion.remove(key);
         key.chunkId++;
       }
@@ -153,17 +174,39 @@ public class FileSystem {
       return null;
     }
 
-    final byte[] chunk = chunkRegion.get(key);
+    byte[] chunk = null;
+    if (chunkCache != null) {
+      chunk = chunkCache.get(key);
+      if (chunk != null) {
+        stats.incChunkCacheHits(1);
+      } else {
+        stats.incChunkCacheMisses(1);
+      }
+    }
+    if (chunk == null) {
+      chunk = chunkRegion.get(key);
+      if (chunkCache != null && chunk != null) {
+        chunkCache.put(key, chunk);
+      }
+    }
     stats.incReadBytes(chunk.length);
     return chunk;
   }
 
   public void putChunk(final File file, final int id, final byte[] chunk) {
     final ChunkKey key = new ChunkKey(file.id, id);
+    // The last chunk of a file is rewritten when the file is appended to
+    uncacheChunk(key);
     chunkRegion.put(key, chunk);
     stats.incWrittenBytes(chunk.length);
   }
 
+  private void uncacheChunk(final ChunkKey key) {
+    if (chunkCache != null) {
+      chunkCache.remove(key);
+    }
+  }
+
   void updateFile(File file) {
     fileRegion.put(file.getName(), file);
   }
@@ -41,6 +41,8 @@ public class FileSystemStats {
   private static final int filesId;
   private static final int chunksId;
   private static final int bytesId;
+  private static final int chunkCacheHitsId;
+  private static final int chunkCacheMissesId;
 
   static {
     final StatisticsTypeFactory f = StatisticsTypeFactoryImpl.singleton();
@@ -55,7 +57,12 @@ public class FileSystemStats {
             f.createIntCounter("fileRenames", "Number of files renamed", "files"),
             f.createIntGauge("files", "Number of files on this member", "files"),
             f.createIntGauge("chunks", "Number of file chunks on this member", "chunks"),
-            f.createLongGauge("bytes", "Number of bytes on this member", "bytes"),});
+            f.createLongGauge("bytes", "Number of bytes on this member", "bytes"),
+            f.createLongCounter("chunkCacheHits",
+                "Number of file chunk reads served from the chunk cache", "operations"),
+            f.createLongCounter("chunkCacheMisses",
+                "Number of file chunk reads that had to fetch the chunk from the region",
+                "operations"),});
 
     readBytesId = statsType.nameToId("readBytes");
     writtenBytesId = statsType.nameToId("writtenBytes");
@@ -66,6 +73,8 @@ public class FileSystemStats {
     filesId = statsType.nameToId("files");
     chunksId = statsType.nameToId("chunks");
     bytesId = statsType.nameToId("bytes");
+    chunkCacheHitsId = statsType.nameToId("chunkCacheHits");
+    chunkCacheMissesId = statsType.nameToId("chunkCacheMisses");
   }
 
   public FileSystemStats(StatisticsFactory f, String name) {
@@ -96,6 +105,22 @@ public class FileSystemStats {
     stats.incInt(fileRenamesId, delta);
   }
 
+  public void incChunkCacheHits(final int delta) {
+    stats.incLong(chunkCacheHitsId, delta);
+  }
+
+  public void incChunkCacheMisses(final int delta) {
+    stats.incLong(chunkCacheMissesId, delta);
+  }
+
+  public long getChunkCacheHits() {
+    return stats.getLong(chunkCacheHitsId);
+  }
+
+  public long getChunkCacheMisses() {
+    return stats.getLong(chunkCacheMissesId);
+  }
+
   public void setFileSupplier(IntSupplier supplier) {
     stats.setIntSupplier(filesId, supplier);
   }
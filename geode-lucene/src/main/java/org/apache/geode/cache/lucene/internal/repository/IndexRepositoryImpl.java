@@ -30,10 +30,23 @@ import org.apache.lucene.search.*;
 import org.apache.lucene.store.AlreadyClosedException;
 
 import java.io.IOException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.IntSupplier;
 
 /**
  * A repository that writes to a single lucene index writer
+ * <p>
+ * By default the writer is committed and the searchers are refreshed after every batch. If a
+ * commit interval or a commit updates threshold is configured the repository runs in near real
+ * time mode instead: searchers are still refreshed after every batch, so updates become visible to
+ * queries as soon as the batch has been applied, but the writer is only committed to the region
+ * directory once the interval has elapsed or the threshold has been reached. Updates that are
+ * searchable but not yet committed are lost from the index if this member fails before the next
+ * commit.
  */
 public class IndexRepositoryImpl implements IndexRepository {
 
@@ -41,6 +54,24 @@ public class IndexRepositoryImpl implements IndexRepository {
       .getProperty(DistributionConfig.GEMFIRE_PREFIX + "IndexRepository.APPLY_ALL_DELETES", "true")
       .equalsIgnoreCase("true");
 
+  /**
+   * Minimum time in milliseconds between commits of the index writer. Zero disables time based
+   * commits.
+   */
+  public static final long COMMIT_INTERVAL_MS =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "IndexRepository.COMMIT_INTERVAL_MS", 0);
+
+  /**
+   * Number of uncommitted updates that causes the index writer to be committed at the end of a
+   * batch. Zero disables update count based commits.
+   */
+  static final int COMMIT_UPDATES_THRESHOLD = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "IndexRepository.COMMIT_UPDATES_THRESHOLD", 0);
+
+  private static final long NO_UNREFRESHED_UPDATE = Long.MIN_VALUE;
+
+  private static final Logger logger = LogService.getLogger();
+
   private final IndexWriter writer;
   private final LuceneSerializer serializer;
   private final SearcherManager searcherManager;
@@ -48,11 +79,35 @@ public class IndexRepositoryImpl implements IndexRepository {
   private Region<?, ?> userRegion;
   private LuceneIndexStats stats;
   private DocumentCountSupplier documentCountSupplier;
-
-  private static final Logger logger = LogService.getLogger();
+  private final long commitIntervalMs;
+  private final int commitUpdatesThreshold;
+  private final AtomicInteger uncommittedUpdates = new AtomicInteger();
+  /** The stat time at which the oldest update that is not yet searchable was started */
+  private final AtomicLong oldestUnrefreshedUpdate = new AtomicLong(NO_UNREFRESHED_UPDATE);
+  /** guarded by this */
+  private long lastCommitTime = System.currentTimeMillis();
+  private final ScheduledFuture<?> commitTask;
 
   public IndexRepositoryImpl(Region<?, ?> region, IndexWriter writer, LuceneSerializer serializer,
       LuceneIndexStats stats, Region<?, ?> userRegion) throws IOException {
+    this(region, writer, serializer, stats, userRegion, null);
+  }
+
+  /**
+   * @param commitTimer used to commit updates that arrived less than the commit interval before
+   *        the last batch. It is owned by the caller, which must shut it down when the cache
+   *        closes. If null, updates are only committed at the end of a batch.
+   */
+  public IndexRepositoryImpl(Region<?, ?> region, IndexWriter writer, LuceneSerializer serializer,
+      LuceneIndexStats stats, Region<?, ?> userRegion, ScheduledExecutorService commitTimer)
+      throws IOException {
+    this(region, writer, serializer, stats, userRegion, commitTimer, COMMIT_INTERVAL_MS,
+        COMMIT_UPDATES_THRESHOLD);
+  }
+
+  IndexRepositoryImpl(Region<?, ?> region, IndexWriter writer, LuceneSerializer serializer,
+      LuceneIndexStats stats, Region<?, ?> userRegion, ScheduledExecutorService commitTimer,
+      long commitIntervalMs, int commitUpdatesThreshold) throws IOException {
     this.region = region;
     this.userRegion = userRegion;
     this.writer = writer;
@@ -61,6 +116,15 @@ public class IndexRepositoryImpl implements IndexRepository {
     this.stats = stats;
     documentCountSupplier = new DocumentCountSupplier();
     stats.addDocumentsSupplier(documentCountSupplier);
+    this.commitIntervalMs = commitIntervalMs;
+    this.commitUpdatesThreshold = commitUpdatesThreshold;
+    if (commitIntervalMs > 0 && commitTimer != null) {
+      // Make sure updates are committed even if no further batches arrive for this repository
+      commitTask = commitTimer.scheduleWithFixedDelay(this::commitIfDue, commitIntervalMs,
+          commitIntervalMs, TimeUnit.MILLISECONDS);
+    } else {
+      commitTask = null;
+    }
   }
 
   @Override
@@ -71,6 +135,7 @@ public class IndexRepositoryImpl implements IndexRepository {
       SerializerUtil.addKey(key, doc);
       serializer.toDocument(value, doc);
       writer.addDocument(doc);
+      updateApplied(start);
     } finally {
       stats.endUpdate(start);
     }
@@ -84,6 +149,7 @@ public class IndexRepositoryImpl implements IndexRepository {
       SerializerUtil.addKey(key, doc);
       serializer.toDocument(value, doc);
       writer.updateDocument(SerializerUtil.getKeyTerm(doc), doc);
+      updateApplied(start);
     } finally {
       stats.endUpdate(start);
     }
@@ -95,6 +161,7 @@ public class IndexRepositoryImpl implements IndexRepository {
     try {
       Term keyTerm = SerializerUtil.toKeyTerm(key);
       writer.deleteDocuments(keyTerm);
+      updateApplied(start);
     } finally {
       stats.endUpdate(start);
     }
@@ -122,17 +189,77 @@ public class IndexRepositoryImpl implements IndexRepository {
     }
   }
 
+  private void updateApplied(long start) {
+    oldestUnrefreshedUpdate.compareAndSet(NO_UNREFRESHED_UPDATE, start);
+    uncommittedUpdates.incrementAndGet();
+    stats.incUncommittedUpdates(1);
+  }
+
   @Override
   public synchronized void commit() throws IOException {
+    if (isCommitDue()) {
+      commitWriter();
+    }
+    refreshSearchers();
+  }
+
+  private boolean isNearRealTime() {
+    return commitIntervalMs > 0 || commitUpdatesThreshold > 0;
+  }
+
+  private boolean isCommitDue() {
+    if (!isNearRealTime()) {
+      return true;
+    }
+    int pending = uncommittedUpdates.get();
+    if (pending == 0) {
+      return false;
+    }
+    if (commitUpdatesThreshold > 0 && pending >= commitUpdatesThreshold) {
+      return true;
+    }
+    return commitIntervalMs > 0
+        && System.currentTimeMillis() - lastCommitTime >= commitIntervalMs;
+  }
+
+  private void commitWriter() throws IOException {
     long start = stats.startCommit();
     try {
+      int committed = uncommittedUpdates.get();
       writer.commit();
-      searcherManager.maybeRefresh();
+      uncommittedUpdates.addAndGet(-committed);
+      stats.incUncommittedUpdates(-committed);
+      lastCommitTime = System.currentTimeMillis();
     } finally {
       stats.endCommit(start);
     }
   }
 
+  private void refreshSearchers() throws IOException {
+    long oldestUpdate = oldestUnrefreshedUpdate.get();
+    long start = stats.startRefresh();
+    searcherManager.maybeRefresh();
+    if (oldestUpdate != NO_UNREFRESHED_UPDATE) {
+      oldestUnrefreshedUpdate.compareAndSet(oldestUpdate, NO_UNREFRESHED_UPDATE);
+      stats.endRefresh(start, oldestUpdate);
+    }
+  }
+
+  private synchronized void commitIfDue() {
+    try {
+      if (!isClosed() && isCommitDue()) {
+        commitWriter();
+      }
+    } catch (AlreadyClosedException e) {
+      // the repository was cleaned up concurrently
+    } catch (IOException e) {
+      logger.warn("Unable to commit lucene index", e);
+    } catch (RuntimeException e) {
+      // keep the timer running, the next batch or tick will retry
+      logger.warn("Unable to commit lucene index", e);
+    }
+  }
+
   public IndexWriter getWriter() {
     return writer;
   }
@@ -154,8 +281,13 @@ public class IndexRepositoryImpl implements IndexRepository {
   @Override
   public void cleanup() {
     stats.removeDocumentsSupplier(documentCountSupplier);
+    if (commitTask != null) {
+      commitTask.cancel(false);
+    }
     try {
+      // closing the writer commits any pending updates
       writer.close();
+      stats.incUncommittedUpdates(-uncommittedUpdates.getAndSet(0));
     } catch (IOException e) {
       logger.warn("Unable to clean up index repository", e);
     }
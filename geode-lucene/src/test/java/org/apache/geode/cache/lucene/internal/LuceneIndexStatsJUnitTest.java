@@ -99,6 +99,23 @@ public class LuceneIndexStatsJUnitTest {
     verifyIncLong("commitTime", -5);
   }
 
+  @Test
+  public void shouldIncrementRefreshStats() {
+
+    stats.startRefresh();
+    stats.endRefresh(5, 3);
+    verifyIncInt("refreshes", 1);
+    // Because the initial stat time is 0 and the final time is 5, the delta is -5
+    verifyIncLong("refreshTime", -5);
+    verifyIncLong("refreshLag", -3);
+  }
+
+  @Test
+  public void shouldIncrementUncommittedUpdates() {
+    stats.incUncommittedUpdates(2);
+    verifyIncInt("uncommittedUpdates", 2);
+  }
+
   @Test
   public void shouldPollSuppliersForDocumentStat() {
     stats.addDocumentsSupplier(() -> 5);
@@ -31,9 +31,13 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.rules.ExpectedException;
 
+import java.util.concurrent.ScheduledExecutorService;
+
 import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 @Category(IntegrationTest.class)
 public class LuceneServiceImplIntegrationTest {
@@ -65,6 +69,18 @@ public class LuceneServiceImplIntegrationTest {
     assertNotNull(function);
   }
 
+  @Test
+  public void commitTimerShouldBeShutDownWhenCacheCloses() {
+    cache = getCache();
+    InternalLuceneService luceneService =
+        (InternalLuceneService) LuceneServiceProvider.get(cache);
+    ScheduledExecutorService commitTimer = luceneService.getCommitTimer();
+    assertSame(commitTimer, luceneService.getCommitTimer());
+
+    cache.close();
+    assertTrue(commitTimer.isShutdown());
+  }
+
   @After
   public void destroyService() {
     if (null != service) {
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.lucene.internal.filesystem;
+
+import static org.junit.Assert.*;
+
+import java.util.UUID;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class ChunkCacheJUnitTest {
+
+  private final UUID fileId = UUID.randomUUID();
+  private final ChunkCache cache = new ChunkCache(100);
+
+  @Test
+  public void shouldReturnCachedChunk() {
+    byte[] chunk = new byte[10];
+    cache.put(key(0), chunk);
+    assertSame(chunk, cache.get(key(0)));
+    assertNull(cache.get(key(1)));
+    assertEquals(10, cache.getBytes());
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedChunksWhenFull() {
+    cache.put(key(0), new byte[40]);
+    cache.put(key(1), new byte[40]);
+    cache.get(key(0));
+    cache.put(key(2), new byte[40]);
+
+    assertNotNull(cache.get(key(0)));
+    assertNull(cache.get(key(1)));
+    assertNotNull(cache.get(key(2)));
+    assertEquals(80, cache.getBytes());
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void shouldReplaceChunkWithSameKey() {
+    cache.put(key(0), new byte[40]);
+    byte[] replacement = new byte[20];
+    cache.put(key(0), replacement);
+    assertSame(replacement, cache.get(key(0)));
+    assertEquals(20, cache.getBytes());
+  }
+
+  @Test
+  public void shouldRemoveChunk() {
+    cache.put(key(0), new byte[40]);
+    cache.remove(key(0));
+    cache.remove(key(1));
+    assertNull(cache.get(key(0)));
+    assertEquals(0, cache.getBytes());
+  }
+
+  @Test
+  public void shouldNotCacheChunkLargerThanCache() {
+    cache.put(key(0), new byte[40]);
+    cache.put(key(1), new byte[101]);
+    assertNull(cache.get(key(1)));
+    assertNotNull(cache.get(key(0)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRequirePositiveSize() {
+    new ChunkCache(0);
+  }
+
+  @Test
+  public void shouldBeDisabledByDefault() {
+    assertEquals(0, ChunkCache.DEFAULT_MAX_BYTES);
+    assertNull(ChunkCache.getDefault());
+  }
+
+  @Test
+  public void shouldSplitLargeCacheIntoSegments() {
+    assertEquals(1, cache.getNumSegments());
+    assertEquals(16, new ChunkCache(1L << 30).getNumSegments());
+  }
+
+  @Test
+  public void shouldBoundBytesAcrossSegments() {
+    ChunkCache segmented = new ChunkCache(100, 4);
+    for (int i = 0; i < 100; i++) {
+      segmented.put(key(i), new byte[10]);
+    }
+    assertTrue(segmented.getBytes() <= 100);
+    assertEquals(segmented.getBytes(), segmented.size() * 10);
+    for (int i = 0; i < 100; i++) {
+      segmented.remove(key(i));
+    }
+    assertEquals(0, segmented.getBytes());
+    assertEquals(0, segmented.size());
+  }
+
+  private ChunkKey key(int chunkId) {
+    return new ChunkKey(fileId, chunkId);
+  }
+}
@@ -540,6 +540,44 @@ public class FileSystemJUnitTest {
     assertEquals(bytes.length, actualByteCount);
   }
 
+  @Test
+  public void testChunkCacheServesRepeatedReads() throws IOException {
+    ChunkCache chunkCache = new ChunkCache(LARGE_CHUNK * 2);
+    system = new FileSystem(fileRegion, chunkRegion, fileSystemStats, chunkCache);
+    File file = system.createFile("file");
+    byte[] bytes = getRandomBytes(LARGE_CHUNK);
+    writeBytes(file, bytes);
+    int chunks = file.chunks;
+
+    assertContents(bytes, file);
+    verify(fileSystemStats, times(chunks)).incChunkCacheMisses(1);
+    verify(fileSystemStats, never()).incChunkCacheHits(1);
+
+    chunkRegion.clear();
+    assertContents(bytes, file);
+    verify(fileSystemStats, times(chunks)).incChunkCacheHits(1);
+
+    system.deleteFile("file");
+    assertEquals(0, chunkCache.size());
+  }
+
+  @Test
+  public void testChunkCacheSeesAppendedChunk() throws IOException {
+    ChunkCache chunkCache = new ChunkCache(LARGE_CHUNK);
+    system = new FileSystem(fileRegion, chunkRegion, fileSystemStats, chunkCache);
+    File file = system.createFile("file");
+    byte[] bytes1 = getRandomBytes(SMALL_CHUNK);
+    writeBytes(file, bytes1);
+    assertContents(bytes1, file);
+
+    byte[] bytes2 = getRandomBytes(SMALL_CHUNK);
+    writeBytes(file, bytes2);
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    expected.write(bytes1);
+    expected.write(bytes2);
+    assertContents(expected.toByteArray(), file);
+  }
+
   private void assertExportedFileContents(final byte[] expected, final java.io.File exportedFile)
       throws IOException {
     byte[] actual = Files.readAllBytes(exportedFile.toPath());
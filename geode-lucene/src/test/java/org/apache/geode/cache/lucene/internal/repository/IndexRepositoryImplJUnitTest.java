@@ -25,6 +25,9 @@ import java.util.HashSet;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.IntSupplier;
 
 import org.apache.geode.internal.cache.BucketAdvisor;
@@ -49,6 +52,7 @@ import org.apache.geode.cache.lucene.internal.filesystem.FileSystemStats;
 import org.apache.geode.cache.lucene.internal.repository.serializer.HeterogeneousLuceneSerializer;
 import org.apache.geode.cache.lucene.internal.repository.serializer.Type2;
 import org.apache.geode.test.junit.categories.IntegrationTest;
+import com.jayway.awaitility.Awaitility;
 
 /**
  * Test of the {@link IndexRepository} and everything below it. This tests that we can save gemfire
@@ -152,6 +156,66 @@ public class IndexRepositoryImplJUnitTest {
     verify(stats, times(1)).endCommit(anyLong());
   }
 
+  @Test
+  public void commitShouldUpdateRefreshStats() throws IOException {
+    repo.create("key1", new Type2("bar", 1, 2L, 3.0, 4.0f, "Grape Ape doughnut"));
+    verify(stats, times(1)).incUncommittedUpdates(1);
+    repo.commit();
+    verify(stats, times(1)).incUncommittedUpdates(-1);
+    verify(stats, times(1)).startRefresh();
+    verify(stats, times(1)).endRefresh(anyLong(), anyLong());
+  }
+
+  @Test
+  public void nearRealTimeCommitMakesUpdatesSearchableWithoutCommittingWriter()
+      throws IOException, ParseException {
+    repo = new IndexRepositoryImpl(region, writer, mapper, stats, userRegion, null, 0, 3);
+    repo.create("key1",
+        new Type2("McMinnville Cream doughnut", 1, 2L, 3.0, 4.0f, "Captain my Captain doughnut"));
+    repo.create("key2",
+        new Type2("Portland Cream doughnut", 1, 2L, 3.0, 4.0f, "Captain my Captain doughnut"));
+    repo.commit();
+
+    checkQuery("Cream", "s", "key1", "key2");
+    verify(stats, never()).startCommit();
+    assertTrue(writer.hasUncommittedChanges());
+
+    repo.delete("key2");
+    repo.commit();
+
+    checkQuery("Cream", "s", "key1");
+    verify(stats, times(1)).startCommit();
+    verify(stats, times(1)).incUncommittedUpdates(-3);
+    assertFalse(writer.hasUncommittedChanges());
+  }
+
+  @Test
+  public void nearRealTimeCommitIsSkippedWithoutUpdates() throws IOException {
+    repo = new IndexRepositoryImpl(region, writer, mapper, stats, userRegion, null, 0, 1);
+    repo.commit();
+    verify(stats, never()).startCommit();
+    verify(stats, times(1)).startRefresh();
+    verify(stats, never()).endRefresh(anyLong(), anyLong());
+  }
+
+  @Test
+  public void commitTimerCommitsUpdatesLeftByTheLastBatch() throws IOException {
+    ScheduledExecutorService commitTimer = Executors.newSingleThreadScheduledExecutor();
+    try {
+      repo =
+          new IndexRepositoryImpl(region, writer, mapper, stats, userRegion, commitTimer, 100, 0);
+      repo.create("key1", new Type2("bar", 1, 2L, 3.0, 4.0f, "Grape Ape doughnut"));
+      repo.commit();
+
+      Awaitility.await().atMost(30, TimeUnit.SECONDS)
+          .until(() -> assertFalse(writer.hasUncommittedChanges()));
+      repo.cleanup();
+      assertFalse(writer.isOpen());
+    } finally {
+      commitTimer.shutdownNow();
+    }
+  }
+
   @Test
   public void queryShouldUpdateStats() throws IOException, ParseException {
     repo.create("key2",
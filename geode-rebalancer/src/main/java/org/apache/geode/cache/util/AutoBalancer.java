@@ -34,15 +34,21 @@ import org.apache.geode.GemFireConfigException;
 import org.apache.geode.cache.CacheClosedException;
 import org.apache.geode.cache.Declarable;
 import org.apache.geode.cache.GemFireCache;
+import org.apache.geode.cache.control.RebalanceFactory;
 import org.apache.geode.cache.control.RebalanceOperation;
 import org.apache.geode.cache.control.RebalanceResults;
 import org.apache.geode.cache.partition.PartitionMemberInfo;
+import org.apache.geode.cache.partition.PartitionRebalanceInfo;
 import org.apache.geode.distributed.DistributedLockService;
 import org.apache.geode.distributed.internal.locks.DLockService;
 import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.internal.cache.PartitionedRegion;
+import org.apache.geode.internal.cache.control.InternalResourceManager;
 import org.apache.geode.internal.cache.partitioned.InternalPRInfo;
+import org.apache.geode.internal.cache.partitioned.InternalPartitionDetails;
 import org.apache.geode.internal.cache.partitioned.LoadProbe;
+import org.apache.geode.internal.cache.partitioned.OperationRateLoadProbe;
+import org.apache.geode.internal.cache.partitioned.PRLoad;
 import org.apache.geode.internal.logging.LogService;
 
 /**
@@ -64,6 +70,8 @@ import org.apache.geode.internal.logging.LogService;
  * {@link AutoBalancer} can be controlled using the following configurations
  * <OL>
  * <LI>{@link AutoBalancer#SCHEDULE}
+ * <LI>{@link AutoBalancer#LOAD_BASED}
+ * <LI>{@link AutoBalancer#DRY_RUN}
  * <LI>TBD THRESHOLDS
  * 
  */
@@ -119,6 +127,39 @@ public class AutoBalancer implements Declarable {
    */
   public static final int DEFAULT_MINIMUM_SIZE = 100 * 1024 * 1024;
 
+  /**
+   * Use this configuration to balance the rate of operations on the members rather than the bytes
+   * they host. If true, re-balancing uses the {@link OperationRateLoadProbe}, which weighs each
+   * bucket by its read and write rates and each member by its heap and CPU usage, and it is
+   * triggered if the load of the busiest member exceeds the average by
+   * {@link #LOAD_THRESHOLD_PERCENT}. Both buckets and primaries are moved.
+   * <P>
+   * Default value false
+   */
+  public static final String LOAD_BASED = "load-based";
+
+  /**
+   * Use this configuration to manage load based re-balance invocation. Rebalance operation will be
+   * triggered if the load of a member, relative to its weight, is more than this percentage above
+   * the average load of the members hosting the region. Only used if {@link #LOAD_BASED} is true.
+   * <P>
+   * Default value {@link #DEFAULT_LOAD_THRESHOLD_PERCENT}
+   */
+  public static final String LOAD_THRESHOLD_PERCENT = "load-threshold-percent";
+
+  /**
+   * Default value of {@link AutoBalancer#LOAD_THRESHOLD_PERCENT}
+   */
+  public static final int DEFAULT_LOAD_THRESHOLD_PERCENT = 20;
+
+  /**
+   * Use this configuration to audit the cluster without changing it. If true, instead of triggering
+   * re-balancing the auditor simulates it and logs the bucket and primary moves it would make.
+   * <P>
+   * Default value false
+   */
+  public static final String DRY_RUN = "dry-run";
+
   /**
    * Name of the DistributedLockService that {@link AutoBalancer} will use to guard against
    * concurrent maintenance activity
@@ -128,7 +169,8 @@ public class AutoBalancer implements Declarable {
   public static final Object AUTO_BALANCER_LOCK = "__AUTO_B_LOCK";
 
   private final AuditScheduler scheduler;
-  private final OOBAuditor auditor;
+  private OOBAuditor auditor;
+  private final boolean isDefaultAuditor;
   private final TimeProvider clock;
   private final CacheOperationFacade cacheFacade;
 
@@ -142,6 +184,7 @@ public class AutoBalancer implements Declarable {
       CacheOperationFacade cacheFacade) {
     this.cacheFacade = cacheFacade == null ? new GeodeCacheFacade() : cacheFacade;
     this.scheduler = scheduler == null ? new CronScheduler() : scheduler;
+    this.isDefaultAuditor = auditor == null;
     this.auditor = auditor == null ? new SizeBasedOOBAuditor(this.cacheFacade) : auditor;
     this.clock = clock == null ? new SystemClockTimeProvider() : clock;
   }
@@ -152,6 +195,10 @@ public class AutoBalancer implements Declarable {
       logger.debug("Initializing " + this.getClass().getSimpleName() + " with " + props);
     }
 
+    if (isDefaultAuditor && props != null
+        && Boolean.parseBoolean(props.getProperty(LOAD_BASED))) {
+      auditor = new LoadBasedOOBAuditor(cacheFacade);
+    }
     auditor.init(props);
 
     String schedule = null;
@@ -246,6 +293,7 @@ public class AutoBalancer implements Declarable {
   static class SizeBasedOOBAuditor implements OOBAuditor {
     private int sizeThreshold = DEFAULT_SIZE_THRESHOLD_PERCENT;
     private int sizeMinimum = DEFAULT_MINIMUM_SIZE;
+    private boolean dryRun = false;
 
     final CacheOperationFacade cache;
 
@@ -273,6 +321,7 @@ public class AutoBalancer implements Declarable {
             throw new GemFireConfigException(MINIMUM_SIZE + " should be greater than 0");
           }
         }
+        dryRun = Boolean.parseBoolean(props.getProperty(DRY_RUN));
       }
     }
 
@@ -296,6 +345,14 @@ public class AutoBalancer implements Declarable {
         return;
       }
 
+      if (dryRun) {
+        RebalanceResults simulation = cache.simulateRebalance();
+        if (simulation != null) {
+          logger.info(describeSimulation(simulation));
+        }
+        return;
+      }
+
       cache.rebalance();
     }
 
@@ -336,6 +393,115 @@ public class AutoBalancer implements Declarable {
     public long getSizeMinimum() {
       return sizeMinimum;
     }
+
+    boolean isDryRun() {
+      return dryRun;
+    }
+  }
+
+  /**
+   * Audits the cluster like {@link SizeBasedOOBAuditor}, except that the cluster needs
+   * re-balancing if the load of a member measured by the {@link OperationRateLoadProbe} is more
+   * than the threshold percent above the average load of the members hosting the same region.
+   */
+  static class LoadBasedOOBAuditor extends SizeBasedOOBAuditor {
+    private int loadThreshold = DEFAULT_LOAD_THRESHOLD_PERCENT;
+    private boolean isProbeInstalled = false;
+
+    public LoadBasedOOBAuditor(CacheOperationFacade cache) {
+      super(cache);
+    }
+
+    @Override
+    public void init(Properties props) {
+      super.init(props);
+
+      if (props != null && props.getProperty(LOAD_THRESHOLD_PERCENT) != null) {
+        loadThreshold = Integer.valueOf(props.getProperty(LOAD_THRESHOLD_PERCENT));
+        if (loadThreshold <= 0) {
+          throw new GemFireConfigException(LOAD_THRESHOLD_PERCENT + " should be greater than 0");
+        }
+      }
+    }
+
+    @Override
+    boolean needsRebalancing() {
+      if (!isProbeInstalled) {
+        // the probe is used by the audit and by the rebalance operation that follows it, but not
+        // by any other rebalance in this member
+        cache.setLoadProbe(new OperationRateLoadProbe());
+        isProbeInstalled = true;
+      }
+
+      Map<PartitionedRegion, InternalPRInfo> details = cache.getRegionMemberDetails();
+      int imbalance = getLoadImbalancePercent(details);
+      if (logger.isDebugEnabled()) {
+        logger.debug("Busiest member load is {}% above average", imbalance);
+      }
+      return imbalance >= loadThreshold;
+    }
+
+    /**
+     * Returns how far, in percent, the load per weight of the busiest member exceeds the average
+     * load per weight of the members hosting the same region, for the region where this is the
+     * largest.
+     */
+    static int getLoadImbalancePercent(Map<PartitionedRegion, InternalPRInfo> details) {
+      int result = 0;
+      for (InternalPRInfo info : details.values()) {
+        float totalLoad = 0;
+        float totalWeight = 0;
+        float maxLoad = 0;
+        for (InternalPartitionDetails member : info.getInternalPartitionDetails()) {
+          PRLoad load = member.getPRLoad();
+          if (load == null || load.getWeight() <= 0) {
+            continue;
+          }
+          float memberLoad = 0;
+          for (int i = 0; i < info.getConfiguredBucketCount(); i++) {
+            memberLoad += load.getReadLoad(i) + load.getWriteLoad(i);
+          }
+          totalLoad += memberLoad;
+          totalWeight += load.getWeight();
+          maxLoad = Math.max(maxLoad, memberLoad / load.getWeight());
+        }
+        if (totalLoad > 0) {
+          float averageLoad = totalLoad / totalWeight;
+          result = Math.max(result, (int) (100 * (maxLoad - averageLoad) / averageLoad));
+        }
+      }
+      return result;
+    }
+
+    int getLoadThreshold() {
+      return loadThreshold;
+    }
+  }
+
+  /**
+   * Describes the bucket and primary moves of a simulated rebalance, and where the buckets and
+   * primaries of each region would end up.
+   */
+  static String describeSimulation(RebalanceResults result) {
+    StringBuilder sb = new StringBuilder("Rebalance dry run: [TotalBucketCreatesCompleted=");
+    sb.append(result.getTotalBucketCreatesCompleted()).append(", TotalBucketTransferBytes=")
+        .append(result.getTotalBucketTransferBytes()).append(", TotalBucketTransfersCompleted=")
+        .append(result.getTotalBucketTransfersCompleted())
+        .append(", TotalPrimaryTransfersCompleted=")
+        .append(result.getTotalPrimaryTransfersCompleted()).append("]");
+    for (PartitionRebalanceInfo region : result.getPartitionRebalanceDetails()) {
+      sb.append(System.lineSeparator()).append(region.getRegionPath())
+          .append(": [BucketTransfersCompleted=").append(region.getBucketTransfersCompleted())
+          .append(", PrimaryTransfersCompleted=").append(region.getPrimaryTransfersCompleted())
+          .append("]");
+      for (PartitionMemberInfo member : region.getPartitionMemberDetailsAfter()) {
+        sb.append(System.lineSeparator()).append("  ").append(member.getDistributedMember())
+            .append(": [BucketCount=").append(member.getBucketCount()).append(", PrimaryCount=")
+            .append(member.getPrimaryCount()).append(", Size=").append(member.getSize())
+            .append("]");
+      }
+    }
+    return sb.toString();
   }
 
   /**
@@ -346,6 +512,9 @@ public class AutoBalancer implements Declarable {
 
     private GemFireCacheImpl cache;
 
+    /** The probe of the audits and rebalances of this facade, or null to use the cache's */
+    private volatile LoadProbe loadProbe;
+
     public GeodeCacheFacade() {
       this(null);
     }
@@ -359,7 +528,7 @@ public class AutoBalancer implements Declarable {
       GemFireCacheImpl cache = getCache();
       Map<PartitionedRegion, InternalPRInfo> detailsMap = new HashMap<>();
       for (PartitionedRegion region : cache.getPartitionedRegions()) {
-        LoadProbe probe = cache.getResourceManager().getLoadProbe();
+        LoadProbe probe = getLoadProbe(cache);
         InternalPRInfo info =
             region.getRedundancyProvider().buildPartitionedRegionInfo(true, probe);
         detailsMap.put(region, info);
@@ -389,8 +558,7 @@ public class AutoBalancer implements Declarable {
     @Override
     public long getTotalTransferSize() {
       try {
-        RebalanceOperation operation =
-            getCache().getResourceManager().createRebalanceFactory().simulate();
+        RebalanceOperation operation = createRebalanceFactory().simulate();
         RebalanceResults result = operation.getResults();
         if (logger.isDebugEnabled()) {
           logger.debug("Rebalance estimate: RebalanceResultsImpl [TotalBucketCreateBytes="
@@ -409,6 +577,36 @@ public class AutoBalancer implements Declarable {
       return 0;
     }
 
+    @Override
+    public RebalanceResults simulateRebalance() {
+      try {
+        RebalanceOperation operation = createRebalanceFactory().simulate();
+        return operation.getResults();
+      } catch (CancellationException e) {
+        logger.info("Error while trying to simulate rebalance ", e);
+      } catch (InterruptedException e) {
+        logger.info("Error while trying to simulate rebalance ", e);
+      }
+      return null;
+    }
+
+    @Override
+    public void setLoadProbe(LoadProbe probe) {
+      this.loadProbe = probe;
+    }
+
+    private LoadProbe getLoadProbe(GemFireCacheImpl cache) {
+      LoadProbe probe = this.loadProbe;
+      return probe != null ? probe : cache.getResourceManager().getLoadProbe();
+    }
+
+    private RebalanceFactory createRebalanceFactory() {
+      InternalResourceManager manager = getCache().getResourceManager();
+      LoadProbe probe = this.loadProbe;
+      return probe != null ? manager.createRebalanceFactory(probe)
+          : manager.createRebalanceFactory();
+    }
+
     @Override
     public void incrementAttemptCounter() {
       GemFireCacheImpl cache = getCache();
@@ -422,8 +620,7 @@ public class AutoBalancer implements Declarable {
     @Override
     public void rebalance() {
       try {
-        RebalanceOperation operation =
-            getCache().getResourceManager().createRebalanceFactory().start();
+        RebalanceOperation operation = createRebalanceFactory().start();
         RebalanceResults result = operation.getResults();
         logger
             .info("Rebalance result: [TotalBucketCreateBytes=" + result.getTotalBucketCreateBytes()
@@ -538,6 +735,17 @@ public class AutoBalancer implements Declarable {
     long getTotalDataSize(Map<PartitionedRegion, InternalPRInfo> details);
 
     long getTotalTransferSize();
+
+    /**
+     * Returns the results of a simulated rebalance, or null if it fails
+     */
+    RebalanceResults simulateRebalance();
+
+    /**
+     * Sets the probe used by the audits and rebalances of this facade, instead of the probe of the
+     * cache's resource manager. Other rebalances in this member are not affected.
+     */
+    void setLoadProbe(LoadProbe probe);
   }
 
   OOBAuditor getOOBAuditor() {
@@ -47,6 +47,7 @@ import org.apache.geode.cache.partition.PartitionMemberInfo;
 import org.apache.geode.cache.util.AutoBalancer.AuditScheduler;
 import org.apache.geode.cache.util.AutoBalancer.CacheOperationFacade;
 import org.apache.geode.cache.util.AutoBalancer.GeodeCacheFacade;
+import org.apache.geode.cache.util.AutoBalancer.LoadBasedOOBAuditor;
 import org.apache.geode.cache.util.AutoBalancer.OOBAuditor;
 import org.apache.geode.cache.util.AutoBalancer.SizeBasedOOBAuditor;
 import org.apache.geode.cache.util.AutoBalancer.TimeProvider;
@@ -55,7 +56,10 @@ import org.apache.geode.internal.cache.PRHARedundancyProvider;
 import org.apache.geode.internal.cache.PartitionedRegion;
 import org.apache.geode.internal.cache.control.InternalResourceManager;
 import org.apache.geode.internal.cache.partitioned.InternalPRInfo;
+import org.apache.geode.internal.cache.partitioned.InternalPartitionDetails;
 import org.apache.geode.internal.cache.partitioned.LoadProbe;
+import org.apache.geode.internal.cache.partitioned.OperationRateLoadProbe;
+import org.apache.geode.internal.cache.partitioned.PRLoad;
 import org.apache.geode.test.junit.categories.IntegrationTest;
 
 /**
@@ -260,6 +264,153 @@ public class AutoBalancerJUnitTest {
     assertTrue(auditor.needsRebalancing());
   }
 
+  @Test
+  public void testLoadBasedAuditorInit() {
+    AutoBalancer balancer = new AutoBalancer(null, null, null, mockCacheFacade);
+    Properties props = getBasicConfig();
+    props.put(AutoBalancer.LOAD_BASED, "true");
+    props.put(AutoBalancer.LOAD_THRESHOLD_PERCENT, "35");
+    props.put(AutoBalancer.DRY_RUN, "true");
+    balancer.init(props);
+    LoadBasedOOBAuditor auditor = (LoadBasedOOBAuditor) balancer.getOOBAuditor();
+    assertEquals(35, auditor.getLoadThreshold());
+    assertTrue(auditor.isDryRun());
+
+    balancer = new AutoBalancer(null, null, null, mockCacheFacade);
+    balancer.init(getBasicConfig());
+    assertFalse(balancer.getOOBAuditor() instanceof LoadBasedOOBAuditor);
+    assertFalse(((SizeBasedOOBAuditor) balancer.getOOBAuditor()).isDryRun());
+  }
+
+  @Test(expected = GemFireConfigException.class)
+  public void testConfigLoadThresholdZero() {
+    AutoBalancer balancer = new AutoBalancer();
+    Properties props = getBasicConfig();
+    props.put(AutoBalancer.LOAD_BASED, "true");
+    props.put(AutoBalancer.LOAD_THRESHOLD_PERCENT, "0");
+    balancer.init(props);
+  }
+
+  @Test
+  public void testLoadImbalancePercent() {
+    final InternalPRInfo mockInfo = mockContext.mock(InternalPRInfo.class);
+    final InternalPartitionDetails mockMember1 =
+        mockContext.mock(InternalPartitionDetails.class, "member1");
+    final InternalPartitionDetails mockMember2 =
+        mockContext.mock(InternalPartitionDetails.class, "member2");
+    final HashSet<InternalPartitionDetails> members = new HashSet<>();
+    members.add(mockMember1);
+    members.add(mockMember2);
+
+    // member1 hosts both buckets and both primaries, member2 has twice the weight and is idle
+    final PRLoad load1 = new PRLoad(2, 100);
+    load1.addBucket(0, 10, 20);
+    load1.addBucket(1, 10, 20);
+    final PRLoad load2 = new PRLoad(2, 200);
+
+    mockContext.checking(new Expectations() {
+      {
+        allowing(mockInfo).getInternalPartitionDetails();
+        will(returnValue(members));
+        allowing(mockInfo).getConfiguredBucketCount();
+        will(returnValue(2));
+        allowing(mockMember1).getPRLoad();
+        will(returnValue(load1));
+        allowing(mockMember2).getPRLoad();
+        will(returnValue(load2));
+      }
+    });
+
+    Map<PartitionedRegion, InternalPRInfo> details = new HashMap<>();
+    details.put(mockContext.mock(PartitionedRegion.class), mockInfo);
+
+    // load per weight is 60/100 for member1, against an average of 60/300
+    assertEquals(200, LoadBasedOOBAuditor.getLoadImbalancePercent(details));
+    assertEquals(0, LoadBasedOOBAuditor
+        .getLoadImbalancePercent(new HashMap<PartitionedRegion, InternalPRInfo>()));
+  }
+
+  @Test
+  public void testLoadBasedOOBInstallsProbeAndRebalances() {
+    final InternalPRInfo mockInfo = mockContext.mock(InternalPRInfo.class);
+    final InternalPartitionDetails mockMember =
+        mockContext.mock(InternalPartitionDetails.class, "member1");
+    final InternalPartitionDetails mockIdleMember =
+        mockContext.mock(InternalPartitionDetails.class, "member2");
+    final HashSet<InternalPartitionDetails> members = new HashSet<>();
+    members.add(mockMember);
+    members.add(mockIdleMember);
+    final PRLoad load = new PRLoad(1, 100);
+    load.addBucket(0, 10, 10);
+
+    final Map<PartitionedRegion, InternalPRInfo> details = new HashMap<>();
+    details.put(mockContext.mock(PartitionedRegion.class), mockInfo);
+
+    mockContext.checking(new Expectations() {
+      {
+        oneOf(mockCacheFacade).acquireAutoBalanceLock();
+        will(returnValue(true));
+        oneOf(mockCacheFacade).incrementAttemptCounter();
+        oneOf(mockCacheFacade).setLoadProbe(with(any(OperationRateLoadProbe.class)));
+        oneOf(mockCacheFacade).getRegionMemberDetails();
+        will(returnValue(details));
+        allowing(mockInfo).getInternalPartitionDetails();
+        will(returnValue(members));
+        allowing(mockInfo).getConfiguredBucketCount();
+        will(returnValue(1));
+        allowing(mockMember).getPRLoad();
+        will(returnValue(load));
+        allowing(mockIdleMember).getPRLoad();
+        will(returnValue(new PRLoad(1, 100)));
+        oneOf(mockCacheFacade).rebalance();
+      }
+    });
+
+    AutoBalancer balancer = new AutoBalancer(null, null, null, mockCacheFacade);
+    Properties props = getBasicConfig();
+    props.put(AutoBalancer.LOAD_BASED, "true");
+    balancer.init(props);
+    balancer.getOOBAuditor().execute();
+  }
+
+  @Test
+  public void testDryRunSimulatesInsteadOfRebalancing() {
+    final RebalanceResults mockResults = mockContext.mock(RebalanceResults.class);
+    mockContext.checking(new Expectations() {
+      {
+        oneOf(mockCacheFacade).acquireAutoBalanceLock();
+        will(returnValue(true));
+        oneOf(mockCacheFacade).incrementAttemptCounter();
+        allowing(mockCacheFacade).getRegionMemberDetails();
+        will(returnValue(new HashMap<PartitionedRegion, InternalPRInfo>()));
+        oneOf(mockCacheFacade).getTotalDataSize(with(any(Map.class)));
+        will(returnValue(1000L));
+        oneOf(mockCacheFacade).getTotalTransferSize();
+        will(returnValue(1000L));
+        oneOf(mockCacheFacade).simulateRebalance();
+        will(returnValue(mockResults));
+        allowing(mockResults).getTotalBucketCreatesCompleted();
+        will(returnValue(0));
+        allowing(mockResults).getTotalBucketTransferBytes();
+        will(returnValue(1000L));
+        allowing(mockResults).getTotalBucketTransfersCompleted();
+        will(returnValue(2));
+        allowing(mockResults).getTotalPrimaryTransfersCompleted();
+        will(returnValue(1));
+        allowing(mockResults).getPartitionRebalanceDetails();
+        will(returnValue(new HashSet<>()));
+        never(mockCacheFacade).rebalance();
+      }
+    });
+
+    AutoBalancer balancer = new AutoBalancer(null, null, null, mockCacheFacade);
+    Properties props = getBasicConfig();
+    props.put(AutoBalancer.MINIMUM_SIZE, "10");
+    props.put(AutoBalancer.DRY_RUN, "true");
+    balancer.init(props);
+    balancer.getOOBAuditor().execute();
+  }
+
   @Test(expected = GemFireConfigException.class)
   public void testInvalidSchedule() {
     String someSchedule = "X Y * * * *";
@@ -362,6 +513,37 @@ public class AutoBalancerJUnitTest {
     getFacadeForResourceManagerOps(false).rebalance();
   }
 
+  @Test
+  public void testFacadeLoadProbeIsNotInstalledInResourceManager() throws Exception {
+    final GemFireCacheImpl mockCache = mockContext.mock(GemFireCacheImpl.class);
+    final InternalResourceManager mockRM = mockContext.mock(InternalResourceManager.class);
+    final RebalanceFactory mockRebalanceFactory = mockContext.mock(RebalanceFactory.class);
+    final RebalanceOperation mockRebalanceOperation = mockContext.mock(RebalanceOperation.class);
+    final RebalanceResults mockRebalanceResults = mockContext.mock(RebalanceResults.class);
+    final LoadProbe probe = new OperationRateLoadProbe();
+
+    mockContext.checking(new Expectations() {
+      {
+        oneOf(mockCache).isClosed();
+        will(returnValue(false));
+        oneOf(mockCache).getResourceManager();
+        will(returnValue(mockRM));
+        never(mockRM).setLoadProbe(with(any(LoadProbe.class)));
+        oneOf(mockRM).createRebalanceFactory(probe);
+        will(returnValue(mockRebalanceFactory));
+        oneOf(mockRebalanceFactory).start();
+        will(returnValue(mockRebalanceOperation));
+        oneOf(mockRebalanceOperation).getResults();
+        will(returnValue(mockRebalanceResults));
+        allowing(mockRebalanceResults);
+      }
+    });
+
+    GeodeCacheFacade facade = new GeodeCacheFacade(mockCache);
+    facade.setLoadProbe(probe);
+    facade.rebalance();
+  }
+
   private GeodeCacheFacade getFacadeForResourceManagerOps(final boolean simulate) throws Exception {
     final GemFireCacheImpl mockCache = mockContext.mock(GemFireCacheImpl.class);
     final InternalResourceManager mockRM = mockContext.mock(InternalResourceManager.class);